@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.bis5.mattermost.model.CompactPostList.CompactPostListDeserializer;
+import net.bis5.mattermost.model.CompactPostList.CompactPostListSerializer;
+import net.bis5.mattermost.model.serialize.IdInterner;
+
+/**
+ * Memory compact alternative of {@link PostList} for long lived post caches.
+ *
+ * <p>
+ * The posts are held in an array and the display order is an array of indexes into it, instead
+ * of a list of post ids and a map keyed by them. While decoding, the channel, user, root, parent
+ * and original ids of the posts are deduplicated with {@link IdInterner#shared()}, so the posts
+ * of the same channel and authors share the id strings. The JSON form is the same as
+ * {@link PostList}. Ids in the order without the corresponding post are dropped.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+@JsonSerialize(using = CompactPostListSerializer.class)
+@JsonDeserialize(using = CompactPostListDeserializer.class)
+public final class CompactPostList {
+
+  private static final Post[] NO_POSTS = new Post[0];
+  private static final int[] NO_ORDER = new int[0];
+
+  private final Post[] posts;
+  private final int[] order;
+  private final String nextPostId;
+  private final String prevPostId;
+
+  /**
+   * Create new list.
+   *
+   * @param posts the posts
+   * @param order the indexes of {@code posts} in display order
+   */
+  public CompactPostList(Post[] posts, int[] order, String nextPostId, String prevPostId) {
+    for (int index : order) {
+      if (index < 0 || index >= posts.length) {
+        throw new IllegalArgumentException("order index out of bounds: " + index);
+      }
+    }
+    this.posts = posts;
+    this.order = order;
+    this.nextPostId = nextPostId;
+    this.prevPostId = prevPostId;
+  }
+
+  public CompactPostList() {
+    this(NO_POSTS, NO_ORDER, null, null);
+  }
+
+  /**
+   * Convert the {@link PostList}, deduplicating the ids.
+   */
+  public static CompactPostList of(PostList postList) {
+    List<String> orderIds =
+        postList.getOrder() == null ? Collections.emptyList() : postList.getOrder();
+    List<Post> posts = postList.getPosts() == null ? Collections.emptyList()
+        : new ArrayList<>(postList.getPosts().values());
+    return build(posts, orderIds, postList.getNextPostId(), postList.getPrevPostId());
+  }
+
+  private static CompactPostList build(List<Post> postList, List<String> orderIds,
+      String nextPostId, String prevPostId) {
+    IdInterner interner = IdInterner.shared();
+    Post[] posts = postList.toArray(NO_POSTS);
+    Map<String, Integer> indexes = new HashMap<>(posts.length * 2);
+    for (int i = 0; i < posts.length; i++) {
+      Post post = posts[i];
+      post.setChannelId(interner.intern(post.getChannelId()));
+      post.setUserId(interner.intern(post.getUserId()));
+      post.setRootId(interner.intern(post.getRootId()));
+      post.setParentId(interner.intern(post.getParentId()));
+      post.setOriginalId(interner.intern(post.getOriginalId()));
+      indexes.put(post.getId(), i);
+    }
+    int[] order = new int[orderIds.size()];
+    int length = 0;
+    for (String id : orderIds) {
+      Integer index = indexes.get(id);
+      if (index != null) {
+        order[length++] = index;
+      }
+    }
+    return new CompactPostList(posts, length == order.length ? order : Arrays.copyOf(order, length),
+        nextPostId, prevPostId);
+  }
+
+  /**
+   * Convert to the {@link PostList}.
+   */
+  public PostList toPostList() {
+    PostList postList = new PostList();
+    postList.setOrder(new ArrayList<>(getOrder()));
+    Map<String, Post> postMap = new LinkedHashMap<>(posts.length * 2);
+    for (Post post : posts) {
+      postMap.put(post.getId(), post);
+    }
+    postList.setPosts(postMap);
+    postList.setNextPostId(nextPostId);
+    postList.setPrevPostId(prevPostId);
+    return postList;
+  }
+
+  /**
+   * The number of posts, including the posts not in the display order.
+   */
+  public int size() {
+    return posts.length;
+  }
+
+  /**
+   * The post at the {@code position} of the display order.
+   */
+  public Post get(int position) {
+    return posts[order[position]];
+  }
+
+  /**
+   * Find the post by id. Returns {@code null} if not found.
+   */
+  public Post getPost(String postId) {
+    for (Post post : posts) {
+      if (post.getId() != null && post.getId().equals(postId)) {
+        return post;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * All posts, including the posts not in the display order.
+   */
+  public List<Post> getPosts() {
+    return Collections.unmodifiableList(Arrays.asList(posts));
+  }
+
+  /**
+   * The posts in display order.
+   */
+  public List<Post> getOrderedPosts() {
+    return new AbstractList<Post>() {
+      @Override
+      public Post get(int index) {
+        return CompactPostList.this.get(index);
+      }
+
+      @Override
+      public int size() {
+        return order.length;
+      }
+    };
+  }
+
+  /**
+   * The post ids in display order.
+   */
+  public List<String> getOrder() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return CompactPostList.this.get(index).getId();
+      }
+
+      @Override
+      public int size() {
+        return order.length;
+      }
+    };
+  }
+
+  public String getNextPostId() {
+    return nextPostId;
+  }
+
+  public String getPrevPostId() {
+    return prevPostId;
+  }
+
+  static class CompactPostListSerializer extends JsonSerializer<CompactPostList> {
+
+    @Override
+    public void serialize(CompactPostList value, JsonGenerator gen,
+        SerializerProvider serializers) throws IOException {
+      gen.writeStartObject();
+      gen.writeArrayFieldStart("order");
+      for (int index : value.order) {
+        gen.writeString(value.posts[index].getId());
+      }
+      gen.writeEndArray();
+      gen.writeObjectFieldStart("posts");
+      for (Post post : value.posts) {
+        gen.writeFieldName(post.getId());
+        serializers.defaultSerializeValue(post, gen);
+      }
+      gen.writeEndObject();
+      if (value.nextPostId != null && !value.nextPostId.isEmpty()) {
+        gen.writeStringField("next_post_id", value.nextPostId);
+      }
+      if (value.prevPostId != null && !value.prevPostId.isEmpty()) {
+        gen.writeStringField("prev_post_id", value.prevPostId);
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  static class CompactPostListDeserializer extends JsonDeserializer<CompactPostList> {
+
+    @Override
+    public CompactPostList deserialize(JsonParser p, DeserializationContext ctxt)
+        throws IOException {
+      List<String> orderIds = new ArrayList<>();
+      List<Post> posts = new ArrayList<>();
+      String nextPostId = null;
+      String prevPostId = null;
+      if (p.currentToken() != JsonToken.START_OBJECT) {
+        return (CompactPostList) ctxt.handleUnexpectedToken(CompactPostList.class, p);
+      }
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        String field = p.getCurrentName();
+        JsonToken value = p.nextToken();
+        if ("order".equalsIgnoreCase(field) && value == JsonToken.START_ARRAY) {
+          while (p.nextToken() != JsonToken.END_ARRAY) {
+            orderIds.add(p.getValueAsString());
+          }
+        } else if ("posts".equalsIgnoreCase(field) && value == JsonToken.START_OBJECT) {
+          while (p.nextToken() == JsonToken.FIELD_NAME) {
+            p.nextToken();
+            posts.add(ctxt.readValue(p, Post.class));
+          }
+        } else if ("next_post_id".equalsIgnoreCase(field)) {
+          nextPostId = p.getValueAsString();
+        } else if ("prev_post_id".equalsIgnoreCase(field)) {
+          prevPostId = p.getValueAsString();
+        } else {
+          p.skipChildren();
+        }
+      }
+      return build(posts, orderIds, nextPostId, prevPostId);
+    }
+  }
+}
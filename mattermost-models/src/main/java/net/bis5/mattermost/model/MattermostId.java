@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import net.bis5.mattermost.model.MattermostId.MattermostIdDeserializer;
+import net.bis5.mattermost.model.MattermostId.MattermostIdSerializer;
+
+/**
+ * Mattermost entity id packed into two {@code long}s.
+ *
+ * <p>
+ * Mattermost ids are 128 bit random values encoded to 26 characters with the base32 alphabet
+ * {@value #ALPHABET}. This type holds the 128 bits, so it is compared and hashed without touching
+ * the characters. It is (de)serialized as the id string, and decoded from the parser buffer
+ * without creating the string. Use {@link #isValid(CharSequence)} to check strings that may not
+ * be generated ids.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+@JsonSerialize(using = MattermostIdSerializer.class)
+@JsonDeserialize(using = MattermostIdDeserializer.class)
+public final class MattermostId implements Comparable<MattermostId>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  static final String ALPHABET = "ybndrfg8ejkmcpqxot1uwisza345h769";
+  /** The length of the encoded id. */
+  public static final int LENGTH = 26;
+
+  private static final char[] ENCODE = ALPHABET.toCharArray();
+  private static final byte[] DECODE = new byte[128];
+
+  static {
+    Arrays.fill(DECODE, (byte) -1);
+    for (int i = 0; i < ENCODE.length; i++) {
+      DECODE[ENCODE[i]] = (byte) i;
+    }
+  }
+
+  private final long mostSignificantBits;
+  private final long leastSignificantBits;
+
+  public MattermostId(long mostSignificantBits, long leastSignificantBits) {
+    this.mostSignificantBits = mostSignificantBits;
+    this.leastSignificantBits = leastSignificantBits;
+  }
+
+  /**
+   * Decode the id string.
+   *
+   * @throws IllegalArgumentException if the id is not a Mattermost id
+   */
+  public static MattermostId fromString(String id) {
+    MattermostId decoded = decode(id, 0, id == null ? 0 : id.length());
+    if (decoded == null) {
+      throw new IllegalArgumentException("Not a Mattermost id: " + id);
+    }
+    return decoded;
+  }
+
+  /**
+   * Decode the id string. Returns {@code null} if the id is not a Mattermost id.
+   */
+  public static MattermostId tryParse(CharSequence id) {
+    return id == null ? null : decode(id, 0, id.length());
+  }
+
+  /**
+   * Check the string is an encoded Mattermost id.
+   */
+  public static boolean isValid(CharSequence id) {
+    return tryParse(id) != null;
+  }
+
+  private static MattermostId decode(CharSequence chars, int offset, int length) {
+    if (chars == null || length != LENGTH) {
+      return null;
+    }
+    long high = 0;
+    long low = 0;
+    for (int i = 0; i < LENGTH; i++) {
+      int value = decodeChar(chars.charAt(offset + i));
+      if (value < 0) {
+        return null;
+      }
+      if (i < 12) {
+        high = high << 5 | value;
+      } else if (i == 12) {
+        high = high << 4 | value >>> 1;
+        low = value & 1;
+      } else if (i < LENGTH - 1) {
+        low = low << 5 | value;
+      } else {
+        if ((value & 3) != 0) {
+          // padding bits must be zero
+          return null;
+        }
+        low = low << 3 | value >>> 2;
+      }
+    }
+    return new MattermostId(high, low);
+  }
+
+  private static int decodeChar(char c) {
+    return c < DECODE.length ? DECODE[c] : -1;
+  }
+
+  /**
+   * Encode to the 26 characters of the id string.
+   */
+  public char[] toChars() {
+    char[] chars = new char[LENGTH];
+    long high = mostSignificantBits;
+    long low = leastSignificantBits;
+    for (int i = 0; i < 12; i++) {
+      chars[i] = ENCODE[(int) (high >>> (59 - 5 * i)) & 31];
+    }
+    chars[12] = ENCODE[(int) ((high & 15) << 1 | low >>> 63)];
+    for (int i = 13; i < LENGTH - 1; i++) {
+      chars[i] = ENCODE[(int) (low >>> (123 - 5 * i)) & 31];
+    }
+    chars[LENGTH - 1] = ENCODE[(int) (low & 7) << 2];
+    return chars;
+  }
+
+  public long getMostSignificantBits() {
+    return mostSignificantBits;
+  }
+
+  public long getLeastSignificantBits() {
+    return leastSignificantBits;
+  }
+
+  @Override
+  public String toString() {
+    return new String(toChars());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MattermostId)) {
+      return false;
+    }
+    MattermostId other = (MattermostId) obj;
+    return mostSignificantBits == other.mostSignificantBits
+        && leastSignificantBits == other.leastSignificantBits;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash(mostSignificantBits, leastSignificantBits);
+  }
+
+  /**
+   * Hash of the id bits, same as {@link #hashCode()}.
+   */
+  public static int hash(long mostSignificantBits, long leastSignificantBits) {
+    // the bits are random, only fold them
+    long bits = mostSignificantBits ^ leastSignificantBits;
+    return (int) (bits ^ bits >>> 32);
+  }
+
+  /**
+   * Compare as unsigned 128 bit values. This is not the order of the id strings.
+   */
+  @Override
+  public int compareTo(MattermostId other) {
+    int result = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+    if (result != 0) {
+      return result;
+    }
+    return Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+  }
+
+  static class MattermostIdSerializer extends JsonSerializer<MattermostId> {
+
+    @Override
+    public void serialize(MattermostId value, JsonGenerator gen, SerializerProvider serializers)
+        throws IOException {
+      gen.writeString(value.toChars(), 0, LENGTH);
+    }
+  }
+
+  static class MattermostIdDeserializer extends JsonDeserializer<MattermostId> {
+
+    @Override
+    public MattermostId deserialize(JsonParser p, DeserializationContext ctxt)
+        throws IOException {
+      if (p.currentToken() != JsonToken.VALUE_STRING) {
+        return (MattermostId) ctxt.handleUnexpectedToken(MattermostId.class, p);
+      }
+      if (p.getTextLength() == 0) {
+        return null;
+      }
+      MattermostId id = decode(
+          new CharArraySequence(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()), 0,
+          p.getTextLength());
+      if (id == null) {
+        return (MattermostId) ctxt.handleWeirdStringValue(MattermostId.class, p.getText(),
+            "not a Mattermost id");
+      }
+      return id;
+    }
+  }
+
+  private static class CharArraySequence implements CharSequence {
+    private final char[] chars;
+    private final int offset;
+    private final int length;
+
+    CharArraySequence(char[] chars, int offset, int length) {
+      this.chars = chars;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return chars[offset + index];
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new String(chars, offset + start, end - start);
+    }
+  }
+}
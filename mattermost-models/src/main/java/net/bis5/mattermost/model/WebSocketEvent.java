@@ -15,8 +15,10 @@
 package net.bis5.mattermost.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.util.Map;
 import lombok.Data;
+import net.bis5.mattermost.model.serialize.JsonTextDeserializer;
 
 /**
  * Websocket event payload.
@@ -28,7 +30,9 @@ public class WebSocketEvent {
 
   @JsonProperty("event")
   private WebSocketEventType event;
+  /* nested objects such as the user of user_updated are kept as JSON text */
   @JsonProperty("data")
+  @JsonDeserialize(contentUsing = JsonTextDeserializer.class)
   private Map<String, String> data;
   @JsonProperty("broadcast")
   private WebsocketBroadcast broadcast;
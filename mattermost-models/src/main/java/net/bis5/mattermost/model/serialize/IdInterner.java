@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model.serialize;
+
+/**
+ * Deduplicate id strings repeated across many decoded entities, e.g. the channel id and user id of
+ * posts in the same channel.
+ *
+ * <p>
+ * The interner is a fixed size table indexed by the hash of the string. A colliding string
+ * replaces the previous one, so memory usage is bounded and no string is retained by the table
+ * longer than needed. Strings that are not found are returned as is. Thread safe without locks,
+ * because strings are immutable and racing writes only lose a cache entry.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class IdInterner {
+
+  private static final IdInterner SHARED = new IdInterner(8192);
+
+  private final String[] table;
+  private final int mask;
+
+  /**
+   * Create new interner.
+   *
+   * @param capacity the number of slots, rounded up to a power of two
+   */
+  public IdInterner(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.table = new String[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * The interner shared by the compact model deserializers.
+   */
+  public static IdInterner shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the canonical instance equal to the value.
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    if (value.isEmpty()) {
+      return "";
+    }
+    int hash = value.hashCode();
+    int index = (hash ^ (hash >>> 16)) & mask;
+    String cached = table[index];
+    if (value.equals(cached)) {
+      return cached;
+    }
+    table[index] = value;
+    return value;
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model.serialize;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+
+/**
+ * Deserialize any JSON value to {@link String}. Objects and arrays are kept as their JSON text, so
+ * that a {@code Map<String, String>} can hold payloads with nested objects.
+ *
+ * @author Takayuki Maruyama
+ */
+public class JsonTextDeserializer extends JsonDeserializer<String> {
+
+  @Override
+  public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+      return p.readValueAsTree().toString();
+    }
+    return p.getValueAsString();
+  }
+
+}
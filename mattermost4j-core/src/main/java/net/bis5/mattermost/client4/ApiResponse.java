@@ -105,6 +105,22 @@ public abstract class ApiResponse<T> {
     return new SimpleResponse<>(response, data);
   }
 
+  /**
+   * Create an api response for the data served from a client side cache. The {@code response} may
+   * be a synthetic one or {@code 304 Not Modified}, so it is never treated as an error.
+   */
+  public static <T> ApiResponse<T> ofCached(Response response, T data) {
+    return new NoErrorResponse<>(response, data);
+  }
+
+  /**
+   * Create an api response for the data decoded while reading the body of a successful
+   * {@code response}. The body is not buffered, so it is never treated as an error.
+   */
+  public static <T> ApiResponse<T> ofStreaming(Response response, T data) {
+    return new NoErrorResponse<>(response, data);
+  }
+
   private static class EntityResponse<T> extends ApiResponse<T> {
     private final Class<T> entityClass;
 
@@ -147,4 +163,16 @@ public abstract class ApiResponse<T> {
     }
   }
 
+  private static class NoErrorResponse<T> extends SimpleResponse<T> {
+
+    public NoErrorResponse(Response response, T data) {
+      super(response, data);
+    }
+
+    @Override
+    public boolean hasError() {
+      return false;
+    }
+  }
+
 }
@@ -14,28 +14,41 @@
 
 package net.bis5.mattermost.client4;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -64,6 +77,11 @@ import net.bis5.mattermost.client4.api.SystemApi;
 import net.bis5.mattermost.client4.api.TeamApi;
 import net.bis5.mattermost.client4.api.UserApi;
 import net.bis5.mattermost.client4.api.WebhookApi;
+import net.bis5.mattermost.client4.cache.ImageCache;
+import net.bis5.mattermost.client4.cache.ImageCache.CachedImage;
+import net.bis5.mattermost.client4.instrument.ClientInstrumentation;
+import net.bis5.mattermost.client4.instrument.RouteTemplates;
+import net.bis5.mattermost.client4.jfr.FlightRecorderEvents;
 import net.bis5.mattermost.client4.model.AddChannelMemberRequest;
 import net.bis5.mattermost.client4.model.AnalyticsCategory;
 import net.bis5.mattermost.client4.model.AttachDeviceIdRequest;
@@ -91,7 +109,15 @@ import net.bis5.mattermost.client4.model.UpdateUserPasswordRequest;
 import net.bis5.mattermost.client4.model.UserAccessTokenCreateRequest;
 import net.bis5.mattermost.client4.model.UsersOrder;
 import net.bis5.mattermost.client4.model.VerifyUserEmailRequest;
+import net.bis5.mattermost.client4.stream.CompliancePostReader;
+import net.bis5.mattermost.client4.stream.EntityStream;
+import net.bis5.mattermost.client4.stream.JsonArrayStream;
+import net.bis5.mattermost.client4.stream.PostStream;
+import net.bis5.mattermost.jersey.provider.FlightRecorderFilter;
+import net.bis5.mattermost.jersey.provider.InstrumentationFilter;
 import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.jersey.provider.PayloadLoggingFilter;
+import net.bis5.mattermost.jersey.provider.RequestCompressionInterceptor;
 import net.bis5.mattermost.model.AnalyticsRows;
 import net.bis5.mattermost.model.Audits;
 import net.bis5.mattermost.model.AuthorizeRequest;
@@ -113,6 +139,7 @@ import net.bis5.mattermost.model.Command;
 import net.bis5.mattermost.model.CommandArgs;
 import net.bis5.mattermost.model.CommandList;
 import net.bis5.mattermost.model.CommandResponse;
+import net.bis5.mattermost.model.CompactPostList;
 import net.bis5.mattermost.model.Compliance;
 import net.bis5.mattermost.model.Compliances;
 import net.bis5.mattermost.model.Config;
@@ -163,14 +190,17 @@ import net.bis5.mattermost.model.license.MfaSecret;
 import net.bis5.opengraph.models.OpenGraph;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.filter.EncodingFeature;
 import org.glassfish.jersey.jackson.JacksonFeature;
-import org.glassfish.jersey.logging.LoggingFeature;
-import org.glassfish.jersey.logging.LoggingFeature.Verbosity;
 import org.glassfish.jersey.media.multipart.ContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
 import org.glassfish.jersey.media.multipart.MultiPart;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.media.multipart.file.FileDataBodyPart;
+import org.glassfish.jersey.media.multipart.file.StreamDataBodyPart;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 
 /**
  * Mattermost API Version4 Client default implementation.
@@ -184,13 +214,29 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
     PreferencesApi, ReactionApi, SamlApi, StatusApi, TeamApi, UserApi, WebhookApi {
 
   protected static final String API_URL_SUFFIX = "/api/v4";
+  /**
+   * The priority of the filters counting the request body on the wire: the writer interceptors
+   * run in the ascending order, so they see the body compressed at
+   * {@link Priorities#ENTITY_CODER}.
+   */
+  private static final int COUNTING_PRIORITY = Priorities.ENTITY_CODER - 100;
   private final String url;
   private final String apiUrl;
   private final Level clientLogLevel;
   private final boolean ignoreUnknownProperties;
+  private final boolean acceleratedMapper;
+  private final boolean acceptEncoding;
+  private final int requestCompressionThreshold;
+  private final MattermostModelMapperProvider mapperProvider;
   private final Client httpClient;
-  private String authToken;
-  private AuthType authType;
+  private final WebTarget baseTarget;
+  private final ImageCache imageCache;
+  private final ClientInstrumentation instrumentation;
+  private final PayloadLoggingFilter payloadLogging;
+  /** {@code true} for the identity views, which do not own the HTTP client. */
+  private final boolean identityView;
+  /** The {@code Authorization} header value, read once for each request. */
+  private volatile String authority;
 
   public static MattermostClientBuilder builder() {
     return new MattermostClientBuilder();
@@ -198,14 +244,33 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   protected Client buildClient(Consumer<ClientBuilder> httpClientConfig) {
     ClientBuilder builder = ClientBuilder.newBuilder()
-        .register(new MattermostModelMapperProvider(ignoreUnknownProperties))
+        .register(mapperProvider)
         .register(JacksonFeature.class).register(MultiPartFeature.class)
         // needs for PUT request with null entity
         // (/commands/{command_id}/regen_token)
         .property(ClientProperties.SUPPRESS_HTTP_COMPLIANCE_VALIDATION, true);
-    if (clientLogLevel != null) {
-      builder.register(new LoggingFeature(Logger.getLogger(getClass().getName()), clientLogLevel,
-          Verbosity.PAYLOAD_ANY, 100000));
+    if (payloadLogging != null) {
+      builder.register(payloadLogging, Priorities.USER);
+    } else if (clientLogLevel != null) {
+      builder.register(PayloadLoggingFilter.builder()
+          .logger(Logger.getLogger(getClass().getName()))
+          .level(clientLogLevel)
+          .maxEntitySize(100000)
+          .build(), Priorities.USER);
+    }
+    if (acceptEncoding) {
+      builder.register(new EncodingFeature(GZipEncoder.class, DeflateEncoder.class));
+    }
+    if (requestCompressionThreshold >= 0) {
+      builder.register(new RequestCompressionInterceptor(requestCompressionThreshold),
+          Priorities.ENTITY_CODER);
+    }
+    if (instrumentation != null) {
+      // runs before the compression, so counts the compressed body written under it
+      builder.register(new InstrumentationFilter(instrumentation), COUNTING_PRIORITY);
+    }
+    if (FlightRecorderEvents.AVAILABLE) {
+      builder.register(new FlightRecorderFilter(), COUNTING_PRIORITY);
     }
 
     httpClientConfig.accept(builder);
@@ -220,7 +285,18 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
     private boolean ignoreUnknownProperties;
     private Consumer<ClientBuilder> httpClientConfig = clientBuilder -> {
     };
-
+    private ImageCache imageCache;
+    private boolean acceleratedMapper;
+    private boolean acceptEncoding;
+    private int requestCompressionThreshold = -1;
+    private ClientInstrumentation instrumentation;
+    private PayloadLoggingFilter payloadLogging;
+
+    /**
+     * Log all requests and responses with the bodies up to 100,000 bytes at the {@code logLevel}.
+     * Use {@link #payloadLogging(PayloadLoggingFilter)} to sample the requests or log only the
+     * slow requests.
+     */
     public MattermostClientBuilder logLevel(Level logLevel) {
       this.logLevel = logLevel;
       return this;
@@ -232,7 +308,42 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
     }
 
     public MattermostClientBuilder ignoreUnknownProperties() {
-      this.ignoreUnknownProperties = true;
+      return ignoreUnknownProperties(true);
+    }
+
+    MattermostClientBuilder ignoreUnknownProperties(boolean ignoreUnknownProperties) {
+      this.ignoreUnknownProperties = ignoreUnknownProperties;
+      return this;
+    }
+
+    /**
+     * Register the bytecode generating Jackson Afterburner module to the model mappers. Add
+     * {@code com.fasterxml.jackson.module:jackson-module-afterburner} to your dependencies.
+     */
+    public MattermostClientBuilder acceleratedMapper() {
+      this.acceleratedMapper = true;
+      return this;
+    }
+
+    /**
+     * Send {@code Accept-Encoding: gzip, deflate} and decompress the encoded responses while
+     * reading them.
+     */
+    public MattermostClientBuilder acceptEncoding() {
+      this.acceptEncoding = true;
+      return this;
+    }
+
+    /**
+     * Compress JSON request bodies larger than {@code thresholdBytes} with gzip, e.g. bulk
+     * {@code getUsersByIds} or {@code updateConfig}. Enable this only if the server or the reverse
+     * proxy in front of it accepts {@code Content-Encoding: gzip} requests.
+     */
+    public MattermostClientBuilder compressRequest(int thresholdBytes) {
+      if (thresholdBytes < 0) {
+        throw new IllegalArgumentException("thresholdBytes must not be negative");
+      }
+      this.requestCompressionThreshold = thresholdBytes;
       return this;
     }
 
@@ -241,14 +352,48 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
       return this;
     }
 
+    /**
+     * Serve profile images and custom emoji images through the {@code imageCache}. The cache can
+     * be shared with other clients.
+     */
+    public MattermostClientBuilder imageCache(ImageCache imageCache) {
+      this.imageCache = imageCache;
+      return this;
+    }
+
+    /**
+     * Report the requests to the {@code instrumentation}, e.g.
+     * {@link net.bis5.mattermost.client4.instrument.RouteStatistics} to collect the latency
+     * histograms for each route.
+     */
+    public MattermostClientBuilder instrumentation(ClientInstrumentation instrumentation) {
+      this.instrumentation = instrumentation;
+      return this;
+    }
+
+    /**
+     * Log the requests with the {@code filter} instead of {@link #logLevel(Level)}, e.g. 1% of the
+     * requests or the requests slower than a second.
+     */
+    public MattermostClientBuilder payloadLogging(PayloadLoggingFilter filter) {
+      this.payloadLogging = filter;
+      return this;
+    }
+
     public MattermostClient build() {
-      return new MattermostClient(url, logLevel, ignoreUnknownProperties, httpClientConfig);
+      return new MattermostClient(this);
     }
   }
 
+  /**
+   * Close the HTTP client. Closing an identity view created by {@link #as(String)} does nothing,
+   * close the client that created it instead.
+   */
   @Override
   public void close() {
-    httpClient.close();
+    if (!identityView) {
+      httpClient.close();
+    }
   }
 
   public MattermostClient(String url) {
@@ -265,22 +410,85 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   MattermostClient(String url, Level logLevel, boolean ignoreUnknownProperties,
     Consumer<ClientBuilder> httpClientConfig)
   {
-    this.url = url;
-    this.apiUrl = url + API_URL_SUFFIX;
-    this.clientLogLevel = logLevel;
-    this.ignoreUnknownProperties = ignoreUnknownProperties;
-    this.httpClient = buildClient(httpClientConfig);
+    this(new MattermostClientBuilder().url(url).logLevel(logLevel)
+        .httpConfig(httpClientConfig).ignoreUnknownProperties(ignoreUnknownProperties));
+  }
+
+  MattermostClient(MattermostClientBuilder builder) {
+    this.url = builder.url;
+    this.apiUrl = builder.url + API_URL_SUFFIX;
+    this.clientLogLevel = builder.logLevel;
+    this.ignoreUnknownProperties = builder.ignoreUnknownProperties;
+    this.imageCache = builder.imageCache;
+    this.instrumentation = builder.instrumentation;
+    this.payloadLogging = builder.payloadLogging;
+    this.acceleratedMapper = builder.acceleratedMapper;
+    this.acceptEncoding = builder.acceptEncoding;
+    this.requestCompressionThreshold = builder.requestCompressionThreshold;
+    this.mapperProvider =
+        new MattermostModelMapperProvider(ignoreUnknownProperties, acceleratedMapper);
+    this.httpClient = buildClient(builder.httpClientConfig);
+    this.baseTarget = httpClient.target(apiUrl);
+    this.identityView = false;
+  }
+
+  private MattermostClient(MattermostClient client, String authority) {
+    this.url = client.url;
+    this.apiUrl = client.apiUrl;
+    this.clientLogLevel = client.clientLogLevel;
+    this.ignoreUnknownProperties = client.ignoreUnknownProperties;
+    this.imageCache = client.imageCache;
+    this.instrumentation = client.instrumentation;
+    this.payloadLogging = client.payloadLogging;
+    this.acceleratedMapper = client.acceleratedMapper;
+    this.acceptEncoding = client.acceptEncoding;
+    this.requestCompressionThreshold = client.requestCompressionThreshold;
+    this.mapperProvider = client.mapperProvider;
+    this.httpClient = client.httpClient;
+    this.baseTarget = client.baseTarget;
+    this.identityView = true;
+    this.authority = authority;
+  }
+
+  /**
+   * Create the view of this client that calls the API with the Personal Access Token or the
+   * session token. The view shares the HTTP client, its connections and the mappers with this
+   * client, so creating a view for each bot or user is cheap. The credentials of this client are
+   * not changed, and the views can be used from any thread.
+   *
+   * <pre>
+   * try (MattermostClient client = MattermostClient.builder().url(url).build()) {
+   *   MattermostClient bot = client.as(botToken);
+   *   bot.createPost(post);
+   * }
+   * </pre>
+   *
+   * @param token the access token, or {@code null} for the anonymous view
+   */
+  public MattermostClient as(String token) {
+    return as(AuthType.BEARER, token);
+  }
+
+  /**
+   * Create the view of this client that calls the API with the token of the {@code authType}.
+   *
+   * @see #as(String)
+   */
+  public MattermostClient as(AuthType authType, String token) {
+    return new MattermostClient(this, authority(authType, token));
+  }
+
+  private static String authority(AuthType authType, String token) {
+    return token != null ? authType.getCode() + " " + token : null;
   }
 
 
   public void setOAuthToken(String token) {
-    this.authToken = token;
-    this.authType = AuthType.TOKEN;
+    this.authority = authority(AuthType.TOKEN, token);
   }
 
   public void clearOAuthToken() {
-    this.authToken = null;
-    this.authType = AuthType.BEARER;
+    this.authority = null;
   }
 
   /**
@@ -289,24 +497,76 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
    * @since Mattermost Server 4.1
    */
   public void setAccessToken(String token) {
-    this.authToken = token;
-    this.authType = AuthType.BEARER;
-  }
+    this.authority = authority(AuthType.BEARER, token);
+  }
+
+  private static final PathTemplate USER_ROUTE = PathTemplate.compile("/users/{user_id}");
+  private static final PathTemplate USER_BY_USERNAME_ROUTE =
+      PathTemplate.compile("/users/username/{username}");
+  private static final PathTemplate USER_BY_EMAIL_ROUTE =
+      PathTemplate.compile("/users/email/{email}");
+  private static final PathTemplate USER_TOKEN_ROUTE =
+      PathTemplate.compile("/users/tokens/{token_id}");
+  private static final PathTemplate USER_TEAM_CHANNEL_MEMBERS_ROUTE =
+      PathTemplate.compile("/users/{user_id}/teams/{team_id}/channels/members");
+  private static final PathTemplate TEAM_ROUTE = PathTemplate.compile("/teams/{team_id}");
+  private static final PathTemplate TEAM_AUTOCOMPLETE_COMMANDS_ROUTE =
+      PathTemplate.compile("/teams/{team_id}/commands/autocomplete");
+  private static final PathTemplate TEAM_BY_NAME_ROUTE =
+      PathTemplate.compile("/teams/name/{team_name}");
+  private static final PathTemplate TEAM_MEMBER_ROUTE =
+      PathTemplate.compile("/teams/{team_id}/members/{user_id}");
+  private static final PathTemplate TEAM_MEMBERS_BY_IDS_ROUTE =
+      PathTemplate.compile("/teams/{team_id}/members/ids");
+  private static final PathTemplate TEAM_INVITE_ROUTE =
+      PathTemplate.compile("/teams/invite/{invite_id}");
+  private static final PathTemplate CHANNEL_ROUTE = PathTemplate.compile("/channels/{channel_id}");
+  private static final PathTemplate CHANNEL_BY_NAME_ROUTE =
+      PathTemplate.compile("/teams/{team_id}/channels/name/{channel_name}");
+  private static final PathTemplate CHANNEL_BY_NAME_FOR_TEAM_NAME_ROUTE =
+      PathTemplate.compile("/teams/name/{team_name}/channels/name/{channel_name}");
+  private static final PathTemplate CHANNEL_MEMBER_ROUTE =
+      PathTemplate.compile("/channels/{channel_id}/members/{user_id}");
+  private static final PathTemplate CHANNEL_VIEW_ROUTE =
+      PathTemplate.compile("/channels/members/{user_id}/view");
+  private static final PathTemplate POST_ROUTE = PathTemplate.compile("/posts/{post_id}");
+  private static final PathTemplate FILE_ROUTE = PathTemplate.compile("/files/{file_id}");
+  private static final PathTemplate INCOMING_WEBHOOK_ROUTE =
+      PathTemplate.compile("/hooks/incoming/{hook_id}");
+  private static final PathTemplate COMPLIANCE_REPORT_ROUTE =
+      PathTemplate.compile("/compliance/reports/{report_id}");
+  private static final PathTemplate OUTGOING_WEBHOOK_ROUTE =
+      PathTemplate.compile("/hooks/outgoing/{hook_id}");
+  private static final PathTemplate PREFERENCES_BY_CATEGORY_ROUTE =
+      PathTemplate.compile("/users/{user_id}/preferences/{category}");
+  private static final PathTemplate PREFERENCE_ROUTE =
+      PathTemplate.compile("/users/{user_id}/preferences/{category}/name/{preference_name}");
+  private static final PathTemplate REACTION_ROUTE =
+      PathTemplate.compile("/users/{user_id}/posts/{post_id}/reactions/{emoji_name}");
+  private static final PathTemplate COMMAND_ROUTE = PathTemplate.compile("/commands/{command_id}");
+  private static final PathTemplate EMOJI_ROUTE = PathTemplate.compile("/emoji/{emoji_id}");
+  private static final PathTemplate EMOJI_BY_NAME_ROUTE =
+      PathTemplate.compile("/emoji/name/{emoji_name}");
+  private static final PathTemplate OAUTH_APP_ROUTE = PathTemplate.compile("/oauth/apps/{app_id}");
+  private static final PathTemplate PLUGIN_ROUTE = PathTemplate.compile("/plugins/{plugin_id}");
+  private static final PathTemplate BOT_ROUTE = PathTemplate.compile("/bots/{bot_user_id}");
+  private static final PathTemplate BOT_ASSIGN_ROUTE =
+      PathTemplate.compile("/bots/{bot_user_id}/assign/{user_id}");
 
   public String getUsersRoute() {
     return "/users";
   }
 
   public String getUserRoute(String userId) {
-    return getUsersRoute() + String.format("/%s", StringUtils.stripToEmpty(userId));
+    return USER_ROUTE.expand(userId);
   }
 
   public String getUserByUsernameRoute(String userName) {
-    return getUsersRoute() + String.format("/username/%s", StringUtils.stripToEmpty(userName));
+    return USER_BY_USERNAME_ROUTE.expand(userName);
   }
 
   public String getUserByEmailRoute(String email) {
-    return getUsersRoute() + String.format("/email/%s", StringUtils.stripToEmpty(email));
+    return USER_BY_EMAIL_ROUTE.expand(email);
   }
 
   public String getUserSessionsRoute(String userId) {
@@ -322,7 +582,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getUserTokenRoute(String tokenId) {
-    return getUserTokensRoute() + String.format("/%s", StringUtils.stripToEmpty(tokenId));
+    return USER_TOKEN_ROUTE.expand(tokenId);
   }
 
   public String getTeamsRoute() {
@@ -330,20 +590,19 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getTeamRoute(String teamId) {
-    return getTeamsRoute() + String.format("/%s", StringUtils.stripToEmpty(teamId));
+    return TEAM_ROUTE.expand(teamId);
   }
 
   public String getTeamAutoCompleteCommandsRoute(String teamId) {
-    return getTeamsRoute()
-        + String.format("/%s/commands/autocomplete", StringUtils.stripToEmpty(teamId));
+    return TEAM_AUTOCOMPLETE_COMMANDS_ROUTE.expand(teamId);
   }
 
   public String getTeamByNameRoute(String teamName) {
-    return getTeamsRoute() + String.format("/name/%s", StringUtils.stripToEmpty(teamName));
+    return TEAM_BY_NAME_ROUTE.expand(teamName);
   }
 
   public String getTeamMemberRoute(String teamId, String userId) {
-    return getTeamRoute(teamId) + String.format("/members/%s", StringUtils.stripToEmpty(userId));
+    return TEAM_MEMBER_ROUTE.expand(teamId, userId);
   }
 
   public String getTeamMembersRoute(String teamId) {
@@ -363,7 +622,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getTeamInviteRoute(String inviteId) {
-    return String.format("/teams/invite/%s", inviteId);
+    return TEAM_INVITE_ROUTE.expand(inviteId);
   }
 
   public String getChannelsRoute() {
@@ -375,17 +634,15 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getChannelRoute(String channelId) {
-    return getChannelsRoute() + String.format("/%s", StringUtils.stripToEmpty(channelId));
+    return CHANNEL_ROUTE.expand(channelId);
   }
 
   public String getChannelByNameRoute(String channelName, String teamId) {
-    return getTeamRoute(teamId)
-        + String.format("/channels/name/%s", StringUtils.stripToEmpty(channelName));
+    return CHANNEL_BY_NAME_ROUTE.expand(teamId, channelName);
   }
 
   public String getChannelByNameForTeamNameRoute(String channelName, String teamName) {
-    return getTeamByNameRoute(teamName)
-        + String.format("/channels/name/%s", StringUtils.stripToEmpty(channelName));
+    return CHANNEL_BY_NAME_FOR_TEAM_NAME_ROUTE.expand(teamName, channelName);
   }
 
   public String getChannelMembersRoute(String channelId) {
@@ -393,8 +650,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getChannelMemberRoute(String channelId, String userId) {
-    return getChannelMembersRoute(channelId)
-        + String.format("/%s", StringUtils.stripToEmpty(userId));
+    return CHANNEL_MEMBER_ROUTE.expand(channelId, userId);
   }
 
   public String getPostsRoute() {
@@ -410,7 +666,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getPostRoute(String postId) {
-    return getPostsRoute() + String.format("/%s", StringUtils.stripToEmpty(postId));
+    return POST_ROUTE.expand(postId);
   }
 
   public String getFilesRoute() {
@@ -418,7 +674,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getFileRoute(String fileId) {
-    return getFilesRoute() + String.format("/%s", StringUtils.stripToEmpty(fileId));
+    return FILE_ROUTE.expand(fileId);
   }
 
   public String getSystemRoute() {
@@ -446,7 +702,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getIncomingWebhookRoute(String hookId) {
-    return getIncomingWebhooksRoute() + String.format("/%s", StringUtils.stripToEmpty(hookId));
+    return INCOMING_WEBHOOK_ROUTE.expand(hookId);
   }
 
   public String getComplianceReportsRoute() {
@@ -454,7 +710,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getComplianceReportRoute(String reportId) {
-    return String.format("/compliance/reports/%s", StringUtils.stripToEmpty(reportId));
+    return COMPLIANCE_REPORT_ROUTE.expand(reportId);
   }
 
   public String getOutgoingWebhooksRoute() {
@@ -462,7 +718,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getOutgoingWebhookRoute(String hookId) {
-    return getOutgoingWebhooksRoute() + String.format("/%s", StringUtils.stripToEmpty(hookId));
+    return OUTGOING_WEBHOOK_ROUTE.expand(hookId);
   }
 
   public String getPreferencesRoute(String userId) {
@@ -498,7 +754,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getCommandRoute(String commandId) {
-    return getCommandsRoute() + String.format("/%s", StringUtils.stripToEmpty(commandId));
+    return COMMAND_ROUTE.expand(commandId);
   }
 
   public String getEmojisRoute() {
@@ -506,11 +762,11 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getEmojiRoute(String emojiId) {
-    return getEmojisRoute() + String.format("/%s", StringUtils.stripToEmpty(emojiId));
+    return EMOJI_ROUTE.expand(emojiId);
   }
 
   public String getEmojiByNameRoute(String emojiName) {
-    return getEmojisRoute() + String.format("/name/%s", StringUtils.stripToEmpty(emojiName));
+    return EMOJI_BY_NAME_ROUTE.expand(emojiName);
   }
 
   public String getReactionsRoute() {
@@ -522,7 +778,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getOAuthAppRoute(String appId) {
-    return String.format("/oauth/apps/%s", StringUtils.stripToEmpty(appId));
+    return OAUTH_APP_ROUTE.expand(appId);
   }
 
   public String getElasticsearchRoute() {
@@ -534,7 +790,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getPluginRoute(String pluginId) {
-    return String.format("/plugins/%s", StringUtils.stripToEmpty(pluginId));
+    return PLUGIN_ROUTE.expand(pluginId);
   }
 
   public String getOpenGraphRoute() {
@@ -546,31 +802,31 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   public String getBotsRoute(String botUserId) {
-    return String.format("%s/%s", getBotsRoute(), StringUtils.stripToEmpty(botUserId));
+    return BOT_ROUTE.expand(botUserId);
   }
 
   protected <T> ApiResponse<T> doApiGet(String url, String etag, Class<T> responseType) {
-    return doApiRequest(HttpMethod.GET, apiUrl + url, null, etag, responseType);
+    return doApiRequest(HttpMethod.GET, apiTarget(url), null, etag, responseType);
   }
 
   protected <T> ApiResponse<T> doApiGet(String url, String etag, GenericType<T> responseType) {
-    return doApiRequest(HttpMethod.GET, apiUrl + url, null, etag, responseType);
+    return doApiRequest(HttpMethod.GET, apiTarget(url), null, etag, responseType);
   }
 
   protected ApiResponse<Void> doApiGet(String url, String etag) {
-    return doApiRequest(HttpMethod.GET, apiUrl + url, null, etag);
+    return doApiRequest(HttpMethod.GET, apiTarget(url), null, etag);
   }
 
   protected <T, U> ApiResponse<T> doApiPost(String url, U data, Class<T> responseType) {
-    return doApiRequest(HttpMethod.POST, apiUrl + url, data, null, responseType);
+    return doApiRequest(HttpMethod.POST, apiTarget(url), data, null, responseType);
   }
 
   protected <T, U> ApiResponse<T> doApiPost(String url, U data, GenericType<T> responseType) {
-    return doApiRequest(HttpMethod.POST, apiUrl + url, data, null, responseType);
+    return doApiRequest(HttpMethod.POST, apiTarget(url), data, null, responseType);
   }
 
   protected <U> ApiResponse<Void> doApiPost(String url, U data) {
-    return doApiRequest(HttpMethod.POST, apiUrl + url, data, null);
+    return doApiRequest(HttpMethod.POST, apiTarget(url), data, null);
   }
 
   protected ApiResponse<Void> doApiPostMultiPart(String url, MultiPart multiPart) {
@@ -579,49 +835,79 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   protected <T> ApiResponse<T> doApiPostMultiPart(String url, MultiPart multiPart,
       Class<T> responseType) {
-    return ApiResponse.of(httpClient.target(apiUrl + url).request(MediaType.APPLICATION_JSON_TYPE)
+    return ApiResponse.of(apiTarget(url).request(MediaType.APPLICATION_JSON_TYPE)
         .header(HEADER_AUTH, getAuthority())
         .method(HttpMethod.POST, Entity.entity(multiPart, multiPart.getMediaType())), responseType);
   }
 
   protected <T, U> ApiResponse<T> doApiPut(String url, U data, Class<T> responseType) {
-    return doApiRequest(HttpMethod.PUT, apiUrl + url, data, null, responseType);
+    return doApiRequest(HttpMethod.PUT, apiTarget(url), data, null, responseType);
   }
 
   protected <U> ApiResponse<Void> doApiPut(String url, U data) {
-    return doApiRequest(HttpMethod.PUT, apiUrl + url, data, null);
+    return doApiRequest(HttpMethod.PUT, apiTarget(url), data, null);
   }
 
   protected <T> ApiResponse<T> doApiDelete(String url, Class<T> responseType) {
-    return doApiRequest(HttpMethod.DELETE, apiUrl + url, null, null, responseType);
+    return doApiRequest(HttpMethod.DELETE, apiTarget(url), null, null, responseType);
   }
 
   protected ApiResponse<Void> doApiDelete(String url) {
-    return doApiRequest(HttpMethod.DELETE, apiUrl + url, null, null);
+    return doApiRequest(HttpMethod.DELETE, apiTarget(url), null, null);
   }
 
   protected <T, U> ApiResponse<T> doApiRequest(String method, String url, U data, String etag,
       Class<T> responseType) {
-    return ApiResponse.of(httpClient.target(url).request(MediaType.APPLICATION_JSON_TYPE)
-        .header(HEADER_ETAG_CLIENT, etag).header(HEADER_AUTH, getAuthority())
-        .method(method, Entity.json(data)), responseType);
+    return doApiRequest(method, httpClient.target(url), data, etag, responseType);
   }
 
   protected <T, U> ApiResponse<T> doApiRequest(String method, String url, U data, String etag,
       GenericType<T> responseType) {
-    return ApiResponse.of(httpClient.target(url).request(MediaType.APPLICATION_JSON_TYPE)
+    return doApiRequest(method, httpClient.target(url), data, etag, responseType);
+  }
+
+  protected <U> ApiResponse<Void> doApiRequest(String method, String url, U data, String etag) {
+    return doApiRequest(method, httpClient.target(url), data, etag);
+  }
+
+  protected <T, U> ApiResponse<T> doApiRequest(String method, WebTarget target, U data,
+      String etag, Class<T> responseType) {
+    return ApiResponse.of(target.request(MediaType.APPLICATION_JSON_TYPE)
         .header(HEADER_ETAG_CLIENT, etag).header(HEADER_AUTH, getAuthority())
         .method(method, Entity.json(data)), responseType);
   }
 
-  protected <U> ApiResponse<Void> doApiRequest(String method, String url, U data, String etag) {
-    return ApiResponse.of(httpClient.target(url).request(MediaType.APPLICATION_JSON_TYPE)
+  protected <T, U> ApiResponse<T> doApiRequest(String method, WebTarget target, U data,
+      String etag, GenericType<T> responseType) {
+    return ApiResponse.of(target.request(MediaType.APPLICATION_JSON_TYPE)
+        .header(HEADER_ETAG_CLIENT, etag).header(HEADER_AUTH, getAuthority())
+        .method(method, Entity.json(data)), responseType);
+  }
+
+  protected <U> ApiResponse<Void> doApiRequest(String method, WebTarget target, U data,
+      String etag) {
+    return ApiResponse.of(target.request(MediaType.APPLICATION_JSON_TYPE)
         .header(HEADER_ETAG_CLIENT, etag).header(HEADER_AUTH, getAuthority())
         .method(method, Entity.json(data)), Void.class);
   }
 
+  /**
+   * Resolve the API path and the query string against the base target of {@code /api/v4}. The
+   * base URL is parsed once, only the path is appended for each request.
+   *
+   * @param path the path under {@code /api/v4}, e.g. {@code /users/me?page=0}
+   */
+  protected WebTarget apiTarget(String path) {
+    int query = path.indexOf('?');
+    if (query < 0) {
+      return baseTarget.path(path);
+    }
+    return httpClient.target(baseTarget.getUriBuilder().path(path.substring(0, query))
+        .replaceQuery(path.substring(query + 1)));
+  }
+
   private String getAuthority() {
-    return authToken != null ? authType.getCode() + " " + authToken : null;
+    return authority;
   }
 
   protected ApiResponse<Path> doApiGetFile(String url, String etag) throws IOException {
@@ -636,7 +922,92 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
     return ApiResponse.of(fileResponse.getRawResponse(), imageFile);
   }
 
+  /**
+   * Get the image through the image cache. If the cached image has the same {@code version}, it is
+   * served without a request unless {@code revalidate} is {@code true}. When revalidating, the
+   * image is requested conditionally with the validators of the cached image.
+   */
+  protected ApiResponse<CachedImage> doApiGetCachedImage(ImageCache.Kind kind, String id,
+      long version, boolean revalidate, String url) throws IOException {
+    CachedImage cached = imageCache.lookup(kind, id);
+    if (cached != null && cached.getVersion() == version && !revalidate) {
+      cacheHit(url);
+      return ApiResponse.ofCached(Response.ok().type(cached.getContentType()).build(), cached);
+    }
+
+    Invocation.Builder request = apiTarget(url).request()
+        .header(HEADER_AUTH, getAuthority());
+    if (cached != null && (revalidate || cached.getVersion() == version)) {
+      request.header(HEADER_ETAG_CLIENT, cached.getEtag())
+          .header(HEADER_MODIFIED_SINCE_CLIENT, cached.getLastModified());
+    }
+    Response response = request.get();
+    if (cached != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+      response.close();
+      imageCache.revalidated(cached);
+      cacheHit(url);
+      return ApiResponse.ofCached(response, cached);
+    }
+    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+      return ApiResponse.of(response, CachedImage.class);
+    }
+    try (InputStream image = response.readEntity(InputStream.class)) {
+      String contentType =
+          response.getMediaType() == null ? null : response.getMediaType().toString();
+      CachedImage stored = imageCache.put(kind, id, version, response.getHeaderString("Etag"),
+          response.getHeaderString(HttpHeaders.LAST_MODIFIED), contentType, image);
+      return ApiResponse.ofCached(response, stored);
+    }
+  }
+
+  private void cacheHit(String url) {
+    if (instrumentation != null) {
+      instrumentation.cacheHit(HttpMethod.GET, RouteTemplates.of(url));
+    }
+  }
+
+  /**
+   * Get the response and decode its body while reading, instead of mapping the whole body at once.
+   * The response is left open on success, closing the returned stream closes it.
+   *
+   * @param elementType the type of the entities in the stream
+   * @param streamFactory creates the stream from the parser for the body and the reader for the
+   *        {@code elementType}
+   */
+  protected <E, S extends EntityStream<E>> ApiResponse<S> doApiGetStream(String url,
+      Class<E> elementType, BiFunction<JsonParser, ObjectReader, S> streamFactory) {
+    Response response = apiTarget(url).request(MediaType.APPLICATION_JSON_TYPE)
+        .header(HEADER_AUTH, getAuthority()).get();
+    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+      return ApiResponse.of(response, (S) null);
+    }
+    ObjectMapper mapper = mapperProvider.getContext(elementType);
+    InputStream body = response.readEntity(InputStream.class);
+    try {
+      JsonParser parser = mapper.getFactory().createParser(body);
+      return ApiResponse.ofStreaming(response, streamFactory.apply(parser,
+          mapper.readerFor(elementType)));
+    } catch (IOException e) {
+      response.close();
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Get the response body without buffering it. The response is left open on success, closing the
+   * returned stream closes it.
+   */
+  protected ApiResponse<InputStream> doApiGetBody(String url) {
+    Response response = apiTarget(url).request()
+        .header(HEADER_AUTH, getAuthority()).get();
+    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+      return ApiResponse.of(response, InputStream.class);
+    }
+    return ApiResponse.ofStreaming(response, response.readEntity(InputStream.class));
+  }
+
   protected static final String HEADER_ETAG_CLIENT = "If-None-Match";
+  protected static final String HEADER_MODIFIED_SINCE_CLIENT = "If-Modified-Since";
   protected static final String HEADER_AUTH = "Authorization";
 
   // Authentication Section
@@ -647,8 +1018,8 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   protected ApiResponse<User> onLogin(ApiResponse<Void> loginResponse) {
-    authToken = loginResponse.getRawResponse().getHeaderString(HEADER_TOKEN);
-    authType = AuthType.BEARER;
+    authority =
+        authority(AuthType.BEARER, loginResponse.getRawResponse().getHeaderString(HEADER_TOKEN));
     return ApiResponse.of(loginResponse.getRawResponse(), User.class);
   }
 
@@ -683,8 +1054,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   protected ApiResponse<Boolean> onLogout(ApiResponse<Void> logoutResponse) {
-    authToken = null;
-    authType = AuthType.BEARER;
+    authority = null;
 
     return logoutResponse.checkStatusOk();
   }
@@ -747,10 +1117,44 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<byte[]> getProfileImage(String userId, String etag) {
+    if (imageCache != null) {
+      return getCachedProfileImage(userId, ImageCache.NO_VERSION, true);
+    }
     // XXX byte[]で返すの微妙・・・というかreadEntityでこけない?
     return doApiGet(getUserProfileImageRoute(userId), etag, byte[].class);
   }
 
+  @Override
+  public ApiResponse<byte[]> getProfileImage(User user) {
+    if (imageCache != null) {
+      return getCachedProfileImage(user.getId(), user.getLastPictureUpdate(), false);
+    }
+    return getProfileImage(user.getId(), null);
+  }
+
+  private ApiResponse<byte[]> getCachedProfileImage(String userId, long version,
+      boolean revalidate) {
+    String url = getUserProfileImageRoute(userId);
+    try {
+      // the entry evicted between the lookup and the read is a miss, fetch it again
+      for (int attempt = 0; attempt < 2; attempt++) {
+        ApiResponse<CachedImage> response =
+            doApiGetCachedImage(ImageCache.Kind.PROFILE, userId, version, revalidate, url);
+        if (response.hasError()) {
+          return ApiResponse.of(response.getRawResponse(), byte[].class);
+        }
+        byte[] image = response.readEntity().readBytes();
+        if (image != null) {
+          return ApiResponse.ofCached(response.getRawResponse(), image);
+        }
+      }
+      // larger than the whole cache, or evicted again by the concurrent puts
+      return doApiGet(url, null, byte[].class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   private GenericType<Map<String, String>> stringMapType() {
     return new GenericType<Map<String, String>>() {};
   }
@@ -764,14 +1168,30 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
     return doApiGet(getUsersRoute() + pager.toQuery(), etag, UserList.class);
   }
 
+  @Override
+  public ApiResponse<EntityStream<User>> streamUsers(Pager pager) {
+    return doApiGetStream(getUsersRoute() + pager.toQuery(), User.class, JsonArrayStream::new);
+  }
+
   @Override
   public ApiResponse<UserList> getUsersInTeam(String teamId, UsersOrder.InTeam order, Pager pager,
       String etag) {
+    return doApiGet(getUsersInTeamUrl(teamId, order, pager), etag, UserList.class);
+  }
+
+  @Override
+  public ApiResponse<EntityStream<User>> streamUsersInTeam(String teamId, UsersOrder.InTeam order,
+      Pager pager) {
+    return doApiGetStream(getUsersInTeamUrl(teamId, order, pager), User.class,
+        JsonArrayStream::new);
+  }
+
+  private String getUsersInTeamUrl(String teamId, UsersOrder.InTeam order, Pager pager) {
     String query = new QueryBuilder() //
         .set("in_team", teamId) //
         .set("sort", order.getSort())//
         .toString();
-    return doApiGet(getUsersRoute() + query + pager.toQuery(false), etag, UserList.class);
+    return getUsersRoute() + query + pager.toQuery(false);
   }
 
   @Override
@@ -783,11 +1203,22 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   @Override
   public ApiResponse<UserList> getUsersInChannel(String channelId, UsersOrder.InChannel order,
       Pager pager, String etag) {
+    return doApiGet(getUsersInChannelUrl(channelId, order, pager), etag, UserList.class);
+  }
+
+  @Override
+  public ApiResponse<EntityStream<User>> streamUsersInChannel(String channelId,
+      UsersOrder.InChannel order, Pager pager) {
+    return doApiGetStream(getUsersInChannelUrl(channelId, order, pager), User.class,
+        JsonArrayStream::new);
+  }
+
+  private String getUsersInChannelUrl(String channelId, UsersOrder.InChannel order, Pager pager) {
     String query = new QueryBuilder() //
         .set("in_channel", channelId) //
         .set("sort", order.getSort())//
         .toString();
-    return doApiGet(getUsersRoute() + query + pager.toQuery(false), etag, UserList.class);
+    return getUsersRoute() + query + pager.toQuery(false);
   }
 
   @Override
@@ -908,12 +1339,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   public ApiResponse<TeamUnreadList> getTeamUnreadForUser(String userId, String teamIdToExclude) {
     String optional = "";
     if (teamIdToExclude != null) { // TODO use StringUtils.isNotEmpty
-      try {
-        optional = String.format("?exclude_team=%s",
-            URLEncoder.encode(teamIdToExclude, StandardCharsets.UTF_8.displayName()));
-      } catch (UnsupportedEncodingException e) {
-        throw new AssertionError(e);
-      }
+      optional = "?exclude_team=" + PathTemplate.encodeQueryValue(teamIdToExclude);
     }
     return doApiGet(getUserRoute(userId) + "/teams/unread" + optional, null, TeamUnreadList.class);
   }
@@ -1084,7 +1510,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<TeamMemberList> getTeamMembersByIds(String teamId, String... userIds) {
-    String url = String.format("/teams/%s/members/ids", teamId);
+    String url = TEAM_MEMBERS_BY_IDS_ROUTE.expand(teamId);
     return doApiPost(url, userIds, TeamMemberList.class);
   }
 
@@ -1186,8 +1612,97 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   @Override
   public ApiResponse<byte[]> importTeam(byte[] data, int filesize, String importFrom,
       String fileName, String teamId) {
-    // FIXME
-    throw new UnsupportedOperationException();
+    ByteArrayOutputStream log = new ByteArrayOutputStream();
+    return doImportTeam(teamId, new ByteArrayInputStream(data, 0, filesize), filesize, fileName,
+        importFrom, null, log, log::toByteArray);
+  }
+
+  @Override
+  public ApiResponse<List<String>> importTeam(String teamId, InputStream archive, long size,
+      String fileName, String importFrom, UploadProgressListener listener) {
+    LineCollector log = new LineCollector();
+    return doImportTeam(teamId, archive, size, fileName, importFrom, listener, log,
+        log::getLines);
+  }
+
+  /**
+   * Upload the archive with chunked transfer encoding, then decode the base64 encoded import log
+   * from the response into {@code log} while reading.
+   */
+  private <T> ApiResponse<T> doImportTeam(String teamId, InputStream archive, long size,
+      String fileName, String importFrom, UploadProgressListener listener, OutputStream log,
+      Supplier<T> result) {
+    InputStream source =
+        listener == null ? archive : new ProgressInputStream(archive, size, listener);
+    FormDataMultiPart multiPart = new FormDataMultiPart();
+    multiPart.setMediaType(MediaType.MULTIPART_FORM_DATA_TYPE);
+    multiPart.field("filesize", Long.toString(size));
+    multiPart.field("importFrom", importFrom);
+    multiPart.bodyPart(new StreamDataBodyPart("file", source, fileName));
+
+    Response response = apiTarget(getTeamRoute(teamId) + "/import")
+        .request(MediaType.APPLICATION_JSON_TYPE).header(HEADER_AUTH, getAuthority())
+        .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+        .post(Entity.entity(multiPart, multiPart.getMediaType()));
+    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+      return ApiResponse.of(response, (T) null);
+    }
+    ObjectMapper mapper = mapperProvider.getContext(Object.class);
+    try (InputStream body = response.readEntity(InputStream.class);
+        JsonParser parser = mapper.getFactory().createParser(body)) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          parser.nextToken();
+          if ("results".equals(field)) {
+            parser.readBinaryValue(log);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      log.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      response.close();
+    }
+    return ApiResponse.ofStreaming(response, result.get());
+  }
+
+  /**
+   * Split UTF-8 text into lines.
+   */
+  private static class LineCollector extends OutputStream {
+
+    private final List<String> lines = new ArrayList<>();
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    @Override
+    public void write(int b) {
+      if (b == '\n') {
+        endLine();
+      } else {
+        line.write(b);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (line.size() > 0) {
+        endLine();
+      }
+    }
+
+    private void endLine() {
+      String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+      lines.add(text.endsWith("\r") ? text.substring(0, text.length() - 1) : text);
+      line.reset();
+    }
+
+    List<String> getLines() {
+      return lines;
+    }
   }
 
   @Override
@@ -1289,6 +1804,13 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
         ChannelMembers.class);
   }
 
+  @Override
+  public ApiResponse<EntityStream<ChannelMember>> streamChannelMembers(String channelId,
+      Pager pager) {
+    return doApiGetStream(getChannelMembersRoute(channelId) + pager.toQuery(), ChannelMember.class,
+        JsonArrayStream::new);
+  }
+
   @Override
   public ApiResponse<ChannelMembers> getChannelMembersByIds(String channelId, String... userIds) {
     return doApiPost(getChannelMembersRoute(channelId) + "/ids", userIds, ChannelMembers.class);
@@ -1302,13 +1824,13 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   @Override
   public ApiResponse<ChannelMembers> getChannelMembersForUser(String userId, String teamId,
       String etag) {
-    return doApiGet(getUserRoute(userId) + String.format("/teams/%s/channels/members", teamId),
-        etag, ChannelMembers.class);
+    return doApiGet(USER_TEAM_CHANNEL_MEMBERS_ROUTE.expand(userId, teamId), etag,
+        ChannelMembers.class);
   }
 
   @Override
   public ApiResponse<ChannelViewResponse> viewChannel(String userId, ChannelView view) {
-    String url = String.format(getChannelsRoute() + "/members/%s/view", userId);
+    String url = CHANNEL_VIEW_ROUTE.expand(userId);
     return doApiPost(url, view, ChannelViewResponse.class);
   }
 
@@ -1421,7 +1943,22 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<PostList> getPostsForChannel(String channelId, Pager pager, String etag) {
-    return doApiGet(getChannelRoute(channelId) + "/posts" + pager.toQuery(), etag, PostList.class);
+    return doApiGet(getPostsForChannelUrl(channelId, pager), etag, PostList.class);
+  }
+
+  @Override
+  public ApiResponse<PostStream> streamPostsForChannel(String channelId, Pager pager) {
+    return doApiGetStream(getPostsForChannelUrl(channelId, pager), Post.class, PostStream::new);
+  }
+
+  @Override
+  public ApiResponse<CompactPostList> getCompactPostsForChannel(String channelId, Pager pager,
+      String etag) {
+    return doApiGet(getPostsForChannelUrl(channelId, pager), etag, CompactPostList.class);
+  }
+
+  private String getPostsForChannelUrl(String channelId, Pager pager) {
+    return getChannelRoute(channelId) + "/posts" + pager.toQuery();
   }
 
   @Override
@@ -1450,24 +1987,70 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<PostList> getPostsSince(String channelId, long time) {
-    String query = String.format("?since=%d", time);
-    return doApiGet(getChannelRoute(channelId) + "/posts" + query, null, PostList.class);
+    return doApiGet(getPostsSinceUrl(channelId, time), null, PostList.class);
+  }
+
+  @Override
+  public ApiResponse<PostStream> streamPostsSince(String channelId, long since) {
+    return doApiGetStream(getPostsSinceUrl(channelId, since), Post.class, PostStream::new);
+  }
+
+  @Override
+  public ApiResponse<CompactPostList> getCompactPostsSince(String channelId, long since) {
+    return doApiGet(getPostsSinceUrl(channelId, since), null, CompactPostList.class);
+  }
+
+  private String getPostsSinceUrl(String channelId, long since) {
+    return getChannelRoute(channelId) + "/posts?since=" + since;
   }
 
   @Override
   public ApiResponse<PostList> getPostsAfter(String channelId, String postId, Pager pager,
       String etag) {
-    String query = new QueryBuilder().set("after", postId).toString();
-    return doApiGet(getChannelRoute(channelId) + "/posts" + query + pager.toQuery(false), etag,
-        PostList.class);
+    return doApiGet(getPostsAroundUrl(channelId, "after", postId, pager), etag, PostList.class);
   }
 
   @Override
   public ApiResponse<PostList> getPostsBefore(String channelId, String postId, Pager pager,
       String etag) {
-    String query = new QueryBuilder().set("before", postId).toString();
-    return doApiGet(getChannelRoute(channelId) + "/posts" + query + pager.toQuery(false), etag,
-        PostList.class);
+    return doApiGet(getPostsAroundUrl(channelId, "before", postId, pager), etag, PostList.class);
+  }
+
+  @Override
+  public ApiResponse<PostStream> streamPostsAfter(String channelId, String postId, Pager pager) {
+    return doApiGetStream(getPostsAroundUrl(channelId, "after", postId, pager), Post.class,
+        PostStream::new);
+  }
+
+  @Override
+  public ApiResponse<PostStream> streamPostsBefore(String channelId, String postId, Pager pager) {
+    return doApiGetStream(getPostsAroundUrl(channelId, "before", postId, pager), Post.class,
+        PostStream::new);
+  }
+
+  @Override
+  public ApiResponse<CompactPostList> getCompactPostsAfter(String channelId, String postId,
+      Pager pager, String etag) {
+    return doApiGet(getPostsAroundUrl(channelId, "after", postId, pager), etag,
+        CompactPostList.class);
+  }
+
+  @Override
+  public ApiResponse<CompactPostList> getCompactPostsBefore(String channelId, String postId,
+      Pager pager, String etag) {
+    return doApiGet(getPostsAroundUrl(channelId, "before", postId, pager), etag,
+        CompactPostList.class);
+  }
+
+  /**
+   * Url of the posts after or before the post.
+   *
+   * @param direction {@code after} or {@code before}
+   */
+  private String getPostsAroundUrl(String channelId, String direction, String postId,
+      Pager pager) {
+    String query = new QueryBuilder().set(direction, postId).toString();
+    return getChannelRoute(channelId) + "/posts" + query + pager.toQuery(false);
   }
 
   @Override
@@ -1709,15 +2292,14 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   @Override
   public ApiResponse<Preferences> getPreferencesByCategory(String userId,
       PreferenceCategory category) {
-    String url = String.format(getPreferencesRoute(userId) + "/%s", category.getCode());
+    String url = PREFERENCES_BY_CATEGORY_ROUTE.expand(userId, category.getCode());
     return doApiGet(url, null, Preferences.class);
   }
 
   @Override
   public ApiResponse<Preference> getPreferenceByCategoryAndName(String userId,
       PreferenceCategory category, String preferenceName) {
-    String url = String.format(getPreferencesRoute(userId) + "/%s/name/%s", category.getCode(),
-        preferenceName);
+    String url = PREFERENCE_ROUTE.expand(userId, category.getCode(), preferenceName);
     return doApiGet(url, null, Preference.class);
   }
 
@@ -1799,8 +2381,18 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
   }
 
   @Override
-  public ApiResponse<Object> downloadComplianceReport(String reportId) {
-    throw new UnsupportedOperationException("not impl"); // FIXME
+  public ApiResponse<InputStream> downloadComplianceReport(String reportId) {
+    return doApiGetBody(getComplianceReportRoute(reportId) + "/download");
+  }
+
+  @Override
+  public ApiResponse<CompliancePostReader> streamComplianceReport(String reportId) {
+    ApiResponse<InputStream> archive = downloadComplianceReport(reportId);
+    if (archive.hasError()) {
+      return ApiResponse.of(archive.getRawResponse(), (CompliancePostReader) null);
+    }
+    return ApiResponse.ofStreaming(archive.getRawResponse(),
+        new CompliancePostReader(archive.readEntity()));
   }
 
   // Cluster Section
@@ -2020,11 +2612,34 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<Path> getEmojiImage(String emojiId) throws IOException {
-    return doApiGetFile(getEmojiRoute(emojiId) + "/image", null);
+    String url = getEmojiRoute(emojiId) + "/image";
+    if (imageCache != null) {
+      // custom emoji image can not be modified, so never revalidate
+      for (int attempt = 0; attempt < 2; attempt++) {
+        ApiResponse<CachedImage> response = doApiGetCachedImage(ImageCache.Kind.EMOJI, emojiId,
+            ImageCache.NO_VERSION, false, url);
+        if (response.hasError()) {
+          return ApiResponse.of(response.getRawResponse(), Path.class);
+        }
+        CachedImage cached = response.readEntity();
+        byte[] image = cached.readBytes();
+        if (image != null) {
+          // the copy is owned by the caller, the cached file may be evicted at any time
+          String contentType = cached.getContentType();
+          Path imageFile = Files.createTempFile(null,
+              contentType == null ? null : imageSuffix(MediaType.valueOf(contentType)));
+          Files.write(imageFile, image);
+          return ApiResponse.ofCached(response.getRawResponse(), imageFile);
+        }
+      }
+    }
+    return doApiGetFile(url, null);
   }
 
-  private String detectSuffix(Response response) {
-    MediaType mediaType = response.getMediaType();
+  /**
+   * @return the file suffix of the image type, {@code null} if unknown
+   */
+  private static String imageSuffix(MediaType mediaType) {
     if (mediaType.isCompatible(MediaType.valueOf("image/png"))) {
       return ".png";
     } else if (mediaType.isCompatible(MediaType.valueOf("image/jpeg"))) {
@@ -2033,17 +2648,24 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
       return ".gif";
     } else if (mediaType.isCompatible(MediaType.valueOf("image/bmp"))) {
       return ".bmp";
-    } else {
-      String contentDispositionHeader =
-          String.class.cast(response.getHeaders().getFirst("Content-Disposition"));
-      try {
-        ContentDisposition contentDisposition = new ContentDisposition(contentDispositionHeader);
-        String fileName = contentDisposition.getFileName();
-        return fileName.substring(fileName.lastIndexOf("."));
-      } catch (ParseException e) {
-        // If server returns illegal syntax, that is server bug.
-        throw new IllegalArgumentException(e);
-      }
+    }
+    return null;
+  }
+
+  private String detectSuffix(Response response) {
+    String suffix = imageSuffix(response.getMediaType());
+    if (suffix != null) {
+      return suffix;
+    }
+    String contentDispositionHeader =
+        String.class.cast(response.getHeaders().getFirst("Content-Disposition"));
+    try {
+      ContentDisposition contentDisposition = new ContentDisposition(contentDispositionHeader);
+      String fileName = contentDisposition.getFileName();
+      return fileName.substring(fileName.lastIndexOf("."));
+    } catch (ParseException e) {
+      // If server returns illegal syntax, that is server bug.
+      throw new IllegalArgumentException(e);
     }
   }
 
@@ -2077,8 +2699,8 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<Boolean> deleteReaction(Reaction reaction) {
-    return doApiDelete(getUserRoute(reaction.getUserId()) + getPostRoute(reaction.getPostId())
-        + String.format("/reactions/%s", reaction.getEmojiName())).checkStatusOk();
+    return doApiDelete(REACTION_ROUTE.expand(reaction.getUserId(), reaction.getPostId(),
+        reaction.getEmojiName())).checkStatusOk();
   }
 
   // Elasticsearch Section
@@ -2180,8 +2802,7 @@ public class MattermostClient implements AutoCloseable, AuditsApi, Authenticatio
 
   @Override
   public ApiResponse<Bot> assignBotToUser(String botUserId, String ownerUserId) {
-    return doApiPost(String.format("%s/assign/%s", getBotsRoute(botUserId), ownerUserId), null,
-        Bot.class);
+    return doApiPost(BOT_ASSIGN_ROUTE.expand(botUserId, ownerUserId), null, Bot.class);
   }
 
 }
@@ -42,7 +42,7 @@ public class Pager {
   }
 
   public String toQuery(boolean isHead) {
-    return (isHead ? "?" : "&") + String.format("page=%d&per_page=%d", page, perPage);
+    return (isHead ? "?page=" : "&page=") + page + "&per_page=" + perPage;
   }
 
 }
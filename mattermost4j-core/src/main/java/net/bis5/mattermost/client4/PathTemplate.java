@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Precompiled API path template such as {@code /users/{user_id}/teams/{team_id}}.
+ *
+ * <p>
+ * The template is parsed once. {@link #expand(String...)} appends the literal parts and the
+ * percent-encoded values to a single {@link StringBuilder}, so a path is built without
+ * {@code String.format} or intermediate strings.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class PathTemplate {
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+  private static final boolean[] PATH_SAFE = new boolean[128];
+  private static final boolean[] QUERY_SAFE = new boolean[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      PATH_SAFE[c] = true;
+      PATH_SAFE[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      PATH_SAFE[c] = true;
+    }
+    for (char c : "-._~!$'()*,;:@".toCharArray()) {
+      PATH_SAFE[c] = true;
+    }
+    System.arraycopy(PATH_SAFE, 0, QUERY_SAFE, 0, PATH_SAFE.length);
+    // '&', '=' and '+' are safe in a path segment, but not in a query value
+    PATH_SAFE['&'] = true;
+    PATH_SAFE['='] = true;
+    PATH_SAFE['+'] = true;
+    QUERY_SAFE['/'] = true;
+    QUERY_SAFE['?'] = true;
+  }
+
+  private final String template;
+  private final String[] literals;
+  private final String[] names;
+  private final int literalLength;
+
+  private PathTemplate(String template, String[] literals, String[] names) {
+    this.template = template;
+    this.literals = literals;
+    this.names = names;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Parse the template, the placeholders are enclosed in braces.
+   */
+  public static PathTemplate compile(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    int start = 0;
+    int open;
+    while ((open = template.indexOf('{', start)) >= 0) {
+      int close = template.indexOf('}', open);
+      if (close < 0) {
+        throw new IllegalArgumentException("Unclosed placeholder: " + template);
+      }
+      literals.add(template.substring(start, open));
+      names.add(template.substring(open + 1, close));
+      start = close + 1;
+    }
+    literals.add(template.substring(start));
+    return new PathTemplate(template, literals.toArray(new String[0]),
+        names.toArray(new String[0]));
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * Substitute the placeholders in order. The values are stripped and percent-encoded as a path
+   * segment, {@code null} is substituted as the empty string.
+   */
+  public String expand(String... values) {
+    if (values.length != names.length) {
+      throw new IllegalArgumentException(
+          "Expected " + names.length + " values for " + template + " but " + values.length);
+    }
+    int length = literalLength;
+    for (String value : values) {
+      length += value == null ? 0 : value.length();
+    }
+    StringBuilder path = new StringBuilder(length + 8);
+    path.append(literals[0]);
+    for (int i = 0; i < values.length; i++) {
+      appendEncoded(path, StringUtils.stripToEmpty(values[i]), PATH_SAFE);
+      path.append(literals[i + 1]);
+    }
+    return path.toString();
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+
+  /**
+   * @return the value percent-encoded as a path segment, the value itself if nothing to encode
+   */
+  public static String encodePathSegment(String value) {
+    return encode(value, PATH_SAFE);
+  }
+
+  /**
+   * @return the value percent-encoded as a query parameter name or value, the value itself if
+   *         nothing to encode
+   */
+  public static String encodeQueryValue(String value) {
+    return encode(value, QUERY_SAFE);
+  }
+
+  static void appendQueryValue(StringBuilder query, String value) {
+    appendEncoded(query, value, QUERY_SAFE);
+  }
+
+  private static String encode(String value, boolean[] safe) {
+    if (firstUnsafe(value, safe) == value.length()) {
+      return value;
+    }
+    StringBuilder encoded = new StringBuilder(value.length() + 16);
+    appendEncoded(encoded, value, safe);
+    return encoded.toString();
+  }
+
+  private static int firstUnsafe(String value, boolean[] safe) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 128 || !safe[c]) {
+        return i;
+      }
+    }
+    return value.length();
+  }
+
+  private static void appendEncoded(StringBuilder out, String value, boolean[] safe) {
+    int unsafe = firstUnsafe(value, safe);
+    out.append(value, 0, unsafe);
+    if (unsafe == value.length()) {
+      return;
+    }
+    for (byte b : value.substring(unsafe).getBytes(StandardCharsets.UTF_8)) {
+      if (b >= 0 && safe[b]) {
+        out.append((char) b);
+      } else {
+        out.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+      }
+    }
+  }
+}
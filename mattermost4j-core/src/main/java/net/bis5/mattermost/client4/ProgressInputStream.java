@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Report the bytes read to an {@link UploadProgressListener}, every {@value #REPORT_INTERVAL}
+ * bytes and at the end of the stream.
+ *
+ * @author Takayuki Maruyama
+ */
+class ProgressInputStream extends FilterInputStream {
+
+  static final int REPORT_INTERVAL = 64 * 1024;
+
+  private final UploadProgressListener listener;
+  private final long totalBytes;
+  private long readBytes;
+  private long reportedBytes = -1;
+
+  ProgressInputStream(InputStream in, long totalBytes, UploadProgressListener listener) {
+    super(in);
+    this.totalBytes = totalBytes;
+    this.listener = listener;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    progress(b < 0 ? -1 : 1);
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int n = super.read(b, off, len);
+    progress(n);
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(n);
+    progress(skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  private void progress(long n) {
+    if (n > 0) {
+      readBytes += n;
+      if (readBytes - reportedBytes >= REPORT_INTERVAL || readBytes == totalBytes) {
+        report();
+      }
+    } else if (n < 0 && reportedBytes != readBytes) {
+      report();
+    }
+  }
+
+  private void report() {
+    reportedBytes = readBytes;
+    listener.onProgress(readBytes, totalBytes);
+  }
+}
@@ -14,9 +14,8 @@
 
 package net.bis5.mattermost.client4;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -29,7 +28,7 @@ public class QueryBuilder {
   private static final String PREFIX = "?";
   private static final String DELIMITER = "&";
   private static final String EQUALS = "=";
-  private final Map<String, String> parameters = new HashMap<>();
+  private final Map<String, String> parameters = new LinkedHashMap<>();
 
   /**
    * Set string parameter.
@@ -96,10 +95,22 @@ public class QueryBuilder {
     return append(key, Boolean.toString(value));
   }
 
+  /**
+   * Build the query string in the order the parameters are set. The names and the values are
+   * percent-encoded.
+   */
   @Override
   public String toString() {
-    return parameters.entrySet().stream().map(e -> e.getKey() + EQUALS + e.getValue())
-        .collect(Collectors.joining(DELIMITER, PREFIX, ""));
+    StringBuilder query = new StringBuilder(16 * parameters.size() + 1).append(PREFIX);
+    for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+      if (query.length() > PREFIX.length()) {
+        query.append(DELIMITER);
+      }
+      PathTemplate.appendQueryValue(query, parameter.getKey());
+      query.append(EQUALS);
+      PathTemplate.appendQueryValue(query, parameter.getValue());
+    }
+    return query.toString();
   }
 
 }
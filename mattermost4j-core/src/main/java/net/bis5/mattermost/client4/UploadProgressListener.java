@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+/**
+ * Receives the progress of a streaming upload.
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+  /**
+   * Called while uploading, at least once at the end of the source.
+   *
+   * @param sentBytes the number of bytes read from the source so far
+   * @param totalBytes the size of the source, or {@code -1} if unknown
+   */
+  void onProgress(long sentBytes, long totalBytes);
+
+}
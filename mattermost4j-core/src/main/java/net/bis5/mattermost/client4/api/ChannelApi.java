@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Map;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.stream.EntityStream;
 import net.bis5.mattermost.model.Channel;
 import net.bis5.mattermost.model.ChannelList;
 import net.bis5.mattermost.model.ChannelMember;
@@ -204,6 +205,12 @@ public interface ChannelApi {
    */
   ApiResponse<ChannelMembers> getChannelMembers(String channelId, Pager pager, String etag);
 
+  /**
+   * gets a page of channel members, decoding each member while reading the response. The stream
+   * must be closed.
+   */
+  ApiResponse<EntityStream<ChannelMember>> streamChannelMembers(String channelId, Pager pager);
+
   /**
    * gets the channel members in a channel for a list of user ids.
    */
@@ -14,8 +14,10 @@
 
 package net.bis5.mattermost.client4.api;
 
+import java.io.InputStream;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.stream.CompliancePostReader;
 import net.bis5.mattermost.model.Compliance;
 import net.bis5.mattermost.model.Compliances;
 
@@ -49,8 +51,15 @@ public interface ComplianceApi {
   ApiResponse<Compliance> getComplianceReport(String reportId);
 
   /**
-   * returns a full compliance report as a file.
+   * returns a full compliance report as a zip archive, streaming the response body. The stream
+   * must be closed.
    */
-  ApiResponse<Object> downloadComplianceReport(String reportId);
+  ApiResponse<InputStream> downloadComplianceReport(String reportId);
+
+  /**
+   * returns the posts of a full compliance report, decoding each post while reading the archive.
+   * The stream must be closed.
+   */
+  ApiResponse<CompliancePostReader> streamComplianceReport(String reportId);
 
 }
@@ -76,7 +76,7 @@ public interface EmojiApi {
   ApiResponse<Emoji> getEmoji(String emojiId);
 
   /**
-   * returns the emoji image.
+   * returns the emoji image, as a temporary file owned by the caller.
    */
   ApiResponse<Path> getEmojiImage(String emojiId) throws IOException;
 
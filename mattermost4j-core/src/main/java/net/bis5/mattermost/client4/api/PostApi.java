@@ -18,6 +18,8 @@ import java.sql.Date;
 import java.time.ZonedDateTime;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.stream.PostStream;
+import net.bis5.mattermost.model.CompactPostList;
 import net.bis5.mattermost.model.FileInfo;
 import net.bis5.mattermost.model.Post;
 import net.bis5.mattermost.model.PostList;
@@ -212,6 +214,56 @@ public interface PostApi {
    */
   ApiResponse<PostList> getPostsBefore(String channelId, String postId, Pager pager, String etag);
 
+  /**
+   * gets a page of posts for a channel, decoding each post while reading the response. The stream
+   * must be closed.
+   */
+  ApiResponse<PostStream> streamPostsForChannel(String channelId, Pager pager);
+
+  /**
+   * gets posts created after a specified time as Unix time in milliseconds, decoding each post
+   * while reading the response. The stream must be closed.
+   */
+  ApiResponse<PostStream> streamPostsSince(String channelId, long since);
+
+  /**
+   * gets a page of posts that were posted after the post provided, decoding each post while
+   * reading the response. The stream must be closed.
+   */
+  ApiResponse<PostStream> streamPostsAfter(String channelId, String postId, Pager pager);
+
+  /**
+   * gets a page of posts that were posted before the post provided, decoding each post while
+   * reading the response. The stream must be closed.
+   */
+  ApiResponse<PostStream> streamPostsBefore(String channelId, String postId, Pager pager);
+
+  /**
+   * gets a page of posts for a channel as the memory compact {@link CompactPostList}.
+   */
+  ApiResponse<CompactPostList> getCompactPostsForChannel(String channelId, Pager pager,
+      String etag);
+
+  /**
+   * gets posts created after a specified time as Unix time in milliseconds, as the memory compact
+   * {@link CompactPostList}.
+   */
+  ApiResponse<CompactPostList> getCompactPostsSince(String channelId, long since);
+
+  /**
+   * gets a page of posts that were posted after the post provided, as the memory compact
+   * {@link CompactPostList}.
+   */
+  ApiResponse<CompactPostList> getCompactPostsAfter(String channelId, String postId, Pager pager,
+      String etag);
+
+  /**
+   * gets a page of posts that were posted before the post provided, as the memory compact
+   * {@link CompactPostList}.
+   */
+  ApiResponse<CompactPostList> getCompactPostsBefore(String channelId, String postId, Pager pager,
+      String etag);
+
   /**
    * returns any posts with matching term string.
    */
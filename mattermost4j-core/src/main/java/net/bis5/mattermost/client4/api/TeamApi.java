@@ -15,10 +15,14 @@
 package net.bis5.mattermost.client4.api;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.UploadProgressListener;
 import net.bis5.mattermost.model.Role;
 import net.bis5.mattermost.model.Team;
 import net.bis5.mattermost.model.TeamExists;
@@ -304,11 +308,39 @@ public interface TeamApi {
   ApiResponse<TeamUnread> getTeamUnread(String teamId, String userId);
 
   /**
-   * will import an exported team from other app into a existing team.
+   * will import an exported team from other app into a existing team. Returns the import log. The
+   * whole archive is held in memory, use
+   * {@link #importTeam(String, Path, String, UploadProgressListener)} for large archives.
    */
   ApiResponse<byte[]> importTeam(byte[] data, int filesize, String importFrom, String fileName,
       String teamId);
 
+  /**
+   * will import an exported team from other app into a existing team, streaming the archive
+   * file. Returns the lines of the import log.
+   *
+   * @param importFrom the source application, e.g. {@code slack}
+   * @param listener receives the upload progress, may be {@code null}
+   */
+  default ApiResponse<List<String>> importTeam(String teamId, Path archive, String importFrom,
+      UploadProgressListener listener) throws IOException {
+    try (InputStream in = Files.newInputStream(archive)) {
+      return importTeam(teamId, in, Files.size(archive), archive.getFileName().toString(),
+          importFrom, listener);
+    }
+  }
+
+  /**
+   * will import an exported team from other app into a existing team, streaming the archive.
+   * Returns the lines of the import log. The {@code archive} is not closed.
+   *
+   * @param size the size of the archive in bytes, required by the server
+   * @param importFrom the source application, e.g. {@code slack}
+   * @param listener receives the upload progress, may be {@code null}
+   */
+  ApiResponse<List<String>> importTeam(String teamId, InputStream archive, long size,
+      String fileName, String importFrom, UploadProgressListener listener);
+
   /**
    * invite users by email to the team.
    */
@@ -19,6 +19,7 @@ import java.util.Collection;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.Pager;
 import net.bis5.mattermost.client4.model.UsersOrder;
+import net.bis5.mattermost.client4.stream.EntityStream;
 import net.bis5.mattermost.model.Audits;
 import net.bis5.mattermost.model.Role;
 import net.bis5.mattermost.model.Session;
@@ -145,6 +146,15 @@ public interface UserApi {
    */
   ApiResponse<byte[]> getProfileImage(String userId, String etag);
 
+  /**
+   * gets user's profile image. Must be logged in or be a system administrator. If the client has
+   * an image cache, the cached image for the same {@code last_picture_update} is returned without
+   * request.
+   */
+  default ApiResponse<byte[]> getProfileImage(User user) {
+    return getProfileImage(user.getId());
+  }
+
   /**
    * returns a page of users on the system. Page counting starts at 0.
    */
@@ -253,6 +263,26 @@ public interface UserApi {
   ApiResponse<UserList> getUsersInChannel(String channelId, UsersOrder.InChannel order, Pager pager,
       String etag);
 
+  /**
+   * returns a page of users on the system, decoding each user while reading the response. Page
+   * counting starts at 0. The stream must be closed.
+   */
+  ApiResponse<EntityStream<User>> streamUsers(Pager pager);
+
+  /**
+   * returns a page of users on a team, decoding each user while reading the response. Page
+   * counting starts at 0. The stream must be closed.
+   */
+  ApiResponse<EntityStream<User>> streamUsersInTeam(String teamId, UsersOrder.InTeam order,
+      Pager pager);
+
+  /**
+   * returns a page of users on a channel, decoding each user while reading the response. Page
+   * counting starts at 0. The stream must be closed.
+   */
+  ApiResponse<EntityStream<User>> streamUsersInChannel(String channelId,
+      UsersOrder.InChannel order, Pager pager);
+
   /**
    * returns a page of users on a team. Page counting starts at 0.
    */
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.api.ChannelApi;
+import net.bis5.mattermost.client4.api.PostApi;
+import net.bis5.mattermost.client4.api.TeamApi;
+import net.bis5.mattermost.client4.jfr.FlightRecorderEvents;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.WebSocketEvent;
+
+/**
+ * Cache resolving team names and {@code team-name/channel-name} to {@link Team} and
+ * {@link Channel}, so that posting by name costs a single request.
+ *
+ * <p>
+ * Resolved entries are used without request until {@code revalidateAfter} has elapsed, then they
+ * are revalidated with the ETag. Entries are invalidated by the {@code channel_created},
+ * {@code channel_deleted} and {@code update_team} events given to
+ * {@link #onEvent(WebSocketEvent)}, and by 404 responses: {@link #createPost(String, String, Post)}
+ * re-resolves the channel and retries once if the cached channel is gone.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class ChannelNameResolver {
+
+  private static final int NOT_FOUND = 404;
+  private static final int NOT_MODIFIED = 304;
+
+  private final TeamApi teamApi;
+  private final ChannelApi channelApi;
+  private final PostApi postApi;
+  private final long revalidateAfterNanos;
+  private final ObjectMapper mapper =
+      new MattermostModelMapperProvider(true).getContext(Team.class);
+  private final Map<String, Entry<Team>> teams = new ConcurrentHashMap<>();
+  private final Map<String, Entry<Channel>> channels = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong revalidatedCount = new AtomicLong();
+
+  /**
+   * Create new resolver.
+   *
+   * @param api the client, usually {@link net.bis5.mattermost.client4.MattermostClient}
+   * @param revalidateAfter the time to use the resolved entries without revalidation
+   */
+  public <T extends TeamApi & ChannelApi & PostApi> ChannelNameResolver(T api,
+      Duration revalidateAfter) {
+    this.teamApi = api;
+    this.channelApi = api;
+    this.postApi = api;
+    this.revalidateAfterNanos = revalidateAfter.toNanos();
+  }
+
+  /**
+   * Resolve the team by name. Returns {@code null} if not found.
+   */
+  public Team resolveTeam(String teamName) {
+    return resolve(teams, key(teamName), etag -> teamApi.getTeamByName(teamName, etag));
+  }
+
+  /**
+   * Resolve the channel by the team name and the channel name. Returns {@code null} if not found.
+   */
+  public Channel resolveChannel(String teamName, String channelName) {
+    return resolve(channels, key(teamName) + '/' + key(channelName),
+        etag -> channelApi.getChannelByNameForTeamName(channelName, teamName, etag));
+  }
+
+  /**
+   * Resolve the channel by {@code team-name/channel-name}. Returns {@code null} if not found.
+   */
+  public Channel resolveChannel(String path) {
+    int separator = path.indexOf('/');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Expected team-name/channel-name: " + path);
+    }
+    return resolveChannel(path.substring(0, separator), path.substring(separator + 1));
+  }
+
+  private <T> T resolve(Map<String, Entry<T>> cache, String key,
+      Function<String, ApiResponse<T>> fetcher) {
+    Entry<T> cached = cache.get(key);
+    if (cached != null && System.nanoTime() - cached.validatedAt < revalidateAfterNanos) {
+      hitCount.incrementAndGet();
+      return cached.value;
+    }
+    ApiResponse<T> response = fetcher.apply(cached == null ? null : cached.etag);
+    int status = response.getRawResponse().getStatus();
+    if (cached != null && status == NOT_MODIFIED) {
+      response.getRawResponse().close();
+      revalidatedCount.incrementAndGet();
+      cache.put(key, new Entry<>(cached.value, cached.etag));
+      return cached.value;
+    }
+    missCount.incrementAndGet();
+    if (response.hasError()) {
+      cache.remove(key);
+      if (status == NOT_FOUND) {
+        return null;
+      }
+      throw new IllegalStateException(
+          "Failed to resolve " + key + ": " + response.readError().getMessage());
+    }
+    T value = response.readEntity();
+    cache.put(key, new Entry<>(value, response.getEtag()));
+    return value;
+  }
+
+  /**
+   * Create the post in the channel specified by name. If the cached channel is not found, the
+   * channel is resolved again and the post is retried once.
+   *
+   * @return the response of {@link PostApi#createPost(Post)}, or {@code null} if the channel is
+   *         not found
+   */
+  public ApiResponse<Post> createPost(String teamName, String channelName, Post post) {
+    for (int attempt = 0;; attempt++) {
+      Channel channel = resolveChannel(teamName, channelName);
+      if (channel == null) {
+        return null;
+      }
+      post.setChannelId(channel.getId());
+      ApiResponse<Post> response = postApi.createPost(post);
+      if (attempt > 0 || response.getRawResponse().getStatus() != NOT_FOUND) {
+        return response;
+      }
+      invalidateChannel(channel.getId());
+    }
+  }
+
+  /**
+   * Apply the {@code /websocket} event.
+   */
+  public void onEvent(WebSocketEvent event) {
+    Object recording = FlightRecorderEvents.beginWebSocketEvent();
+    try {
+      apply(event);
+    } finally {
+      FlightRecorderEvents.commitWebSocketEvent(recording, "ChannelNameResolver",
+          event.getEvent() == null ? null : event.getEvent().getCode(), event.getSequence());
+    }
+  }
+
+  private void apply(WebSocketEvent event) {
+    if (event.getEvent() == null || event.getData() == null) {
+      return;
+    }
+    switch (event.getEvent()) {
+      case ChannelCreated:
+        // the new channel can reuse the name of a deleted channel
+        invalidateChannelsOfTeam(event.getData().get("team_id"));
+        break;
+      case ChannelDeleted:
+        invalidateChannel(event.getData().get("channel_id"));
+        break;
+      case UpdateTeam:
+        invalidateTeam(readTeamId(event.getData().get("team")));
+        break;
+      default:
+        break;
+    }
+  }
+
+  private String readTeamId(String json) {
+    if (json == null || json.isEmpty()) {
+      return null;
+    }
+    try {
+      return mapper.readValue(json, Team.class).getId();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Remove the cached channel. Call when a request with the channel id returns 404.
+   */
+  public void invalidateChannel(String channelId) {
+    if (channelId != null) {
+      channels.values().removeIf(entry -> channelId.equals(entry.value.getId()));
+    }
+  }
+
+  /**
+   * Remove the cached channels of the team.
+   */
+  public void invalidateChannelsOfTeam(String teamId) {
+    if (teamId != null) {
+      channels.values().removeIf(entry -> teamId.equals(entry.value.getTeamId()));
+    }
+  }
+
+  /**
+   * Remove the cached team and the channels of the team, because the team name may be changed.
+   */
+  public void invalidateTeam(String teamId) {
+    if (teamId != null) {
+      teams.values().removeIf(entry -> teamId.equals(entry.value.getId()));
+      invalidateChannelsOfTeam(teamId);
+    }
+  }
+
+  public void clear() {
+    teams.clear();
+    channels.clear();
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getRevalidatedCount() {
+    return revalidatedCount.get();
+  }
+
+  private static final class Entry<T> {
+    private final T value;
+    private final String etag;
+    private final long validatedAt = System.nanoTime();
+
+    Entry(T value, String etag) {
+      this.value = value;
+      this.etag = etag;
+    }
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import net.bis5.mattermost.client4.jfr.FlightRecorderEvents;
+
+/**
+ * Bounded on-disk cache for profile images and custom emoji images.
+ *
+ * <p>
+ * Entries are keyed by the owner id (user id or emoji id) and carry a version (the user's
+ * {@code last_picture_update}) and the validators returned by the server. The total size of the
+ * stored images is bounded by {@code maxBytes}; the least recently used entries are evicted first.
+ * Small, frequently read images are also kept in memory up to {@code maxHotBytes}.
+ * </p>
+ *
+ * <p>
+ * One instance can be shared by several clients. The index is rebuilt from the cache directory on
+ * construction, so the cache survives restarts (the LRU order is approximated by file modification
+ * time).
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class ImageCache {
+
+  /**
+   * Use for the image that does not have a version, e.g. custom emoji.
+   */
+  public static final long NO_VERSION = 0;
+
+  private static final String CACHE_NAME = "image";
+  private static final String DATA_SUFFIX = ".img";
+  private static final String META_SUFFIX = ".meta";
+  private static final String TEMP_PREFIX = "tmp-";
+
+  private static final String META_VERSION = "version";
+  private static final String META_ETAG = "etag";
+  private static final String META_LAST_MODIFIED = "lastModified";
+  private static final String META_CONTENT_TYPE = "contentType";
+
+  /**
+   * The kind of cached image.
+   */
+  public enum Kind {
+    PROFILE("profile"), EMOJI("emoji");
+
+    private final String prefix;
+
+    Kind(String prefix) {
+      this.prefix = prefix;
+    }
+
+    String key(String id) {
+      return prefix + "-" + sanitize(id);
+    }
+  }
+
+  private final Path directory;
+  private final long maxBytes;
+  private final long maxHotBytes;
+  /** access ordered, guarded by {@code this}. */
+  private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+  /** access ordered, guarded by {@code this}. */
+  private final LinkedHashMap<String, byte[]> hotEntries = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+  private long hotBytes;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong revalidatedCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * Create new cache that stores images under {@code directory}.
+   *
+   * @param directory the cache directory, created if not exists
+   * @param maxBytes the upper limit of the total size of cached images
+   * @param maxHotBytes the upper limit of the total size of images also held in memory, {@code 0}
+   *        to disable
+   * @throws IOException if the cache directory could not be read
+   */
+  public ImageCache(Path directory, long maxBytes, long maxHotBytes) throws IOException {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    if (maxHotBytes < 0 || maxHotBytes > maxBytes) {
+      throw new IllegalArgumentException("maxHotBytes must be between 0 and maxBytes");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.maxBytes = maxBytes;
+    this.maxHotBytes = maxHotBytes;
+    loadIndex();
+  }
+
+  private void loadIndex() throws IOException {
+    List<CachedImage> loaded = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path file : stream) {
+        String fileName = file.getFileName().toString();
+        if (fileName.startsWith(TEMP_PREFIX)) {
+          Files.deleteIfExists(file);
+          continue;
+        }
+        if (!fileName.endsWith(META_SUFFIX)) {
+          continue;
+        }
+        String key = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+        Path data = directory.resolve(key + DATA_SUFFIX);
+        if (!Files.exists(data)) {
+          Files.deleteIfExists(file);
+          continue;
+        }
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+          meta.load(in);
+        }
+        loaded.add(new CachedImage(key, data, Files.size(data),
+            Long.parseLong(meta.getProperty(META_VERSION, "0")), meta.getProperty(META_ETAG),
+            meta.getProperty(META_LAST_MODIFIED), meta.getProperty(META_CONTENT_TYPE),
+            Files.getLastModifiedTime(data)));
+      }
+    }
+    loaded.sort(Comparator.comparing(e -> e.storedAt));
+    synchronized (this) {
+      for (CachedImage image : loaded) {
+        entries.put(image.key, image);
+        totalBytes += image.size;
+      }
+      evictIfNeeded();
+    }
+  }
+
+  /**
+   * Returns the cached image of the {@code id}, or {@code null} if not cached.
+   *
+   * <p>
+   * The caller should compare {@link CachedImage#getVersion()} with the expected version and
+   * revalidate the entry using {@link CachedImage#getEtag()} or {@link CachedImage#getLastModified()}
+   * if needed.
+   * </p>
+   */
+  public synchronized CachedImage lookup(Kind kind, String id) {
+    CachedImage image = entries.get(kind.key(id));
+    if (image == null) {
+      missCount.incrementAndGet();
+      FlightRecorderEvents.cache(CACHE_NAME, "miss", kind.key(id), 0);
+    } else {
+      hitCount.incrementAndGet();
+      FlightRecorderEvents.cache(CACHE_NAME, "hit", image.key, image.size);
+    }
+    return image;
+  }
+
+  /**
+   * Record that the cached image was confirmed by the server as not modified.
+   */
+  public void revalidated(CachedImage image) {
+    revalidatedCount.incrementAndGet();
+    FlightRecorderEvents.cache(CACHE_NAME, "revalidate", image.key, image.size);
+  }
+
+  /**
+   * Store the image read from {@code data}. The existing entry for the same id is replaced.
+   *
+   * @return the stored entry
+   * @throws IOException if an I/O error occurs while reading {@code data} or writing the cache
+   *         directory
+   */
+  public CachedImage put(Kind kind, String id, long version, String etag, String lastModified,
+      String contentType, InputStream data) throws IOException {
+    String key = kind.key(id);
+    Path tempData = Files.createTempFile(directory, TEMP_PREFIX, DATA_SUFFIX);
+    Path tempMeta = Files.createTempFile(directory, TEMP_PREFIX, META_SUFFIX);
+    try {
+      long size = Files.copy(data, tempData, StandardCopyOption.REPLACE_EXISTING);
+      Properties meta = new Properties();
+      meta.setProperty(META_VERSION, Long.toString(version));
+      setIfNotNull(meta, META_ETAG, etag);
+      setIfNotNull(meta, META_LAST_MODIFIED, lastModified);
+      setIfNotNull(meta, META_CONTENT_TYPE, contentType);
+      try (OutputStream out = Files.newOutputStream(tempMeta)) {
+        meta.store(out, null);
+      }
+
+      Path dataFile = directory.resolve(key + DATA_SUFFIX);
+      CachedImage image = new CachedImage(key, dataFile, size, version, etag, lastModified,
+          contentType, FileTime.fromMillis(System.currentTimeMillis()));
+      synchronized (this) {
+        Files.move(tempData, dataFile, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tempMeta, directory.resolve(key + META_SUFFIX),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        CachedImage replaced = entries.put(key, image);
+        if (replaced != null) {
+          totalBytes -= replaced.size;
+        }
+        removeHot(key);
+        totalBytes += size;
+        evictIfNeeded();
+      }
+      FlightRecorderEvents.cache(CACHE_NAME, "put", key, size);
+      return image;
+    } finally {
+      Files.deleteIfExists(tempData);
+      Files.deleteIfExists(tempMeta);
+    }
+  }
+
+  private static void setIfNotNull(Properties properties, String key, String value) {
+    if (value != null) {
+      properties.setProperty(key, value);
+    }
+  }
+
+  /**
+   * Remove the cached image of the {@code id}.
+   */
+  public synchronized void invalidate(Kind kind, String id) {
+    String key = kind.key(id);
+    CachedImage image = entries.remove(key);
+    if (image != null) {
+      totalBytes -= image.size;
+      removeHot(key);
+      deleteFiles(image);
+      FlightRecorderEvents.cache(CACHE_NAME, "invalidate", key, image.size);
+    }
+  }
+
+  /**
+   * Remove all cached images.
+   */
+  public synchronized void clear() {
+    for (CachedImage image : entries.values()) {
+      deleteFiles(image);
+    }
+    entries.clear();
+    hotEntries.clear();
+    totalBytes = 0;
+    hotBytes = 0;
+  }
+
+  private void evictIfNeeded() {
+    Iterator<Map.Entry<String, CachedImage>> it = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && it.hasNext()) {
+      CachedImage eldest = it.next().getValue();
+      it.remove();
+      totalBytes -= eldest.size;
+      removeHot(eldest.key);
+      deleteFiles(eldest);
+      evictionCount.incrementAndGet();
+      FlightRecorderEvents.cache(CACHE_NAME, "evict", eldest.key, eldest.size);
+    }
+  }
+
+  private void deleteFiles(CachedImage image) {
+    try {
+      Files.deleteIfExists(image.path);
+      Files.deleteIfExists(directory.resolve(image.key + META_SUFFIX));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void removeHot(String key) {
+    byte[] removed = hotEntries.remove(key);
+    if (removed != null) {
+      hotBytes -= removed.length;
+    }
+  }
+
+  byte[] readBytes(CachedImage image) throws IOException {
+    synchronized (this) {
+      byte[] hot = hotEntries.get(image.key);
+      if (hot != null) {
+        return hot.clone();
+      }
+    }
+    byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(image.path);
+    } catch (NoSuchFileException e) {
+      // evicted or invalidated since the lookup
+      forget(image);
+      return null;
+    }
+    if (bytes.length <= maxHotBytes) {
+      synchronized (this) {
+        if (entries.get(image.key) == image && !hotEntries.containsKey(image.key)) {
+          hotEntries.put(image.key, bytes.clone());
+          hotBytes += bytes.length;
+          Iterator<byte[]> it = hotEntries.values().iterator();
+          while (hotBytes > maxHotBytes && it.hasNext()) {
+            hotBytes -= it.next().length;
+            it.remove();
+          }
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private synchronized void forget(CachedImage image) {
+    if (entries.get(image.key) == image) {
+      entries.remove(image.key);
+      totalBytes -= image.size;
+      removeHot(image.key);
+      deleteFiles(image);
+    }
+    missCount.incrementAndGet();
+    FlightRecorderEvents.cache(CACHE_NAME, "miss", image.key, 0);
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getRevalidatedCount() {
+    return revalidatedCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  static String sanitize(String id) {
+    StringBuilder sb = new StringBuilder(id.length());
+    for (int i = 0; i < id.length(); i++) {
+      char c = id.charAt(i);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+        sb.append(c);
+      } else {
+        sb.append('%').append(Integer.toHexString(c));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * An image stored in {@link ImageCache}.
+   */
+  @Getter
+  public final class CachedImage {
+
+    private final String key;
+    /**
+     * The cached image file. Do not modify or delete this file, it is valid until the entry is
+     * evicted.
+     */
+    private final Path path;
+    private final long size;
+    private final long version;
+    private final String etag;
+    private final String lastModified;
+    private final String contentType;
+    private final FileTime storedAt;
+
+    CachedImage(String key, Path path, long size, long version, String etag, String lastModified,
+        String contentType, FileTime storedAt) {
+      this.key = key;
+      this.path = path;
+      this.size = size;
+      this.version = version;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.contentType = contentType;
+      this.storedAt = storedAt;
+    }
+
+    /**
+     * Read the image. Frequently read small images are served from memory.
+     *
+     * @return the image, {@code null} if the entry was evicted since the lookup
+     */
+    public byte[] readBytes() throws IOException {
+      return ImageCache.this.readBytes(this);
+    }
+  }
+}
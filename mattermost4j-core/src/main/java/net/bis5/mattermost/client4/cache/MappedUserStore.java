@@ -0,0 +1,665 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import net.bis5.mattermost.model.AuthService;
+import net.bis5.mattermost.model.User;
+
+/**
+ * User directory stored in a memory-mapped file instead of the heap.
+ *
+ * <p>
+ * The file has a fixed size header, two open addressing hash tables indexing the records by id and
+ * by username, and an append-only record area. Each record has a fixed size part for the numeric
+ * fields followed by the length prefixed UTF-8 strings. {@link #lookup(String)} returns a
+ * {@link UserView} flyweight reading the fields from the mapped file on access, so the heap usage
+ * does not grow with the number of users, and reopening an existing file needs no loading.
+ * </p>
+ *
+ * <p>
+ * Updating a user appends a new record, use {@link #compactTo(Path)} to reclaim the space of the
+ * old records. The capacity is fixed when the file is created. Passwords, auth data and MFA
+ * secrets are not stored.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class MappedUserStore implements Closeable {
+
+  private static final int MAGIC = 0x4d4d5553; // "MMUS"
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int HEADER_MAGIC = 0;
+  private static final int HEADER_VERSION = 4;
+  private static final int HEADER_TABLE_CAPACITY = 8;
+  private static final int HEADER_COUNT = 12;
+  private static final int HEADER_DATA_START = 16;
+  private static final int HEADER_DATA_END = 24;
+  private static final int HEADER_SIZE = 64;
+
+  private static final int RECORD_LENGTH = 0;
+  private static final int RECORD_FLAGS = 4;
+  private static final int RECORD_CREATE_AT = 8;
+  private static final int RECORD_UPDATE_AT = 16;
+  private static final int RECORD_DELETE_AT = 24;
+  private static final int RECORD_LAST_PICTURE_UPDATE = 32;
+  private static final int RECORD_BOOLEANS = 40;
+  private static final int RECORD_FIXED_SIZE = 44;
+
+  private static final int FLAG_DEAD = 1;
+  private static final int BIT_BOT = 1;
+  private static final int BIT_EMAIL_VERIFIED = 2;
+  private static final int BIT_MFA_ACTIVE = 4;
+
+  private static final int FIELD_ID = 0;
+  private static final int FIELD_USERNAME = 1;
+  private static final int FIELD_EMAIL = 2;
+  private static final int FIELD_NICKNAME = 3;
+  private static final int FIELD_FIRST_NAME = 4;
+  private static final int FIELD_LAST_NAME = 5;
+  private static final int FIELD_POSITION = 6;
+  private static final int FIELD_ROLES = 7;
+  private static final int FIELD_LOCALE = 8;
+  private static final int FIELD_AUTH_SERVICE = 9;
+  private static final int FIELD_BOT_DESCRIPTION = 10;
+  private static final int FIELD_PROPS = 11;
+  private static final int FIELD_NOTIFY_PROPS = 12;
+  private static final int FIELD_TIMEZONE = 13;
+
+  private static final int NULL_LENGTH = -1;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int tableCapacity;
+  private final int idTable;
+  private final int usernameTable;
+  private final int dataStart;
+
+  private MappedUserStore(Path file, FileChannel channel, MappedByteBuffer buffer) {
+    this.file = file;
+    this.channel = channel;
+    this.buffer = buffer;
+    this.tableCapacity = buffer.getInt(HEADER_TABLE_CAPACITY);
+    this.idTable = HEADER_SIZE;
+    this.usernameTable = idTable + tableCapacity * Long.BYTES;
+    this.dataStart = (int) buffer.getLong(HEADER_DATA_START);
+  }
+
+  /**
+   * Open the store file, creating it if not exists. The capacity arguments are used only when
+   * creating.
+   *
+   * @param maxUsers the number of users the store can hold
+   * @param dataBytes the size of the record area, must hold the updated records too
+   */
+  public static MappedUserStore open(Path file, int maxUsers, int dataBytes) throws IOException {
+    if (Files.exists(file) && Files.size(file) > 0) {
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      try {
+        MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getInt(HEADER_MAGIC) != MAGIC
+            || buffer.getInt(HEADER_VERSION) != FORMAT_VERSION) {
+          throw new IOException("Not a user store file: " + file);
+        }
+        return new MappedUserStore(file, channel, buffer);
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+    if (maxUsers <= 0 || dataBytes <= 0) {
+      throw new IllegalArgumentException("maxUsers and dataBytes must be positive");
+    }
+    int tableCapacity = Integer.highestOneBit(maxUsers) << 2;
+    long dataStart = HEADER_SIZE + 2L * tableCapacity * Long.BYTES;
+    long size = dataStart + dataBytes;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The store must be smaller than 2GB");
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+      buffer.putInt(HEADER_TABLE_CAPACITY, tableCapacity);
+      buffer.putInt(HEADER_COUNT, 0);
+      buffer.putLong(HEADER_DATA_START, dataStart);
+      buffer.putLong(HEADER_DATA_END, dataStart);
+      buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+      // magic last, an interrupted creation is not a valid store
+      buffer.putInt(HEADER_MAGIC, MAGIC);
+      return new MappedUserStore(file, channel, buffer);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Store the user, replacing the user with the same id.
+   *
+   * @throws IllegalStateException if the store is full
+   */
+  public synchronized void put(User user) {
+    byte[] record = encode(user);
+    byte[] id = utf8(user.getId());
+    byte[] username = usernameKey(user.getUsername());
+    int idSlot = findSlot(idTable, id, FIELD_ID);
+    int oldRecord = idSlot < 0 ? -1 : recordAt(idTable, idSlot);
+    if (oldRecord < 0 && size() >= tableCapacity / 2) {
+      throw new IllegalStateException("The user store is full: " + file);
+    }
+    int dataEnd = (int) buffer.getLong(HEADER_DATA_END);
+    if ((long) dataEnd + record.length > buffer.capacity()) {
+      throw new IllegalStateException("The user store is full: " + file);
+    }
+    ByteBuffer target = buffer.duplicate();
+    // Buffer.position(int), the ByteBuffer override is Java 9+
+    ((Buffer) target).position(dataEnd);
+    target.put(record);
+    buffer.putLong(HEADER_DATA_END, dataEnd + record.length);
+
+    if (oldRecord >= 0) {
+      removeSlot(usernameTable, usernameKey(readString(oldRecord, FIELD_USERNAME)), FIELD_USERNAME);
+      buffer.putInt(oldRecord + RECORD_FLAGS, FLAG_DEAD);
+      writeSlot(idTable, idSlot, hash(id), dataEnd);
+    } else {
+      insertSlot(idTable, id, dataEnd);
+      buffer.putInt(HEADER_COUNT, size() + 1);
+    }
+    if (username != null) {
+      removeSlot(usernameTable, username, FIELD_USERNAME);
+      insertSlot(usernameTable, username, dataEnd);
+    }
+  }
+
+  /**
+   * Store all users, for example from {@code streamUsers}.
+   *
+   * @return the number of users
+   */
+  public int putAll(Iterator<User> users) {
+    int count = 0;
+    while (users.hasNext()) {
+      put(users.next());
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Remove the user.
+   *
+   * @return {@code false} if the user is not stored
+   */
+  public synchronized boolean remove(String userId) {
+    byte[] id = utf8(userId);
+    int slot = findSlot(idTable, id, FIELD_ID);
+    if (slot < 0) {
+      return false;
+    }
+    int record = recordAt(idTable, slot);
+    removeSlot(usernameTable, usernameKey(readString(record, FIELD_USERNAME)), FIELD_USERNAME);
+    removeSlot(idTable, id, FIELD_ID);
+    buffer.putInt(record + RECORD_FLAGS, FLAG_DEAD);
+    buffer.putInt(HEADER_COUNT, size() - 1);
+    return true;
+  }
+
+  /**
+   * Find the user by id. Returns {@code null} if not found.
+   */
+  public UserView lookup(String userId) {
+    return lookup(userId, new UserView());
+  }
+
+  /**
+   * Find the user by id, reusing the view. Returns {@code null} if not found.
+   */
+  public synchronized UserView lookup(String userId, UserView reuse) {
+    int slot = findSlot(idTable, utf8(userId), FIELD_ID);
+    return slot < 0 ? null : reuse.position(this, recordAt(idTable, slot));
+  }
+
+  /**
+   * Find the user by username, ignoring case. Returns {@code null} if not found.
+   */
+  public UserView lookupByUsername(String username) {
+    return lookupByUsername(username, new UserView());
+  }
+
+  /**
+   * Find the user by username ignoring case, reusing the view. Returns {@code null} if not found.
+   */
+  public synchronized UserView lookupByUsername(String username, UserView reuse) {
+    int slot = findSlot(usernameTable, usernameKey(username), FIELD_USERNAME);
+    return slot < 0 ? null : reuse.position(this, recordAt(usernameTable, slot));
+  }
+
+  public synchronized int size() {
+    return buffer.getInt(HEADER_COUNT);
+  }
+
+  /**
+   * The free bytes of the record area.
+   */
+  public synchronized long getFreeBytes() {
+    return buffer.capacity() - buffer.getLong(HEADER_DATA_END);
+  }
+
+  /**
+   * Copy the current users to a new store file, dropping the old records.
+   *
+   * @param target the new file, must not exist
+   */
+  public synchronized MappedUserStore compactTo(Path target) throws IOException {
+    if (Files.exists(target)) {
+      throw new FileAlreadyExistsException(target.toString());
+    }
+    int liveBytes = 0;
+    for (int record = dataStart; record < (int) buffer.getLong(HEADER_DATA_END);
+        record += buffer.getInt(record + RECORD_LENGTH)) {
+      if ((buffer.getInt(record + RECORD_FLAGS) & FLAG_DEAD) == 0) {
+        liveBytes += buffer.getInt(record + RECORD_LENGTH);
+      }
+    }
+    int dataBytes = Math.max(liveBytes, (int) (buffer.capacity() - dataStart));
+    MappedUserStore compacted = open(target, tableCapacity / 4, dataBytes);
+    UserView view = new UserView();
+    for (int record = dataStart; record < (int) buffer.getLong(HEADER_DATA_END);
+        record += buffer.getInt(record + RECORD_LENGTH)) {
+      if ((buffer.getInt(record + RECORD_FLAGS) & FLAG_DEAD) == 0) {
+        compacted.put(view.position(this, record).toUser());
+      }
+    }
+    return compacted;
+  }
+
+  /**
+   * Write the changes to the file. The mapping itself is released when garbage collected.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  // hash tables: each slot is (hash << 32 | record offset), 0 is empty
+
+  private int recordAt(int table, int slot) {
+    return (int) buffer.getLong(table + slot * Long.BYTES);
+  }
+
+  private void writeSlot(int table, int slot, int hash, int record) {
+    buffer.putLong(table + slot * Long.BYTES, (long) hash << 32 | record);
+  }
+
+  private int findSlot(int table, byte[] key, int field) {
+    if (key == null) {
+      return -1;
+    }
+    int hash = hash(key);
+    int mask = tableCapacity - 1;
+    for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+      long entry = buffer.getLong(table + slot * Long.BYTES);
+      if (entry == 0) {
+        return -1;
+      }
+      if ((int) (entry >>> 32) == hash
+          && fieldEquals((int) entry, field, key, field == FIELD_USERNAME)) {
+        return slot;
+      }
+    }
+  }
+
+  private void insertSlot(int table, byte[] key, int record) {
+    int hash = hash(key);
+    int mask = tableCapacity - 1;
+    int slot = hash & mask;
+    while (buffer.getLong(table + slot * Long.BYTES) != 0) {
+      slot = (slot + 1) & mask;
+    }
+    writeSlot(table, slot, hash, record);
+  }
+
+  private void removeSlot(int table, byte[] key, int field) {
+    int hole = findSlot(table, key, field);
+    if (hole < 0) {
+      return;
+    }
+    int mask = tableCapacity - 1;
+    // shift back the following entries of the probe sequence
+    for (int slot = (hole + 1) & mask;; slot = (slot + 1) & mask) {
+      long entry = buffer.getLong(table + slot * Long.BYTES);
+      if (entry == 0) {
+        break;
+      }
+      int home = (int) (entry >>> 32) & mask;
+      if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+        buffer.putLong(table + hole * Long.BYTES, entry);
+        hole = slot;
+      }
+    }
+    buffer.putLong(table + hole * Long.BYTES, 0);
+  }
+
+  private static int hash(byte[] key) {
+    int hash = 1;
+    for (byte b : key) {
+      hash = 31 * hash + b;
+    }
+    return hash ^ hash >>> 16;
+  }
+
+  // records
+
+  private static byte[] utf8(String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] usernameKey(String username) {
+    return username == null ? null : utf8(username.toLowerCase(Locale.ROOT));
+  }
+
+  private static byte[] encode(User user) {
+    if (user.getId() == null) {
+      throw new IllegalArgumentException("User id is required");
+    }
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(0); // length
+      out.writeInt(0); // flags
+      out.writeLong(user.getCreateAt());
+      out.writeLong(user.getUpdateAt());
+      out.writeLong(user.getDeleteAt());
+      out.writeLong(user.getLastPictureUpdate());
+      out.writeInt((user.isBot() ? BIT_BOT : 0) | (user.isEmailVerified() ? BIT_EMAIL_VERIFIED : 0)
+          | (user.isMfaActive() ? BIT_MFA_ACTIVE : 0));
+      writeString(out, user.getId());
+      writeString(out, user.getUsername());
+      writeString(out, user.getEmail());
+      writeString(out, user.getNickname());
+      writeString(out, user.getFirstName());
+      writeString(out, user.getLastName());
+      writeString(out, user.getPosition());
+      writeString(out, user.getRoles());
+      writeString(out, user.getLocale());
+      writeString(out, user.getAuthService() == null ? null : user.getAuthService().getCode());
+      writeString(out, user.getBotDescription());
+      writeMap(out, user.getProps());
+      writeMap(out, user.getNotifyProps());
+      writeMap(out, user.getTimezone());
+      while (out.size() % Long.BYTES != 0) {
+        out.writeByte(0);
+      }
+      byte[] record = bytes.toByteArray();
+      ByteBuffer.wrap(record).putInt(RECORD_LENGTH, record.length);
+      return record;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    writeBytes(out, utf8(value));
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_LENGTH);
+    } else {
+      out.writeInt(value.length);
+      out.write(value);
+    }
+  }
+
+  private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+    if (map == null) {
+      out.writeInt(NULL_LENGTH);
+      return;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream entries = new DataOutputStream(bytes);
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      writeString(entries, entry.getKey());
+      writeString(entries, entry.getValue());
+    }
+    writeBytes(out, bytes.toByteArray());
+  }
+
+  /**
+   * The offset of the length of the field.
+   */
+  private int fieldOffset(int record, int field) {
+    int offset = record + RECORD_FIXED_SIZE;
+    for (int i = 0; i < field; i++) {
+      offset += Integer.BYTES + Math.max(0, buffer.getInt(offset));
+    }
+    return offset;
+  }
+
+  private String readString(int record, int field) {
+    int offset = fieldOffset(record, field);
+    int length = buffer.getInt(offset);
+    return length == NULL_LENGTH ? null : decode(offset + Integer.BYTES, length);
+  }
+
+  private String decode(int offset, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer source = buffer.duplicate();
+    ((Buffer) source).position(offset);
+    source.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private Map<String, String> readMap(int record, int field) {
+    int offset = fieldOffset(record, field);
+    int length = buffer.getInt(offset);
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    Map<String, String> map = new LinkedHashMap<>();
+    int position = offset + Integer.BYTES;
+    int end = position + length;
+    while (position < end) {
+      int keyLength = buffer.getInt(position);
+      String key = keyLength == NULL_LENGTH ? null : decode(position + Integer.BYTES, keyLength);
+      position += Integer.BYTES + Math.max(0, keyLength);
+      int valueLength = buffer.getInt(position);
+      String value =
+          valueLength == NULL_LENGTH ? null : decode(position + Integer.BYTES, valueLength);
+      position += Integer.BYTES + Math.max(0, valueLength);
+      map.put(key, value);
+    }
+    return map;
+  }
+
+  private boolean fieldEquals(int record, int field, byte[] key, boolean ignoreCase) {
+    int offset = fieldOffset(record, field);
+    if (buffer.getInt(offset) != key.length) {
+      return false;
+    }
+    for (int i = 0; i < key.length; i++) {
+      byte b = buffer.get(offset + Integer.BYTES + i);
+      if (ignoreCase && b >= 'A' && b <= 'Z') {
+        b += 'a' - 'A';
+      }
+      if (b != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Flyweight view of a stored user. The fields are read from the mapped file on each access.
+   * Views stay valid after the user is updated or removed, showing the old state, until the store
+   * is closed.
+   */
+  public static final class UserView {
+
+    private MappedUserStore store;
+    private int record;
+
+    UserView position(MappedUserStore store, int record) {
+      this.store = store;
+      this.record = record;
+      return this;
+    }
+
+    private long getLong(int offset) {
+      return store.buffer.getLong(record + offset);
+    }
+
+    private boolean getBit(int bit) {
+      return (store.buffer.getInt(record + RECORD_BOOLEANS) & bit) != 0;
+    }
+
+    private String getString(int field) {
+      return store.readString(record, field);
+    }
+
+    public String getId() {
+      return getString(FIELD_ID);
+    }
+
+    public String getUsername() {
+      return getString(FIELD_USERNAME);
+    }
+
+    public String getEmail() {
+      return getString(FIELD_EMAIL);
+    }
+
+    public String getNickname() {
+      return getString(FIELD_NICKNAME);
+    }
+
+    public String getFirstName() {
+      return getString(FIELD_FIRST_NAME);
+    }
+
+    public String getLastName() {
+      return getString(FIELD_LAST_NAME);
+    }
+
+    public String getPosition() {
+      return getString(FIELD_POSITION);
+    }
+
+    public String getRoles() {
+      return getString(FIELD_ROLES);
+    }
+
+    public String getLocale() {
+      return getString(FIELD_LOCALE);
+    }
+
+    public String getBotDescription() {
+      return getString(FIELD_BOT_DESCRIPTION);
+    }
+
+    public long getCreateAt() {
+      return getLong(RECORD_CREATE_AT);
+    }
+
+    public long getUpdateAt() {
+      return getLong(RECORD_UPDATE_AT);
+    }
+
+    public long getDeleteAt() {
+      return getLong(RECORD_DELETE_AT);
+    }
+
+    public long getLastPictureUpdate() {
+      return getLong(RECORD_LAST_PICTURE_UPDATE);
+    }
+
+    public boolean isBot() {
+      return getBit(BIT_BOT);
+    }
+
+    public boolean isEmailVerified() {
+      return getBit(BIT_EMAIL_VERIFIED);
+    }
+
+    public boolean isMfaActive() {
+      return getBit(BIT_MFA_ACTIVE);
+    }
+
+    public Map<String, String> getProps() {
+      return store.readMap(record, FIELD_PROPS);
+    }
+
+    public Map<String, String> getNotifyProps() {
+      return store.readMap(record, FIELD_NOTIFY_PROPS);
+    }
+
+    public Map<String, String> getTimezone() {
+      return store.readMap(record, FIELD_TIMEZONE);
+    }
+
+    /**
+     * Copy to a new {@link User} on the heap.
+     */
+    public User toUser() {
+      User user = new User();
+      user.setId(getId());
+      user.setUsername(getUsername());
+      user.setEmail(getEmail());
+      user.setNickname(getNickname());
+      user.setFirstName(getFirstName());
+      user.setLastName(getLastName());
+      user.setPosition(getPosition());
+      user.setRoles(getRoles());
+      user.setLocale(getLocale());
+      String authService = getString(FIELD_AUTH_SERVICE);
+      user.setAuthService(authService == null ? null : AuthService.of(authService));
+      user.setBotDescription(getBotDescription());
+      user.setCreateAt(getCreateAt());
+      user.setUpdateAt(getUpdateAt());
+      user.setDeleteAt(getDeleteAt());
+      user.setLastPictureUpdate(getLastPictureUpdate());
+      user.setBot(isBot());
+      user.setEmailVerified(isEmailVerified());
+      user.setMfaActive(isMfaActive());
+      user.setProps(getProps());
+      user.setNotifyProps(getNotifyProps());
+      user.setTimezone(getTimezone());
+      return user;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import net.bis5.mattermost.model.MattermostId;
+
+/**
+ * Hash map keyed by {@link MattermostId}, for client side caches holding many entities.
+ *
+ * <p>
+ * Keys are stored as two {@code long} arrays with open addressing, so no entry or key object is
+ * retained per mapping. Null values are not allowed. Not thread safe.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class MattermostIdMap<V> {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] highs;
+  private long[] lows;
+  private Object[] values;
+  private int size;
+  private int mask;
+  private int resizeThreshold;
+
+  public MattermostIdMap() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Create new map.
+   *
+   * @param expectedSize the number of mappings to hold without resizing
+   */
+  public MattermostIdMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expectedSize must not be negative");
+    }
+    int capacity = MIN_CAPACITY;
+    while (capacity * 3L / 4 < expectedSize) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    highs = new long[capacity];
+    lows = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    resizeThreshold = capacity * 3 / 4;
+  }
+
+  private int slot(long high, long low) {
+    int hash = MattermostId.hash(high, low);
+    return (hash ^ hash >>> 16) & mask;
+  }
+
+  private int indexOf(long high, long low) {
+    for (int i = slot(high, low);; i = (i + 1) & mask) {
+      if (values[i] == null) {
+        return -1;
+      }
+      if (highs[i] == high && lows[i] == low) {
+        return i;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long mostSignificantBits, long leastSignificantBits) {
+    int index = indexOf(mostSignificantBits, leastSignificantBits);
+    return index < 0 ? null : (V) values[index];
+  }
+
+  public V get(MattermostId id) {
+    return get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+  }
+
+  /**
+   * Get the value for the id string. Returns {@code null} if the string is not a Mattermost id.
+   */
+  public V get(String id) {
+    MattermostId parsed = MattermostId.tryParse(id);
+    return parsed == null ? null : get(parsed);
+  }
+
+  public boolean containsKey(MattermostId id) {
+    return indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+  }
+
+  /**
+   * Associate the value with the id.
+   *
+   * @return the previous value, or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public V put(MattermostId id, V value) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    long high = id.getMostSignificantBits();
+    long low = id.getLeastSignificantBits();
+    int i = slot(high, low);
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (highs[i] == high && lows[i] == low) {
+        V previous = (V) values[i];
+        values[i] = value;
+        return previous;
+      }
+    }
+    highs[i] = high;
+    lows[i] = low;
+    values[i] = value;
+    if (++size > resizeThreshold) {
+      resize(values.length << 1);
+    }
+    return null;
+  }
+
+  /**
+   * Get the value for the id, computing and storing it if absent. A {@code null} result of the
+   * function is not stored.
+   */
+  public V computeIfAbsent(MattermostId id, Function<? super MattermostId, ? extends V> function) {
+    V value = get(id);
+    if (value == null) {
+      value = function.apply(id);
+      if (value != null) {
+        put(id, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Remove the mapping for the id.
+   *
+   * @return the removed value, or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(MattermostId id) {
+    int index = indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    if (index < 0) {
+      return null;
+    }
+    V previous = (V) values[index];
+    // shift back the following entries of the probe sequence
+    int hole = index;
+    for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+      int home = slot(highs[i], lows[i]);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        highs[hole] = highs[i];
+        lows[hole] = lows[i];
+        values[hole] = values[i];
+        hole = i;
+      }
+    }
+    values[hole] = null;
+    size--;
+    return previous;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(int capacity) {
+    long[] oldHighs = highs;
+    long[] oldLows = lows;
+    Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int slot = slot(oldHighs[i], oldLows[i]);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        highs[slot] = oldHighs[i];
+        lows[slot] = oldLows[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  /**
+   * Performs the action for each mapping. The map must not be modified by the action.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super MattermostId, ? super V> action) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        action.accept(new MattermostId(highs[i], lows[i]), (V) values[i]);
+      }
+    }
+  }
+}
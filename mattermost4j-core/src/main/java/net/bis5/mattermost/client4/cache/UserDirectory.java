@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.api.UserApi;
+import net.bis5.mattermost.client4.jfr.FlightRecorderEvents;
+import net.bis5.mattermost.client4.stream.EntityStream;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.User;
+import net.bis5.mattermost.model.UserList;
+import net.bis5.mattermost.model.WebSocketEvent;
+import net.bis5.mattermost.model.WebSocketEventType;
+
+/**
+ * Local mirror of the user directory, answering lookups by id, username and email from memory.
+ *
+ * <p>
+ * {@link #bootstrap()} loads all users page by page. Feed the events received from the
+ * {@code /websocket} endpoint to {@link #onEvent(WebSocketEvent)} to keep the mirror current:
+ * {@code new_user} and {@code user_removed} re-fetch the user, {@code user_updated} replaces the
+ * user with the one in the event. If the sequence numbers of the events have a gap, or the
+ * connection was re-established, the users mirrored so far become stale: a stale user is
+ * re-fetched on its next lookup, and with the refresh executor all stale users are re-fetched in
+ * the background in batches. Users not in the mirror are fetched on lookup.
+ * </p>
+ *
+ * <p>
+ * The requests are sent without holding the lock of the directory, so a slow server does not
+ * block the events and the lookups of the other users.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class UserDirectory {
+
+  private static final Logger LOGGER = Logger.getLogger(UserDirectory.class.getName());
+
+  static final int PAGE_SIZE = 200;
+  static final int IDS_BATCH_SIZE = 100;
+  private static final int NOT_FOUND = 404;
+
+  private final UserApi api;
+  private final Executor refreshExecutor;
+  private final ObjectMapper mapper =
+      new MattermostModelMapperProvider(true).getContext(User.class);
+  private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+  private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+  private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+  private final Object bootstrapLock = new Object();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  /** guarded by {@code this}. */
+  private long lastSequence = -1;
+  /** the users fetched before the last gap are stale. */
+  private final AtomicLong epoch = new AtomicLong();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong gapCount = new AtomicLong();
+
+  /**
+   * A mirrored user, with the epoch when its request was sent.
+   */
+  private static final class Entry {
+
+    final User user;
+    final long epoch;
+
+    Entry(User user, long epoch) {
+      this.user = user;
+      this.epoch = epoch;
+    }
+  }
+
+  /**
+   * Create the directory re-fetching the stale users on lookup.
+   */
+  public UserDirectory(UserApi api) {
+    this(api, null);
+  }
+
+  /**
+   * Create the directory also re-fetching the stale users on the {@code refreshExecutor}, in
+   * batches of 100 users.
+   */
+  public UserDirectory(UserApi api, Executor refreshExecutor) {
+    this.api = api;
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  /**
+   * Load all users, replacing the current contents.
+   *
+   * @return the number of users
+   */
+  public int bootstrap() throws IOException {
+    synchronized (bootstrapLock) {
+      synchronized (this) {
+        byId.clear();
+        byUsername.clear();
+        byEmail.clear();
+      }
+      long fetchEpoch = epoch.get();
+      int count = 0;
+      for (Pager pager = Pager.of(0, PAGE_SIZE);; pager = pager.nextPage()) {
+        ApiResponse<EntityStream<User>> response = api.streamUsers(pager);
+        checkError(response);
+        int pageCount =
+            response.readEntity().forEachAndClose(user -> store(user, fetchEpoch));
+        count += pageCount;
+        if (pageCount < PAGE_SIZE) {
+          return count;
+        }
+      }
+    }
+  }
+
+  private boolean isFresh(Entry entry) {
+    return entry != null && entry.epoch >= epoch.get();
+  }
+
+  /**
+   * Find the user by id, fetching it if not in the mirror or stale. Returns {@code null} if not
+   * found.
+   */
+  public User getUser(String userId) {
+    Entry entry = byId.get(userId);
+    if (isFresh(entry)) {
+      hitCount.incrementAndGet();
+      return entry.user;
+    }
+    missCount.incrementAndGet();
+    return fetch(userId, epoch.get(), api.getUser(userId));
+  }
+
+  /**
+   * Find the user by username ignoring case, fetching it if not in the mirror or stale. Returns
+   * {@code null} if not found.
+   */
+  public User getUserByUsername(String username) {
+    Entry entry = byUsername.get(key(username));
+    if (isFresh(entry)) {
+      hitCount.incrementAndGet();
+      return entry.user;
+    }
+    missCount.incrementAndGet();
+    return fetch(entry == null ? null : entry.user.getId(), epoch.get(),
+        api.getUserByUsername(username));
+  }
+
+  /**
+   * Find the user by email ignoring case, fetching it if not in the mirror or stale. Returns
+   * {@code null} if not found.
+   */
+  public User getUserByEmail(String email) {
+    Entry entry = byEmail.get(key(email));
+    if (isFresh(entry)) {
+      hitCount.incrementAndGet();
+      return entry.user;
+    }
+    missCount.incrementAndGet();
+    return fetch(entry == null ? null : entry.user.getId(), epoch.get(),
+        api.getUserByEmail(email));
+  }
+
+  /**
+   * Find the users by ids, fetching the users not in the mirror or stale with batched requests.
+   * Users not found are omitted.
+   */
+  public List<User> getUsersByIds(Collection<String> userIds) {
+    List<User> users = new ArrayList<>(userIds.size());
+    List<String> missing = new ArrayList<>();
+    for (String userId : userIds) {
+      Entry entry = byId.get(userId);
+      if (isFresh(entry)) {
+        users.add(entry.user);
+      } else {
+        missing.add(userId);
+      }
+    }
+    hitCount.addAndGet(users.size());
+    missCount.addAndGet(missing.size());
+    for (int i = 0; i < missing.size(); i += IDS_BATCH_SIZE) {
+      List<String> batch = missing.subList(i, Math.min(i + IDS_BATCH_SIZE, missing.size()));
+      users.addAll(fetchByIds(batch));
+    }
+    return users;
+  }
+
+  /**
+   * Apply the {@code /websocket} event. Events other than the user events are only used for the
+   * gap detection.
+   */
+  public void onEvent(WebSocketEvent event) {
+    Object recording = FlightRecorderEvents.beginWebSocketEvent();
+    try {
+      apply(event);
+    } finally {
+      FlightRecorderEvents.commitWebSocketEvent(recording, "UserDirectory",
+          event.getEvent() == null ? null : event.getEvent().getCode(), event.getSequence());
+    }
+  }
+
+  private void apply(WebSocketEvent event) {
+    if (event.getEvent() == null) {
+      return;
+    }
+    if (checkSequence(event)) {
+      recoverGap();
+    }
+    switch (event.getEvent()) {
+      case NewUser:
+      case UserRemoved:
+        refresh(data(event, "user_id"));
+        break;
+      case UserUpdated: {
+        User user = readUser(data(event, "user"));
+        if (user != null) {
+          update(user);
+        } else {
+          refresh(data(event, "user_id"));
+        }
+        break;
+      }
+      default:
+        break;
+    }
+  }
+
+  /**
+   * @return {@code true} if the events were lost before the {@code event}
+   */
+  private synchronized boolean checkSequence(WebSocketEvent event) {
+    boolean gap;
+    if (event.getEvent() == WebSocketEventType.Hello) {
+      // reconnected, the events while disconnected are lost
+      gap = lastSequence >= 0;
+    } else {
+      gap = lastSequence >= 0 && event.getSequence() != lastSequence + 1;
+    }
+    lastSequence = event.getSequence();
+    return gap;
+  }
+
+  private void recoverGap() {
+    gapCount.incrementAndGet();
+    markStale();
+  }
+
+  /**
+   * Mark all users in the mirror as stale, to re-fetch them on lookup or on the refresh executor.
+   */
+  public void markStale() {
+    epoch.incrementAndGet();
+    if (refreshExecutor != null && refreshing.compareAndSet(false, true)) {
+      try {
+        refreshExecutor.execute(this::refreshInBackground);
+      } catch (RuntimeException e) {
+        refreshing.set(false);
+        LOGGER.log(Level.WARNING, "Failed to schedule the refresh of the users", e);
+      }
+    }
+  }
+
+  private void refreshInBackground() {
+    try {
+      long refreshed;
+      do {
+        refreshed = epoch.get();
+        refreshStale();
+      } while (refreshed != epoch.get());
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Failed to refresh the users, re-fetching them on lookup", e);
+    } finally {
+      refreshing.set(false);
+    }
+  }
+
+  /**
+   * Re-fetch the stale users in batches of 100 users. Users not found are
+   * removed.
+   */
+  public void refreshStale() {
+    Iterator<Entry> entries = byId.values().iterator();
+    List<String> batch = new ArrayList<>(IDS_BATCH_SIZE);
+    while (entries.hasNext()) {
+      Entry entry = entries.next();
+      if (!isFresh(entry)) {
+        batch.add(entry.user.getId());
+      }
+      if (batch.size() == IDS_BATCH_SIZE || !entries.hasNext() && !batch.isEmpty()) {
+        fetchByIds(batch);
+        batch = new ArrayList<>(IDS_BATCH_SIZE);
+      }
+    }
+  }
+
+  private static String data(WebSocketEvent event, String key) {
+    return event.getData() == null ? null : event.getData().get(key);
+  }
+
+  private User readUser(String json) {
+    if (json == null || json.isEmpty()) {
+      return null;
+    }
+    try {
+      return mapper.readValue(json, User.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Store the user, replacing the user with the same id.
+   */
+  public void update(User user) {
+    store(user, epoch.get());
+  }
+
+  /**
+   * Re-fetch the user. The user is removed if not found.
+   */
+  public void refresh(String userId) {
+    if (userId == null || userId.isEmpty()) {
+      return;
+    }
+    fetch(userId, epoch.get(), api.getUser(userId));
+  }
+
+  /**
+   * Re-fetch all users in the mirror by ids. Users not found are removed.
+   */
+  public void refreshAll() {
+    epoch.incrementAndGet();
+    refreshStale();
+  }
+
+  /**
+   * Remove the user from the mirror.
+   */
+  public synchronized void remove(String userId) {
+    Entry removed = byId.remove(userId);
+    if (removed != null) {
+      byUsername.remove(key(removed.user.getUsername()), removed);
+      byEmail.remove(key(removed.user.getEmail()), removed);
+    }
+  }
+
+  /**
+   * Remove the user unless stored again since the request of the {@code fetchEpoch}.
+   */
+  private synchronized void removeStale(String userId, long fetchEpoch) {
+    Entry entry = byId.get(userId);
+    if (entry != null && entry.epoch <= fetchEpoch) {
+      remove(userId);
+    }
+  }
+
+  private synchronized void store(User user, long fetchEpoch) {
+    Entry entry = new Entry(user, fetchEpoch);
+    Entry previous = byId.put(user.getId(), entry);
+    if (previous != null) {
+      byUsername.remove(key(previous.user.getUsername()), previous);
+      byEmail.remove(key(previous.user.getEmail()), previous);
+    }
+    if (user.getUsername() != null) {
+      byUsername.put(key(user.getUsername()), entry);
+    }
+    if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+      byEmail.put(key(user.getEmail()), entry);
+    }
+  }
+
+  /**
+   * @param userId the id of the mirrored user to remove if not found, or {@code null}
+   * @param fetchEpoch the epoch when the request was sent
+   */
+  private User fetch(String userId, long fetchEpoch, ApiResponse<User> response) {
+    if (response.hasError()) {
+      if (response.getRawResponse().getStatus() == NOT_FOUND) {
+        if (userId != null) {
+          removeStale(userId, fetchEpoch);
+        }
+        return null;
+      }
+      checkError(response);
+    }
+    User user = response.readEntity();
+    store(user, fetchEpoch);
+    return user;
+  }
+
+  private List<User> fetchByIds(List<String> userIds) {
+    long fetchEpoch = epoch.get();
+    ApiResponse<UserList> response = api.getUsersByIds(userIds);
+    checkError(response);
+    UserList users = response.readEntity();
+    Set<String> found = new HashSet<>();
+    for (User user : users) {
+      store(user, fetchEpoch);
+      found.add(user.getId());
+    }
+    for (String userId : userIds) {
+      if (!found.contains(userId)) {
+        removeStale(userId, fetchEpoch);
+      }
+    }
+    return users;
+  }
+
+  private static void checkError(ApiResponse<?> response) {
+    if (response.hasError()) {
+      throw new IllegalStateException(
+          "Failed to fetch users: " + response.readError().getMessage());
+    }
+  }
+
+  private static String key(String value) {
+    return value == null ? "" : value.toLowerCase(Locale.ROOT);
+  }
+
+  public int size() {
+    return byId.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getGapCount() {
+    return gapCount.get();
+  }
+
+}
@@ -0,0 +1,552 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.core.Response;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.api.hook.IncomingWebhook;
+import net.bis5.mattermost.client4.instrument.ClientInstrumentation;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.IncomingWebhookRequest;
+import net.bis5.mattermost.model.SlackAttachment;
+
+/**
+ * Delivers the incoming webhook messages to one hook in the background.
+ *
+ * <p>
+ * {@link #offer(IncomingWebhookRequest)} puts the message to the bounded queue and returns
+ * immediately. When the queue is full, the message is dropped, or written to the spill file if
+ * configured. The spill file keeps the messages not delivered on {@link #close()} for the next
+ * start. The workers post the messages through the delegate, pacing the requests by the minimum
+ * interval, and retry the throttled (429) and server error responses honoring the
+ * {@code Retry-After} and {@code X-Ratelimit-Reset} headers.
+ * </p>
+ *
+ * <p>
+ * With {@link AsyncIncomingWebhookClientBuilder#coalesce(int)}, the messages queued while waiting
+ * for the pace are posted as one request when they have the same channel, username, icon, type and
+ * props. The texts are joined by new lines and the attachments are concatenated.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class AsyncIncomingWebhookClient implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(AsyncIncomingWebhookClient.class.getName());
+  private static final long POLL_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 60_000;
+  /** Mattermost splits the longer message into multiple posts. */
+  static final int MAX_TEXT_LENGTH = 16383;
+  private static final String ROUTE = "/hooks/{id}";
+
+  private final IncomingWebhook delegate;
+  private final ClientInstrumentation instrumentation;
+  private final BlockingQueue<IncomingWebhookRequest> queue;
+  private final SpillFile spill;
+  private final ObjectWriter writer;
+  private final ObjectReader reader;
+  private final int maxBatch;
+  private final long intervalNanos;
+  private final int maxRetries;
+  private final long initialBackoffMillis;
+  private final long closeTimeoutMillis;
+  private final List<Thread> workers = new ArrayList<>();
+  /** the batches taken by the workers interrupted on close. */
+  private final List<IncomingWebhookRequest> inFlight = new ArrayList<>();
+  private final Object paceLock = new Object();
+  private long nextSlot = System.nanoTime();
+  private volatile boolean closed;
+
+  private final AtomicLong enqueuedCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong spilledCount = new AtomicLong();
+  private final AtomicLong deliveredCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong retryCount = new AtomicLong();
+
+  private AsyncIncomingWebhookClient(AsyncIncomingWebhookClientBuilder builder)
+      throws IOException {
+    this.delegate = builder.delegate;
+    this.instrumentation = builder.instrumentation;
+    this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+    this.spill = builder.spillFile == null ? null : new SpillFile(builder.spillFile);
+    ObjectMapper mapper =
+        new MattermostModelMapperProvider().getContext(IncomingWebhookRequest.class);
+    this.writer = mapper.writerFor(IncomingWebhookRequest.class);
+    this.reader = mapper.readerFor(IncomingWebhookRequest.class);
+    this.maxBatch = builder.maxBatch;
+    this.intervalNanos = builder.minInterval.toNanos();
+    this.maxRetries = builder.maxRetries;
+    this.initialBackoffMillis = builder.initialBackoff.toMillis();
+    this.closeTimeoutMillis = builder.closeTimeout.toMillis();
+    for (int i = 0; i < builder.workers; i++) {
+      Thread worker = new Thread(this::work, "mattermost4j-webhook-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+      worker.start();
+    }
+  }
+
+  public static AsyncIncomingWebhookClientBuilder builder(String hookUrl) {
+    return builder(new IncomingWebhookClient(hookUrl));
+  }
+
+  public static AsyncIncomingWebhookClientBuilder builder(IncomingWebhook delegate) {
+    return new AsyncIncomingWebhookClientBuilder(delegate);
+  }
+
+  /**
+   * Queue the message for delivery.
+   *
+   * @return {@code false} if the message is dropped because the queue is full
+   * @throws IllegalStateException if already closed
+   */
+  public boolean offer(IncomingWebhookRequest payload) {
+    if (closed) {
+      throw new IllegalStateException("Already closed");
+    }
+    enqueuedCount.incrementAndGet();
+    // keep the order while the spilled messages remain
+    if ((spill == null || spill.size() == 0) && queue.offer(payload)) {
+      return true;
+    }
+    if (spill != null) {
+      try {
+        spill.append(writer.writeValueAsBytes(payload));
+        spilledCount.incrementAndGet();
+        return true;
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Failed to spill the webhook message", e);
+      }
+    }
+    droppedCount.incrementAndGet();
+    return false;
+  }
+
+  private boolean isDrained() {
+    return queue.isEmpty() && (spill == null || spill.size() == 0);
+  }
+
+  private void work() {
+    List<IncomingWebhookRequest> batch = new ArrayList<>();
+    try {
+      while (!closed || !isDrained()) {
+        IncomingWebhookRequest first = poll();
+        if (first == null) {
+          first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+        }
+        batch.add(first);
+        awaitSlot();
+        // the messages queued while waiting for the pace are coalesced
+        IncomingWebhookRequest next;
+        while (batch.size() < maxBatch && (next = poll()) != null) {
+          batch.add(next);
+        }
+        deliverAll(batch);
+      }
+    } catch (InterruptedException e) {
+      synchronized (inFlight) {
+        inFlight.addAll(batch);
+      }
+    }
+  }
+
+  private IncomingWebhookRequest poll() {
+    IncomingWebhookRequest request = queue.poll();
+    if (request != null || spill == null) {
+      return request;
+    }
+    try {
+      byte[] record = spill.poll();
+      return record == null ? null : reader.readValue(record);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to read the spilled webhook message", e);
+      return null;
+    }
+  }
+
+  private void awaitSlot() throws InterruptedException {
+    long slot;
+    synchronized (paceLock) {
+      slot = Math.max(System.nanoTime(), nextSlot);
+      nextSlot = slot + intervalNanos;
+    }
+    long wait = slot - System.nanoTime();
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private void delaySlots(long untilNanos) {
+    synchronized (paceLock) {
+      nextSlot = Math.max(nextSlot, untilNanos);
+    }
+  }
+
+  /**
+   * Post the batch by the groups of the coalescible messages, removing the delivered messages.
+   */
+  private void deliverAll(List<IncomingWebhookRequest> batch) throws InterruptedException {
+    boolean first = true;
+    while (!batch.isEmpty()) {
+      if (!first) {
+        awaitSlot();
+      }
+      first = false;
+      List<IncomingWebhookRequest> group = batch.subList(0, groupEnd(batch));
+      deliver(group.size() == 1 ? group.get(0) : merge(group), group.size());
+      group.clear();
+    }
+  }
+
+  private static int groupEnd(List<IncomingWebhookRequest> batch) {
+    IncomingWebhookRequest head = batch.get(0);
+    int textLength = length(head.getText());
+    int end = 1;
+    while (end < batch.size() && isSameEnvelope(head, batch.get(end))) {
+      textLength += 1 + length(batch.get(end).getText());
+      if (textLength > MAX_TEXT_LENGTH) {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  private static int length(String text) {
+    return text == null ? 0 : text.length();
+  }
+
+  private static boolean isSameEnvelope(IncomingWebhookRequest a, IncomingWebhookRequest b) {
+    return Objects.equals(a.getChannel(), b.getChannel())
+        && Objects.equals(a.getUsername(), b.getUsername())
+        && Objects.equals(a.getIconUrl(), b.getIconUrl())
+        && Objects.equals(a.getIconEmoji(), b.getIconEmoji())
+        && Objects.equals(a.getType(), b.getType())
+        && Objects.equals(a.getProps(), b.getProps());
+  }
+
+  static IncomingWebhookRequest merge(List<IncomingWebhookRequest> group) {
+    IncomingWebhookRequest head = group.get(0);
+    IncomingWebhookRequest merged = new IncomingWebhookRequest();
+    merged.setChannel(head.getChannel());
+    merged.setUsername(head.getUsername());
+    merged.setIconUrl(head.getIconUrl());
+    merged.setIconEmoji(head.getIconEmoji());
+    merged.setType(head.getType());
+    merged.setProps(head.getProps());
+    StringBuilder text = new StringBuilder();
+    List<SlackAttachment> attachments = new ArrayList<>();
+    for (IncomingWebhookRequest request : group) {
+      if (request.getText() != null && !request.getText().isEmpty()) {
+        if (text.length() > 0) {
+          text.append('\n');
+        }
+        text.append(request.getText());
+      }
+      if (request.getAttachments() != null) {
+        attachments.addAll(request.getAttachments());
+      }
+    }
+    merged.setText(text.length() == 0 ? null : text.toString());
+    merged.setAttachments(attachments.isEmpty() ? null : attachments);
+    return merged;
+  }
+
+  private void deliver(IncomingWebhookRequest request, int messages) throws InterruptedException {
+    for (int attempt = 0;; attempt++) {
+      if (attempt > 0) {
+        awaitSlot();
+      }
+      requestCount.incrementAndGet();
+      long retryAfterMillis = 0;
+      String error;
+      try {
+        ApiResponse<Boolean> response = delegate.postByIncomingWebhook(request);
+        Response raw = response.getRawResponse();
+        int status = raw.getStatus();
+        if (Boolean.TRUE.equals(response.readEntity())) {
+          deliveredCount.addAndGet(messages);
+          return;
+        }
+        error = "HTTP " + status;
+        if (status != 429 && status < 500) {
+          fail(messages, error);
+          return;
+        }
+        retryAfterMillis = retryAfterMillis(raw);
+      } catch (RuntimeException e) {
+        error = e.toString();
+      }
+      if (attempt >= maxRetries) {
+        fail(messages, error);
+        return;
+      }
+      retryCount.incrementAndGet();
+      if (instrumentation != null) {
+        instrumentation.requestRetried("POST", ROUTE, attempt + 1);
+      }
+      long backoff = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt, 20));
+      delaySlots(System.nanoTime()
+          + TimeUnit.MILLISECONDS.toNanos(Math.max(backoff, retryAfterMillis)));
+    }
+  }
+
+  private static long retryAfterMillis(Response response) {
+    for (String header : new String[] {"Retry-After", "X-Ratelimit-Reset"}) {
+      String value = response.getHeaderString(header);
+      if (value != null) {
+        try {
+          return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+          // HTTP-date is not supported, use the backoff
+        }
+      }
+    }
+    return 0;
+  }
+
+  private void fail(int messages, String error) {
+    failedCount.addAndGet(messages);
+    LOGGER.log(Level.WARNING, "Failed to deliver {0} webhook message(s): {1}",
+        new Object[] {messages, error});
+  }
+
+  /**
+   * Put the messages before the spilled messages, or drop them without the spill file.
+   */
+  private void abandon(List<IncomingWebhookRequest> requests) {
+    if (spill == null) {
+      droppedCount.addAndGet(requests.size());
+      return;
+    }
+    List<byte[]> records = new ArrayList<>(requests.size());
+    for (IncomingWebhookRequest request : requests) {
+      try {
+        records.add(writer.writeValueAsBytes(request));
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Failed to spill the webhook message", e);
+        droppedCount.incrementAndGet();
+      }
+    }
+    try {
+      spill.prepend(records);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to spill the webhook messages", e);
+      droppedCount.addAndGet(records.size());
+    }
+  }
+
+  public long getEnqueuedCount() {
+    return enqueuedCount.get();
+  }
+
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  public long getSpilledCount() {
+    return spilledCount.get();
+  }
+
+  /**
+   * @return the number of the messages delivered, counting each coalesced message
+   */
+  public long getDeliveredCount() {
+    return deliveredCount.get();
+  }
+
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  /**
+   * @return the number of the HTTP requests, including the retries
+   */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  public long getRetryCount() {
+    return retryCount.get();
+  }
+
+  /**
+   * @return the number of the messages waiting in the queue and the spill file
+   */
+  public int getPendingCount() {
+    return queue.size() + (spill == null ? 0 : spill.size());
+  }
+
+  /**
+   * Stop accepting the messages and wait for the delivery of the queued messages until the close
+   * timeout. The messages not delivered are kept in the spill file if configured, otherwise
+   * dropped.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(closeTimeoutMillis);
+    try {
+      for (Thread worker : workers) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        worker.join(Math.max(1, remaining));
+      }
+      for (Thread worker : workers) {
+        worker.interrupt();
+      }
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // the messages taken by the workers are older than the queued messages, which are older than
+    // the spilled messages
+    List<IncomingWebhookRequest> rest;
+    synchronized (inFlight) {
+      rest = new ArrayList<>(inFlight);
+    }
+    queue.drainTo(rest);
+    abandon(rest);
+    if (spill != null) {
+      try {
+        spill.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  public static class AsyncIncomingWebhookClientBuilder {
+
+    private final IncomingWebhook delegate;
+    private int queueCapacity = 1000;
+    private Path spillFile;
+    private int workers = 1;
+    private int maxBatch = 1;
+    private Duration minInterval = Duration.ZERO;
+    private int maxRetries = 3;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration closeTimeout = Duration.ofSeconds(10);
+    private ClientInstrumentation instrumentation;
+
+    AsyncIncomingWebhookClientBuilder(IncomingWebhook delegate) {
+      this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    public AsyncIncomingWebhookClientBuilder queueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Write the messages overflowing the queue to the file instead of dropping.
+     */
+    public AsyncIncomingWebhookClientBuilder spill(Path spillFile) {
+      this.spillFile = spillFile;
+      return this;
+    }
+
+    public AsyncIncomingWebhookClientBuilder workers(int workers) {
+      this.workers = workers;
+      return this;
+    }
+
+    /**
+     * Post up to {@code maxMessages} queued messages as one request.
+     */
+    public AsyncIncomingWebhookClientBuilder coalesce(int maxMessages) {
+      this.maxBatch = maxMessages;
+      return this;
+    }
+
+    /**
+     * The minimum interval between the requests, shared by all workers.
+     */
+    public AsyncIncomingWebhookClientBuilder minInterval(Duration minInterval) {
+      this.minInterval = minInterval;
+      return this;
+    }
+
+    public AsyncIncomingWebhookClientBuilder maxRetries(int maxRetries) {
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    /**
+     * The first retry delay, doubled for each retry.
+     */
+    public AsyncIncomingWebhookClientBuilder initialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+      return this;
+    }
+
+    public AsyncIncomingWebhookClientBuilder closeTimeout(Duration closeTimeout) {
+      this.closeTimeout = closeTimeout;
+      return this;
+    }
+
+    /**
+     * Report the retries to the {@code instrumentation}, with the route {@code /hooks/{id}}.
+     */
+    public AsyncIncomingWebhookClientBuilder instrumentation(
+        ClientInstrumentation instrumentation) {
+      this.instrumentation = instrumentation;
+      return this;
+    }
+
+    /**
+     * Start the workers.
+     *
+     * @throws UncheckedIOException if failed to open the spill file
+     */
+    public AsyncIncomingWebhookClient build() {
+      if (queueCapacity < 1 || workers < 1 || maxBatch < 1 || maxRetries < 0) {
+        throw new IllegalArgumentException("queueCapacity, workers and coalesce must be positive,"
+            + " maxRetries must not be negative");
+      }
+      try {
+        return new AsyncIncomingWebhookClient(this);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
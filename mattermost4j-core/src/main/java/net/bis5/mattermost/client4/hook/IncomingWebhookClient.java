@@ -15,6 +15,7 @@
 package net.bis5.mattermost.client4.hook;
 
 import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
@@ -25,10 +26,9 @@ import java.util.logging.Logger;
 import net.bis5.mattermost.client4.ApiResponse;
 import net.bis5.mattermost.client4.api.hook.IncomingWebhook;
 import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.jersey.provider.PayloadLoggingFilter;
 import net.bis5.mattermost.model.IncomingWebhookRequest;
 import org.glassfish.jersey.jackson.JacksonFeature;
-import org.glassfish.jersey.logging.LoggingFeature;
-import org.glassfish.jersey.logging.LoggingFeature.Verbosity;
 
 /**
  * Incoming Webhook client.
@@ -37,6 +37,10 @@ import org.glassfish.jersey.logging.LoggingFeature.Verbosity;
  */
 public class IncomingWebhookClient implements IncomingWebhook {
 
+  /** Shared by all clients, the mappers are thread safe. */
+  private static final MattermostModelMapperProvider MAPPER_PROVIDER =
+      new MattermostModelMapperProvider();
+
   private final Client hookClient;
   private final WebTarget hookTarget;
 
@@ -50,11 +54,14 @@ public class IncomingWebhookClient implements IncomingWebhook {
   }
 
   protected Client createClient(Level clientLogLevel) {
-    ClientBuilder builder = ClientBuilder.newBuilder().register(MattermostModelMapperProvider.class)
+    ClientBuilder builder = ClientBuilder.newBuilder().register(MAPPER_PROVIDER)
         .register(JacksonFeature.class);
     if (clientLogLevel != null) {
-      builder.register(new LoggingFeature(Logger.getLogger(getClass().getName()), clientLogLevel,
-          Verbosity.PAYLOAD_ANY, 1000));
+      builder.register(PayloadLoggingFilter.builder()
+          .logger(Logger.getLogger(getClass().getName()))
+          .level(clientLogLevel)
+          .maxEntitySize(1000)
+          .build(), Priorities.USER);
     }
     return builder.build();
   }
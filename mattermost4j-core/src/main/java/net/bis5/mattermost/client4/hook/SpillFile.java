@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append only queue of byte records on the disk, for the messages overflowing the memory queue.
+ *
+ * <p>
+ * Each record is stored with the length prefix. The read position is stored in the head of the
+ * file, so the records delivered before a crash are not delivered again on the next start. The
+ * file is truncated when all the records are read, and rewritten without the read records when
+ * they exceed the compaction threshold and the unread records.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+class SpillFile implements Closeable {
+
+  private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+  private static final long COMPACT_BYTES = 1024 * 1024;
+
+  private final Path path;
+  private final long compactBytes;
+  private RandomAccessFile file;
+  private long readPosition;
+  private int size;
+
+  SpillFile(Path path) throws IOException {
+    this(path, COMPACT_BYTES);
+  }
+
+  SpillFile(Path path, long compactBytes) throws IOException {
+    this.path = path;
+    this.compactBytes = compactBytes;
+    open();
+  }
+
+  private void open() throws IOException {
+    file = new RandomAccessFile(path.toFile(), "rw");
+    if (file.length() < HEADER_BYTES) {
+      truncate();
+    } else {
+      file.seek(0);
+      readPosition = file.readLong();
+      size = file.readInt();
+    }
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  synchronized void append(byte[] record) throws IOException {
+    file.seek(file.length());
+    file.writeInt(record.length);
+    file.write(record);
+    size++;
+    writeHeader();
+  }
+
+  /**
+   * Put the records before the unread records, e.g. the records taken but not delivered.
+   */
+  synchronized void prepend(List<byte[]> records) throws IOException {
+    if (!records.isEmpty()) {
+      rewrite(records);
+    }
+  }
+
+  /**
+   * @return the oldest record, or {@code null} if empty
+   */
+  synchronized byte[] poll() throws IOException {
+    if (size == 0) {
+      return null;
+    }
+    file.seek(readPosition);
+    byte[] record = new byte[file.readInt()];
+    file.readFully(record);
+    if (--size == 0) {
+      truncate();
+    } else {
+      readPosition = file.getFilePointer();
+      long consumed = readPosition - HEADER_BYTES;
+      if (consumed >= compactBytes && consumed >= file.length() - readPosition) {
+        rewrite(Collections.emptyList());
+      } else {
+        writeHeader();
+      }
+    }
+    return record;
+  }
+
+  private void truncate() throws IOException {
+    file.setLength(HEADER_BYTES);
+    readPosition = HEADER_BYTES;
+    size = 0;
+    writeHeader();
+  }
+
+  /**
+   * Replace the file by a new one with the {@code head} records and the unread records.
+   */
+  private void rewrite(List<byte[]> head) throws IOException {
+    Path temp = Files.createTempFile(path.toAbsolutePath().getParent(),
+        path.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        int headBytes = HEADER_BYTES;
+        for (byte[] record : head) {
+          headBytes += Integer.BYTES + record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(headBytes);
+        buffer.putLong(HEADER_BYTES).putInt(size + head.size());
+        for (byte[] record : head) {
+          buffer.putInt(record.length).put(record);
+        }
+        // through Buffer, ByteBuffer.flip() does not exist on Java 8
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        FileChannel in = file.getChannel();
+        long position = readPosition;
+        long end = in.size();
+        while (position < end) {
+          position += in.transferTo(position, end - position, out);
+        }
+        out.force(false);
+      }
+      file.close();
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+      if (!file.getChannel().isOpen()) {
+        open();
+      }
+    }
+  }
+
+  private void writeHeader() throws IOException {
+    file.seek(0);
+    file.writeLong(readPosition);
+    file.writeInt(size);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    file.close();
+  }
+}
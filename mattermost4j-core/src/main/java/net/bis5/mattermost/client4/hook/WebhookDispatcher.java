@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.api.hook.IncomingWebhook;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.IncomingWebhookRequest;
+import org.glassfish.jersey.jackson.JacksonFeature;
+
+/**
+ * Posts to any number of incoming webhooks through one shared HTTP client.
+ *
+ * <p>
+ * All hooks share the client, its connection pool and the model mapper, and the asynchronous
+ * sends share one executor. The target of each hook URL is created once. The number of the
+ * concurrent requests to each hook is limited; the asynchronous sends over the limit wait in the
+ * queue of the hook without occupying the executor threads. Pass the client configured with a
+ * pooling connector to {@link WebhookDispatcherBuilder#client(Client)} to tune the pool.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class WebhookDispatcher implements Closeable {
+
+  private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+  private final Client client;
+  private final boolean ownClient;
+  private final ExecutorService executor;
+  private final boolean ownExecutor;
+  private final int maxConcurrencyPerHook;
+  private final Map<String, Hook> hooks = new ConcurrentHashMap<>();
+  private final AtomicLong sentCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private volatile boolean closed;
+
+  private WebhookDispatcher(WebhookDispatcherBuilder builder) {
+    this.ownClient = builder.client == null;
+    this.client = ownClient ? ClientBuilder.newBuilder()
+        .register(new MattermostModelMapperProvider())
+        .register(JacksonFeature.class)
+        .build() : builder.client;
+    this.ownExecutor = builder.executor == null;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = ownExecutor ? Executors.newFixedThreadPool(builder.threads, r -> {
+      Thread thread =
+          new Thread(r, "mattermost4j-webhook-dispatcher-" + threadCount.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }) : builder.executor;
+    this.maxConcurrencyPerHook = builder.maxConcurrencyPerHook;
+  }
+
+  public static WebhookDispatcherBuilder builder() {
+    return new WebhookDispatcherBuilder();
+  }
+
+  private Hook hook(String hookUrl) {
+    if (closed) {
+      throw new IllegalStateException("Already closed");
+    }
+    return hooks.computeIfAbsent(hookUrl, url -> new Hook(client.target(url)));
+  }
+
+  /**
+   * Post to the hook, waiting for the concurrency limit of the hook.
+   *
+   * @throws IllegalStateException if already closed
+   */
+  public ApiResponse<Boolean> post(String hookUrl, IncomingWebhookRequest payload) {
+    Hook hook = hook(hookUrl);
+    hook.permits.acquireUninterruptibly();
+    try {
+      return send(hook, payload);
+    } finally {
+      hook.release();
+    }
+  }
+
+  /**
+   * Post to the hook on the executor.
+   *
+   * @return completes with the response, or exceptionally if failed to send or rejected by the
+   *     executor
+   * @throws IllegalStateException if already closed
+   */
+  public CompletableFuture<ApiResponse<Boolean>> postAsync(String hookUrl,
+      IncomingWebhookRequest payload) {
+    Hook hook = hook(hookUrl);
+    CompletableFuture<ApiResponse<Boolean>> future = new CompletableFuture<>();
+    hook.submit(hook.new Send(payload, future));
+    return future;
+  }
+
+  /**
+   * The view of one hook, e.g. the delegate of {@link AsyncIncomingWebhookClient}.
+   */
+  public IncomingWebhook forHook(String hookUrl) {
+    return payload -> post(hookUrl, payload);
+  }
+
+  private ApiResponse<Boolean> send(Hook hook, IncomingWebhookRequest payload) {
+    try {
+      ApiResponse<Boolean> response = ApiResponse
+          .of(hook.target.request(MediaType.TEXT_PLAIN_TYPE, MediaType.APPLICATION_JSON_TYPE)
+              .post(Entity.json(payload)), Void.class)
+          .checkStatusOk();
+      (Boolean.TRUE.equals(response.readEntity()) ? sentCount : failedCount).incrementAndGet();
+      return response;
+    } catch (RuntimeException e) {
+      failedCount.incrementAndGet();
+      throw e;
+    }
+  }
+
+  public long getSentCount() {
+    return sentCount.get();
+  }
+
+  /**
+   * @return the number of the requests failed to send or not responded OK
+   */
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  public int getHookCount() {
+    return hooks.size();
+  }
+
+  /**
+   * @return the number of the asynchronous sends waiting for the concurrency limit of the hook
+   */
+  public int getWaitingCount(String hookUrl) {
+    Hook hook = hooks.get(hookUrl);
+    return hook == null ? 0 : hook.waitingCount.get();
+  }
+
+  /**
+   * Stop accepting the posts, wait for the asynchronous sends and close the client and the
+   * executor if created by this dispatcher.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SECONDS);
+    try {
+      // all permits are returned when no send is running or waiting
+      for (Hook hook : hooks.values()) {
+        long remaining = deadline - System.nanoTime();
+        if (hook.permits.tryAcquire(maxConcurrencyPerHook, remaining, TimeUnit.NANOSECONDS)) {
+          hook.permits.release(maxConcurrencyPerHook);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (ownExecutor) {
+      executor.shutdown();
+    }
+    if (ownClient) {
+      client.close();
+    }
+  }
+
+  private class Hook {
+
+    final WebTarget target;
+    final Semaphore permits = new Semaphore(maxConcurrencyPerHook);
+    final AtomicInteger waitingCount = new AtomicInteger();
+    private final Queue<Send> waiting = new ArrayDeque<>();
+
+    Hook(WebTarget target) {
+      this.target = target;
+    }
+
+    void submit(Send send) {
+      synchronized (this) {
+        if (!permits.tryAcquire()) {
+          waiting.add(send);
+          waitingCount.incrementAndGet();
+          return;
+        }
+      }
+      if (!execute(send)) {
+        release();
+      }
+    }
+
+    /**
+     * Hand the permit over to the next waiting send, or return it.
+     */
+    void release() {
+      while (true) {
+        Send next;
+        synchronized (this) {
+          next = waiting.poll();
+          if (next == null) {
+            permits.release();
+            return;
+          }
+        }
+        waitingCount.decrementAndGet();
+        if (execute(next)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * @return {@code false} if rejected by the executor, failing the send
+     */
+    private boolean execute(Send send) {
+      try {
+        executor.execute(send);
+        return true;
+      } catch (RejectedExecutionException e) {
+        failedCount.incrementAndGet();
+        send.future.completeExceptionally(e);
+        return false;
+      }
+    }
+
+    /**
+     * An asynchronous send holding a permit of the hook while running.
+     */
+    class Send implements Runnable {
+
+      private final IncomingWebhookRequest payload;
+      private final CompletableFuture<ApiResponse<Boolean>> future;
+
+      Send(IncomingWebhookRequest payload, CompletableFuture<ApiResponse<Boolean>> future) {
+        this.payload = payload;
+        this.future = future;
+      }
+
+      @Override
+      public void run() {
+        try {
+          future.complete(send(Hook.this, payload));
+        } catch (RuntimeException e) {
+          future.completeExceptionally(e);
+        } finally {
+          release();
+        }
+      }
+    }
+  }
+
+  public static class WebhookDispatcherBuilder {
+
+    private Client client;
+    private ExecutorService executor;
+    private int threads = 8;
+    private int maxConcurrencyPerHook = 2;
+
+    /**
+     * Use the client instead of creating. The client must support the JSON entities of the models,
+     * and is not closed by the dispatcher.
+     */
+    public WebhookDispatcherBuilder client(Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * Run the asynchronous sends on the executor instead of creating. The executor is not shut
+     * down by the dispatcher.
+     */
+    public WebhookDispatcherBuilder executor(ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * The number of the threads of the executor created by the dispatcher.
+     */
+    public WebhookDispatcherBuilder threads(int threads) {
+      this.threads = threads;
+      return this;
+    }
+
+    public WebhookDispatcherBuilder maxConcurrencyPerHook(int maxConcurrencyPerHook) {
+      this.maxConcurrencyPerHook = maxConcurrencyPerHook;
+      return this;
+    }
+
+    public WebhookDispatcher build() {
+      if (threads < 1 || maxConcurrencyPerHook < 1) {
+        throw new IllegalArgumentException("threads and maxConcurrencyPerHook must be positive");
+      }
+      return new WebhookDispatcher(this);
+    }
+  }
+}
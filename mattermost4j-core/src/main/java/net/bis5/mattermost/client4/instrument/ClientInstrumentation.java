@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+/**
+ * Observes the requests of the client, registered by
+ * {@link net.bis5.mattermost.client4.MattermostClient.MattermostClientBuilder#instrumentation}.
+ *
+ * <p>
+ * The requests are tagged by the method and the route template such as {@code /users/{id}}, see
+ * {@link RouteTemplates}. The callbacks are invoked on the requesting threads and must not block.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public interface ClientInstrumentation {
+
+  /**
+   * The request is about to be sent.
+   */
+  default void requestStarted(String method, String route) {
+  }
+
+  /**
+   * The response headers are received.
+   *
+   * @param durationNanos the time from the start to the response headers
+   * @param requestBytes the size of the request body as sent, {@code 0} if no body
+   * @param responseBytes the {@code Content-Length} of the response, {@code -1} if unknown
+   */
+  default void requestCompleted(String method, String route, int status, long durationNanos,
+      long requestBytes, long responseBytes) {
+  }
+
+  /**
+   * The error response is received, after {@link #requestCompleted}.
+   *
+   * @param errorId the {@code id} of the {@link net.bis5.mattermost.client4.model.ApiError}, e.g.
+   *        {@code api.context.404.app_error}, {@code null} if the body is not an API error
+   */
+  default void apiError(String method, String route, int status, String errorId) {
+  }
+
+  /**
+   * The response has the rate limit headers, after {@link #requestCompleted}.
+   *
+   * @param limit {@code X-Ratelimit-Limit}, the requests per second
+   * @param remaining {@code X-Ratelimit-Remaining}
+   * @param resetSeconds {@code X-Ratelimit-Reset}, the seconds until the limit is reset
+   */
+  default void rateLimit(long limit, long remaining, long resetSeconds) {
+  }
+
+  /**
+   * The request failed without the response, e.g. the connection is refused or timed out.
+   */
+  default void requestFailed(String method, String route, long durationNanos, Throwable cause) {
+  }
+
+  /**
+   * The response body is read to the end or closed.
+   *
+   * @param bytes the size of the body read, before decoding the content encoding
+   */
+  default void responseRead(String method, String route, long bytes) {
+  }
+
+  /**
+   * The request is sent again after the failure.
+   *
+   * @param attempt the number of the retry, starts with {@code 1}
+   */
+  default void requestRetried(String method, String route, int attempt) {
+  }
+
+  /**
+   * The response is served from the local cache, without the request or by the
+   * {@code 304 Not Modified} response.
+   */
+  default void cacheHit(String method, String route) {
+  }
+}
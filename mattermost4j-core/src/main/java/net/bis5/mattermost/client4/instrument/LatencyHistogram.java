@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of the non-negative values with about 3% relative precision.
+ *
+ * <p>
+ * Like HdrHistogram, the values are counted in the log-linear buckets: 32 linear sub-buckets for
+ * each power of two. The values up to 2<sup>41</sup> (about 25 days in microseconds) are tracked,
+ * larger values are counted as the maximum. Recording is a few atomic increments without
+ * allocation. Reading while recording sees a consistent enough snapshot for the monitoring.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final long MAX_VALUE = (1L << 41) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_VALUE) + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+    return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+  }
+
+  /**
+   * @return the largest value counted in the bucket
+   */
+  static long highestValue(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  public void record(long value) {
+    long clamped = value < 0 ? 0 : Math.min(value, MAX_VALUE);
+    counts.incrementAndGet(bucketIndex(clamped));
+    count.increment();
+    sum.add(clamped);
+    max.accumulate(clamped);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * @param percentile e.g. {@code 99.0}
+   * @return the value at or below which the percentile of the values are, {@code 0} if empty
+   */
+  public long getValueAtPercentile(double percentile) {
+    int length = counts.length();
+    long total = 0;
+    for (int i = 0; i < length; i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+    long cumulative = 0;
+    for (int i = 0; i < length; i++) {
+      cumulative += counts.get(i);
+      if (cumulative >= target) {
+        return Math.min(highestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * @return the number of the values less than or equal to the {@code value}, within the
+   *         precision of the buckets
+   */
+  public long getCountAtOrBelow(long value) {
+    if (value < 0) {
+      return 0;
+    }
+    int last = bucketIndex(Math.min(value, MAX_VALUE));
+    long cumulative = 0;
+    for (int i = 0; i <= last; i++) {
+      cumulative += counts.get(i);
+    }
+    return cumulative;
+  }
+
+  /**
+   * Count the values at or below each bound in one pass, e.g. for the Prometheus histogram.
+   *
+   * @param upperBounds the bounds in ascending order
+   * @param cumulativeCounts receives the count for each bound
+   * @return the number of all values, consistent with the counts
+   */
+  public long getCumulativeCounts(long[] upperBounds, long[] cumulativeCounts) {
+    int bound = 0;
+    int boundIndex = upperBounds.length == 0 ? -1 : boundIndex(upperBounds[0]);
+    long cumulative = 0;
+    int length = counts.length();
+    for (int i = 0; i < length; i++) {
+      cumulative += counts.get(i);
+      while (bound < upperBounds.length && i == boundIndex) {
+        cumulativeCounts[bound++] = cumulative;
+        boundIndex = bound < upperBounds.length ? boundIndex(upperBounds[bound]) : -1;
+      }
+    }
+    return cumulative;
+  }
+
+  private static int boundIndex(long bound) {
+    return bound < 0 ? 0 : bucketIndex(Math.min(bound, MAX_VALUE));
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import net.bis5.mattermost.client4.cache.ImageCache;
+import net.bis5.mattermost.client4.hook.AsyncIncomingWebhookClient;
+import net.bis5.mattermost.client4.instrument.RouteStatistics.RateLimit;
+import net.bis5.mattermost.client4.instrument.RouteStatistics.RouteStats;
+
+/**
+ * Expose the client statistics in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <p>
+ * The exporter reads the counters of {@link RouteStatistics}, the {@link ImageCache image caches}
+ * and the {@link AsyncIncomingWebhookClient asynchronous webhook clients} on every scrape, so it
+ * does not need a metrics library. The output is written to a reused buffer; a scrape allocates
+ * almost nothing besides the HTTP exchange.
+ * </p>
+ *
+ * <pre>
+ * RouteStatistics statistics = new RouteStatistics();
+ * MattermostClient client = MattermostClient.builder()
+ *     .url(url)
+ *     .instrumentation(statistics)
+ *     .build();
+ * HttpServer server = PrometheusExporter.builder()
+ *     .routes(statistics)
+ *     .build()
+ *     .serve(new InetSocketAddress(9464));
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class PrometheusExporter {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  /** Upper bounds of the request duration buckets in microseconds. */
+  private static final long[] DURATION_BOUNDS =
+      {5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000,
+          10_000_000};
+  private static final String[] DURATION_LABELS =
+      {"0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"};
+
+  private final RouteStatistics routes;
+  private final Map<String, ImageCache> imageCaches;
+  private final Map<String, AsyncIncomingWebhookClient> webhooks;
+
+  private final StringBuilder buffer = new StringBuilder(4096);
+  private final char[] chunk = new char[8192];
+  private final long[] cumulativeCounts = new long[DURATION_BOUNDS.length];
+
+  private PrometheusExporter(PrometheusExporterBuilder builder) {
+    this.routes = builder.routes;
+    this.imageCaches = new LinkedHashMap<>(builder.imageCaches);
+    this.webhooks = new LinkedHashMap<>(builder.webhooks);
+  }
+
+  public static PrometheusExporterBuilder builder() {
+    return new PrometheusExporterBuilder();
+  }
+
+  /**
+   * @return the current metrics in the text exposition format
+   */
+  public synchronized String render() {
+    fill();
+    return buffer.toString();
+  }
+
+  /**
+   * Write the current metrics in the text exposition format.
+   *
+   * @param out the writer, not closed
+   */
+  public synchronized void writeTo(Writer out) throws IOException {
+    fill();
+    int length = buffer.length();
+    for (int start = 0; start < length; start += chunk.length) {
+      int end = Math.min(start + chunk.length, length);
+      buffer.getChars(start, end, chunk, 0);
+      out.write(chunk, 0, end - start);
+    }
+    out.flush();
+  }
+
+  /**
+   * Start an HTTP server that serves the metrics at {@code /metrics}. Stop the returned server
+   * when it is no longer needed.
+   *
+   * @param address the address to listen
+   * @return the started server
+   */
+  public HttpServer serve(InetSocketAddress address) throws IOException {
+    HttpServer server = HttpServer.create(address, 0);
+    server.createContext("/metrics", this::handle);
+    server.start();
+    return server;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      if (!"GET".equals(method) && !"HEAD".equals(method)) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if ("HEAD".equals(method)) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, 0);
+      try (OutputStream body = exchange.getResponseBody()) {
+        writeTo(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void fill() {
+    buffer.setLength(0);
+    if (routes != null) {
+      writeRoutes();
+    }
+    if (!imageCaches.isEmpty()) {
+      writeImageCaches();
+    }
+    if (!webhooks.isEmpty()) {
+      writeWebhooks();
+    }
+  }
+
+  private void writeRoutes() {
+    routeCounter("mattermost4j_requests_total", "Requests with a response.",
+        RouteStats::getRequestCount);
+    routeCounter("mattermost4j_request_errors_total", "Responses with the 4xx or 5xx status.",
+        RouteStats::getErrorCount);
+    routeCounter("mattermost4j_request_failures_total", "Requests failed without a response.",
+        RouteStats::getFailureCount);
+    routeCounter("mattermost4j_request_retries_total", "Retried requests.",
+        RouteStats::getRetryCount);
+    routeCounter("mattermost4j_cache_hits_total", "Requests answered by the local cache.",
+        RouteStats::getCacheHitCount);
+    routeCounter("mattermost4j_request_bytes_total", "Request body bytes sent.",
+        RouteStats::getRequestBytes);
+    routeCounter("mattermost4j_response_bytes_total", "Response body bytes read.",
+        RouteStats::getResponseBytes);
+
+    String duration = "mattermost4j_request_duration_seconds";
+    header(duration, "histogram", "Time until the response headers are received.");
+    for (RouteStats stats : routes.routes()) {
+      LatencyHistogram latency = stats.getLatency();
+      long count = latency.getCumulativeCounts(DURATION_BOUNDS, cumulativeCounts);
+      for (int i = 0; i < DURATION_BOUNDS.length; i++) {
+        routeSample(duration, "_bucket", stats).append(",le=\"").append(DURATION_LABELS[i])
+            .append("\"} ").append(cumulativeCounts[i]).append('\n');
+      }
+      routeSample(duration, "_bucket", stats).append(",le=\"+Inf\"} ").append(count)
+          .append('\n');
+      routeSample(duration, "_sum", stats).append("} ");
+      appendSeconds(latency.getSum()).append('\n');
+      routeSample(duration, "_count", stats).append("} ").append(count).append('\n');
+    }
+
+    String apiErrors = "mattermost4j_api_errors_total";
+    header(apiErrors, "counter", "Error responses by the API error id.");
+    routes.forEachApiError((id, count) -> {
+      buffer.append(apiErrors).append("{id=\"");
+      appendLabelValue(id).append("\"} ").append(count.sum()).append('\n');
+    });
+
+    gauge("mattermost4j_requests_in_flight", "Requests waiting for the response headers.",
+        routes.getInFlightCount());
+    RateLimit rateLimit = routes.getRateLimit();
+    if (rateLimit != null) {
+      gauge("mattermost4j_rate_limit_limit", "Requests allowed per second by the server.",
+          rateLimit.getLimit());
+      gauge("mattermost4j_rate_limit_remaining", "Requests remaining in the current window.",
+          rateLimit.getRemaining());
+      gauge("mattermost4j_rate_limit_reset_seconds", "Seconds until the window resets.",
+          rateLimit.getResetSeconds());
+    }
+  }
+
+  private void writeImageCaches() {
+    cacheMetric("mattermost4j_image_cache_hits_total", "counter", "Image cache hits.",
+        ImageCache::getHitCount);
+    cacheMetric("mattermost4j_image_cache_misses_total", "counter", "Image cache misses.",
+        ImageCache::getMissCount);
+    cacheMetric("mattermost4j_image_cache_revalidations_total", "counter",
+        "Cached images revalidated with the server.", ImageCache::getRevalidatedCount);
+    cacheMetric("mattermost4j_image_cache_evictions_total", "counter", "Evicted images.",
+        ImageCache::getEvictionCount);
+    cacheMetric("mattermost4j_image_cache_bytes", "gauge", "Bytes of the cached images.",
+        ImageCache::getTotalBytes);
+    cacheMetric("mattermost4j_image_cache_entries", "gauge", "Number of the cached images.",
+        ImageCache::size);
+  }
+
+  private void writeWebhooks() {
+    webhookMetric("mattermost4j_webhook_pending", "gauge", "Messages waiting for delivery.",
+        AsyncIncomingWebhookClient::getPendingCount);
+    webhookMetric("mattermost4j_webhook_delivered_total", "counter", "Delivered messages.",
+        AsyncIncomingWebhookClient::getDeliveredCount);
+    webhookMetric("mattermost4j_webhook_failed_total", "counter",
+        "Messages given up after the retries.", AsyncIncomingWebhookClient::getFailedCount);
+    webhookMetric("mattermost4j_webhook_dropped_total", "counter",
+        "Messages dropped because the queue was full.",
+        AsyncIncomingWebhookClient::getDroppedCount);
+    webhookMetric("mattermost4j_webhook_retries_total", "counter", "Retried webhook requests.",
+        AsyncIncomingWebhookClient::getRetryCount);
+  }
+
+  private void routeCounter(String name, String help, ToLongFunction<RouteStats> value) {
+    header(name, "counter", help);
+    for (RouteStats stats : routes.routes()) {
+      routeSample(name, "", stats).append("} ").append(value.applyAsLong(stats)).append('\n');
+    }
+  }
+
+  private void cacheMetric(String name, String type, String help,
+      ToLongFunction<ImageCache> value) {
+    header(name, type, help);
+    for (Map.Entry<String, ImageCache> cache : imageCaches.entrySet()) {
+      labelled(name, "cache", cache.getKey(), value.applyAsLong(cache.getValue()));
+    }
+  }
+
+  private void webhookMetric(String name, String type, String help,
+      ToLongFunction<AsyncIncomingWebhookClient> value) {
+    header(name, type, help);
+    for (Map.Entry<String, AsyncIncomingWebhookClient> hook : webhooks.entrySet()) {
+      labelled(name, "hook", hook.getKey(), value.applyAsLong(hook.getValue()));
+    }
+  }
+
+  private void gauge(String name, String help, long value) {
+    header(name, "gauge", help);
+    buffer.append(name).append(' ').append(value).append('\n');
+  }
+
+  private void header(String name, String type, String help) {
+    buffer.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private void labelled(String name, String label, String labelValue, long value) {
+    buffer.append(name).append('{').append(label).append("=\"");
+    appendLabelValue(labelValue).append("\"} ").append(value).append('\n');
+  }
+
+  /** Append the name and the route labels without the closing brace. */
+  private StringBuilder routeSample(String name, String suffix, RouteStats stats) {
+    buffer.append(name).append(suffix).append("{method=\"");
+    appendLabelValue(stats.getMethod()).append("\",route=\"");
+    return appendLabelValue(stats.getRoute()).append('"');
+  }
+
+  private StringBuilder appendLabelValue(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        buffer.append('\\').append(c);
+      } else if (c == '\n') {
+        buffer.append("\\n");
+      } else {
+        buffer.append(c);
+      }
+    }
+    return buffer;
+  }
+
+  private StringBuilder appendSeconds(long micros) {
+    buffer.append(micros / 1_000_000).append('.');
+    long fraction = micros % 1_000_000;
+    for (long digit = 100_000; digit > 1 && fraction < digit; digit /= 10) {
+      buffer.append('0');
+    }
+    return buffer.append(fraction);
+  }
+
+  /**
+   * Builder of {@link PrometheusExporter}.
+   */
+  public static class PrometheusExporterBuilder {
+
+    private RouteStatistics routes;
+    private final Map<String, ImageCache> imageCaches = new LinkedHashMap<>();
+    private final Map<String, AsyncIncomingWebhookClient> webhooks = new LinkedHashMap<>();
+
+    /**
+     * Export the request statistics of the clients built with
+     * {@code instrumentation(statistics)}.
+     */
+    public PrometheusExporterBuilder routes(RouteStatistics statistics) {
+      this.routes = statistics;
+      return this;
+    }
+
+    /**
+     * Export the image cache statistics with the {@code cache} label.
+     */
+    public PrometheusExporterBuilder imageCache(String name, ImageCache cache) {
+      if (imageCaches.putIfAbsent(name, cache) != null) {
+        throw new IllegalArgumentException("Duplicate image cache name: " + name);
+      }
+      return this;
+    }
+
+    /**
+     * Export the delivery statistics with the {@code hook} label.
+     */
+    public PrometheusExporterBuilder webhook(String name, AsyncIncomingWebhookClient client) {
+      if (webhooks.putIfAbsent(name, client) != null) {
+        throw new IllegalArgumentException("Duplicate webhook name: " + name);
+      }
+      return this;
+    }
+
+    public PrometheusExporter build() {
+      return new PrometheusExporter(this);
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Default instrumentation collecting the request counts, the sizes and the latency histogram for
+ * each route.
+ *
+ * <pre>
+ * RouteStatistics statistics = new RouteStatistics();
+ * MattermostClient client =
+ *     MattermostClient.builder().url(url).instrumentation(statistics).build();
+ * ...
+ * RouteStats users = statistics.get("GET", "/users/{id}");
+ * long p99Micros = users.getLatency().getValueAtPercentile(99);
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class RouteStatistics implements ClientInstrumentation {
+
+  private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> apiErrors = new ConcurrentHashMap<>();
+  private final LongAdder inFlight = new LongAdder();
+  private volatile RateLimit rateLimit;
+
+  private RouteStats stats(String method, String route) {
+    String key = method + ' ' + route;
+    RouteStats stats = routes.get(key);
+    return stats != null ? stats
+        : routes.computeIfAbsent(key, k -> new RouteStats(method, route));
+  }
+
+  /**
+   * @return the statistics of the route, or {@code null} if not requested
+   */
+  public RouteStats get(String method, String route) {
+    return routes.get(method + ' ' + route);
+  }
+
+  public Collection<RouteStats> getRoutes() {
+    return new ArrayList<>(routes.values());
+  }
+
+  /**
+   * @return the number of the error responses by the error id, the empty id for the responses
+   *         without the API error body
+   */
+  public Map<String, Long> getApiErrorCounts() {
+    Map<String, Long> counts = new TreeMap<>();
+    apiErrors.forEach((id, count) -> counts.put(id, count.sum()));
+    return counts;
+  }
+
+  Collection<RouteStats> routes() {
+    return routes.values();
+  }
+
+  void forEachApiError(BiConsumer<String, LongAdder> action) {
+    apiErrors.forEach(action);
+  }
+
+  /**
+   * @return the number of the requests waiting for the response headers
+   */
+  public long getInFlightCount() {
+    return inFlight.sum();
+  }
+
+  /**
+   * @return the rate limit of the last response with the rate limit headers, or {@code null}
+   */
+  public RateLimit getRateLimit() {
+    return rateLimit;
+  }
+
+  @Override
+  public void requestStarted(String method, String route) {
+    inFlight.increment();
+  }
+
+  @Override
+  public void requestCompleted(String method, String route, int status, long durationNanos,
+      long requestBytes, long responseBytes) {
+    inFlight.decrement();
+    RouteStats stats = stats(method, route);
+    stats.requests.increment();
+    if (status >= 400) {
+      stats.errors.increment();
+    }
+    stats.requestBytes.add(requestBytes);
+    stats.latency.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+  }
+
+  @Override
+  public void requestFailed(String method, String route, long durationNanos, Throwable cause) {
+    inFlight.decrement();
+    stats(method, route).failures.increment();
+  }
+
+  @Override
+  public void responseRead(String method, String route, long bytes) {
+    stats(method, route).responseBytes.add(bytes);
+  }
+
+  @Override
+  public void apiError(String method, String route, int status, String errorId) {
+    String id = errorId == null ? "" : errorId;
+    LongAdder count = apiErrors.get(id);
+    if (count == null) {
+      count = apiErrors.computeIfAbsent(id, k -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  @Override
+  public void rateLimit(long limit, long remaining, long resetSeconds) {
+    rateLimit = new RateLimit(limit, remaining, resetSeconds);
+  }
+
+  @Override
+  public void requestRetried(String method, String route, int attempt) {
+    stats(method, route).retries.increment();
+  }
+
+  @Override
+  public void cacheHit(String method, String route) {
+    stats(method, route).cacheHits.increment();
+  }
+
+  /**
+   * Rate limit reported by the server, {@code -1} if the header is missing.
+   */
+  public static class RateLimit {
+
+    private final long limit;
+    private final long remaining;
+    private final long resetSeconds;
+
+    RateLimit(long limit, long remaining, long resetSeconds) {
+      this.limit = limit;
+      this.remaining = remaining;
+      this.resetSeconds = resetSeconds;
+    }
+
+    public long getLimit() {
+      return limit;
+    }
+
+    public long getRemaining() {
+      return remaining;
+    }
+
+    public long getResetSeconds() {
+      return resetSeconds;
+    }
+  }
+
+  /**
+   * Statistics of one route.
+   */
+  public static class RouteStats {
+
+    private final String method;
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+
+    RouteStats(String method, String route) {
+      this.method = method;
+      this.route = route;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    public String getRoute() {
+      return route;
+    }
+
+    /**
+     * @return the histogram of the time to the response headers in microseconds
+     */
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    /**
+     * @return the number of the responses, including the error responses
+     */
+    public long getRequestCount() {
+      return requests.sum();
+    }
+
+    /**
+     * @return the number of the responses with the status 400 or above
+     */
+    public long getErrorCount() {
+      return errors.sum();
+    }
+
+    /**
+     * @return the number of the requests failed without the response
+     */
+    public long getFailureCount() {
+      return failures.sum();
+    }
+
+    public long getRetryCount() {
+      return retries.sum();
+    }
+
+    public long getCacheHitCount() {
+      return cacheHits.sum();
+    }
+
+    public long getRequestBytes() {
+      return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+      return responseBytes.sum();
+    }
+  }
+}
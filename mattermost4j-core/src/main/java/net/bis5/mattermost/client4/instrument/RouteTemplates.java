@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+/**
+ * Normalizes the request paths to the route templates, to tag the metrics with a bounded number
+ * of routes.
+ *
+ * <p>
+ * The {@code /api/v4} prefix is removed, the Mattermost ids are replaced with {@code {id}}, and the
+ * segments following {@code username}, {@code email} and {@code name} are replaced with
+ * {@code {username}}, {@code {email}} and {@code {name}}, and the emoji name following
+ * {@code reactions} with {@code {emoji_name}}. For example
+ * {@code /api/v4/teams/name/myteam/channels/name/town-square} becomes
+ * {@code /teams/name/{name}/channels/name/{name}}.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class RouteTemplates {
+
+  private static final String API_PREFIX = "/api/v4";
+  private static final int ID_LENGTH = 26;
+
+  private RouteTemplates() {
+  }
+
+  /**
+   * @param path the raw path of the request URI
+   */
+  public static String of(String path) {
+    if (path == null || path.isEmpty()) {
+      return "/";
+    }
+    int start = path.indexOf(API_PREFIX);
+    start = start < 0 ? 0 : start + API_PREFIX.length();
+    StringBuilder template = new StringBuilder(path.length() - start);
+    String previous = null;
+    int end;
+    for (int i = start; i < path.length(); i = end) {
+      end = path.indexOf('/', i + 1);
+      if (end < 0) {
+        end = path.length();
+      }
+      if (path.charAt(i) != '/') {
+        continue;
+      }
+      String segment = path.substring(i + 1, end);
+      template.append('/');
+      if ("username".equals(previous) || "email".equals(previous) || "name".equals(previous)) {
+        template.append('{').append(previous).append('}');
+      } else if ("reactions".equals(previous)) {
+        template.append("{emoji_name}");
+      } else if (isId(segment)) {
+        template.append("{id}");
+      } else {
+        template.append(segment);
+      }
+      previous = segment;
+    }
+    return template.length() == 0 ? "/" : template.toString();
+  }
+
+  private static boolean isId(String segment) {
+    if (segment.length() != ID_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < ID_LENGTH; i++) {
+      char c = segment.charAt(i);
+      if (!(c >= 'a' && c <= 'z' || c >= '0' && c <= '9')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
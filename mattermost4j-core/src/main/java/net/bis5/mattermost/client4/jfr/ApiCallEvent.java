@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a Mattermost API call, from sending the request to receiving the response headers.
+ *
+ * @author Takayuki Maruyama
+ */
+@Name("net.bis5.mattermost4j.ApiCall")
+@Label("Mattermost API Call")
+@Category("Mattermost4j")
+@Description("HTTP request to the Mattermost server")
+class ApiCallEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Route")
+  @Description("Route template of the request path, e.g. /users/{id}")
+  String route;
+
+  @Label("Status")
+  @Description("HTTP status, 0 if failed without the response")
+  int status;
+
+  @Label("Request Size")
+  @DataAmount
+  long requestBytes;
+
+  @Label("Response Size")
+  @Description("Content-Length of the response, -1 if unknown")
+  @DataAmount
+  long responseBytes;
+
+  @Label("Failure")
+  String failure;
+
+  static Object start() {
+    ApiCallEvent event = new ApiCallEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  static void commit(Object recording, String method, String route, int status,
+      long requestBytes, long responseBytes, String failure) {
+    ApiCallEvent event = (ApiCallEvent) recording;
+    event.end();
+    if (event.shouldCommit()) {
+      event.method = method;
+      event.route = route;
+      event.status = status;
+      event.requestBytes = requestBytes;
+      event.responseBytes = responseBytes;
+      event.failure = failure;
+      event.commit();
+    }
+  }
+}
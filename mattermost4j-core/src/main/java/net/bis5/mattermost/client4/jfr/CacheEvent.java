@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a local cache operation. Disabled by default for the volume.
+ *
+ * @author Takayuki Maruyama
+ */
+@Name("net.bis5.mattermost4j.Cache")
+@Label("Mattermost Cache Operation")
+@Category("Mattermost4j")
+@Description("Lookup, store or eviction of the local cache")
+@Enabled(false)
+@StackTrace(false)
+class CacheEvent extends Event {
+
+  @Label("Cache")
+  String cache;
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Key")
+  String key;
+
+  @Label("Size")
+  @DataAmount
+  long bytes;
+
+  static void emit(String cache, String operation, String key, long bytes) {
+    CacheEvent event = new CacheEvent();
+    if (event.shouldCommit()) {
+      event.cache = cache;
+      event.operation = operation;
+      event.key = key;
+      event.bytes = bytes;
+      event.commit();
+    }
+  }
+}
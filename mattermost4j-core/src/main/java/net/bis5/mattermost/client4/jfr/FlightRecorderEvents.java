@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.jfr;
+
+/**
+ * Emits the JDK Flight Recorder events of mattermost4j.
+ *
+ * <p>
+ * The events are {@code net.bis5.mattermost4j.ApiCall}, {@code net.bis5.mattermost4j.Cache}
+ * (disabled by default) and {@code net.bis5.mattermost4j.WebSocketEvent}, in the
+ * {@code Mattermost4j} category. Enable or tune them by the JFR settings like the JDK events.
+ * When no recording enables them, emitting costs a check of a flag.
+ * </p>
+ *
+ * <p>
+ * The methods are no-op on the Java runtimes without JFR; the event classes are loaded only if
+ * {@code jdk.jfr} is available.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class FlightRecorderEvents {
+
+  /** {@code true} if the runtime has the {@code jdk.jfr} API. */
+  public static final boolean AVAILABLE = isJfrAvailable();
+
+  private FlightRecorderEvents() {
+  }
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return the recording to pass to {@link #commitApiCall}, {@code null} if not enabled
+   */
+  public static Object beginApiCall() {
+    return AVAILABLE ? ApiCallEvent.start() : null;
+  }
+
+  /**
+   * @param recording the value returned by {@link #beginApiCall()}, ignored if {@code null}
+   * @param failure the failure without the response, {@code null} if responded
+   */
+  public static void commitApiCall(Object recording, String method, String route, int status,
+      long requestBytes, long responseBytes, Throwable failure) {
+    if (recording != null) {
+      ApiCallEvent.commit(recording, method, route, status, requestBytes, responseBytes,
+          failure == null ? null : failure.toString());
+    }
+  }
+
+  public static void cache(String cache, String operation, String key, long bytes) {
+    if (AVAILABLE) {
+      CacheEvent.emit(cache, operation, key, bytes);
+    }
+  }
+
+  /**
+   * @return the recording to pass to {@link #commitWebSocketEvent}, {@code null} if not enabled
+   */
+  public static Object beginWebSocketEvent() {
+    return AVAILABLE ? WebSocketEventEvent.start() : null;
+  }
+
+  public static void commitWebSocketEvent(Object recording, String consumer, String eventType,
+      long sequence) {
+    if (recording != null) {
+      WebSocketEventEvent.commit(recording, consumer, eventType, sequence);
+    }
+  }
+}
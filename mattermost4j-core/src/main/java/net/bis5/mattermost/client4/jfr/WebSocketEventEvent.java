@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of applying a {@code /websocket} event to a local mirror, including the API calls it
+ * caused.
+ *
+ * @author Takayuki Maruyama
+ */
+@Name("net.bis5.mattermost4j.WebSocketEvent")
+@Label("Mattermost WebSocket Event")
+@Category("Mattermost4j")
+@Description("WebSocket event applied to a local mirror")
+class WebSocketEventEvent extends Event {
+
+  @Label("Consumer")
+  String consumer;
+
+  @Label("Event Type")
+  String eventType;
+
+  @Label("Sequence")
+  long sequence;
+
+  static Object start() {
+    WebSocketEventEvent event = new WebSocketEventEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  static void commit(Object recording, String consumer, String eventType, long sequence) {
+    WebSocketEventEvent event = (WebSocketEventEvent) recording;
+    event.end();
+    if (event.shouldCommit()) {
+      event.consumer = consumer;
+      event.eventType = eventType;
+      event.sequence = sequence;
+      event.commit();
+    }
+  }
+}
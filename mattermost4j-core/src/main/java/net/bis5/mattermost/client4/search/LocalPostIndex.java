@@ -0,0 +1,874 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import net.bis5.mattermost.client4.sync.PostSink;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.SearchParams;
+
+/**
+ * Local full text index of posts, to answer {@link SearchParams} queries without the server.
+ *
+ * <p>
+ * Posts are tokenized into lower cased words and hashtags, and kept in memory until
+ * {@link #commit()} writes them to an immutable segment file of delta encoded posting lists.
+ * Posting lists are read from the segment files on each query, only the term dictionaries and the
+ * document table (post id, channel id, user id and create time) are kept on the heap. Updating or
+ * deleting a post marks its old document deleted. Segments are merged, dropping the deleted
+ * documents from the segments and the document table, when there are more than
+ * {@value #MAX_SEGMENTS}.
+ * </p>
+ *
+ * <p>
+ * Feed the index from {@link net.bis5.mattermost.client4.sync.HistorySyncEngine} as a
+ * {@link PostSink}, or with {@link #add(Post)} and {@link #remove(String)}. {@code inChannels} and
+ * {@code fromUsers} are matched against the channel ids and user ids of the posts.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class LocalPostIndex implements PostSink, Closeable {
+
+  private static final int MAGIC = 0x4d4d5049; // "MMPI"
+  static final int MAX_SEGMENTS = 8;
+  private static final String DOCS_FILE = "docs.dat";
+  private static final String DELETES_FILE = "deletes.dat";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".idx";
+  /** the merged segment, until the old segments are replaced. */
+  private static final String MERGED_FILE = "merged.idx.tmp";
+  /** the compacted document table, its presence commits the merge. */
+  private static final String MERGED_DOCS_FILE = "docs.merged";
+
+  private final Path dir;
+  private final List<Segment> segments = new ArrayList<>();
+  private final TreeMap<String, IntList> pending = new TreeMap<>();
+  private final Map<String, Integer> docIds = new HashMap<>();
+  private final Map<String, String> interned = new HashMap<>();
+  private final BitSet deleted = new BitSet();
+  private final IntList pendingDeletes = new IntList();
+  private String[] postIds = new String[1024];
+  private String[] channelIds = new String[1024];
+  private String[] userIds = new String[1024];
+  private long[] createAts = new long[1024];
+  private int docCount;
+  private int committedDocs;
+  private int nextGeneration;
+
+  private LocalPostIndex(Path dir) {
+    this.dir = dir;
+  }
+
+  /**
+   * Open the index in the directory, creating it if not exists.
+   */
+  public static LocalPostIndex open(Path dir) throws IOException {
+    Files.createDirectories(dir);
+    LocalPostIndex index = new LocalPostIndex(dir);
+    try {
+      index.load();
+    } catch (IOException | RuntimeException e) {
+      index.close();
+      throw e;
+    }
+    return index;
+  }
+
+  private void load() throws IOException {
+    if (Files.exists(dir.resolve(MERGED_DOCS_FILE))) {
+      for (Path file : listSegments()) {
+        nextGeneration = Math.max(nextGeneration, generationOf(file) + 1);
+      }
+      completeMerge();
+    } else {
+      Files.deleteIfExists(dir.resolve(MERGED_FILE));
+    }
+    Path docsFile = dir.resolve(DOCS_FILE);
+    if (Files.exists(docsFile)) {
+      try (DataInputStream in = openData(docsFile)) {
+        while (true) {
+          String postId;
+          try {
+            postId = in.readUTF();
+          } catch (EOFException e) {
+            break;
+          }
+          addDocument(postId, in.readUTF(), in.readUTF(), in.readLong());
+        }
+      }
+    }
+    committedDocs = docCount;
+    Path deletesFile = dir.resolve(DELETES_FILE);
+    if (Files.exists(deletesFile)) {
+      try (DataInputStream in = openData(deletesFile)) {
+        for (long i = Files.size(deletesFile) / Integer.BYTES; i > 0; i--) {
+          markDeleted(in.readInt());
+        }
+      }
+    }
+    for (Path file : listSegments()) {
+      segments.add(new Segment(file));
+      nextGeneration = Math.max(nextGeneration, generationOf(file) + 1);
+    }
+  }
+
+  private List<Path> listSegments() throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    Collections.sort(files);
+    return files;
+  }
+
+  private Path nextSegmentFile() {
+    return dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextGeneration++,
+        SEGMENT_SUFFIX));
+  }
+
+  private static DataInputStream openData(Path file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+  }
+
+  private static int generationOf(Path segment) {
+    String name = segment.getFileName().toString();
+    return Integer.parseInt(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  /**
+   * Index the post, replacing the previous version. A deleted post is removed.
+   */
+  public synchronized void add(Post post) {
+    remove(post.getId());
+    if (post.getDeleteAt() > 0) {
+      return;
+    }
+    int docId = addDocument(post.getId(), post.getChannelId(), post.getUserId(),
+        post.getCreateAt());
+    Set<String> terms = new HashSet<>();
+    tokenize(post.getMessage(), terms::add);
+    if (post.getHashtags() != null) {
+      for (String hashtag : post.getHashtags().split("\\s+")) {
+        String term = normalizeHashtag(hashtag);
+        if (term != null) {
+          terms.add(term);
+        }
+      }
+    }
+    for (String term : terms) {
+      pending.computeIfAbsent(term, k -> new IntList()).add(docId);
+    }
+  }
+
+  /**
+   * Remove the post from the index.
+   *
+   * @return {@code true} if the post was indexed
+   */
+  public synchronized boolean remove(String postId) {
+    Integer docId = docIds.remove(postId);
+    if (docId == null) {
+      return false;
+    }
+    markDeleted(docId);
+    pendingDeletes.add(docId);
+    return true;
+  }
+
+  @Override
+  public void accept(ChangeType type, Post post) {
+    if (type == ChangeType.DELETED) {
+      remove(post.getId());
+    } else {
+      add(post);
+    }
+  }
+
+  public synchronized int size() {
+    return docIds.size();
+  }
+
+  private int addDocument(String postId, String channelId, String userId, long createAt) {
+    int docId = docCount++;
+    if (docId == postIds.length) {
+      int capacity = postIds.length * 2;
+      postIds = Arrays.copyOf(postIds, capacity);
+      channelIds = Arrays.copyOf(channelIds, capacity);
+      userIds = Arrays.copyOf(userIds, capacity);
+      createAts = Arrays.copyOf(createAts, capacity);
+    }
+    postIds[docId] = postId;
+    channelIds[docId] = intern(channelId);
+    userIds[docId] = intern(userId);
+    createAts[docId] = createAt;
+    Integer previous = docIds.put(postId, docId);
+    if (previous != null) {
+      // only when loading, the later document replaces the earlier one
+      deleted.set(previous);
+    }
+    return docId;
+  }
+
+  private void markDeleted(int docId) {
+    deleted.set(docId);
+    if (docIds.get(postIds[docId]) != null && docIds.get(postIds[docId]) == docId) {
+      docIds.remove(postIds[docId]);
+    }
+  }
+
+  private String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String existing = interned.putIfAbsent(value, value);
+    return existing == null ? value : existing;
+  }
+
+  /**
+   * Write the pending posts and deletes to the disk.
+   */
+  public synchronized void commit() throws IOException {
+    if (docCount > committedDocs) {
+      try (DataOutputStream out = appendData(dir.resolve(DOCS_FILE))) {
+        for (int docId = committedDocs; docId < docCount; docId++) {
+          writeDocument(out, docId);
+        }
+      }
+      committedDocs = docCount;
+    }
+    if (!pending.isEmpty()) {
+      Path file = nextSegmentFile();
+      try (SegmentWriter writer = new SegmentWriter(dir)) {
+        for (Map.Entry<String, IntList> posting : pending.entrySet()) {
+          writer.add(posting.getKey(), posting.getValue().toArray());
+        }
+        Files.move(writer.finish(), file, StandardCopyOption.ATOMIC_MOVE);
+      }
+      segments.add(new Segment(file));
+      pending.clear();
+    }
+    if (pendingDeletes.size() > 0) {
+      try (DataOutputStream out = appendData(dir.resolve(DELETES_FILE))) {
+        for (int i = 0; i < pendingDeletes.size(); i++) {
+          out.writeInt(pendingDeletes.get(i));
+        }
+      }
+      pendingDeletes.clear();
+    }
+    if (segments.size() > MAX_SEGMENTS) {
+      merge();
+    }
+  }
+
+  private static DataOutputStream appendData(Path file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+  }
+
+  /**
+   * Merge all segments into one, dropping the deleted documents. Pending changes are committed
+   * first.
+   *
+   * <p>
+   * The documents are renumbered without the deleted ones, and the document table is rewritten.
+   * The posting lists are merged term by term, only the term dictionaries are on the heap. The
+   * compacted document table is written last, an interrupted merge is completed or discarded on
+   * {@link #open(Path)}.
+   * </p>
+   */
+  public synchronized void merge() throws IOException {
+    if (!pending.isEmpty() || pendingDeletes.size() > 0 || docCount > committedDocs) {
+      commit();
+    }
+    if (segments.size() <= 1 && deleted.isEmpty()) {
+      return;
+    }
+    int[] remap = new int[docCount];
+    int liveCount = 0;
+    for (int docId = 0; docId < docCount; docId++) {
+      remap[docId] = deleted.get(docId) ? -1 : liveCount++;
+    }
+    try (SegmentWriter writer = new SegmentWriter(dir)) {
+      mergePostings(writer, remap);
+      Files.move(writer.finish(), dir.resolve(MERGED_FILE), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+    Path docsTemp = Files.createTempFile(dir, "docs-", ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(docsTemp)))) {
+        for (int docId = 0; docId < docCount; docId++) {
+          if (remap[docId] >= 0) {
+            writeDocument(out, docId);
+          }
+        }
+      }
+      Files.move(docsTemp, dir.resolve(MERGED_DOCS_FILE), StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(docsTemp);
+      Files.deleteIfExists(dir.resolve(MERGED_FILE));
+      throw e;
+    }
+    for (Segment segment : segments) {
+      segment.close();
+    }
+    segments.clear();
+    Path merged = completeMerge();
+    compactDocuments(remap, liveCount);
+    segments.add(new Segment(merged));
+  }
+
+  /**
+   * Write the union of the posting lists of each term in all segments, renumbered by the
+   * {@code remap}.
+   */
+  private void mergePostings(SegmentWriter writer, int[] remap) throws IOException {
+    List<Iterator<String>> terms = new ArrayList<>(segments.size());
+    String[] heads = new String[segments.size()];
+    for (int i = 0; i < segments.size(); i++) {
+      terms.add(segments.get(i).dictionary.keySet().iterator());
+      heads[i] = terms.get(i).hasNext() ? terms.get(i).next() : null;
+    }
+    while (true) {
+      String term = null;
+      for (String head : heads) {
+        if (head != null && (term == null || head.compareTo(term) < 0)) {
+          term = head;
+        }
+      }
+      if (term == null) {
+        return;
+      }
+      int[] docs = new int[0];
+      for (int i = 0; i < heads.length; i++) {
+        if (term.equals(heads[i])) {
+          docs = union(docs, segments.get(i).read(term));
+          heads[i] = terms.get(i).hasNext() ? terms.get(i).next() : null;
+        }
+      }
+      int count = 0;
+      for (int docId : docs) {
+        if (remap[docId] >= 0) {
+          // the live documents keep their order
+          docs[count++] = remap[docId];
+        }
+      }
+      writer.add(term, Arrays.copyOf(docs, count));
+    }
+  }
+
+  /**
+   * Replace the segments and the document table with the merged ones, when the compacted
+   * document table was written.
+   *
+   * @return the merged segment
+   */
+  private Path completeMerge() throws IOException {
+    Path merged = dir.resolve(MERGED_FILE);
+    Path segment = null;
+    if (Files.exists(merged)) {
+      for (Path file : listSegments()) {
+        Files.delete(file);
+      }
+      segment = nextSegmentFile();
+      Files.move(merged, segment, StandardCopyOption.ATOMIC_MOVE);
+    }
+    Files.deleteIfExists(dir.resolve(DELETES_FILE));
+    Files.move(dir.resolve(MERGED_DOCS_FILE), dir.resolve(DOCS_FILE),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return segment;
+  }
+
+  /**
+   * Renumber the document table in memory, as written by {@link #merge()}.
+   */
+  private void compactDocuments(int[] remap, int liveCount) {
+    int capacity = Math.max(1024, liveCount);
+    String[] newPostIds = new String[capacity];
+    String[] newChannelIds = new String[capacity];
+    String[] newUserIds = new String[capacity];
+    long[] newCreateAts = new long[capacity];
+    interned.clear();
+    docIds.clear();
+    for (int docId = 0; docId < docCount; docId++) {
+      int newId = remap[docId];
+      if (newId >= 0) {
+        newPostIds[newId] = postIds[docId];
+        newChannelIds[newId] = intern(channelIds[docId]);
+        newUserIds[newId] = intern(userIds[docId]);
+        newCreateAts[newId] = createAts[docId];
+        docIds.put(postIds[docId], newId);
+      }
+    }
+    postIds = newPostIds;
+    channelIds = newChannelIds;
+    userIds = newUserIds;
+    createAts = newCreateAts;
+    deleted.clear();
+    docCount = liveCount;
+    committedDocs = liveCount;
+  }
+
+  private void writeDocument(DataOutputStream out, int docId) throws IOException {
+    out.writeUTF(postIds[docId]);
+    out.writeUTF(channelIds[docId] == null ? "" : channelIds[docId]);
+    out.writeUTF(userIds[docId] == null ? "" : userIds[docId]);
+    out.writeLong(createAts[docId]);
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  /**
+   * Search the posts.
+   *
+   * @return the ids of the matched posts, newest first
+   */
+  public synchronized List<String> search(SearchParams params, int limit) {
+    List<String> terms = parseTerms(params.getTerms(), params.isHashTag());
+    if (terms.isEmpty()) {
+      return Collections.emptyList();
+    }
+    int[] matched = null;
+    for (String term : terms) {
+      int[] docs = term.endsWith("*") ? lookupPrefix(term.substring(0, term.length() - 1))
+          : lookup(term);
+      if (matched == null) {
+        matched = docs;
+      } else {
+        matched = params.isOrTerms() ? union(matched, docs) : intersect(matched, docs);
+      }
+    }
+    Set<String> inChannels = toSet(params.getInChannels());
+    Set<String> fromUsers = toSet(params.getFromUsers());
+    List<Integer> result = new ArrayList<>();
+    for (int docId : matched) {
+      if (!deleted.get(docId)
+          && (inChannels == null || inChannels.contains(channelIds[docId]))
+          && (fromUsers == null || fromUsers.contains(userIds[docId]))) {
+        result.add(docId);
+      }
+    }
+    result.sort((a, b) -> createAts[a] != createAts[b]
+        ? Long.compare(createAts[b], createAts[a]) : Integer.compare(b, a));
+    List<String> ids = new ArrayList<>(Math.min(limit, result.size()));
+    for (int i = 0; i < result.size() && i < limit; i++) {
+      ids.add(postIds[result.get(i)]);
+    }
+    return ids;
+  }
+
+  private static Set<String> toSet(Collection<String> values) {
+    return values == null || values.isEmpty() ? null : new HashSet<>(values);
+  }
+
+  /**
+   * Split the search terms to the index terms. A trailing {@code *} is kept for a prefix search.
+   */
+  static List<String> parseTerms(String terms, boolean hashtag) {
+    List<String> result = new ArrayList<>();
+    if (terms == null) {
+      return result;
+    }
+    for (String word : terms.replace('"', ' ').trim().split("\\s+")) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      if (hashtag) {
+        String term = normalizeHashtag(word);
+        if (term != null) {
+          result.add(term);
+        }
+        continue;
+      }
+      List<String> tokens = new ArrayList<>();
+      tokenize(word, tokens::add);
+      if (!tokens.isEmpty() && word.endsWith("*")) {
+        int last = tokens.size() - 1;
+        tokens.set(last, tokens.get(last) + "*");
+      }
+      result.addAll(tokens);
+    }
+    return result;
+  }
+
+  private static String normalizeHashtag(String hashtag) {
+    String tag = hashtag.startsWith("#") ? hashtag.substring(1) : hashtag;
+    return tag.isEmpty() ? null : "#" + tag.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Split the text to lower cased words of letters, digits and underscores.
+   */
+  static void tokenize(String text, Consumer<String> consumer) {
+    if (text == null) {
+      return;
+    }
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        consumer.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || Character.isSurrogate(c);
+  }
+
+  private int[] lookup(String term) {
+    int[] docs = lookupCommitted(term);
+    IntList pendingDocs = pending.get(term);
+    return pendingDocs == null ? docs : union(docs, pendingDocs.toArray());
+  }
+
+  private int[] lookupCommitted(String term) {
+    int[] docs = new int[0];
+    for (Segment segment : segments) {
+      int[] segmentDocs = segment.read(term);
+      if (segmentDocs != null) {
+        docs = union(docs, segmentDocs);
+      }
+    }
+    return docs;
+  }
+
+  private int[] lookupPrefix(String prefix) {
+    Set<String> terms = new TreeSet<>();
+    for (Segment segment : segments) {
+      terms.addAll(prefixMap(segment.dictionary, prefix).keySet());
+    }
+    terms.addAll(prefixMap(pending, prefix).keySet());
+    int[] docs = new int[0];
+    for (String term : terms) {
+      docs = union(docs, lookup(term));
+    }
+    return docs;
+  }
+
+  private static <V> SortedMap<String, V> prefixMap(TreeMap<String, V> map, String prefix) {
+    if (prefix.isEmpty()) {
+      return Collections.emptySortedMap();
+    }
+    return map.subMap(prefix, prefix + Character.MAX_VALUE);
+  }
+
+  static int[] union(int[] a, int[] b) {
+    if (a.length == 0) {
+      return b;
+    }
+    if (b.length == 0) {
+      return a;
+    }
+    int[] result = new int[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < a.length || j < b.length) {
+      int value;
+      if (j == b.length || (i < a.length && a[i] < b[j])) {
+        value = a[i++];
+      } else if (i == a.length || b[j] < a[i]) {
+        value = b[j++];
+      } else {
+        value = a[i++];
+        j++;
+      }
+      result[count++] = value;
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  static int[] intersect(int[] a, int[] b) {
+    int[] result = new int[Math.min(a.length, b.length)];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (b[j] < a[i]) {
+        j++;
+      } else {
+        result[count++] = a[i++];
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    IOException failure = null;
+    for (Segment segment : segments) {
+      try {
+        segment.close();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    segments.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Writes a segment file to a temporary file, the terms in the ascending order.
+   */
+  private static class SegmentWriter implements Closeable {
+
+    private final Path temp;
+    private final DataOutputStream out;
+    private final List<String> terms = new ArrayList<>();
+    /** {offset, length, count} of each term. */
+    private final IntList entries = new IntList();
+    private boolean finished;
+
+    SegmentWriter(Path dir) throws IOException {
+      this.temp = Files.createTempFile(dir, SEGMENT_PREFIX, ".tmp");
+      this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+      out.writeInt(MAGIC);
+    }
+
+    /**
+     * Write the posting list of the term, skipped if empty.
+     */
+    void add(String term, int[] docs) throws IOException {
+      if (docs.length == 0) {
+        return;
+      }
+      int offset = out.size();
+      int previous = 0;
+      for (int docId : docs) {
+        writeVarInt(out, docId - previous);
+        previous = docId;
+      }
+      terms.add(term);
+      entries.add(offset);
+      entries.add(out.size() - offset);
+      entries.add(docs.length);
+    }
+
+    /**
+     * Write the dictionary.
+     *
+     * @return the temporary file to move into place
+     */
+    Path finish() throws IOException {
+      int dictionaryOffset = out.size();
+      out.writeInt(terms.size());
+      for (int i = 0; i < terms.size(); i++) {
+        out.writeUTF(terms.get(i));
+        for (int j = 0; j < 3; j++) {
+          out.writeInt(entries.get(i * 3 + j));
+        }
+      }
+      out.writeInt(dictionaryOffset);
+      out.close();
+      finished = true;
+      return temp;
+    }
+
+    /**
+     * Delete the temporary file unless finished and moved.
+     */
+    @Override
+    public void close() throws IOException {
+      out.close();
+      if (!finished) {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+
+  /**
+   * Segment file: magic, posting lists of varint encoded doc id deltas, term dictionary, and the
+   * offset of the dictionary. Offsets are 32 bits, a segment must be smaller than 2 GiB.
+   */
+  private static class Segment implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    /** term to {offset, length, count}. */
+    private final TreeMap<String, int[]> dictionary = new TreeMap<>();
+
+    Segment(Path path) throws IOException {
+      this.path = path;
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+        long size = channel.size();
+        ByteBuffer footer = readFully(size - Integer.BYTES, Integer.BYTES);
+        int dictionaryOffset = footer.getInt();
+        if (readFully(0, Integer.BYTES).getInt() != MAGIC) {
+          throw new IOException("Not an index segment: " + path);
+        }
+        ByteBuffer buffer =
+            readFully(dictionaryOffset, (int) (size - Integer.BYTES - dictionaryOffset));
+        try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer))) {
+          for (int i = in.readInt(); i > 0; i--) {
+            String term = in.readUTF();
+            dictionary.put(term, new int[] {in.readInt(), in.readInt(), in.readInt()});
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    int[] read(String term) {
+      int[] entry = dictionary.get(term);
+      if (entry == null) {
+        return null;
+      }
+      ByteBuffer buffer;
+      try {
+        buffer = readFully(entry[0], entry[1]);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      int[] docs = new int[entry[2]];
+      int docId = 0;
+      for (int i = 0; i < docs.length; i++) {
+        int delta = 0;
+        int shift = 0;
+        byte b;
+        do {
+          b = buffer.get();
+          delta |= (b & 0x7f) << shift;
+          shift += 7;
+        } while (b < 0);
+        docId += delta;
+        docs[i] = docId;
+      }
+      return docs;
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Truncated index segment: " + path);
+        }
+      }
+      // Buffer.flip(), the ByteBuffer override is Java 9+
+      ((Buffer) buffer).flip();
+      return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+  }
+
+  private static class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int get(int index) {
+      return values[index];
+    }
+
+    int size() {
+      return size;
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import net.bis5.mattermost.model.CompliancePost;
+
+/**
+ * Decode the posts of a compliance report archive one by one.
+ *
+ * <p>
+ * The archive is read sequentially, the CSV entries are decoded while reading and the other
+ * entries (e.g. {@code metadata.json}) are skipped, so the report is never unpacked to the disk
+ * nor loaded into memory. The columns are mapped by the header row, unknown columns are ignored.
+ * The times may be epoch milliseconds or RFC 3339 date-times.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class CompliancePostReader implements EntityStream<CompliancePost> {
+
+  private final ZipInputStream zip;
+  private final List<String> fields = new ArrayList<>();
+  private final StringBuilder field = new StringBuilder();
+  private BufferedReader csv;
+  private Map<String, Integer> columns;
+  private boolean finished;
+  private boolean hasPending;
+
+  /**
+   * Create new reader.
+   *
+   * @param archive the zip archive of the report
+   */
+  public CompliancePostReader(InputStream archive) {
+    this.zip = new ZipInputStream(archive, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasPending) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+    try {
+      while (true) {
+        if (csv == null && !nextCsvEntry()) {
+          finished = true;
+          return false;
+        }
+        if (!readRecord(csv)) {
+          csv = null;
+          continue;
+        }
+        if (fields.size() == 1 && fields.get(0).isEmpty()) {
+          // blank line
+          continue;
+        }
+        if (columns == null) {
+          columns = new HashMap<>();
+          for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+          }
+          continue;
+        }
+        hasPending = true;
+        return true;
+      }
+    } catch (IOException e) {
+      finished = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean nextCsvEntry() throws IOException {
+    ZipEntry entry;
+    while ((entry = zip.getNextEntry()) != null) {
+      if (!entry.isDirectory() && entry.getName().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+        // reads to the end of the entry. not closed, it would close the archive
+        csv = new BufferedReader(new InputStreamReader(zip, StandardCharsets.UTF_8));
+        columns = null;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public CompliancePost next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    hasPending = false;
+    CompliancePost post = new CompliancePost();
+    post.setTeamName(column("TeamName"));
+    post.setTeamDisplayName(column("TeamDisplayName"));
+    post.setChannelName(column("ChannelName"));
+    post.setChannelDisplayName(column("ChannelDisplayName"));
+    post.setUserUserName(column("UserUsername"));
+    post.setUserEmail(column("UserEmail"));
+    post.setUserNickname(column("UserNickname"));
+    post.setPostId(column("PostId"));
+    post.setPostCreateAt(time(column("PostCreateAt")));
+    post.setPostUpdateAt(time(column("PostUpdateAt")));
+    post.setPostDeleteAt(time(column("PostDeleteAt")));
+    post.setPostRootId(column("PostRootId"));
+    post.setPostParentId(column("PostParentId"));
+    post.setPostOriginalId(column("PostOriginalId"));
+    post.setPostMessage(column("PostMessage"));
+    post.setPostType(column("PostType"));
+    post.setPostProps(column("PostProps"));
+    post.setPostHashtags(column("PostHashtags"));
+    post.setPostFileIds(column("PostFileIds"));
+    return post;
+  }
+
+  private String column(String name) {
+    Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+    return index == null || index >= fields.size() ? null : fields.get(index);
+  }
+
+  private static long time(String value) {
+    if (value == null || value.isEmpty()) {
+      return 0;
+    }
+    if (value.indexOf('T') < 0) {
+      return Long.parseLong(value);
+    }
+    return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Read a RFC 4180 record into {@link #fields}.
+   *
+   * @return {@code false} at the end of the input
+   */
+  private boolean readRecord(Reader reader) throws IOException {
+    fields.clear();
+    field.setLength(0);
+    int c = reader.read();
+    if (c < 0) {
+      return false;
+    }
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c < 0) {
+          throw new IOException("Unterminated quoted field");
+        }
+        if (c == '"') {
+          c = reader.read();
+          if (c == '"') {
+            field.append('"');
+            c = reader.read();
+          } else {
+            quoted = false;
+          }
+          continue;
+        }
+        field.append((char) c);
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c < 0) {
+        fields.add(field.toString());
+        return true;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = reader.read();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    zip.close();
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Entities decoded one by one while reading the response body.
+ *
+ * <p>
+ * Only the current entity is held in memory. The stream must be closed to release the
+ * connection, {@link #forEachAndClose(Consumer)} does it for you.
+ * </p>
+ *
+ * <p>
+ * {@link #hasNext()} and {@link #next()} throw {@link UncheckedIOException} if the response could
+ * not be read or decoded.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public interface EntityStream<T> extends Iterator<T>, Closeable {
+
+  /**
+   * Performs the action for each remaining entity, then closes this stream.
+   *
+   * @return the number of entities
+   */
+  default int forEachAndClose(Consumer<? super T> action) throws IOException {
+    try {
+      int count = 0;
+      while (hasNext()) {
+        action.accept(next());
+        count++;
+      }
+      return count;
+    } finally {
+      close();
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Decode the elements of a JSON array one by one, e.g. {@code UserList} or
+ * {@code ChannelMembers} responses.
+ *
+ * @author Takayuki Maruyama
+ */
+public class JsonArrayStream<T> implements EntityStream<T> {
+
+  private final JsonParser parser;
+  private final ObjectReader elementReader;
+  private boolean started;
+  private boolean finished;
+  private boolean hasPending;
+
+  /**
+   * Create new stream.
+   *
+   * @param parser the parser positioned before the array
+   * @param elementReader the reader for the element type
+   */
+  public JsonArrayStream(JsonParser parser, ObjectReader elementReader) {
+    this.parser = parser;
+    this.elementReader = elementReader;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasPending) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+    try {
+      if (!started) {
+        started = true;
+        JsonToken first = parser.nextToken();
+        if (first == null || first == JsonToken.VALUE_NULL) {
+          finished = true;
+          return false;
+        }
+        if (first != JsonToken.START_ARRAY) {
+          throw new IOException("Expected JSON array but was " + first);
+        }
+      }
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY || token == null) {
+        finished = true;
+        return false;
+      }
+      hasPending = true;
+      return true;
+    } catch (IOException e) {
+      finished = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    hasPending = false;
+    try {
+      return elementReader.readValue(parser);
+    } catch (IOException e) {
+      finished = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    parser.close();
+  }
+
+}
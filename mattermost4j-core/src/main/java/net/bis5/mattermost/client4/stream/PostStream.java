@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import net.bis5.mattermost.model.Post;
+
+/**
+ * Decode the posts of a {@code PostList} response one by one.
+ *
+ * <p>
+ * Posts are returned in the order of the {@code posts} object, not in the display order. The
+ * display order and the paging ids are available from {@link #getOrder()},
+ * {@link #getNextPostId()} and {@link #getPrevPostId()} once all posts have been read, because the
+ * server may send them after the posts.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class PostStream implements EntityStream<Post> {
+
+  private final JsonParser parser;
+  private final ObjectReader postReader;
+  private final List<String> order = new ArrayList<>();
+  private String nextPostId;
+  private String prevPostId;
+  private boolean started;
+  private boolean inPosts;
+  private boolean finished;
+  private boolean hasPending;
+
+  /**
+   * Create new stream.
+   *
+   * @param parser the parser positioned before the post list object
+   * @param postReader the reader for {@link Post}
+   */
+  public PostStream(JsonParser parser, ObjectReader postReader) {
+    this.parser = parser;
+    this.postReader = postReader;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasPending) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+    try {
+      hasPending = advance();
+      finished = !hasPending;
+      return hasPending;
+    } catch (IOException e) {
+      finished = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Moves the parser to the start of the next post.
+   *
+   * @return {@code false} if the post list has been read to the end
+   */
+  private boolean advance() throws IOException {
+    if (!started) {
+      started = true;
+      JsonToken first = parser.nextToken();
+      if (first == null || first == JsonToken.VALUE_NULL) {
+        return false;
+      }
+      if (first != JsonToken.START_OBJECT) {
+        throw new IOException("Expected JSON object but was " + first);
+      }
+    }
+    if (inPosts) {
+      if (parser.nextToken() == JsonToken.FIELD_NAME) {
+        parser.nextToken();
+        return true;
+      }
+      inPosts = false;
+    }
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "posts":
+          if (value == JsonToken.START_OBJECT) {
+            if (parser.nextToken() == JsonToken.FIELD_NAME) {
+              inPosts = true;
+              parser.nextToken();
+              return true;
+            }
+          }
+          break;
+        case "order":
+          if (value == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              order.add(parser.getValueAsString());
+            }
+          }
+          break;
+        case "next_post_id":
+          nextPostId = parser.getValueAsString();
+          break;
+        case "prev_post_id":
+          prevPostId = parser.getValueAsString();
+          break;
+        default:
+          parser.skipChildren();
+          break;
+      }
+    }
+    if (token != JsonToken.END_OBJECT) {
+      throw new IOException("Unexpected token " + token);
+    }
+    return false;
+  }
+
+  @Override
+  public Post next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    hasPending = false;
+    try {
+      return postReader.readValue(parser);
+    } catch (IOException e) {
+      finished = true;
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * The post ids in display order.
+   *
+   * <p>
+   * Complete only after all posts have been read.
+   * </p>
+   */
+  public List<String> getOrder() {
+    return Collections.unmodifiableList(order);
+  }
+
+  public String getNextPostId() {
+    return nextPostId;
+  }
+
+  public String getPrevPostId() {
+    return prevPostId;
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    parser.close();
+  }
+
+}
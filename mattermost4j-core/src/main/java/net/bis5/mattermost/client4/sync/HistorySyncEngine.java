@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.sync;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.api.PostApi;
+import net.bis5.mattermost.client4.sync.PostSink.ChangeType;
+import net.bis5.mattermost.client4.sync.SyncCheckpoint.Position;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+
+/**
+ * Incremental channel history synchronizer.
+ *
+ * <p>
+ * The first sync of a channel reads the whole history, page by page from the newest. Later syncs
+ * read only the posts after the last synchronized post with {@code getPostsAfter}, then the posts
+ * changed since the last sync with {@code getPostsSince} to find edits and deletes. Each channel
+ * is synchronized by a single thread at a time, at most {@code concurrency} channels in parallel.
+ * The posts of a page are passed to the sink in chronological order, but the pages of the first
+ * sync are passed from the newest, so the order is not chronological across the pages. The
+ * checkpoint is saved at most once per second while syncing, and at the end of
+ * {@link #sync(Collection)}.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class HistorySyncEngine implements AutoCloseable {
+
+  static final int PAGE_SIZE = 200;
+  private static final long SAVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final PostApi api;
+  private final SyncCheckpoint checkpoint;
+  private final PostSink sink;
+  private final ExecutorService executor;
+  private final int pageSize;
+  private volatile long lastSavedAt = System.nanoTime();
+
+  public HistorySyncEngine(PostApi api, SyncCheckpoint checkpoint, PostSink sink,
+      int concurrency) {
+    this(api, checkpoint, sink, concurrency, PAGE_SIZE);
+  }
+
+  HistorySyncEngine(PostApi api, SyncCheckpoint checkpoint, PostSink sink, int concurrency,
+      int pageSize) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be positive");
+    }
+    this.api = api;
+    this.checkpoint = checkpoint;
+    this.sink = sink;
+    this.pageSize = pageSize;
+    this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+      Thread thread = new Thread(r, "mattermost-history-sync");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Synchronize the channels in parallel.
+   *
+   * @return the number of changes passed to the sink
+   * @throws IllegalStateException if some channels failed to sync, caused by the first failure
+   *     with the others suppressed. The checkpoints of the other channels are saved.
+   */
+  public int sync(Collection<String> channelIds) throws IOException, InterruptedException {
+    List<Future<Integer>> futures = new ArrayList<>(channelIds.size());
+    for (String channelId : channelIds) {
+      futures.add(executor.submit(() -> syncChannel(channelId)));
+    }
+    int changes = 0;
+    List<Throwable> failures = new ArrayList<>();
+    for (Future<Integer> future : futures) {
+      try {
+        changes += future.get();
+      } catch (ExecutionException e) {
+        failures.add(e.getCause());
+      }
+    }
+    saveCheckpoint();
+    if (!failures.isEmpty()) {
+      IllegalStateException e = new IllegalStateException(
+          failures.size() + " channel(s) failed to sync", failures.get(0));
+      failures.subList(1, failures.size()).forEach(e::addSuppressed);
+      throw e;
+    }
+    return changes;
+  }
+
+  /**
+   * Synchronize a channel in the caller thread.
+   *
+   * @return the number of changes passed to the sink
+   */
+  public int syncChannel(String channelId) throws IOException {
+    Position position = checkpoint.get(channelId);
+    ChannelSync sync = new ChannelSync(channelId, position);
+    if (position == null) {
+      sync.readHistory();
+    } else {
+      sync.readNewPosts();
+      sync.readChangedPosts();
+    }
+    checkpoint.update(channelId, new Position(sync.lastUpdateAt, sync.lastPostId));
+    maybeSaveCheckpoint();
+    return sync.changes;
+  }
+
+  private void maybeSaveCheckpoint() throws IOException {
+    long now = System.nanoTime();
+    if (now - lastSavedAt >= SAVE_INTERVAL_NANOS) {
+      saveCheckpoint();
+    }
+  }
+
+  private void saveCheckpoint() throws IOException {
+    lastSavedAt = System.nanoTime();
+    checkpoint.save();
+  }
+
+  @Override
+  public void close() throws IOException {
+    executor.shutdownNow();
+    checkpoint.save();
+  }
+
+  private class ChannelSync {
+
+    private final String channelId;
+    private final long since;
+    /** update_at of the posts already passed to the sink. */
+    private final Map<String, Long> emitted = new HashMap<>();
+    private long lastUpdateAt;
+    private String lastPostId;
+    /** create_at of the last post, not newer than {@code since} if not read in this sync. */
+    private long lastPostCreateAt;
+    private int changes;
+
+    ChannelSync(String channelId, Position position) {
+      this.channelId = channelId;
+      this.since = position == null ? 0 : position.getLastUpdateAt();
+      this.lastUpdateAt = since;
+      this.lastPostId = position == null ? null : position.getLastPostId();
+      this.lastPostCreateAt = since;
+    }
+
+    void readHistory() {
+      for (int page = 0;; page++) {
+        PostList posts = check(api.getPostsForChannel(channelId, Pager.of(page, pageSize), null));
+        List<String> order = posts.getOrder();
+        if (page == 0 && !order.isEmpty()) {
+          lastPost(posts);
+        }
+        emitPage(posts);
+        if (order.size() < pageSize) {
+          return;
+        }
+      }
+    }
+
+    void readNewPosts() {
+      if (lastPostId == null) {
+        // the channel had no post, getPostsSince returns the new ones
+        return;
+      }
+      while (true) {
+        PostList posts =
+            check(api.getPostsAfter(channelId, lastPostId, Pager.of(0, pageSize), null));
+        List<String> order = posts.getOrder();
+        if (order.isEmpty()) {
+          return;
+        }
+        lastPost(posts);
+        emitPage(posts);
+        boolean hasNext = posts.getNextPostId() != null && !posts.getNextPostId().isEmpty();
+        if (!hasNext && order.size() < pageSize) {
+          return;
+        }
+      }
+    }
+
+    void readChangedPosts() {
+      PostList posts = check(api.getPostsSince(channelId, since));
+      List<Post> changed = new ArrayList<>(posts.getPosts().values());
+      changed.sort((a, b) -> Long.compare(a.getUpdateAt(), b.getUpdateAt()));
+      Post newest = null;
+      for (Post post : changed) {
+        Long emittedAt = emitted.get(post.getId());
+        if (emittedAt != null && emittedAt == post.getUpdateAt()) {
+          continue;
+        }
+        if (emittedAt == null && post.getCreateAt() > since && post.getDeleteAt() == 0) {
+          emit(ChangeType.CREATED, post);
+          if (newest == null || post.getCreateAt() > newest.getCreateAt()) {
+            newest = post;
+          }
+        } else {
+          emit(post.getDeleteAt() > 0 ? ChangeType.DELETED : ChangeType.UPDATED, post);
+        }
+      }
+      // the posts created after readNewPosts, not to read them again on the next sync
+      if (newest != null && (lastPostId == null || newest.getCreateAt() > lastPostCreateAt)) {
+        lastPostId = newest.getId();
+        lastPostCreateAt = newest.getCreateAt();
+      }
+    }
+
+    /** Move the last post to the newest post of the page. */
+    private void lastPost(PostList posts) {
+      lastPostId = posts.getOrder().get(0);
+      Post post = posts.getPosts().get(lastPostId);
+      if (post != null) {
+        lastPostCreateAt = post.getCreateAt();
+      }
+    }
+
+    /**
+     * Emit a page ordered newest first, in chronological order within the page.
+     */
+    private void emitPage(PostList posts) {
+      List<String> order = posts.getOrder();
+      for (int i = order.size() - 1; i >= 0; i--) {
+        Post post = posts.getPosts().get(order.get(i));
+        if (post == null || emitted.containsKey(post.getId())) {
+          continue;
+        }
+        emit(post.getDeleteAt() > 0 ? ChangeType.DELETED : ChangeType.CREATED, post);
+      }
+    }
+
+    private void emit(ChangeType type, Post post) {
+      emitted.put(post.getId(), post.getUpdateAt());
+      lastUpdateAt = Math.max(lastUpdateAt, Math.max(post.getUpdateAt(),
+          Math.max(post.getCreateAt(), post.getDeleteAt())));
+      sink.accept(type, post);
+      changes++;
+    }
+
+    private PostList check(ApiResponse<PostList> response) {
+      if (response.hasError()) {
+        throw new IllegalStateException("Failed to sync channel " + channelId + ": "
+            + response.readError().getMessage());
+      }
+      return response.readEntity();
+    }
+  }
+}
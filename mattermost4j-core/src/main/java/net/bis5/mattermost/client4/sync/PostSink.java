@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.sync;
+
+import net.bis5.mattermost.model.Post;
+
+/**
+ * Receives the post changes found by {@link HistorySyncEngine}. Called from multiple threads,
+ * sequentially for each channel.
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface PostSink {
+
+  /**
+   * The kind of the change.
+   */
+  enum ChangeType {
+    CREATED, UPDATED, DELETED
+  }
+
+  void accept(ChangeType type, Post post);
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.sync;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Value;
+
+/**
+ * Durable high-water marks of the synchronized channels.
+ *
+ * <p>
+ * Stored as a properties file of {@code channelId=lastUpdateAt,lastPostId}, replaced atomically
+ * on {@link #save()}.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class SyncCheckpoint {
+
+  private final Path file;
+  private final Map<String, Position> positions = new ConcurrentHashMap<>();
+  private volatile boolean dirty;
+
+  /**
+   * The position of a channel.
+   */
+  @Value
+  public static class Position {
+    /** The latest create, update or delete time of the synchronized posts. */
+    long lastUpdateAt;
+    /** The id of the newest synchronized post, or {@code null} if the channel has no post. */
+    String lastPostId;
+  }
+
+  /**
+   * Load the checkpoint file if exists.
+   */
+  public SyncCheckpoint(Path file) throws IOException {
+    this.file = file;
+    if (Files.exists(file)) {
+      Properties properties = new Properties();
+      try (InputStream in = Files.newInputStream(file)) {
+        properties.load(in);
+      }
+      for (String channelId : properties.stringPropertyNames()) {
+        String value = properties.getProperty(channelId);
+        int separator = value.indexOf(',');
+        String lastPostId = value.substring(separator + 1);
+        positions.put(channelId, new Position(Long.parseLong(value.substring(0, separator)),
+            lastPostId.isEmpty() ? null : lastPostId));
+      }
+    }
+  }
+
+  /**
+   * Returns the position of the channel, or {@code null} if never synchronized.
+   */
+  public Position get(String channelId) {
+    return positions.get(channelId);
+  }
+
+  public void update(String channelId, Position position) {
+    positions.put(channelId, position);
+    dirty = true;
+  }
+
+  public void remove(String channelId) {
+    positions.remove(channelId);
+    dirty = true;
+  }
+
+  public int size() {
+    return positions.size();
+  }
+
+  /**
+   * Write the positions to the file if changed.
+   */
+  public synchronized void save() throws IOException {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+    Properties properties = new Properties();
+    positions.forEach((channelId, position) -> properties.setProperty(channelId,
+        position.getLastUpdateAt() + ","
+            + (position.getLastPostId() == null ? "" : position.getLastPostId())));
+    Path parent = file.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        properties.store(out, null);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      dirty = true;
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.jersey.provider;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import net.bis5.mattermost.client4.instrument.RouteTemplates;
+import net.bis5.mattermost.client4.jfr.FlightRecorderEvents;
+import org.glassfish.jersey.client.spi.PostInvocationInterceptor;
+
+/**
+ * Record the requests as the {@code net.bis5.mattermost4j.ApiCall} JFR events, see
+ * {@link FlightRecorderEvents}. Nothing is recorded unless a recording enables the event.
+ *
+ * @author Takayuki Maruyama
+ */
+public class FlightRecorderFilter implements ClientRequestFilter, ClientResponseFilter,
+    WriterInterceptor, PostInvocationInterceptor {
+
+  private static final String RECORDING = FlightRecorderFilter.class.getName() + ".recording";
+  private static final String REQUEST_BYTES =
+      FlightRecorderFilter.class.getName() + ".requestBytes";
+
+  @Override
+  public void filter(ClientRequestContext request) {
+    Object recording = FlightRecorderEvents.beginApiCall();
+    if (recording != null) {
+      request.setProperty(RECORDING, recording);
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (context.getProperty(RECORDING) == null) {
+      context.proceed();
+      return;
+    }
+    CountingOutputStream out = new CountingOutputStream(context.getOutputStream());
+    context.setOutputStream(out);
+    try {
+      context.proceed();
+    } finally {
+      context.setProperty(REQUEST_BYTES, out.getCount());
+    }
+  }
+
+  @Override
+  public void filter(ClientRequestContext request, ClientResponseContext response) {
+    commit(request, response.getStatus(), response.getLength(), null);
+  }
+
+  @Override
+  public void afterRequest(ClientRequestContext request, ClientResponseContext response) {
+    // committed by the response filter
+  }
+
+  @Override
+  public void onException(ClientRequestContext request, ExceptionContext context) {
+    if (!context.getResponseContext().isPresent()) {
+      commit(request, 0, -1, context.getThrowables().peekFirst());
+    }
+  }
+
+  private static void commit(ClientRequestContext request, int status, long responseBytes,
+      Throwable failure) {
+    Object recording = request.getProperty(RECORDING);
+    if (recording == null) {
+      return;
+    }
+    request.removeProperty(RECORDING);
+    Object sent = request.getProperty(REQUEST_BYTES);
+    FlightRecorderEvents.commitApiCall(recording, request.getMethod(),
+        RouteTemplates.of(request.getUri().getRawPath()), status,
+        sent instanceof Long ? (Long) sent : 0, responseBytes, failure);
+  }
+}
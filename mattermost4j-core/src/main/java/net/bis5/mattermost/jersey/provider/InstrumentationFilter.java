@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.jersey.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import net.bis5.mattermost.client4.instrument.ClientInstrumentation;
+import net.bis5.mattermost.client4.instrument.RouteTemplates;
+import org.glassfish.jersey.client.spi.PostInvocationInterceptor;
+
+/**
+ * Report the requests to the {@link ClientInstrumentation}, tagged by the route template of the
+ * request path.
+ *
+ * <p>
+ * The request body is counted as written to the connection, so register with the priority lower
+ * than {@link jakarta.ws.rs.Priorities#ENTITY_CODER} to count the compressed size. The response
+ * body is counted while read, before decoding. The small JSON error bodies are read ahead to
+ * report the error id, and the rate limit headers are reported.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class InstrumentationFilter implements ClientRequestFilter, ClientResponseFilter,
+    WriterInterceptor, PostInvocationInterceptor {
+
+  private static final String START = InstrumentationFilter.class.getName() + ".start";
+  private static final String ROUTE = InstrumentationFilter.class.getName() + ".route";
+  private static final String REQUEST_BYTES =
+      InstrumentationFilter.class.getName() + ".requestBytes";
+  private static final String RATE_LIMIT_LIMIT = "X-Ratelimit-Limit";
+  private static final String RATE_LIMIT_REMAINING = "X-Ratelimit-Remaining";
+  private static final String RATE_LIMIT_RESET = "X-Ratelimit-Reset";
+  private static final int MAX_ERROR_BYTES = 16 * 1024;
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final ClientInstrumentation instrumentation;
+
+  public InstrumentationFilter(ClientInstrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  @Override
+  public void filter(ClientRequestContext request) {
+    String route = RouteTemplates.of(request.getUri().getRawPath());
+    request.setProperty(ROUTE, route);
+    instrumentation.requestStarted(request.getMethod(), route);
+    request.setProperty(START, System.nanoTime());
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    CountingOutputStream out = new CountingOutputStream(context.getOutputStream());
+    context.setOutputStream(out);
+    try {
+      context.proceed();
+    } finally {
+      context.setProperty(REQUEST_BYTES, out.getCount());
+    }
+  }
+
+  @Override
+  public void filter(ClientRequestContext request, ClientResponseContext response)
+      throws IOException {
+    Object start = request.getProperty(START);
+    if (!(start instanceof Long)) {
+      return;
+    }
+    String method = request.getMethod();
+    String route = (String) request.getProperty(ROUTE);
+    Object sent = request.getProperty(REQUEST_BYTES);
+    int status = response.getStatus();
+    instrumentation.requestCompleted(method, route, status, System.nanoTime() - (Long) start,
+        sent instanceof Long ? (Long) sent : 0, response.getLength());
+    String remaining = response.getHeaderString(RATE_LIMIT_REMAINING);
+    if (remaining != null) {
+      instrumentation.rateLimit(parseLong(response.getHeaderString(RATE_LIMIT_LIMIT)),
+          parseLong(remaining), parseLong(response.getHeaderString(RATE_LIMIT_RESET)));
+    }
+    if (!response.hasEntity()) {
+      if (status >= 400) {
+        instrumentation.apiError(method, route, status, null);
+      }
+      return;
+    }
+    InputStream body = response.getEntityStream();
+    if (status >= 400) {
+      body = reportApiError(method, route, status, response, body);
+    }
+    response.setEntityStream(new CountingInputStream(body, method, route));
+  }
+
+  private static long parseLong(String value) {
+    try {
+      return value == null ? -1 : Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Read the id of the small JSON error body, and return the stream to read the body again.
+   */
+  private InputStream reportApiError(String method, String route, int status,
+      ClientResponseContext response, InputStream body) throws IOException {
+    ByteArrayOutputStream head = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int read = 0;
+    while (head.size() <= MAX_ERROR_BYTES && (read = body.read(buffer)) != -1) {
+      head.write(buffer, 0, read);
+    }
+    String errorId = null;
+    InputStream rest = new ByteArrayInputStream(head.toByteArray());
+    if (read == -1) {
+      body.close();
+      String encoding = response.getHeaderString(HttpHeaders.CONTENT_ENCODING);
+      MediaType mediaType = response.getMediaType();
+      if ((encoding == null || "identity".equalsIgnoreCase(encoding)) && mediaType != null
+          && mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+        errorId = readErrorId(head.toByteArray());
+      }
+    } else {
+      rest = new SequenceInputStream(rest, body);
+    }
+    instrumentation.apiError(method, route, status, errorId);
+    return rest;
+  }
+
+  private static String readErrorId(byte[] json) {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("id".equals(name) && value == JsonToken.VALUE_STRING) {
+          return parser.getText();
+        }
+        parser.skipChildren();
+      }
+      return null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void afterRequest(ClientRequestContext request, ClientResponseContext response) {
+    // reported by the response filter
+  }
+
+  @Override
+  public void onException(ClientRequestContext request, ExceptionContext context) {
+    Object start = request.getProperty(START);
+    if (context.getResponseContext().isPresent() || !(start instanceof Long)) {
+      return;
+    }
+    instrumentation.requestFailed(request.getMethod(), (String) request.getProperty(ROUTE),
+        System.nanoTime() - (Long) start, context.getThrowables().peekFirst());
+  }
+
+  private class CountingInputStream extends FilterInputStream {
+
+    private final String method;
+    private final String route;
+    private long count;
+    private boolean reported;
+
+    CountingInputStream(InputStream in, String method, String route) {
+      super(in);
+      this.method = method;
+      this.route = route;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b < 0) {
+        report();
+      } else {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = in.read(b, off, len);
+      if (read < 0) {
+        report();
+      } else {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(n);
+      count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        in.close();
+      } finally {
+        report();
+      }
+    }
+
+    private void report() {
+      if (!reported) {
+        reported = true;
+        instrumentation.responseRead(method, route, count);
+      }
+    }
+  }
+}
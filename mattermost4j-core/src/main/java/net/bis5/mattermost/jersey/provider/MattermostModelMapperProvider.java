@@ -17,6 +17,7 @@ package net.bis5.mattermost.jersey.provider;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.ext.ContextResolver;
 import jakarta.ws.rs.ext.Provider;
@@ -34,17 +35,58 @@ public class MattermostModelMapperProvider implements ContextResolver<ObjectMapp
   final ObjectMapper defaultObjectMapper;
   final ObjectMapper configObjectMapper;
   private final boolean ignoreUnknownProperties;
+  private final boolean accelerated;
+
+  static final String AFTERBURNER_MODULE =
+      "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
 
   public MattermostModelMapperProvider() {
     this(false);
   }
 
   public MattermostModelMapperProvider(boolean ignoreUnknownProperties) {
+    this(ignoreUnknownProperties, false);
+  }
+
+  /**
+   * Create new provider.
+   *
+   * @param ignoreUnknownProperties ignore unknown properties instead of throwing an exception
+   * @param accelerated register the bytecode generating Jackson Afterburner module to both mappers.
+   *        {@code com.fasterxml.jackson.module:jackson-module-afterburner} is required at runtime.
+   */
+  public MattermostModelMapperProvider(boolean ignoreUnknownProperties, boolean accelerated) {
     this.ignoreUnknownProperties = ignoreUnknownProperties;
-    defaultObjectMapper = createDefaultObjectMapper();
-    configObjectMapper = createConfigObjectMapper();
+    this.accelerated = accelerated;
+    defaultObjectMapper = configureAcceleration(createDefaultObjectMapper());
+    configObjectMapper = configureAcceleration(createConfigObjectMapper());
+  }
+
+  private ObjectMapper configureAcceleration(ObjectMapper mapper) {
+    if (accelerated) {
+      mapper.registerModule(createAcceleratorModule());
+    }
+    return mapper;
   }
 
+  /**
+   * Create the Afterburner module. Loaded reflectively because the module is an optional
+   * dependency.
+   */
+  protected Module createAcceleratorModule() {
+    try {
+      return (Module) Class.forName(AFTERBURNER_MODULE).getConstructor().newInstance();
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(
+          "Accelerated mode requires com.fasterxml.jackson.module:jackson-module-afterburner", e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public boolean isAccelerated() {
+    return accelerated;
+  }
 
   protected ObjectMapper createDefaultObjectMapper() {
     return new ObjectMapper().configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
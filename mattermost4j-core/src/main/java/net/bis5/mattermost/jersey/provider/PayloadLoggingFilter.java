@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.jersey.provider;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.jersey.client.spi.PostInvocationInterceptor;
+
+/**
+ * Log the requests and the responses with the prefix of the bodies.
+ *
+ * <p>
+ * Unlike {@code LoggingFeature} with {@code Verbosity.PAYLOAD_ANY}, the bodies are never buffered:
+ * the prefix up to {@code maxEntitySize} bytes is copied while the body is written or read, and
+ * the rest only counted. The requests to log are sampled when they are sent, and with
+ * {@link PayloadLoggingFilterBuilder#slowerThan(Duration)} only the requests slower than the
+ * threshold are logged. The values of the credential headers are redacted.
+ * </p>
+ *
+ * <p>
+ * The request and the response headers are logged when the response is received, the response
+ * body when it is read to the end or closed. Register with the
+ * {@link jakarta.ws.rs.Priorities#USER} priority to log the bodies before compression and after
+ * decompression.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class PayloadLoggingFilter implements ClientRequestFilter, ClientResponseFilter,
+    WriterInterceptor, ReaderInterceptor, PostInvocationInterceptor {
+
+  private static final String EXCHANGE = PayloadLoggingFilter.class.getName() + ".exchange";
+  private static final String REDACTED = "<redacted>";
+  private static final AtomicLong IDS = new AtomicLong();
+
+  private final Logger logger;
+  private final Level level;
+  private final double sampleRate;
+  private final long slowThresholdNanos;
+  private final int maxEntitySize;
+  private final Set<String> redactedHeaders;
+
+  private PayloadLoggingFilter(PayloadLoggingFilterBuilder builder) {
+    this.logger = builder.logger;
+    this.level = builder.level;
+    this.sampleRate = builder.sampleRate;
+    this.slowThresholdNanos = builder.slowThreshold.toNanos();
+    this.maxEntitySize = builder.maxEntitySize;
+    this.redactedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    this.redactedHeaders.addAll(builder.redactedHeaders);
+  }
+
+  public static PayloadLoggingFilterBuilder builder() {
+    return new PayloadLoggingFilterBuilder();
+  }
+
+  @Override
+  public void filter(ClientRequestContext request) {
+    if (!logger.isLoggable(level)
+        || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+      return;
+    }
+    StringBuilder message = new StringBuilder(256);
+    long id = IDS.incrementAndGet();
+    line(message, id, '>').append(request.getMethod()).append(' ').append(request.getUri());
+    headers(message, id, '>', request.getStringHeaders());
+    request.setProperty(EXCHANGE, new Exchange(id, message, System.nanoTime()));
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Object exchange = context.getProperty(EXCHANGE);
+    if (!(exchange instanceof Exchange)) {
+      context.proceed();
+      return;
+    }
+    PrefixOutputStream out = new PrefixOutputStream(context.getOutputStream());
+    context.setOutputStream(out);
+    try {
+      context.proceed();
+    } finally {
+      Exchange logged = (Exchange) exchange;
+      line(logged.message, logged.id, '>');
+      body(logged.message, context.getMediaType(), out.prefix);
+    }
+  }
+
+  @Override
+  public void filter(ClientRequestContext request, ClientResponseContext response) {
+    Exchange exchange = exchange(request);
+    if (exchange == null) {
+      return;
+    }
+    long elapsed = System.nanoTime() - exchange.start;
+    if (elapsed < slowThresholdNanos) {
+      // skip the response body too
+      request.removeProperty(EXCHANGE);
+      return;
+    }
+    StringBuilder message = exchange.message;
+    line(message, exchange.id, '<').append(response.getStatus()).append(" in ")
+        .append(TimeUnit.NANOSECONDS.toMillis(elapsed)).append(" ms");
+    headers(message, exchange.id, '<', response.getHeaders());
+    logger.log(level, message.toString());
+    if (!response.hasEntity()) {
+      request.removeProperty(EXCHANGE);
+    }
+  }
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+    Object exchange = context.getProperty(EXCHANGE);
+    if (exchange instanceof Exchange) {
+      context.removeProperty(EXCHANGE);
+      context.setInputStream(
+          new PrefixInputStream(context.getInputStream(), (Exchange) exchange,
+              context.getMediaType()));
+    }
+    return context.proceed();
+  }
+
+  @Override
+  public void afterRequest(ClientRequestContext request, ClientResponseContext response) {
+    // logged by the response filter
+  }
+
+  @Override
+  public void onException(ClientRequestContext request, ExceptionContext context) {
+    Exchange exchange = exchange(request);
+    if (exchange == null || context.getResponseContext().isPresent()) {
+      return;
+    }
+    request.removeProperty(EXCHANGE);
+    StringBuilder message = exchange.message;
+    line(message, exchange.id, '!').append("failed in ")
+        .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - exchange.start)).append(" ms");
+    logger.log(level, message.toString(), context.getThrowables().peekFirst());
+  }
+
+  private static Exchange exchange(ClientRequestContext request) {
+    Object exchange = request.getProperty(EXCHANGE);
+    return exchange instanceof Exchange ? (Exchange) exchange : null;
+  }
+
+  private static StringBuilder line(StringBuilder message, long id, char direction) {
+    if (message.length() > 0) {
+      message.append('\n');
+    }
+    return message.append(id).append(' ').append(direction).append(' ');
+  }
+
+  private void headers(StringBuilder message, long id, char direction,
+      MultivaluedMap<String, String> headers) {
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      line(message, id, direction).append(header.getKey()).append(": ");
+      if (redactedHeaders.contains(header.getKey())) {
+        message.append(REDACTED);
+      } else {
+        message.append(String.join(",", header.getValue()));
+      }
+    }
+  }
+
+  private static void body(StringBuilder message, MediaType mediaType, Prefix prefix) {
+    if (prefix.count == 0) {
+      message.append("(empty body)");
+      return;
+    }
+    if (isTextual(mediaType)) {
+      message.append(new String(prefix.bytes, 0, prefix.length, StandardCharsets.UTF_8));
+      if (prefix.count > prefix.length) {
+        message.append("...");
+      }
+      message.append(' ');
+    }
+    message.append('(').append(prefix.count).append(" bytes)");
+  }
+
+  private static boolean isTextual(MediaType mediaType) {
+    if (mediaType == null) {
+      return false;
+    }
+    String subtype = mediaType.getSubtype().toLowerCase(Locale.ROOT);
+    return "text".equalsIgnoreCase(mediaType.getType()) || subtype.equals("json")
+        || subtype.endsWith("+json") || subtype.endsWith("xml")
+        || subtype.equals("x-www-form-urlencoded");
+  }
+
+  private static final class Exchange {
+
+    private final long id;
+    private final StringBuilder message;
+    private final long start;
+
+    Exchange(long id, StringBuilder message, long start) {
+      this.id = id;
+      this.message = message;
+      this.start = start;
+    }
+  }
+
+  /** The prefix of a body, allocated as the body is copied up to {@code maxEntitySize}. */
+  private class Prefix {
+
+    private byte[] bytes = new byte[0];
+    private int length;
+    private long count;
+
+    void append(int b) {
+      if (reserve(1) > 0) {
+        bytes[length++] = (byte) b;
+      }
+      count++;
+    }
+
+    void append(byte[] b, int off, int len) {
+      int copy = reserve(len);
+      System.arraycopy(b, off, bytes, length, copy);
+      length += copy;
+      count += len;
+    }
+
+    /**
+     * @return the number of the bytes to copy
+     */
+    private int reserve(int len) {
+      int copy = Math.min(len, maxEntitySize - length);
+      if (length + copy > bytes.length) {
+        bytes = Arrays.copyOf(bytes,
+            Math.min(maxEntitySize, Math.max(length + copy, bytes.length * 2)));
+      }
+      return copy;
+    }
+  }
+
+  /** Copies the prefix of the request body while written through. */
+  private class PrefixOutputStream extends FilterOutputStream {
+
+    private final Prefix prefix = new Prefix();
+
+    PrefixOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      prefix.append(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      prefix.append(b, off, len);
+    }
+  }
+
+  /** Copies the prefix of the response body while read, and logs it at the end. */
+  private class PrefixInputStream extends FilterInputStream {
+
+    private final Exchange exchange;
+    private final MediaType mediaType;
+    private final Prefix prefix = new Prefix();
+    private boolean logged;
+
+    PrefixInputStream(InputStream in, Exchange exchange, MediaType mediaType) {
+      super(in);
+      this.exchange = exchange;
+      this.mediaType = mediaType;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b < 0) {
+        log();
+        return b;
+      }
+      prefix.append(b);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = in.read(b, off, len);
+      if (read < 0) {
+        log();
+        return read;
+      }
+      prefix.append(b, off, read);
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(n);
+      prefix.count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        in.close();
+      } finally {
+        log();
+      }
+    }
+
+    private void log() {
+      if (logged) {
+        return;
+      }
+      logged = true;
+      StringBuilder message = new StringBuilder(prefix.length + 32);
+      line(message, exchange.id, '<');
+      body(message, mediaType, prefix);
+      logger.log(level, message.toString());
+    }
+  }
+
+  /**
+   * Builder of {@link PayloadLoggingFilter}.
+   */
+  public static class PayloadLoggingFilterBuilder {
+
+    private Logger logger = Logger.getLogger(PayloadLoggingFilter.class.getName());
+    private Level level = Level.FINE;
+    private double sampleRate = 1;
+    private Duration slowThreshold = Duration.ZERO;
+    private int maxEntitySize = 1024;
+    private final Set<String> redactedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    PayloadLoggingFilterBuilder() {
+      redactedHeaders.add("Authorization");
+      redactedHeaders.add("Token");
+      redactedHeaders.add("Cookie");
+      redactedHeaders.add("Set-Cookie");
+    }
+
+    public PayloadLoggingFilterBuilder logger(Logger logger) {
+      this.logger = logger;
+      return this;
+    }
+
+    public PayloadLoggingFilterBuilder level(Level level) {
+      this.level = level;
+      return this;
+    }
+
+    /**
+     * Log the fraction of the requests, {@code 1} to log all requests.
+     */
+    public PayloadLoggingFilterBuilder sampleRate(double sampleRate) {
+      this.sampleRate = sampleRate;
+      return this;
+    }
+
+    /**
+     * Log only the requests that took the {@code threshold} or longer until the response headers
+     * are received. The failed requests are always logged.
+     */
+    public PayloadLoggingFilterBuilder slowerThan(Duration threshold) {
+      this.slowThreshold = threshold;
+      return this;
+    }
+
+    /**
+     * Log the bodies up to {@code maxEntitySize} bytes, the default is 1024.
+     */
+    public PayloadLoggingFilterBuilder maxEntitySize(int maxEntitySize) {
+      this.maxEntitySize = maxEntitySize;
+      return this;
+    }
+
+    /**
+     * Redact the value of the header in addition to {@code Authorization}, {@code Token},
+     * {@code Cookie} and {@code Set-Cookie}.
+     */
+    public PayloadLoggingFilterBuilder redactHeader(String name) {
+      redactedHeaders.add(name);
+      return this;
+    }
+
+    public PayloadLoggingFilter build() {
+      if (logger == null || level == null) {
+        throw new IllegalArgumentException("logger and level must not be null");
+      }
+      if (!(sampleRate >= 0 && sampleRate <= 1)) {
+        throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+      }
+      if (slowThreshold == null || slowThreshold.isNegative()) {
+        throw new IllegalArgumentException("slowThreshold must not be negative");
+      }
+      if (maxEntitySize < 0) {
+        throw new IllegalArgumentException("maxEntitySize must not be negative");
+      }
+      return new PayloadLoggingFilter(this);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.jersey.provider;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compress JSON and text request bodies larger than the threshold with gzip.
+ *
+ * <p>
+ * The body is buffered up to the threshold. If the body exceeds the threshold, the
+ * {@code Content-Encoding: gzip} header is added and the rest of the body is compressed while
+ * streaming. Smaller bodies are sent as is. Register with the
+ * {@link jakarta.ws.rs.Priorities#ENTITY_CODER} priority.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class RequestCompressionInterceptor implements WriterInterceptor {
+
+  static final String GZIP = "gzip";
+
+  private final int thresholdBytes;
+
+  public RequestCompressionInterceptor(int thresholdBytes) {
+    if (thresholdBytes < 0) {
+      throw new IllegalArgumentException("thresholdBytes must not be negative");
+    }
+    this.thresholdBytes = thresholdBytes;
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (!isCompressible(context.getMediaType())
+        || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      context.proceed();
+      return;
+    }
+    ThresholdGzipOutputStream out =
+        new ThresholdGzipOutputStream(context.getOutputStream(), context.getHeaders());
+    context.setOutputStream(out);
+    context.proceed();
+    out.finish();
+  }
+
+  private static boolean isCompressible(MediaType mediaType) {
+    if (mediaType == null) {
+      return false;
+    }
+    return "text".equalsIgnoreCase(mediaType.getType())
+        || mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)
+        || mediaType.getSubtype().toLowerCase().endsWith("+json");
+  }
+
+  private class ThresholdGzipOutputStream extends OutputStream {
+
+    private final OutputStream original;
+    private final MultivaluedMap<String, Object> headers;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private OutputStream compressed;
+    private boolean finished;
+
+    ThresholdGzipOutputStream(OutputStream original, MultivaluedMap<String, Object> headers) {
+      this.original = original;
+      this.headers = headers;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (compressed != null) {
+        compressed.write(b, off, len);
+        return;
+      }
+      if (buffer.size() + len <= thresholdBytes) {
+        buffer.write(b, off, len);
+        return;
+      }
+      // headers are committed on the first write to the original stream
+      headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+      headers.remove(HttpHeaders.CONTENT_LENGTH);
+      compressed = new GZIPOutputStream(original, 8192);
+      buffer.writeTo(compressed);
+      buffer = null;
+      compressed.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (compressed != null) {
+        compressed.flush();
+      }
+    }
+
+    void finish() throws IOException {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (compressed != null) {
+        ((GZIPOutputStream) compressed).finish();
+      } else {
+        buffer.writeTo(original);
+        buffer = null;
+      }
+      original.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      finish();
+      original.close();
+    }
+  }
+}
@@ -19,6 +19,8 @@ module net.bis5.mattermost4j.core {
     requires jersey.common;
     requires jersey.media.json.jackson;
     requires org.apache.commons.lang3;
+    requires static jdk.httpserver;
+    requires static jdk.jfr;
 
     requires transitive com.fasterxml.jackson.annotation;
     requires transitive com.fasterxml.jackson.databind;
@@ -31,8 +33,14 @@ module net.bis5.mattermost4j.core {
 
     exports net.bis5.mattermost.client4;
     exports net.bis5.mattermost.client4.api;
+    exports net.bis5.mattermost.client4.cache;
     exports net.bis5.mattermost.client4.hook;
+    exports net.bis5.mattermost.client4.instrument;
+    exports net.bis5.mattermost.client4.jfr;
     exports net.bis5.mattermost.client4.model;
+    exports net.bis5.mattermost.client4.search;
+    exports net.bis5.mattermost.client4.stream;
+    exports net.bis5.mattermost.client4.sync;
     exports net.bis5.mattermost.jersey.provider;
 
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import net.bis5.mattermost.client4.stream.EntityStream;
+import net.bis5.mattermost.model.User;
+import net.bis5.mattermost.model.UserList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for request/response compression.
+ */
+class CompressionTest {
+
+  private static final String USERS_JSON = "[{\"id\":\"user1\",\"username\":\"alice\"}]";
+
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+  private String acceptEncoding;
+  private String contentEncoding;
+  private byte[] requestBody;
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        acceptEncoding = session.getHeaders().get("accept-encoding");
+        contentEncoding = session.getHeaders().get("content-encoding");
+        try {
+          String contentLength = session.getHeaders().get("content-length");
+          int length = contentLength == null ? 0 : Integer.parseInt(contentLength);
+          requestBody = new byte[length];
+          new DataInputStream(session.getInputStream()).readFully(requestBody);
+
+          byte[] body = gzip(USERS_JSON.getBytes(StandardCharsets.UTF_8));
+          Response response = newFixedLengthResponse(Status.OK, "application/json",
+              new ByteArrayInputStream(body), body.length);
+          response.addHeader("Content-Encoding", "gzip");
+          return response;
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      @Override
+      protected boolean useGzipWhenAccepted(Response r) {
+        return false;
+      }
+    };
+    dummyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dummyServer.stop();
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  private static String gunzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      byte[] buffer = new byte[1024];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static String[] manyIds() {
+    String[] ids = new String[100];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = String.format("%026d", i);
+    }
+    return ids;
+  }
+
+  @Test
+  void compressLargeRequestAndDecompressResponse() throws IOException {
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .acceptEncoding()
+        .compressRequest(512)
+        .build()) {
+
+      UserList users = client.getUsersByIds(manyIds()).readEntity();
+
+      assertThat(acceptEncoding).contains("gzip");
+      assertThat(contentEncoding).isEqualTo("gzip");
+      assertThat(gunzip(requestBody)).startsWith("[\"00000000000000000000000000\"");
+      assertThat(users).hasSize(1);
+      assertThat(users.get(0).getUsername()).isEqualTo("alice");
+    }
+  }
+
+  @Test
+  void streamCompressedResponse() throws IOException {
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .acceptEncoding()
+        .build()) {
+
+      ApiResponse<EntityStream<User>> response = client.streamUsers(Pager.defaultPager());
+
+      assertThat(response.hasError()).isFalse();
+      List<User> users = new ArrayList<>();
+      response.readEntity().forEachAndClose(users::add);
+      assertThat(users).extracting(User::getUsername).containsExactly("alice");
+    }
+  }
+
+  @Test
+  void sendSmallRequestAsIs() throws IOException {
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .acceptEncoding()
+        .compressRequest(512)
+        .build()) {
+
+      client.getUsersByIds("user1");
+
+      assertThat(contentEncoding).isNull();
+      assertThat(new String(requestBody, StandardCharsets.UTF_8)).isEqualTo("[\"user1\"]");
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.bis5.mattermost.client4.cache.ImageCache;
+import net.bis5.mattermost.client4.cache.ImageCache.Kind;
+import net.bis5.mattermost.model.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the JFR events.
+ */
+class FlightRecorderTest {
+
+  private static final String USER_ID = "abcdefghijklmnopqrstuvwxyz";
+
+  @TempDir
+  Path tempDir;
+
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+  private volatile long receivedBytes;
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        String contentLength = session.getHeaders().get("content-length");
+        receivedBytes = contentLength == null ? -1 : Long.parseLong(contentLength);
+        return newFixedLengthResponse(Status.OK, "application/json",
+            "{\"id\":\"" + USER_ID + "\",\"username\":\"alice\"}");
+      }
+    };
+    dummyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dummyServer.stop();
+  }
+
+  private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+    Path file = tempDir.resolve("recording.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals(eventName))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void recordApiCall() throws IOException {
+    try (MattermostClient client =
+        MattermostClient.builder().url("http://localhost:" + listenPort).build()) {
+
+      List<RecordedEvent> events = record("net.bis5.mattermost4j.ApiCall",
+          () -> client.getUser(USER_ID).readEntity());
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("method")).isEqualTo("GET");
+      assertThat(event.getString("route")).isEqualTo("/users/{id}");
+      assertThat(event.getInt("status")).isEqualTo(200);
+      assertThat(event.getLong("responseBytes")).isPositive();
+      assertThat(event.getThread().getJavaName()).isEqualTo(Thread.currentThread().getName());
+      assertThat(event.getDuration()).isPositive();
+    }
+  }
+
+  @Test
+  void recordCompressedRequestBytes() throws IOException {
+    StringBuilder message = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      message.append("hello ");
+    }
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort).compressRequest(0).build()) {
+
+      List<RecordedEvent> events = record("net.bis5.mattermost4j.ApiCall",
+          () -> client.createPost(new Post("channel1", message.toString())));
+
+      assertThat(events).hasSize(1);
+      assertThat(receivedBytes).isPositive().isLessThan(message.length());
+      assertThat(events.get(0).getLong("requestBytes")).isEqualTo(receivedBytes);
+    }
+  }
+
+  @Test
+  void recordCacheOperation() throws IOException {
+    ImageCache cache = new ImageCache(tempDir.resolve("cache"), 1000, 0);
+
+    List<RecordedEvent> events = record("net.bis5.mattermost4j.Cache",
+        () -> cache.lookup(Kind.PROFILE, "user1"));
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("cache")).isEqualTo("image");
+    assertThat(events.get(0).getString("operation")).isEqualTo("miss");
+  }
+}
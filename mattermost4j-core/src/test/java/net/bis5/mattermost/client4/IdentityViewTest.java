@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link MattermostClient#as(String)}.
+ */
+class IdentityViewTest {
+
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        // answers the caller's credentials as the username
+        String authorization = session.getHeaders().get("authorization");
+        return newFixedLengthResponse(Status.OK, "application/json",
+            "{\"id\":\"me\",\"username\":\"" + authorization + "\"}");
+      }
+    };
+    dummyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dummyServer.stop();
+  }
+
+  @Test
+  void sendCredentialsOfEachView() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .build()) {
+      client.setAccessToken("owner");
+      List<Future<List<String>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        MattermostClient bot = client.as("bot" + i);
+        results.add(executor.submit(() -> {
+          List<String> usernames = new ArrayList<>();
+          for (int j = 0; j < 20; j++) {
+            usernames.add(bot.getMe().readEntity().getUsername());
+          }
+          return usernames;
+        }));
+      }
+
+      for (int i = 0; i < 8; i++) {
+        assertThat(results.get(i).get()).hasSize(20).containsOnly("Bearer bot" + i);
+      }
+      User owner = client.getMe().readEntity();
+      assertThat(owner.getUsername()).isEqualTo("Bearer owner");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void closeViewKeepsSharedClient() {
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .build()) {
+      try (MattermostClient bot = client.as(AuthType.TOKEN, "oauth")) {
+        assertThat(bot.getMe().readEntity().getUsername()).isEqualTo("token oauth");
+      }
+
+      assertThat(client.as("bot").getMe().readEntity().getUsername()).isEqualTo("Bearer bot");
+      assertThat(client.getMe().readEntity().getUsername()).isEqualTo("null");
+    }
+  }
+}
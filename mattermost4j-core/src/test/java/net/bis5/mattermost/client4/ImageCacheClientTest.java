@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bis5.mattermost.client4.cache.ImageCache;
+import net.bis5.mattermost.client4.cache.ImageCache.Kind;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for serving the images through {@link ImageCache}.
+ */
+class ImageCacheClientTest {
+
+  private static final String USER_ID = "abcdefghijklmnopqrstuvwxyz";
+  private static final String EMOJI_ID = "emojiidxxxxxxxxxxxxxxxxxxx";
+  private static final String ETAG = "\"v1\"";
+  private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3, 4};
+
+  @TempDir
+  Path tempDir;
+
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger notModifiedCount = new AtomicInteger();
+  private ImageCache cache;
+  private MattermostClient client;
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        requestCount.incrementAndGet();
+        if (ETAG.equals(session.getHeaders().get("if-none-match"))) {
+          notModifiedCount.incrementAndGet();
+          return newFixedLengthResponse(Status.NOT_MODIFIED, "image/png", "");
+        }
+        Response response = newFixedLengthResponse(Status.OK, "image/png",
+            new ByteArrayInputStream(IMAGE), IMAGE.length);
+        response.addHeader("ETag", ETAG);
+        return response;
+      }
+    };
+    dummyServer.start();
+    cache = new ImageCache(tempDir.resolve("cache"), 1000, 0);
+    client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .imageCache(cache)
+        .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    dummyServer.stop();
+  }
+
+  private static User user(long lastPictureUpdate) {
+    User user = new User();
+    user.setId(USER_ID);
+    user.setLastPictureUpdate(lastPictureUpdate);
+    return user;
+  }
+
+  @Test
+  void revalidateProfileImageWithEtag() {
+    assertThat(client.getProfileImage(USER_ID, null).readEntity()).isEqualTo(IMAGE);
+
+    ApiResponse<byte[]> response = client.getProfileImage(USER_ID, null);
+
+    assertThat(response.getRawResponse().getStatus()).isEqualTo(304);
+    assertThat(response.hasError()).isFalse();
+    assertThat(response.readEntity()).isEqualTo(IMAGE);
+    assertThat(requestCount).hasValue(2);
+    assertThat(notModifiedCount).hasValue(1);
+    assertThat(cache.getRevalidatedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void serveSameVersionWithoutRequest() {
+    client.getProfileImage(user(100)).readEntity();
+
+    assertThat(client.getProfileImage(user(100)).readEntity()).isEqualTo(IMAGE);
+    assertThat(requestCount).hasValue(1);
+
+    client.getProfileImage(user(200)).readEntity();
+    assertThat(requestCount).hasValue(2);
+  }
+
+  @Test
+  void refetchImageEvictedBeforeRead() throws IOException {
+    client.getProfileImage(user(100)).readEntity();
+    Files.delete(cache.lookup(Kind.PROFILE, USER_ID).getPath());
+
+    assertThat(client.getProfileImage(user(100)).readEntity()).isEqualTo(IMAGE);
+    assertThat(requestCount).hasValue(2);
+    assertThat(cache.lookup(Kind.PROFILE, USER_ID).readBytes()).isEqualTo(IMAGE);
+  }
+
+  @Test
+  void emojiImageIsCopiedForCaller() throws IOException {
+    Path first = client.getEmojiImage(EMOJI_ID).readEntity();
+    Files.delete(first);
+
+    Path second = client.getEmojiImage(EMOJI_ID).readEntity();
+
+    assertThat(second).isNotEqualTo(cache.lookup(Kind.EMOJI, EMOJI_ID).getPath());
+    assertThat(second.getFileName().toString()).endsWith(".png");
+    assertThat(Files.readAllBytes(second)).isEqualTo(IMAGE);
+    assertThat(requestCount).hasValue(1);
+    Files.delete(second);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import jakarta.ws.rs.ProcessingException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import net.bis5.mattermost.client4.instrument.RouteStatistics;
+import net.bis5.mattermost.client4.instrument.RouteStatistics.RateLimit;
+import net.bis5.mattermost.client4.instrument.RouteStatistics.RouteStats;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the request instrumentation.
+ */
+class InstrumentationTest {
+
+  private static final String USER_ID = "abcdefghijklmnopqrstuvwxyz";
+  private static final String USER_JSON = "{\"id\":\"" + USER_ID + "\",\"username\":\"alice\"}";
+  private static final String ERROR_JSON = "{\"id\":\"api.context.404.app_error\","
+      + "\"message\":\"Sorry, we could not find the page.\",\"status_code\":404}";
+
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+  private volatile long receivedBytes;
+  private final RouteStatistics statistics = new RouteStatistics();
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        String contentLength = session.getHeaders().get("content-length");
+        receivedBytes = contentLength == null ? -1 : Long.parseLong(contentLength);
+        if (session.getUri().endsWith("/posts")) {
+          return newFixedLengthResponse(Status.CREATED, "application/json", "{\"id\":\"post1\"}");
+        }
+        if (session.getUri().endsWith(USER_ID)) {
+          return newFixedLengthResponse(Status.OK, "application/json", USER_JSON);
+        }
+        Response response =
+            newFixedLengthResponse(Status.NOT_FOUND, "application/json", ERROR_JSON);
+        response.addHeader("X-Ratelimit-Limit", "10");
+        response.addHeader("X-Ratelimit-Remaining", "9");
+        response.addHeader("X-Ratelimit-Reset", "1");
+        return response;
+      }
+    };
+    dummyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dummyServer.stop();
+  }
+
+  private MattermostClient client(int port) {
+    return MattermostClient.builder()
+        .url("http://localhost:" + port)
+        .instrumentation(statistics)
+        .build();
+  }
+
+  @Test
+  void recordByRoute() {
+    try (MattermostClient client = client(listenPort)) {
+      client.getUser(USER_ID).readEntity();
+      client.getUser(USER_ID).readEntity();
+      client.getUser("unknownuseridxxxxxxxxxxxxx").hasError();
+    }
+
+    RouteStats stats = statistics.get("GET", "/users/{id}");
+    assertThat(stats.getRequestCount()).isEqualTo(3);
+    assertThat(stats.getErrorCount()).isEqualTo(1);
+    assertThat(stats.getResponseBytes())
+        .isEqualTo(2 * USER_JSON.length() + ERROR_JSON.length());
+    assertThat(stats.getLatency().getCount()).isEqualTo(3);
+    assertThat(stats.getLatency().getValueAtPercentile(99)).isPositive();
+  }
+
+  @Test
+  void recordApiErrorAndRateLimit() {
+    try (MattermostClient client = client(listenPort)) {
+      ApiResponse<User> response = client.getUser("unknownuseridxxxxxxxxxxxxx");
+
+      assertThat(response.readError().getId()).isEqualTo("api.context.404.app_error");
+    }
+
+    assertThat(statistics.getApiErrorCounts()).containsEntry("api.context.404.app_error", 1L);
+    RateLimit rateLimit = statistics.getRateLimit();
+    assertThat(rateLimit.getLimit()).isEqualTo(10);
+    assertThat(rateLimit.getRemaining()).isEqualTo(9);
+    assertThat(rateLimit.getResetSeconds()).isEqualTo(1);
+    assertThat(statistics.getInFlightCount()).isZero();
+  }
+
+  @Test
+  void recordRequestBytes() {
+    Post post = new Post("channel1", "hello");
+    try (MattermostClient client = client(listenPort)) {
+      client.createPost(post);
+    }
+
+    RouteStats stats = statistics.get("POST", "/posts");
+    assertThat(stats.getRequestCount()).isEqualTo(1);
+    assertThat(stats.getRequestBytes()).isPositive();
+  }
+
+  @Test
+  void recordCompressedRequestBytes() {
+    StringBuilder message = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      message.append("hello ");
+    }
+    Post post = new Post("channel1", message.toString());
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .instrumentation(statistics)
+        .compressRequest(0)
+        .build()) {
+      client.createPost(post);
+    }
+
+    RouteStats stats = statistics.get("POST", "/posts");
+    assertThat(receivedBytes).isPositive().isLessThan(message.length());
+    assertThat(stats.getRequestBytes()).isEqualTo(receivedBytes);
+  }
+
+  @Test
+  void recordFailure() throws IOException {
+    int closedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      closedPort = socket.getLocalPort();
+    }
+    try (MattermostClient client = client(closedPort)) {
+      assertThatThrownBy(() -> client.getUser(USER_ID))
+          .isInstanceOf(ProcessingException.class);
+    }
+
+    RouteStats stats = statistics.get("GET", "/users/{id}");
+    assertThat(stats.getFailureCount()).isEqualTo(1);
+    assertThat(stats.getRequestCount()).isZero();
+  }
+}
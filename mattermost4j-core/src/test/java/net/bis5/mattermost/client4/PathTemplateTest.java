@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link PathTemplate}.
+ */
+class PathTemplateTest {
+
+  @Test
+  void expandPlaceholders() {
+    PathTemplate template = PathTemplate.compile("/teams/{team_id}/channels/name/{channel_name}");
+
+    assertThat(template.expand("team1", " town-square ")).isEqualTo(
+        "/teams/team1/channels/name/town-square");
+    assertThat(template.expand(null, "off-topic")).isEqualTo("/teams//channels/name/off-topic");
+    assertThatThrownBy(() -> template.expand("team1"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void encodePathSegment() {
+    PathTemplate template = PathTemplate.compile("/emoji/name/{emoji_name}");
+
+    assertThat(template.expand("a/b c?d%")).isEqualTo("/emoji/name/a%2Fb%20c%3Fd%25");
+    assertThat(template.expand("日本")).isEqualTo("/emoji/name/%E6%97%A5%E6%9C%AC");
+    assertThat(PathTemplate.encodePathSegment("user@example.com"))
+        .isEqualTo("user@example.com");
+  }
+
+  @Test
+  void encodeQueryValues() {
+    QueryBuilder query = new QueryBuilder().set("term", "a&b=c d+e").set("page", 0)
+        .set("in_channel", "channel1");
+
+    assertThat(query.toString()).isEqualTo("?term=a%26b%3Dc%20d%2Be&page=0&in_channel=channel1");
+    assertThat(new QueryBuilder().toString()).isEqualTo("?");
+    assertThat(Pager.of(2, 100).toQuery(false)).isEqualTo("&page=2&per_page=100");
+  }
+
+  @Test
+  void resolveAgainstBaseTarget() {
+    try (MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:8065")
+        .build()) {
+
+      assertThat(client.apiTarget(client.getUserByEmailRoute("a b@example.com")).getUri())
+          .hasToString("http://localhost:8065/api/v4/users/email/a%20b@example.com");
+      assertThat(client.apiTarget(client.getUsersRoute() + Pager.of(1, 60).toQuery()).getUri())
+          .hasToString("http://localhost:8065/api/v4/users?page=1&per_page=60");
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import net.bis5.mattermost.jersey.provider.PayloadLoggingFilter;
+import net.bis5.mattermost.model.Post;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link PayloadLoggingFilter}.
+ */
+class PayloadLoggingTest {
+
+  private static final String MESSAGE = StringUtils.repeat('x', 200);
+  private static final String POST_JSON =
+      "{\"id\":\"post1\",\"channel_id\":\"channel1\",\"message\":\"" + MESSAGE + "\"}";
+
+  private final Logger logger = Logger.getLogger(PayloadLoggingTest.class.getName());
+  private final List<String> messages = new CopyOnWriteArrayList<>();
+  private final Handler handler = new Handler() {
+    @Override
+    public void publish(LogRecord record) {
+      messages.add(record.getMessage());
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+  private NanoHTTPD dummyServer;
+  private int listenPort;
+
+  @BeforeEach
+  void setup() throws IOException {
+    logger.addHandler(handler);
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        try {
+          // consume the request body for the next request on the kept-alive connection
+          int length = Integer.parseInt(session.getHeaders().get("content-length"));
+          new DataInputStream(session.getInputStream()).readFully(new byte[length]);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        Response response = newFixedLengthResponse(Status.CREATED, "application/json", POST_JSON);
+        response.addHeader("Token", "session-token");
+        return response;
+      }
+    };
+    dummyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dummyServer.stop();
+    logger.removeHandler(handler);
+  }
+
+  private MattermostClient client(PayloadLoggingFilter filter) {
+    MattermostClient client = MattermostClient.builder()
+        .url("http://localhost:" + listenPort)
+        .payloadLogging(filter)
+        .build();
+    client.setAccessToken("secret-access-token");
+    return client;
+  }
+
+  @Test
+  void redactHeadersAndTruncateBodies() {
+    PayloadLoggingFilter filter =
+        PayloadLoggingFilter.builder().logger(logger).level(Level.INFO).maxEntitySize(16).build();
+    try (MattermostClient client = client(filter)) {
+      client.createPost(new Post("channel1", MESSAGE)).readEntity();
+    }
+
+    assertThat(messages).hasSize(2);
+    String exchange = messages.get(0);
+    assertThat(exchange)
+        .contains("> POST http://localhost:" + listenPort + "/api/v4/posts")
+        .contains("> Authorization: <redacted>")
+        .contains("< 201 in ")
+        .contains("< Token: <redacted>")
+        .doesNotContain("secret-access-token")
+        .doesNotContain("session-token")
+        .doesNotContain(StringUtils.repeat('x', 17))
+        .containsPattern("> \\{.{15}\\.\\.\\. \\(\\d+ bytes\\)");
+    assertThat(messages.get(1))
+        .endsWith("< {\"id\":\"post1\",\"c... (" + POST_JSON.length() + " bytes)");
+  }
+
+  @Test
+  void skipFastAndUnsampledRequests() {
+    PayloadLoggingFilter slowOnly = PayloadLoggingFilter.builder().logger(logger)
+        .level(Level.INFO).slowerThan(Duration.ofMinutes(1)).build();
+    try (MattermostClient client = client(slowOnly)) {
+      client.createPost(new Post("channel1", MESSAGE)).readEntity();
+    }
+    PayloadLoggingFilter unsampled =
+        PayloadLoggingFilter.builder().logger(logger).level(Level.INFO).sampleRate(0).build();
+    try (MattermostClient client = client(unsampled)) {
+      client.createPost(new Post("channel1", MESSAGE)).readEntity();
+    }
+
+    assertThat(messages).isEmpty();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of resolving the request URI of {@code GET /users/{user_id}/teams/{team_id}/channels}
+ * with a page, by formatting the route and creating a target from the whole URL, and by
+ * expanding the precompiled template against the base target.
+ *
+ * <p>
+ * Run {@link #main(String[])} from your IDE, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main RequestTargetBenchmark -prof gc} to see
+ * the allocation per operation ({@code gc.alloc.rate.norm}).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestTargetBenchmark {
+
+  private static final String API_URL = "http://localhost:8065/api/v4";
+  private static final String USER_ID = "abcdefghijklmnopqrstuvwxyz";
+  private static final String TEAM_ID = "zyxwvutsrqponmlkjihgfedcba";
+  private static final PathTemplate USER_TEAM_CHANNELS =
+      PathTemplate.compile("/users/{user_id}/teams/{team_id}/channels");
+
+  private MattermostClient client;
+  private Client httpClient;
+  private Pager pager;
+
+  @Setup
+  public void setup() {
+    client = MattermostClient.builder().url("http://localhost:8065").build();
+    httpClient = ClientBuilder.newClient();
+    pager = Pager.of(0, 60);
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    httpClient.close();
+  }
+
+  @Benchmark
+  public URI formatAndTarget() {
+    String url = "/users" + String.format("/%s", StringUtils.stripToEmpty(USER_ID))
+        + String.format("/teams/%s/channels", TEAM_ID) + "?"
+        + String.format("page=%d&per_page=%d", pager.getPage(), pager.getPerPage());
+    return httpClient.target(API_URL + url).getUri();
+  }
+
+  @Benchmark
+  public URI templateAndBaseTarget() {
+    return client.apiTarget(USER_TEAM_CHANNELS.expand(USER_ID, TEAM_ID) + pager.toQuery())
+        .getUri();
+  }
+
+  @Benchmark
+  public URI templateAndBaseTargetWithoutQuery() {
+    return client.apiTarget(USER_TEAM_CHANNELS.expand(USER_ID, TEAM_ID)).getUri();
+  }
+
+  @Benchmark
+  public URI formatAndTargetWithoutQuery() {
+    String url = "/users" + String.format("/%s", StringUtils.stripToEmpty(USER_ID))
+        + String.format("/teams/%s/channels", TEAM_ID);
+    return httpClient.target(API_URL + url).getUri();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RequestTargetBenchmark.class.getSimpleName())
+        .addProfiler("gc").build()).run();
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the streaming team import.
+ */
+class TeamImportTest {
+
+  private static final String LOG = "Slack Import Log\r\nUser created: alice\r\n";
+
+  private HttpServer server;
+  private String transferEncoding;
+  private Map<String, String> parts;
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/api/v4/teams/team1/import", exchange -> {
+      transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+      String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+      parts = parseMultipart(readAll(exchange.getRequestBody()),
+          contentType.substring(contentType.indexOf("boundary=") + 9));
+      byte[] body = ("{\"results\":\""
+          + Base64.getEncoder().encodeToString(LOG.getBytes(StandardCharsets.UTF_8)) + "\"}")
+              .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/api/v4/teams/team2/import", exchange -> {
+      byte[] body = "{\"status_code\":404,\"message\":\"not found\"}"
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(404, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private static String readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+  }
+
+  /** Part name to the content, as ISO-8859-1 to keep the bytes. */
+  private static Map<String, String> parseMultipart(String body, String boundary) {
+    Map<String, String> result = new HashMap<>();
+    for (String part : body.split("--" + boundary)) {
+      int headerEnd = part.indexOf("\r\n\r\n");
+      int nameStart = part.indexOf(" name=\"");
+      if (headerEnd < 0 || nameStart < 0) {
+        continue;
+      }
+      String name = part.substring(nameStart + 7, part.indexOf('"', nameStart + 7));
+      result.put(name, part.substring(headerEnd + 4, part.length() - 2));
+    }
+    return result;
+  }
+
+  private MattermostClient client() {
+    return MattermostClient.builder()
+        .url("http://localhost:" + server.getAddress().getPort()).build();
+  }
+
+  @Test
+  void importFromFileWithProgress() throws IOException {
+    byte[] archive = new byte[300 * 1024];
+    new Random(1).nextBytes(archive);
+    Path file = dir.resolve("export.zip");
+    Files.write(file, archive);
+    List<Long> progress = new ArrayList<>();
+
+    try (MattermostClient client = client()) {
+      ApiResponse<List<String>> response = client.importTeam("team1", file, "slack",
+          (sent, total) -> {
+            assertThat(total).isEqualTo(archive.length);
+            progress.add(sent);
+          });
+
+      assertThat(response.hasError()).isFalse();
+      assertThat(response.readEntity()).containsExactly("Slack Import Log",
+          "User created: alice");
+    }
+    assertThat(transferEncoding).isEqualToIgnoringCase("chunked");
+    assertThat(parts.get("filesize")).isEqualTo(Integer.toString(archive.length));
+    assertThat(parts.get("importFrom")).isEqualTo("slack");
+    assertThat(parts.get("file").getBytes(StandardCharsets.ISO_8859_1)).isEqualTo(archive);
+    assertThat(progress).hasSizeGreaterThan(2).isSorted().endsWith((long) archive.length);
+  }
+
+  @Test
+  void importFromBytes() throws IOException {
+    try (MattermostClient client = client()) {
+      ApiResponse<byte[]> response =
+          client.importTeam("data".getBytes(StandardCharsets.UTF_8), 4, "slack", "a.zip", "team1");
+
+      assertThat(new String(response.readEntity(), StandardCharsets.UTF_8)).isEqualTo(LOG);
+    }
+    assertThat(parts.get("file")).isEqualTo("data");
+  }
+
+  @Test
+  void importError() throws IOException {
+    try (MattermostClient client = client()) {
+      ApiResponse<List<String>> response = client.importTeam("team2",
+          new ByteArrayInputStream(new byte[1]), 1, "a.zip", "slack", null);
+
+      assertThat(response.hasError()).isTrue();
+      assertThat(response.readError().getMessage()).isEqualTo("not found");
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.WebSocketEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link ChannelNameResolver}.
+ */
+class ChannelNameResolverTest {
+
+  private static final String CHANNEL_PATH = "/api/v4/teams/name/team1/channels/name/town";
+
+  private final ObjectMapper mapper = new MattermostModelMapperProvider().getContext(Post.class);
+  private final Map<String, Object> resources = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+  private NanoHTTPD dummyServer;
+  private MattermostClient client;
+
+  @BeforeEach
+  void setup() throws IOException {
+    int listenPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        String uri = session.getUri();
+        requestCounts.computeIfAbsent(uri, k -> new AtomicInteger()).incrementAndGet();
+        try {
+          if (uri.equals("/api/v4/posts")) {
+            Map<String, String> body = new HashMap<>();
+            session.parseBody(body);
+            Post post = mapper.readValue(body.get("postData"), Post.class);
+            if (!resources.containsValue(channel(post.getChannelId()))) {
+              return newFixedLengthResponse(Status.NOT_FOUND, "application/json",
+                  "{\"status_code\":404}");
+            }
+            post.setId("post1");
+            return newFixedLengthResponse(Status.CREATED, "application/json",
+                mapper.writeValueAsString(post));
+          }
+          Object resource = resources.get(uri);
+          if (resource == null) {
+            return newFixedLengthResponse(Status.NOT_FOUND, "application/json",
+                "{\"status_code\":404,\"message\":\"not found\"}");
+          }
+          String etag = "\"" + resource.hashCode() + "\"";
+          if (etag.equals(session.getHeaders().get("if-none-match"))) {
+            return newFixedLengthResponse(Status.NOT_MODIFIED, null, "");
+          }
+          Response response = newFixedLengthResponse(Status.OK, "application/json",
+              mapper.writeValueAsString(resource));
+          response.addHeader("Etag", etag);
+          return response;
+        } catch (IOException | ResponseException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+    dummyServer.start();
+    client = MattermostClient.builder().url("http://localhost:" + listenPort).build();
+
+    Team team = new Team();
+    team.setId("team1");
+    team.setName("team1");
+    resources.put("/api/v4/teams/name/team1", team);
+    resources.put(CHANNEL_PATH, channel("channel1"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    dummyServer.stop();
+  }
+
+  private static Channel channel(String id) {
+    Channel channel = new Channel("Town Square", "town", null, "team1");
+    channel.setId(id);
+    return channel;
+  }
+
+  private int requests(String path) {
+    AtomicInteger count = requestCounts.get(path);
+    return count == null ? 0 : count.get();
+  }
+
+  @Test
+  void resolveOnce() {
+    ChannelNameResolver resolver = new ChannelNameResolver(client, Duration.ofHours(1));
+
+    assertThat(resolver.resolveTeam("team1").getId()).isEqualTo("team1");
+    assertThat(resolver.resolveTeam("TEAM1").getId()).isEqualTo("team1");
+    assertThat(resolver.resolveChannel("team1/town").getId()).isEqualTo("channel1");
+    assertThat(resolver.resolveChannel("team1", "town").getId()).isEqualTo("channel1");
+    assertThat(resolver.resolveChannel("team1", "unknown")).isNull();
+
+    assertThat(requests("/api/v4/teams/name/team1")).isEqualTo(1);
+    assertThat(requests(CHANNEL_PATH)).isEqualTo(1);
+    assertThat(resolver.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  void revalidateWithEtag() {
+    ChannelNameResolver resolver = new ChannelNameResolver(client, Duration.ZERO);
+
+    resolver.resolveChannel("team1", "town");
+    Channel revalidated = resolver.resolveChannel("team1", "town");
+
+    assertThat(revalidated.getId()).isEqualTo("channel1");
+    assertThat(resolver.getRevalidatedCount()).isEqualTo(1);
+    assertThat(requests(CHANNEL_PATH)).isEqualTo(2);
+  }
+
+  @Test
+  void invalidateByEvents() throws IOException {
+    ChannelNameResolver resolver = new ChannelNameResolver(client, Duration.ofHours(1));
+    resolver.resolveTeam("team1");
+    resolver.resolveChannel("team1", "town");
+
+    resolver.onEvent(mapper.readValue("{\"event\":\"channel_deleted\","
+        + "\"data\":{\"channel_id\":\"channel1\"}}", WebSocketEvent.class));
+    resources.put(CHANNEL_PATH, channel("channel2"));
+
+    assertThat(resolver.resolveChannel("team1", "town").getId()).isEqualTo("channel2");
+
+    resolver.onEvent(mapper.readValue("{\"event\":\"update_team\","
+        + "\"data\":{\"team\":{\"id\":\"team1\",\"name\":\"team1\"}}}", WebSocketEvent.class));
+    resolver.resolveTeam("team1");
+    resolver.resolveChannel("team1", "town");
+
+    assertThat(requests("/api/v4/teams/name/team1")).isEqualTo(2);
+    assertThat(requests(CHANNEL_PATH)).isEqualTo(3);
+  }
+
+  @Test
+  void createPostRetriesOnNotFound() {
+    ChannelNameResolver resolver = new ChannelNameResolver(client, Duration.ofHours(1));
+    resolver.resolveChannel("team1", "town");
+    // the channel was recreated while the events were not received
+    resources.put(CHANNEL_PATH, channel("channel2"));
+
+    ApiResponse<Post> response = resolver.createPost("team1", "town", new Post(null, "hello"));
+
+    assertThat(response.readEntity().getChannelId()).isEqualTo("channel2");
+    assertThat(requests("/api/v4/posts")).isEqualTo(2);
+    assertThat(requests(CHANNEL_PATH)).isEqualTo(2);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.bis5.mattermost.client4.cache.ImageCache.CachedImage;
+import net.bis5.mattermost.client4.cache.ImageCache.Kind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link ImageCache}.
+ */
+class ImageCacheTest {
+
+  @TempDir
+  Path cacheDir;
+
+  private static ByteArrayInputStream image(int size) {
+    return new ByteArrayInputStream(new byte[size]);
+  }
+
+  @Test
+  void storeAndLookup() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 100);
+
+    cache.put(Kind.PROFILE, "user1", 123, "\"etag\"", null, "image/png", image(10));
+
+    CachedImage cached = cache.lookup(Kind.PROFILE, "user1");
+    assertThat(cached.getVersion()).isEqualTo(123);
+    assertThat(cached.getEtag()).isEqualTo("\"etag\"");
+    assertThat(cached.getContentType()).isEqualTo("image/png");
+    assertThat(cached.readBytes()).hasSize(10);
+    assertThat(cache.lookup(Kind.EMOJI, "user1")).isNull();
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void readDeletedImageAsMiss() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 0);
+    cache.put(Kind.PROFILE, "user1", 1, null, null, null, image(10));
+    CachedImage cached = cache.lookup(Kind.PROFILE, "user1");
+    Files.delete(cached.getPath());
+
+    assertThat(cached.readBytes()).isNull();
+    assertThat(cache.lookup(Kind.PROFILE, "user1")).isNull();
+    assertThat(cache.getTotalBytes()).isZero();
+  }
+
+  @Test
+  void evictLeastRecentlyUsedByBytes() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 250, 0);
+
+    cache.put(Kind.PROFILE, "user1", 1, null, null, null, image(100));
+    cache.put(Kind.PROFILE, "user2", 1, null, null, null, image(100));
+    cache.lookup(Kind.PROFILE, "user1");
+    cache.put(Kind.PROFILE, "user3", 1, null, null, null, image(100));
+
+    assertThat(cache.lookup(Kind.PROFILE, "user1")).isNotNull();
+    assertThat(cache.lookup(Kind.PROFILE, "user2")).isNull();
+    assertThat(cache.lookup(Kind.PROFILE, "user3")).isNotNull();
+    assertThat(cache.getTotalBytes()).isEqualTo(200);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void replaceNewVersion() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 1000);
+
+    cache.put(Kind.PROFILE, "user1", 1, null, null, null, image(100));
+    cache.lookup(Kind.PROFILE, "user1").readBytes();
+    cache.put(Kind.PROFILE, "user1", 2, null, null, null, image(50));
+
+    CachedImage cached = cache.lookup(Kind.PROFILE, "user1");
+    assertThat(cached.getVersion()).isEqualTo(2);
+    assertThat(cached.readBytes()).hasSize(50);
+    assertThat(cache.getTotalBytes()).isEqualTo(50);
+  }
+
+  @Test
+  void reloadIndexFromDirectory() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 0);
+    cache.put(Kind.EMOJI, "emoji1", ImageCache.NO_VERSION, null, "Mon, 01 Jan 2018 00:00:00 GMT",
+        "image/gif", image(30));
+
+    ImageCache reloaded = new ImageCache(cacheDir, 1000, 0);
+
+    CachedImage cached = reloaded.lookup(Kind.EMOJI, "emoji1");
+    assertThat(cached.getLastModified()).isEqualTo("Mon, 01 Jan 2018 00:00:00 GMT");
+    assertThat(Files.size(cached.getPath())).isEqualTo(30);
+    assertThat(reloaded.getTotalBytes()).isEqualTo(30);
+  }
+
+  @Test
+  void invalidate() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 0);
+    CachedImage stored = cache.put(Kind.PROFILE, "user1", 1, null, null, null, image(10));
+
+    cache.invalidate(Kind.PROFILE, "user1");
+
+    assertThat(cache.lookup(Kind.PROFILE, "user1")).isNull();
+    assertThat(stored.getPath()).doesNotExist();
+    assertThat(cache.getTotalBytes()).isZero();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import net.bis5.mattermost.client4.cache.MappedUserStore.UserView;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link MappedUserStore}.
+ */
+class MappedUserStoreTest {
+
+  @TempDir
+  Path dir;
+
+  private static User user(String id, String username) {
+    User user = new User();
+    user.setId(id);
+    user.setUsername(username);
+    user.setEmail(username + "@example.com");
+    user.setFirstName("First");
+    user.setNickname("ニックネーム");
+    user.setUpdateAt(10);
+    user.setBot(true);
+    user.setNotifyProps(Collections.singletonMap("mention_keys", "alice,@alice"));
+    return user;
+  }
+
+  @Test
+  void storeAndLookup() throws IOException {
+    try (MappedUserStore store = MappedUserStore.open(dir.resolve("users"), 10, 4096)) {
+      store.put(user("user1", "alice"));
+      store.put(user("user2", "bob"));
+
+      UserView alice = store.lookup("user1");
+      assertThat(alice.getUsername()).isEqualTo("alice");
+      assertThat(alice.getEmail()).isEqualTo("alice@example.com");
+      assertThat(alice.getNickname()).isEqualTo("ニックネーム");
+      assertThat(alice.getLastName()).isNull();
+      assertThat(alice.getUpdateAt()).isEqualTo(10);
+      assertThat(alice.isBot()).isTrue();
+      assertThat(alice.isMfaActive()).isFalse();
+      assertThat(alice.getNotifyProps()).containsEntry("mention_keys", "alice,@alice");
+      assertThat(alice.getProps()).isNull();
+      assertThat(alice.toUser()).isEqualTo(user("user1", "alice"));
+      assertThat(store.lookupByUsername("BOB").getId()).isEqualTo("user2");
+      assertThat(store.lookup("user3")).isNull();
+      assertThat(store.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void updateAndRemove() throws IOException {
+    try (MappedUserStore store = MappedUserStore.open(dir.resolve("users"), 10, 4096)) {
+      store.put(user("user1", "alice"));
+      store.put(user("user1", "alice2"));
+
+      assertThat(store.lookupByUsername("alice")).isNull();
+      assertThat(store.lookupByUsername("alice2").getId()).isEqualTo("user1");
+      assertThat(store.size()).isEqualTo(1);
+
+      assertThat(store.remove("user1")).isTrue();
+      assertThat(store.remove("user1")).isFalse();
+      assertThat(store.lookup("user1")).isNull();
+      assertThat(store.lookupByUsername("alice2")).isNull();
+      assertThat(store.size()).isZero();
+    }
+  }
+
+  @Test
+  void manyUsersReuseView() throws IOException {
+    try (MappedUserStore store = MappedUserStore.open(dir.resolve("users"), 1000, 1 << 20)) {
+      for (int i = 0; i < 1000; i++) {
+        store.put(user("user" + i, "name" + i));
+      }
+      for (int i = 0; i < 1000; i += 3) {
+        store.remove("user" + i);
+      }
+
+      UserView view = new UserView();
+      for (int i = 0; i < 1000; i++) {
+        UserView found = store.lookup("user" + i, view);
+        if (i % 3 == 0) {
+          assertThat(found).isNull();
+        } else {
+          assertThat(found).isSameAs(view);
+          assertThat(found.getUsername()).isEqualTo("name" + i);
+          assertThat(store.lookupByUsername("name" + i).getId()).isEqualTo("user" + i);
+        }
+      }
+      assertThatThrownBy(() -> {
+        for (int i = 0; i < 2000; i++) {
+          store.put(user("more" + i, "more" + i));
+        }
+      }).isInstanceOf(IllegalStateException.class);
+    }
+  }
+
+  @Test
+  void reopenAndCompact() throws IOException {
+    Path file = dir.resolve("users");
+    try (MappedUserStore store = MappedUserStore.open(file, 10, 4096)) {
+      store.put(user("user1", "alice"));
+      store.put(user("user1", "alice"));
+      store.put(user("user2", "bob"));
+    }
+
+    try (MappedUserStore reopened = MappedUserStore.open(file, 1, 1);
+        MappedUserStore compacted = reopened.compactTo(dir.resolve("compacted"))) {
+      assertThat(reopened.lookup("user1").getUsername()).isEqualTo("alice");
+      assertThat(compacted.size()).isEqualTo(2);
+      assertThat(compacted.lookupByUsername("bob").getId()).isEqualTo("user2");
+      assertThat(compacted.getFreeBytes()).isGreaterThan(reopened.getFreeBytes());
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import net.bis5.mattermost.model.MattermostId;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link MattermostIdMap}.
+ */
+class MattermostIdMapTest {
+
+  @Test
+  void putGetRemove() {
+    MattermostIdMap<String> map = new MattermostIdMap<>();
+    MattermostId id = new MattermostId(1, 2);
+
+    assertThat(map.put(id, "a")).isNull();
+    assertThat(map.put(id, "b")).isEqualTo("a");
+    assertThat(map.get(new MattermostId(1, 2))).isEqualTo("b");
+    assertThat(map.get(id.toString())).isEqualTo("b");
+    assertThat(map.get("user1")).isNull();
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.remove(id)).isEqualTo("b");
+    assertThat(map.containsKey(id)).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  void sameAsHashMap() {
+    Random random = new Random(1);
+    MattermostIdMap<Integer> map = new MattermostIdMap<>();
+    Map<MattermostId, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      // small key space so that keys collide, are replaced and removed
+      MattermostId id = new MattermostId(random.nextInt(64), random.nextInt(64));
+      if (random.nextInt(3) == 0) {
+        assertThat(map.remove(id)).isEqualTo(expected.remove(id));
+      } else {
+        assertThat(map.put(id, i)).isEqualTo(expected.put(id, i));
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    Map<MattermostId, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertThat(actual).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.User;
+import net.bis5.mattermost.model.WebSocketEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link UserDirectory}.
+ */
+class UserDirectoryTest {
+
+  private final ObjectMapper mapper = new MattermostModelMapperProvider().getContext(User.class);
+  private final Map<String, User> serverUsers = new ConcurrentHashMap<>();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private NanoHTTPD dummyServer;
+  private MattermostClient client;
+
+  @BeforeEach
+  void setup() throws IOException {
+    int listenPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        requestCount.incrementAndGet();
+        try {
+          return json(route(session));
+        } catch (IOException | ResponseException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      private Response json(Object body) throws IOException {
+        if (body == null) {
+          return newFixedLengthResponse(Status.NOT_FOUND, "application/json",
+              "{\"status_code\":404,\"message\":\"not found\"}");
+        }
+        return newFixedLengthResponse(Status.OK, "application/json",
+            mapper.writeValueAsString(body));
+      }
+
+      private Object route(IHTTPSession session) throws IOException, ResponseException {
+        String path = session.getUri().substring("/api/v4/users".length());
+        if (path.isEmpty()) {
+          int page = Integer.parseInt(session.getParms().get("page"));
+          return page == 0 ? new ArrayList<>(serverUsers.values()) : new ArrayList<>();
+        }
+        if (path.equals("/ids")) {
+          Map<String, String> body = new HashMap<>();
+          session.parseBody(body);
+          List<User> found = new ArrayList<>();
+          for (String id : mapper.readValue(body.get("postData"), String[].class)) {
+            if (serverUsers.containsKey(id)) {
+              found.add(serverUsers.get(id));
+            }
+          }
+          return found;
+        }
+        if (path.startsWith("/username/")) {
+          String username = path.substring("/username/".length());
+          return serverUsers.values().stream().filter(u -> u.getUsername().equals(username))
+              .findFirst().orElse(null);
+        }
+        return serverUsers.get(path.substring(1));
+      }
+    };
+    dummyServer.start();
+    client = MattermostClient.builder().url("http://localhost:" + listenPort).build();
+
+    addServerUser("user1", "alice");
+    addServerUser("user2", "bob");
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    dummyServer.stop();
+  }
+
+  private User addServerUser(String id, String username) {
+    User user = new User();
+    user.setId(id);
+    user.setUsername(username);
+    user.setEmail(username + "@example.com");
+    serverUsers.put(id, user);
+    return user;
+  }
+
+  private WebSocketEvent event(String json) throws IOException {
+    return mapper.readValue(json, WebSocketEvent.class);
+  }
+
+  @Test
+  void lookupFromMemory() throws IOException {
+    UserDirectory directory = new UserDirectory(client);
+
+    assertThat(directory.bootstrap()).isEqualTo(2);
+    int requests = requestCount.get();
+
+    assertThat(directory.getUser("user1").getUsername()).isEqualTo("alice");
+    assertThat(directory.getUserByUsername("BOB").getId()).isEqualTo("user2");
+    assertThat(directory.getUserByEmail("alice@example.com").getId()).isEqualTo("user1");
+    assertThat(directory.getUsersByIds(Arrays.asList("user1", "user2"))).hasSize(2);
+    assertThat(requestCount.get()).isEqualTo(requests);
+    assertThat(directory.getHitCount()).isEqualTo(5);
+  }
+
+  @Test
+  void fetchOnMiss() throws IOException {
+    UserDirectory directory = new UserDirectory(client);
+    directory.bootstrap();
+    addServerUser("user3", "carol");
+    addServerUser("user4", "dave");
+
+    assertThat(directory.getUser("user3").getUsername()).isEqualTo("carol");
+    assertThat(directory.getUserByUsername("dave").getId()).isEqualTo("user4");
+    assertThat(directory.getUser("unknown")).isNull();
+    assertThat(directory.size()).isEqualTo(4);
+    assertThat(directory.getMissCount()).isEqualTo(3);
+  }
+
+  @Test
+  void applyEvents() throws IOException {
+    UserDirectory directory = new UserDirectory(client);
+    directory.bootstrap();
+    addServerUser("user3", "carol");
+
+    directory.onEvent(event("{\"event\":\"hello\",\"seq\":0}"));
+    directory.onEvent(event("{\"event\":\"new_user\",\"data\":{\"user_id\":\"user3\"},\"seq\":1}"));
+    directory.onEvent(event("{\"event\":\"user_updated\",\"data\":{\"user\":"
+        + "{\"id\":\"user1\",\"username\":\"alice2\",\"email\":\"alice@example.com\"}},\"seq\":2}"));
+    int requests = requestCount.get();
+
+    assertThat(directory.getUserByUsername("carol").getId()).isEqualTo("user3");
+    assertThat(directory.getUser("user1").getUsername()).isEqualTo("alice2");
+    assertThat(directory.getUserByUsername("alice2").getId()).isEqualTo("user1");
+    assertThat(requestCount.get()).isEqualTo(requests);
+    assertThat(directory.getGapCount()).isZero();
+  }
+
+  @Test
+  void refetchStaleUsersOnLookupAfterGap() throws IOException {
+    UserDirectory directory = new UserDirectory(client);
+    directory.bootstrap();
+    directory.onEvent(event("{\"event\":\"hello\",\"seq\":0}"));
+    serverUsers.remove("user2");
+    serverUsers.get("user1").setNickname("updated");
+    int requests = requestCount.get();
+
+    directory.onEvent(event("{\"event\":\"typing\",\"seq\":5}"));
+
+    assertThat(directory.getGapCount()).isEqualTo(1);
+    assertThat(requestCount.get()).isEqualTo(requests);
+    assertThat(directory.getUser("user1").getNickname()).isEqualTo("updated");
+    assertThat(directory.getUser("user1").getNickname()).isEqualTo("updated");
+    assertThat(directory.getUsersByIds(Arrays.asList("user1", "user2")))
+        .extracting(User::getId).containsExactly("user1");
+    assertThat(directory.size()).isEqualTo(1);
+    assertThat(requestCount.get()).isEqualTo(requests + 2);
+  }
+
+  @Test
+  void refreshStaleUsersInBackgroundAfterReconnect() throws IOException {
+    List<Runnable> tasks = new ArrayList<>();
+    UserDirectory directory = new UserDirectory(client, tasks::add);
+    directory.bootstrap();
+    directory.onEvent(event("{\"event\":\"hello\",\"seq\":0}"));
+    serverUsers.remove("user2");
+    serverUsers.get("user1").setNickname("updated");
+
+    directory.onEvent(event("{\"event\":\"hello\",\"seq\":0}"));
+    directory.onEvent(event("{\"event\":\"typing\",\"seq\":3}"));
+
+    assertThat(directory.getGapCount()).isEqualTo(2);
+    assertThat(tasks).hasSize(1);
+    tasks.get(0).run();
+    int requests = requestCount.get();
+    assertThat(directory.size()).isEqualTo(1);
+    assertThat(directory.getUser("user1").getNickname()).isEqualTo("updated");
+    assertThat(requestCount.get()).isEqualTo(requests);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.ws.rs.core.Response;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.api.hook.IncomingWebhook;
+import net.bis5.mattermost.model.IncomingWebhookRequest;
+import net.bis5.mattermost.model.SlackAttachment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link AsyncIncomingWebhookClient}.
+ */
+class AsyncIncomingWebhookClientTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final List<IncomingWebhookRequest> posted = new CopyOnWriteArrayList<>();
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  /** Blocks the first request until released. */
+  private final IncomingWebhook blocking = payload -> {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    posted.add(payload);
+    return ok();
+  };
+
+  private static ApiResponse<Boolean> ok() {
+    return ApiResponse.of(Response.ok("ok").build(), true);
+  }
+
+  private static ApiResponse<Boolean> status(int status) {
+    return ApiResponse.of(Response.status(status).header("Retry-After", "0").build(), false);
+  }
+
+  private static IncomingWebhookRequest message(String channel, String text) {
+    IncomingWebhookRequest request = new IncomingWebhookRequest();
+    request.setChannel(channel);
+    request.setText(text);
+    SlackAttachment attachment = new SlackAttachment();
+    attachment.setTitle(text);
+    request.setAttachments(Collections.singletonList(attachment));
+    return request;
+  }
+
+  private void offerWhileBlocked(AsyncIncomingWebhookClient client, String... texts)
+      throws InterruptedException {
+    client.offer(message("alerts", "first"));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    for (String text : texts) {
+      client.offer(message("alerts", text));
+    }
+  }
+
+  @Test
+  void coalesceQueuedMessages() throws InterruptedException {
+    AsyncIncomingWebhookClient client =
+        AsyncIncomingWebhookClient.builder(blocking).coalesce(10).build();
+    offerWhileBlocked(client, "a", "b", "c");
+    client.offer(message("other", "d"));
+
+    release.countDown();
+    client.close();
+
+    assertThat(posted).hasSize(3);
+    assertThat(posted.get(0).getText()).isEqualTo("first");
+    assertThat(posted.get(1).getText()).isEqualTo("a\nb\nc");
+    assertThat(posted.get(1).getAttachments()).extracting(SlackAttachment::getTitle)
+        .containsExactly("a", "b", "c");
+    assertThat(posted.get(2).getChannel()).isEqualTo("other");
+    assertThat(client.getDeliveredCount()).isEqualTo(5);
+    assertThat(client.getRequestCount()).isEqualTo(3);
+  }
+
+  @Test
+  void retryThrottledRequest() {
+    AtomicInteger calls = new AtomicInteger();
+    AsyncIncomingWebhookClient client = AsyncIncomingWebhookClient
+        .builder(payload -> calls.getAndIncrement() == 0 ? status(429) : ok())
+        .initialBackoff(Duration.ofMillis(10))
+        .build();
+
+    client.offer(message("alerts", "first"));
+    client.close();
+
+    assertThat(client.getDeliveredCount()).isEqualTo(1);
+    assertThat(client.getRetryCount()).isEqualTo(1);
+    assertThat(client.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void failAfterRetries() {
+    AsyncIncomingWebhookClient client = AsyncIncomingWebhookClient
+        .builder(payload -> status("bad".equals(payload.getText()) ? 400 : 503))
+        .initialBackoff(Duration.ofMillis(1))
+        .maxRetries(2)
+        .build();
+
+    client.offer(message("alerts", "bad"));
+    client.offer(message("alerts", "unavailable"));
+    client.close();
+
+    assertThat(client.getFailedCount()).isEqualTo(2);
+    assertThat(client.getRequestCount()).isEqualTo(4);
+    assertThat(client.getRetryCount()).isEqualTo(2);
+  }
+
+  @Test
+  void dropWhenQueueIsFull() throws InterruptedException {
+    AsyncIncomingWebhookClient client =
+        AsyncIncomingWebhookClient.builder(blocking).queueCapacity(1).build();
+    offerWhileBlocked(client, "a");
+
+    assertThat(client.offer(message("alerts", "b"))).isFalse();
+
+    release.countDown();
+    client.close();
+    assertThat(posted).extracting(IncomingWebhookRequest::getText).containsExactly("first", "a");
+    assertThat(client.getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void spillOverflowInOrder() throws InterruptedException {
+    AsyncIncomingWebhookClient client = AsyncIncomingWebhookClient.builder(blocking)
+        .queueCapacity(1)
+        .spill(tempDir.resolve("webhook.spill"))
+        .build();
+    offerWhileBlocked(client, "a", "b", "c");
+
+    assertThat(client.getSpilledCount()).isEqualTo(2);
+    assertThat(client.getPendingCount()).isEqualTo(3);
+
+    release.countDown();
+    client.close();
+    assertThat(posted).extracting(IncomingWebhookRequest::getText)
+        .containsExactly("first", "a", "b", "c");
+    assertThat(client.getPendingCount()).isZero();
+  }
+
+  @Test
+  void keepUndeliveredMessagesOnClose() throws InterruptedException {
+    Path spill = tempDir.resolve("webhook.spill");
+    AsyncIncomingWebhookClient client = AsyncIncomingWebhookClient.builder(blocking)
+        .queueCapacity(1)
+        .spill(spill)
+        .closeTimeout(Duration.ofMillis(100))
+        .build();
+    offerWhileBlocked(client, "a", "b");
+    client.close();
+    assertThat(posted).isEmpty();
+
+    List<IncomingWebhookRequest> delivered = new CopyOnWriteArrayList<>();
+    AsyncIncomingWebhookClient restarted = AsyncIncomingWebhookClient.builder(payload -> {
+      delivered.add(payload);
+      return ok();
+    }).spill(spill).build();
+    restarted.close();
+
+    assertThat(delivered).extracting(IncomingWebhookRequest::getText)
+        .containsExactly("first", "a", "b");
+  }
+}
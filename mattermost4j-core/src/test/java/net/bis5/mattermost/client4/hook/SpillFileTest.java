@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link SpillFile}.
+ */
+class SpillFileTest {
+
+  @TempDir
+  Path tempDir;
+
+  private static byte[] record(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String poll(SpillFile spill) throws IOException {
+    byte[] record = spill.poll();
+    return record == null ? null : new String(record, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void compactReadRecords() throws IOException {
+    Path path = tempDir.resolve("webhook.spill");
+    try (SpillFile spill = new SpillFile(path, 64)) {
+      for (int i = 0; i < 100; i++) {
+        spill.append(record("message-" + i));
+      }
+      long length = Files.size(path);
+      for (int i = 0; i < 60; i++) {
+        assertThat(poll(spill)).isEqualTo("message-" + i);
+      }
+      assertThat(Files.size(path)).isLessThan(length / 2);
+      spill.append(record("message-100"));
+    }
+
+    try (SpillFile spill = new SpillFile(path, 64)) {
+      assertThat(spill.size()).isEqualTo(41);
+      for (int i = 60; i <= 100; i++) {
+        assertThat(poll(spill)).isEqualTo("message-" + i);
+      }
+      assertThat(poll(spill)).isNull();
+    }
+  }
+
+  @Test
+  void prependBeforeUnreadRecords() throws IOException {
+    Path path = tempDir.resolve("webhook.spill");
+    try (SpillFile spill = new SpillFile(path)) {
+      spill.append(record("a"));
+      spill.append(record("b"));
+      spill.append(record("c"));
+      assertThat(poll(spill)).isEqualTo("a");
+      spill.prepend(Arrays.asList(record("x"), record("y")));
+    }
+
+    try (SpillFile spill = new SpillFile(path)) {
+      assertThat(spill.size()).isEqualTo(4);
+      assertThat(poll(spill)).isEqualTo("x");
+      assertThat(poll(spill)).isEqualTo("y");
+      assertThat(poll(spill)).isEqualTo("b");
+      assertThat(poll(spill)).isEqualTo("c");
+      assertThat(poll(spill)).isNull();
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.hook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.model.IncomingWebhookRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link WebhookDispatcher}.
+ */
+class WebhookDispatcherTest {
+
+  private HttpServer server;
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+  private final AtomicInteger received = new AtomicInteger();
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/hooks/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    int now = running.incrementAndGet();
+    maxRunning.accumulateAndGet(now, Math::max);
+    try (InputStream in = exchange.getRequestBody()) {
+      while (in.read() != -1) {
+        // consume
+      }
+      TimeUnit.MILLISECONDS.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      running.decrementAndGet();
+    }
+    received.incrementAndGet();
+    byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private String hookUrl(String id) {
+    return "http://localhost:" + server.getAddress().getPort() + "/hooks/" + id;
+  }
+
+  private static IncomingWebhookRequest message(String text) {
+    IncomingWebhookRequest request = new IncomingWebhookRequest();
+    request.setText(text);
+    return request;
+  }
+
+  @Test
+  void limitConcurrencyPerHook() {
+    List<CompletableFuture<ApiResponse<Boolean>>> futures = new ArrayList<>();
+    try (WebhookDispatcher dispatcher =
+        WebhookDispatcher.builder().threads(8).maxConcurrencyPerHook(2).build()) {
+      for (int i = 0; i < 10; i++) {
+        futures.add(dispatcher.postAsync(hookUrl("hook1"), message("message " + i)));
+      }
+
+      assertThat(dispatcher.getWaitingCount(hookUrl("hook1"))).isPositive();
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+      assertThat(futures).allMatch(f -> f.join().readEntity());
+      assertThat(dispatcher.getSentCount()).isEqualTo(10);
+      assertThat(dispatcher.getWaitingCount(hookUrl("hook1"))).isZero();
+    }
+    assertThat(maxRunning.get()).isEqualTo(2);
+  }
+
+  @Test
+  void shareClientAcrossHooks() {
+    try (WebhookDispatcher dispatcher = WebhookDispatcher.builder().build()) {
+      for (int i = 0; i < 20; i++) {
+        dispatcher.postAsync(hookUrl("hook" + i), message("async"));
+      }
+      ApiResponse<Boolean> response = dispatcher.post(hookUrl("hook0"), message("sync"));
+      ApiResponse<Boolean> viaView =
+          dispatcher.forHook(hookUrl("hook1")).postByIncomingWebhook(message("view"));
+
+      assertThat(response.readEntity()).isTrue();
+      assertThat(viaView.readEntity()).isTrue();
+      assertThat(dispatcher.getHookCount()).isEqualTo(20);
+    }
+    // close waits for the asynchronous sends
+    assertThat(received.get()).isEqualTo(22);
+  }
+
+  @Test
+  void failSendsRejectedByExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    try (WebhookDispatcher dispatcher =
+        WebhookDispatcher.builder().executor(executor).maxConcurrencyPerHook(1).build()) {
+      CompletableFuture<ApiResponse<Boolean>> first =
+          dispatcher.postAsync(hookUrl("hook1"), message("a"));
+      CompletableFuture<ApiResponse<Boolean>> second =
+          dispatcher.postAsync(hookUrl("hook1"), message("b"));
+
+      assertThat(first).isCompletedExceptionally();
+      assertThat(second).isCompletedExceptionally();
+      assertThat(dispatcher.getFailedCount()).isEqualTo(2);
+      // the permit is returned
+      assertThat(dispatcher.post(hookUrl("hook1"), message("sync")).readEntity()).isTrue();
+    }
+  }
+
+  @Test
+  void rejectPostsAfterClose() {
+    WebhookDispatcher dispatcher = WebhookDispatcher.builder().build();
+    dispatcher.post(hookUrl("hook1"), message("before"));
+    dispatcher.close();
+
+    assertThatThrownBy(() -> dispatcher.post(hookUrl("hook1"), message("after")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> dispatcher.postAsync(hookUrl("hook2"), message("after")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(received.get()).isEqualTo(1);
+  }
+}
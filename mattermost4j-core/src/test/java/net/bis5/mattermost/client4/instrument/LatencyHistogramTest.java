@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+  @Test
+  void bucketsCoverValues() {
+    for (long value = 0; value < 100_000; value += 7) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+      assertThat(index == 0 || LatencyHistogram.highestValue(index - 1) < value).isTrue();
+    }
+    assertThat(LatencyHistogram.highestValue(LatencyHistogram.bucketIndex(
+        LatencyHistogram.MAX_VALUE))).isEqualTo(LatencyHistogram.MAX_VALUE);
+  }
+
+  @Test
+  void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 10_000; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getCount()).isEqualTo(10_000);
+    assertThat(histogram.getMax()).isEqualTo(10_000);
+    assertThat(histogram.getMean()).isCloseTo(5000.5, within(0.01));
+    assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(5000, within(5000 * 0.04));
+    assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(9900, within(9900 * 0.04));
+    assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000);
+    assertThat(histogram.getCountAtOrBelow(31)).isEqualTo(31);
+  }
+
+  @Test
+  void cumulativeCounts() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    histogram.record(1_000_000);
+    long[] counts = new long[3];
+
+    long total = histogram.getCumulativeCounts(new long[] {10, 31, 1000}, counts);
+
+    assertThat(counts).containsExactly(10, 31, 100);
+    assertThat(total).isEqualTo(101);
+  }
+
+  @Test
+  void empty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.getValueAtPercentile(99)).isZero();
+    assertThat(histogram.getMean()).isZero();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import net.bis5.mattermost.client4.cache.ImageCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link PrometheusExporter}.
+ */
+class PrometheusExporterTest {
+
+  @TempDir
+  Path cacheDir;
+
+  @Test
+  void renderRouteStatistics() {
+    RouteStatistics statistics = new RouteStatistics();
+    statistics.requestStarted("GET", "/users/{id}");
+    statistics.requestCompleted("GET", "/users/{id}", 200, TimeUnit.MILLISECONDS.toNanos(3), 0,
+        0);
+    statistics.responseRead("GET", "/users/{id}", 120);
+    statistics.requestStarted("GET", "/users/{id}");
+    statistics.requestCompleted("GET", "/users/{id}", 404, TimeUnit.MILLISECONDS.toNanos(30), 0,
+        0);
+    statistics.apiError("GET", "/users/{id}", 404, "api.user.get.app_error");
+    statistics.requestStarted("POST", "/posts");
+    statistics.rateLimit(10, 7, 1);
+
+    String text = PrometheusExporter.builder().routes(statistics).build().render();
+
+    assertThat(text)
+        .contains("# TYPE mattermost4j_requests_total counter\n")
+        .contains("mattermost4j_requests_total{method=\"GET\",route=\"/users/{id}\"} 2\n")
+        .contains("mattermost4j_request_errors_total{method=\"GET\",route=\"/users/{id}\"} 1\n")
+        .contains("mattermost4j_response_bytes_total{method=\"GET\",route=\"/users/{id}\"} 120\n")
+        .contains("# TYPE mattermost4j_request_duration_seconds histogram\n")
+        .contains("mattermost4j_request_duration_seconds_bucket{method=\"GET\","
+            + "route=\"/users/{id}\",le=\"0.005\"} 1\n")
+        .contains("mattermost4j_request_duration_seconds_bucket{method=\"GET\","
+            + "route=\"/users/{id}\",le=\"0.05\"} 2\n")
+        .contains("mattermost4j_request_duration_seconds_bucket{method=\"GET\","
+            + "route=\"/users/{id}\",le=\"+Inf\"} 2\n")
+        .contains("mattermost4j_request_duration_seconds_sum{method=\"GET\","
+            + "route=\"/users/{id}\"} 0.033000\n")
+        .contains("mattermost4j_request_duration_seconds_count{method=\"GET\","
+            + "route=\"/users/{id}\"} 2\n")
+        .contains("mattermost4j_api_errors_total{id=\"api.user.get.app_error\"} 1\n")
+        .contains("mattermost4j_requests_in_flight 1\n")
+        .contains("mattermost4j_rate_limit_remaining 7\n")
+        .endsWith("\n");
+  }
+
+  @Test
+  void escapeLabelValues() throws IOException {
+    ImageCache cache = new ImageCache(cacheDir, 1000, 0);
+    cache.lookup(ImageCache.Kind.PROFILE, "user1");
+
+    String text =
+        PrometheusExporter.builder().imageCache("a\"b\\c\nd", cache).build().render();
+
+    assertThat(text)
+        .contains("mattermost4j_image_cache_misses_total{cache=\"a\\\"b\\\\c\\nd\"} 1\n")
+        .doesNotContain("mattermost4j_requests_total");
+  }
+
+  @Test
+  void serveMetrics() throws IOException {
+    RouteStatistics statistics = new RouteStatistics();
+    statistics.requestStarted("GET", "/users/me");
+    PrometheusExporter exporter = PrometheusExporter.builder().routes(statistics).build();
+    HttpServer server = exporter.serve(new InetSocketAddress("localhost", 0));
+    try {
+      URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/metrics");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(connection.getContentType()).isEqualTo(PrometheusExporter.CONTENT_TYPE);
+      assertThat(read(connection.getInputStream())).isEqualTo(exporter.render());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    try (InputStream body = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[1024];
+      int read;
+      while ((read = body.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.instrument;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link RouteTemplates}.
+ */
+class RouteTemplatesTest {
+
+  @Test
+  void replaceIds() {
+    assertThat(RouteTemplates.of("/api/v4/users/abcdefghijklmnopqrstuvwxyz/image"))
+        .isEqualTo("/users/{id}/image");
+    assertThat(RouteTemplates.of("/api/v4/channels/0123456789abcdefghijklmnop/posts"))
+        .isEqualTo("/channels/{id}/posts");
+    assertThat(RouteTemplates.of("/api/v4/users/me")).isEqualTo("/users/me");
+  }
+
+  @Test
+  void replaceNames() {
+    assertThat(RouteTemplates.of("/api/v4/teams/name/myteam/channels/name/town-square"))
+        .isEqualTo("/teams/name/{name}/channels/name/{name}");
+    assertThat(RouteTemplates.of("/api/v4/users/email/alice@example.com"))
+        .isEqualTo("/users/email/{email}");
+    assertThat(RouteTemplates.of("/api/v4/users/username/alice"))
+        .isEqualTo("/users/username/{username}");
+    assertThat(RouteTemplates.of("/api/v4/users/abcdefghijklmnopqrstuvwxyz/posts/"
+        + "0123456789abcdefghijklmnop/reactions/thumbsup"))
+        .isEqualTo("/users/{id}/posts/{id}/reactions/{emoji_name}");
+    assertThat(RouteTemplates.of("/api/v4/posts/0123456789abcdefghijklmnop/reactions"))
+        .isEqualTo("/posts/{id}/reactions");
+  }
+
+  @Test
+  void otherPaths() {
+    assertThat(RouteTemplates.of("/hooks/abcdefghijklmnopqrstuvwxyz")).isEqualTo("/hooks/{id}");
+    assertThat(RouteTemplates.of("/api/v4")).isEqualTo("/");
+    assertThat(RouteTemplates.of("")).isEqualTo("/");
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.bis5.mattermost.client4.sync.PostSink.ChangeType;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.SearchParams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link LocalPostIndex}.
+ */
+class LocalPostIndexTest {
+
+  @TempDir
+  Path dir;
+
+  private static Post post(String id, String channelId, String userId, long createAt,
+      String message) {
+    Post post = new Post(channelId, message);
+    post.setId(id);
+    post.setUserId(userId);
+    post.setCreateAt(createAt);
+    return post;
+  }
+
+  private static SearchParams params(String terms) {
+    SearchParams params = new SearchParams();
+    params.setTerms(terms);
+    return params;
+  }
+
+  private static void addSamples(LocalPostIndex index) {
+    index.add(post("p1", "ch1", "alice", 1, "Deploy the release today"));
+    index.add(post("p2", "ch1", "bob", 2, "release notes are ready"));
+    index.add(post("p3", "ch2", "alice", 3, "Lunch? #food"));
+    Post tagged = post("p4", "ch2", "bob", 4, "Shipped #release-1 to production");
+    tagged.setHashtags("#release-1");
+    index.add(tagged);
+  }
+
+  @Test
+  void searchTerms() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+
+      assertThat(index.search(params("release"), 10)).containsExactly("p4", "p2", "p1");
+      assertThat(index.search(params("RELEASE today"), 10)).containsExactly("p1");
+      assertThat(index.search(params("\"release notes\""), 10)).containsExactly("p2");
+      assertThat(index.search(params("rel* ship*"), 10)).containsExactly("p4");
+      assertThat(index.search(params("release"), 2)).containsExactly("p4", "p2");
+      assertThat(index.search(params("nothing"), 10)).isEmpty();
+      assertThat(index.search(params(""), 10)).isEmpty();
+    }
+  }
+
+  @Test
+  void searchOrTermsAndFilters() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+
+      SearchParams params = params("today lunch");
+      params.setOrTerms(true);
+      assertThat(index.search(params, 10)).containsExactly("p3", "p1");
+
+      params = params("release");
+      params.setInChannels(Arrays.asList("ch1"));
+      params.setFromUsers(Arrays.asList("bob"));
+      assertThat(index.search(params, 10)).containsExactly("p2");
+    }
+  }
+
+  @Test
+  void searchHashtags() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+
+      SearchParams params = params("#Release-1");
+      params.setHashTag(true);
+      assertThat(index.search(params, 10)).containsExactly("p4");
+      params.setTerms("release");
+      assertThat(index.search(params, 10)).isEmpty();
+      assertThat(index.search(params("food"), 10)).containsExactly("p3");
+    }
+  }
+
+  @Test
+  void updateAndDelete() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+      index.commit();
+
+      index.accept(ChangeType.UPDATED, post("p1", "ch1", "alice", 1, "Deploy postponed"));
+      index.accept(ChangeType.DELETED, post("p2", "ch1", "bob", 2, null));
+
+      assertThat(index.search(params("release"), 10)).containsExactly("p4");
+      assertThat(index.search(params("postponed"), 10)).containsExactly("p1");
+      assertThat(index.size()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void reopenCommitted() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+      index.commit();
+      index.remove("p1");
+      index.add(post("p5", "ch1", "alice", 5, "another release"));
+      index.commit();
+      index.add(post("p6", "ch1", "alice", 6, "not committed release"));
+    }
+
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      assertThat(index.search(params("release"), 10)).containsExactly("p5", "p4", "p2");
+      assertThat(index.size()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void mergeSegments() throws IOException {
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      for (int i = 0; i <= LocalPostIndex.MAX_SEGMENTS; i++) {
+        index.add(post("p" + i, "ch1", "alice", i, "message number" + i));
+        if (i % 2 == 0) {
+          index.remove("p" + (i - 1));
+        }
+        index.commit();
+      }
+      assertThat(segmentCount()).isEqualTo(1);
+      assertThat(index.search(params("message"), 100)).containsExactly("p8", "p6", "p4",
+          "p2", "p0");
+    }
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      assertThat(index.search(params("number4"), 10)).containsExactly("p4");
+    }
+  }
+
+  @Test
+  void compactDocumentsOnMerge() throws IOException {
+    Path docsFile = dir.resolve("docs.dat");
+    long docsSize;
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      addSamples(index);
+      for (int i = 0; i < 100; i++) {
+        index.accept(ChangeType.UPDATED, post("p1", "ch1", "alice", 1, "Deploy version" + i));
+      }
+      index.remove("p2");
+      index.commit();
+      docsSize = Files.size(docsFile);
+
+      index.merge();
+
+      assertThat(Files.size(docsFile)).isLessThan(docsSize / 10);
+      assertThat(dir.resolve("deletes.dat")).doesNotExist();
+      assertThat(segmentCount()).isEqualTo(1);
+      assertThat(index.search(params("version99"), 10)).containsExactly("p1");
+      assertThat(index.search(params("release"), 10)).containsExactly("p4");
+      index.accept(ChangeType.UPDATED, post("p3", "ch2", "alice", 3, "Dinner? #food"));
+      index.commit();
+    }
+    try (LocalPostIndex index = LocalPostIndex.open(dir)) {
+      assertThat(index.size()).isEqualTo(3);
+      assertThat(index.search(params("food"), 10)).containsExactly("p3");
+      assertThat(index.search(params("lunch"), 10)).isEmpty();
+      assertThat(index.search(params("deploy"), 10)).containsExactly("p1");
+    }
+  }
+
+  private long segmentCount() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(".idx"))
+          .collect(Collectors.counting());
+    }
+  }
+
+  @Test
+  void setOperations() {
+    assertThat(LocalPostIndex.union(new int[] {1, 3, 5}, new int[] {2, 3, 6}))
+        .containsExactly(1, 2, 3, 5, 6);
+    assertThat(LocalPostIndex.intersect(new int[] {1, 3, 5}, new int[] {2, 3, 5}))
+        .containsExactly(3, 5);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.model.CompliancePost;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link CompliancePostReader}.
+ */
+class CompliancePostReaderTest {
+
+  private static final String HEADER = "TeamName,TeamDisplayName,ChannelName,ChannelDisplayName,"
+      + "ChannelType,UserUsername,UserEmail,UserNickname,UserType,PostId,PostCreateAt,"
+      + "PostUpdateAt,PostDeleteAt,PostRootId,PostParentId,PostOriginalId,PostMessage,PostType,"
+      + "PostProps,PostHashtags,PostFileIds\r\n";
+
+  private static byte[] zip(String... entries) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(out)) {
+      for (int i = 0; i < entries.length; i += 2) {
+        zip.putNextEntry(new ZipEntry(entries[i]));
+        zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static List<CompliancePost> read(byte[] archive) throws IOException {
+    List<CompliancePost> posts = new ArrayList<>();
+    new CompliancePostReader(new ByteArrayInputStream(archive)).forEachAndClose(posts::add);
+    return posts;
+  }
+
+  @Test
+  void decodeRecords() throws IOException {
+    byte[] archive = zip("metadata.json", "{}", "posts.csv", HEADER
+        + "team1,Team 1,town,Town Square,O,alice,alice@example.com,,user,post1,"
+        + "2018-01-02T03:04:05Z,2018-01-02T03:04:06+09:00,,,,,\"Hello, \"\"world\"\"\r\n"
+        + "second line\",,\"{\"\"a\"\":1}\",#tag,[]\r\n"
+        + "\r\n"
+        + "team1,Team 1,town,Town Square,O,bob,bob@example.com,Bobby,user,post2,"
+        + "1514862245000,1514862245000,1514862246000,post1,post1,,bye,,,,\r\n");
+
+    List<CompliancePost> posts = read(archive);
+
+    assertThat(posts).hasSize(2);
+    CompliancePost first = posts.get(0);
+    assertThat(first.getTeamName()).isEqualTo("team1");
+    assertThat(first.getChannelDisplayName()).isEqualTo("Town Square");
+    assertThat(first.getUserUserName()).isEqualTo("alice");
+    assertThat(first.getUserNickname()).isEmpty();
+    assertThat(first.getPostId()).isEqualTo("post1");
+    assertThat(first.getPostCreateAt()).isEqualTo(1514862245000L);
+    assertThat(first.getPostUpdateAt()).isEqualTo(1514862245000L - 9 * 3600 * 1000 + 1000);
+    assertThat(first.getPostDeleteAt()).isZero();
+    assertThat(first.getPostMessage()).isEqualTo("Hello, \"world\"\r\nsecond line");
+    assertThat(first.getPostProps()).isEqualTo("{\"a\":1}");
+    assertThat(first.getPostHashtags()).isEqualTo("#tag");
+    assertThat(first.getPostFileIds()).isEqualTo("[]");
+    CompliancePost second = posts.get(1);
+    assertThat(second.getUserNickname()).isEqualTo("Bobby");
+    assertThat(second.getPostDeleteAt()).isEqualTo(1514862246000L);
+    assertThat(second.getPostRootId()).isEqualTo("post1");
+    assertThat(second.getPostMessage()).isEqualTo("bye");
+  }
+
+  @Test
+  void withoutCsv() throws IOException {
+    assertThat(read(zip("metadata.json", "{}"))).isEmpty();
+    assertThat(read(zip("posts.csv", HEADER))).isEmpty();
+  }
+
+  @Test
+  void unterminatedQuote() {
+    assertThatThrownBy(() -> read(zip("posts.csv", HEADER + "team1,\"broken")))
+        .isInstanceOf(UncheckedIOException.class);
+  }
+
+  @Test
+  void streamComplianceReport() throws IOException {
+    byte[] archive = zip("posts.csv", HEADER + "team1,,town,,,alice,,,,post1,1,1,,,,,hi,,,,\n");
+    int listenPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    NanoHTTPD dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        if (session.getUri().equals("/api/v4/compliance/reports/report1/download")) {
+          return newFixedLengthResponse(Status.OK, "application/zip",
+              new ByteArrayInputStream(archive), archive.length);
+        }
+        return newFixedLengthResponse(Status.NOT_FOUND, "application/json",
+            "{\"status_code\":404,\"message\":\"not found\"}");
+      }
+    };
+    dummyServer.start();
+    try (MattermostClient client =
+        MattermostClient.builder().url("http://localhost:" + listenPort).build()) {
+      ApiResponse<CompliancePostReader> response = client.streamComplianceReport("report1");
+      assertThat(response.hasError()).isFalse();
+      List<CompliancePost> posts = new ArrayList<>();
+      response.readEntity().forEachAndClose(posts::add);
+      assertThat(posts).extracting(CompliancePost::getPostMessage).containsExactly("hi");
+
+      ApiResponse<CompliancePostReader> missing = client.streamComplianceReport("report2");
+      assertThat(missing.hasError()).isTrue();
+      assertThat(missing.readError().getMessage()).isEqualTo("not found");
+    } finally {
+      dummyServer.stop();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link JsonArrayStream}.
+ */
+class JsonArrayStreamTest {
+
+  private final ObjectMapper mapper = new MattermostModelMapperProvider().getContext(User.class);
+
+  private JsonArrayStream<User> stream(String json) throws IOException {
+    return new JsonArrayStream<>(mapper.getFactory().createParser(json),
+        mapper.readerFor(User.class));
+  }
+
+  @Test
+  void decodeEachElement() throws IOException {
+    List<String> usernames = new ArrayList<>();
+
+    int count = stream("[{\"id\":\"user1\",\"username\":\"alice\"},"
+        + "{\"id\":\"user2\",\"username\":\"bob\",\"props\":{\"a\":\"b\"}}]")
+            .forEachAndClose(user -> usernames.add(user.getUsername()));
+
+    assertThat(count).isEqualTo(2);
+    assertThat(usernames).containsExactly("alice", "bob");
+  }
+
+  @Test
+  void emptyAndNull() throws IOException {
+    try (JsonArrayStream<User> empty = stream("[]");
+        JsonArrayStream<User> nullBody = stream("null")) {
+      assertThat(empty.hasNext()).isFalse();
+      assertThat(nullBody.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  void notAnArray() throws IOException {
+    try (JsonArrayStream<User> users = stream("{\"id\":\"user1\"}")) {
+      assertThatThrownBy(users::hasNext).isInstanceOf(UncheckedIOException.class);
+    }
+  }
+}
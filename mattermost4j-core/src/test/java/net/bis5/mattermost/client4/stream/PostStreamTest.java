@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.Post;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link PostStream}.
+ */
+class PostStreamTest {
+
+  private final ObjectMapper mapper = new MattermostModelMapperProvider().getContext(Post.class);
+
+  private PostStream stream(String json) throws IOException {
+    return new PostStream(mapper.getFactory().createParser(json), mapper.readerFor(Post.class));
+  }
+
+  @Test
+  void decodePostsAndOrder() throws IOException {
+    List<String> messages = new ArrayList<>();
+    PostStream posts = stream("{\"order\":[\"post2\",\"post1\"],"
+        + "\"posts\":{\"post1\":{\"id\":\"post1\",\"message\":\"first\"},"
+        + "\"post2\":{\"id\":\"post2\",\"message\":\"second\",\"props\":{\"from_bot\":\"true\"}}},"
+        + "\"next_post_id\":\"post3\",\"prev_post_id\":\"\"}");
+
+    int count = posts.forEachAndClose(post -> messages.add(post.getMessage()));
+
+    assertThat(count).isEqualTo(2);
+    assertThat(messages).containsExactly("first", "second");
+    assertThat(posts.getOrder()).containsExactly("post2", "post1");
+    assertThat(posts.getNextPostId()).isEqualTo("post3");
+    assertThat(posts.getPrevPostId()).isEmpty();
+  }
+
+  @Test
+  void orderAfterPosts() throws IOException {
+    PostStream posts = stream("{\"posts\":{\"post1\":{\"id\":\"post1\"}},"
+        + "\"unknown\":{\"nested\":[1,2]},\"order\":[\"post1\"]}");
+
+    assertThat(posts.next().getId()).isEqualTo("post1");
+    assertThat(posts.hasNext()).isFalse();
+    assertThat(posts.getOrder()).containsExactly("post1");
+    posts.close();
+  }
+
+  @Test
+  void emptyPosts() throws IOException {
+    try (PostStream posts = stream("{\"order\":[],\"posts\":{}}")) {
+      assertThat(posts.hasNext()).isFalse();
+      assertThat(posts.getOrder()).isEmpty();
+    }
+  }
+}
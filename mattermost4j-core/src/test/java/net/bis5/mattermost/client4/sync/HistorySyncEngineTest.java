@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.client4.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.iki.elonen.NanoHTTPD;
+import fi.iki.elonen.NanoHTTPD.Response.Status;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.client4.sync.PostSink.ChangeType;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link HistorySyncEngine}.
+ */
+class HistorySyncEngineTest {
+
+  private static final String PREFIX = "/api/v4/channels/";
+
+  private final ObjectMapper mapper = new MattermostModelMapperProvider().getContext(Post.class);
+  /** channel id to posts ordered by create_at. */
+  private final Map<String, List<Post>> channels = new ConcurrentHashMap<>();
+  private final List<String> changes = Collections.synchronizedList(new ArrayList<>());
+  /** runs once before answering the next getPostsSince. */
+  private volatile Runnable beforeSince;
+  private NanoHTTPD dummyServer;
+  private MattermostClient client;
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void setup() throws IOException {
+    int listenPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      listenPort = socket.getLocalPort();
+    }
+    dummyServer = new NanoHTTPD("0.0.0.0", listenPort) {
+      @Override
+      public Response serve(IHTTPSession session) {
+        String uri = session.getUri();
+        String channelId = uri.substring(PREFIX.length(), uri.indexOf("/posts"));
+        List<Post> posts = channels.get(channelId);
+        if (posts == null) {
+          return newFixedLengthResponse(Status.NOT_FOUND, "application/json",
+              "{\"status_code\":404,\"message\":\"not found\"}");
+        }
+        Runnable hook = beforeSince;
+        if (hook != null && session.getParms().containsKey("since")) {
+          beforeSince = null;
+          hook.run();
+        }
+        try {
+          return newFixedLengthResponse(Status.OK, "application/json",
+              toJson(query(posts, session.getParms())));
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+    dummyServer.start();
+    client = MattermostClient.builder().url("http://localhost:" + listenPort).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    dummyServer.stop();
+  }
+
+  private static PostList query(List<Post> posts, Map<String, String> params) {
+    List<Post> result;
+    String nextPostId = "";
+    synchronized (posts) {
+      int perPage = Integer.parseInt(params.getOrDefault("per_page", "60"));
+      if (params.containsKey("since")) {
+        long since = Long.parseLong(params.get("since"));
+        result = posts.stream().filter(p -> p.getUpdateAt() > since)
+            .collect(Collectors.toList());
+      } else if (params.containsKey("after")) {
+        String after = params.get("after");
+        int start = 0;
+        while (!posts.get(start++).getId().equals(after)) {
+          // find the post
+        }
+        List<Post> rest = posts.subList(start, posts.size()).stream()
+            .filter(p -> p.getDeleteAt() == 0).collect(Collectors.toList());
+        result = new ArrayList<>(rest.subList(0, Math.min(perPage, rest.size())));
+        if (rest.size() > perPage) {
+          nextPostId = rest.get(perPage).getId();
+        }
+      } else {
+        List<Post> live = posts.stream().filter(p -> p.getDeleteAt() == 0)
+            .collect(Collectors.toList());
+        Collections.reverse(live);
+        int from = Integer.parseInt(params.get("page")) * perPage;
+        result = from >= live.size() ? Collections.emptyList()
+            : new ArrayList<>(live.subList(from, Math.min(from + perPage, live.size())));
+      }
+    }
+    result.sort((a, b) -> Long.compare(b.getCreateAt(), a.getCreateAt()));
+    PostList list = new PostList();
+    list.setOrder(result.stream().map(Post::getId).collect(Collectors.toList()));
+    Map<String, Post> map = new HashMap<>();
+    result.forEach(p -> map.put(p.getId(), p));
+    list.setPosts(map);
+    list.setNextPostId(nextPostId);
+    return list;
+  }
+
+  /** Write empty lists too, an empty object would be read as an error. */
+  private String toJson(PostList list) throws IOException {
+    return "{\"order\":" + mapper.writeValueAsString(list.getOrder()) + ",\"posts\":"
+        + mapper.writeValueAsString(list.getPosts()) + ",\"next_post_id\":\""
+        + list.getNextPostId() + "\"}";
+  }
+
+  private static Post post(String channelId, int n) {
+    Post post = new Post(channelId, "message " + n);
+    post.setId(channelId + "-" + n);
+    post.setCreateAt(n * 1000L);
+    post.setUpdateAt(n * 1000L);
+    return post;
+  }
+
+  private void addPosts(String channelId, int from, int to) {
+    List<Post> posts = channels.computeIfAbsent(channelId,
+        k -> Collections.synchronizedList(new ArrayList<>()));
+    for (int n = from; n <= to; n++) {
+      posts.add(post(channelId, n));
+    }
+  }
+
+  private Post find(String channelId, int n) {
+    return channels.get(channelId).get(n - 1);
+  }
+
+  private HistorySyncEngine engine() throws IOException {
+    SyncCheckpoint checkpoint = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    return new HistorySyncEngine(client, checkpoint,
+        (type, post) -> changes.add(type + " " + post.getId()), 2, 2);
+  }
+
+  @Test
+  void syncHistoryThenDeltas() throws Exception {
+    addPosts("ch1", 1, 5);
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isEqualTo(5);
+    }
+    assertThat(changes).containsExactlyInAnyOrder("CREATED ch1-1", "CREATED ch1-2",
+        "CREATED ch1-3", "CREATED ch1-4", "CREATED ch1-5");
+    SyncCheckpoint saved = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    assertThat(saved.get("ch1")).isEqualTo(new SyncCheckpoint.Position(5000, "ch1-5"));
+
+    changes.clear();
+    addPosts("ch1", 6, 8);
+    find("ch1", 2).setUpdateAt(9000);
+    find("ch1", 3).setUpdateAt(9500);
+    find("ch1", 3).setDeleteAt(9500);
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isEqualTo(5);
+    }
+    assertThat(changes).containsExactly("CREATED ch1-6", "CREATED ch1-7", "CREATED ch1-8",
+        "UPDATED ch1-2", "DELETED ch1-3");
+    saved = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    assertThat(saved.get("ch1")).isEqualTo(new SyncCheckpoint.Position(9500, "ch1-8"));
+
+    changes.clear();
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isZero();
+    }
+  }
+
+  @Test
+  void keepCheckpointsOfSucceededChannels() throws Exception {
+    addPosts("ch1", 1, 3);
+    addPosts("ch2", 1, 1);
+
+    try (HistorySyncEngine engine = engine()) {
+      assertThatThrownBy(() -> engine.sync(Arrays.asList("ch1", "missing", "ch2")))
+          .isInstanceOf(IllegalStateException.class)
+          .hasRootCauseMessage("Failed to sync channel missing: not found");
+    }
+
+    SyncCheckpoint saved = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    assertThat(saved.size()).isEqualTo(2);
+    assertThat(saved.get("ch1").getLastPostId()).isEqualTo("ch1-3");
+    assertThat(saved.get("ch2").getLastPostId()).isEqualTo("ch2-1");
+    assertThat(saved.get("missing")).isNull();
+  }
+
+  @Test
+  void syncEmptyChannel() throws Exception {
+    channels.put("ch1", Collections.synchronizedList(new ArrayList<>()));
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isZero();
+    }
+    addPosts("ch1", 1, 2);
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isEqualTo(2);
+    }
+    assertThat(changes).containsExactly("CREATED ch1-1", "CREATED ch1-2");
+    SyncCheckpoint saved = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    assertThat(saved.get("ch1")).isEqualTo(new SyncCheckpoint.Position(2000, "ch1-2"));
+  }
+
+  @Test
+  void advanceLastPostCreatedBetweenReads() throws Exception {
+    addPosts("ch1", 1, 2);
+    try (HistorySyncEngine engine = engine()) {
+      engine.sync(Arrays.asList("ch1"));
+    }
+
+    changes.clear();
+    beforeSince = () -> addPosts("ch1", 3, 3);
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isEqualTo(1);
+    }
+    assertThat(changes).containsExactly("CREATED ch1-3");
+    SyncCheckpoint saved = new SyncCheckpoint(dir.resolve("checkpoint.properties"));
+    assertThat(saved.get("ch1")).isEqualTo(new SyncCheckpoint.Position(3000, "ch1-3"));
+
+    changes.clear();
+    try (HistorySyncEngine engine = engine()) {
+      assertThat(engine.sync(Arrays.asList("ch1"))).isZero();
+    }
+    assertThat(changes).isEmpty();
+  }
+}
@@ -14,16 +14,33 @@
 
 package net.bis5.mattermost.jersey.provider;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.ext.ContextResolver;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
 
 /**
  * Test cases for {@link MattermostModelMapperProvider}.
@@ -54,4 +71,144 @@ class MattermostModelMapperProviderTest {
           () -> objectMapper.readValue(JSON_INCLUDE_UNKNOWN_PROPERTY, User.class));
     }
   }
+
+  @Nested
+  static class AcceleratedModeTest {
+
+    private static final String MODEL_PACKAGE = "net/bis5/mattermost/model/";
+
+    @Test
+    void registerModuleToBothMappers() {
+      MattermostModelMapperProvider provider = new MattermostModelMapperProvider(false, true);
+
+      assertTrue(provider.isAccelerated());
+      assertTrue(provider.defaultObjectMapper.getRegisteredModuleIds()
+          .contains(MattermostModelMapperProvider.AFTERBURNER_MODULE));
+      assertTrue(provider.configObjectMapper.getRegisteredModuleIds()
+          .contains(MattermostModelMapperProvider.AFTERBURNER_MODULE));
+    }
+
+    /**
+     * Every model class must be (de)serialized to the same JSON with and without acceleration.
+     */
+    @TestFactory
+    Stream<DynamicTest> compatibleWithAllModels() throws IOException, URISyntaxException {
+      MattermostModelMapperProvider plain = new MattermostModelMapperProvider(true, false);
+      MattermostModelMapperProvider accelerated = new MattermostModelMapperProvider(true, true);
+      return modelClasses().stream().map(type -> DynamicTest.dynamicTest(type.getName(), () -> {
+        Object sample = createSample(type);
+        assertEquals(roundTrip(plain.getContext(type), sample),
+            roundTrip(accelerated.getContext(type), sample));
+      }));
+    }
+
+    /**
+     * Serialize the sample, then deserialize and serialize again. Returns the JSON of each step,
+     * or the exception type if the step fails.
+     */
+    private static List<Object> roundTrip(ObjectMapper mapper, Object sample) {
+      List<Object> outcome = new ArrayList<>();
+      try {
+        String json = mapper.writeValueAsString(sample);
+        outcome.add(mapper.readTree(json));
+        Object read = mapper.readValue(json, sample.getClass());
+        outcome.add(mapper.valueToTree(read));
+      } catch (IOException | IllegalArgumentException e) {
+        outcome.add(e.getClass());
+      }
+      return outcome;
+    }
+
+    private static List<Class<?>> modelClasses() throws IOException, URISyntaxException {
+      Path location =
+          Paths.get(User.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      Stream<String> classFiles;
+      if (Files.isDirectory(location)) {
+        try (Stream<Path> files = Files.walk(location)) {
+          classFiles = files.map(location::relativize).map(Path::toString)
+              .map(p -> p.replace('\\', '/')).collect(Collectors.toList()).stream();
+        }
+      } else {
+        try (JarFile jar = new JarFile(location.toFile())) {
+          Stream.Builder<String> names = Stream.builder();
+          for (Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements();) {
+            names.add(e.nextElement().getName());
+          }
+          classFiles = names.build();
+        }
+      }
+      return classFiles.filter(name -> name.startsWith(MODEL_PACKAGE))
+          .filter(name -> !name.startsWith(MODEL_PACKAGE + "serialize/"))
+          .filter(name -> name.endsWith(".class"))
+          .map(name -> name.substring(0, name.length() - ".class".length()).replace('/', '.'))
+          .map(AcceleratedModeTest::loadClass)
+          .filter(AcceleratedModeTest::isBean)
+          .collect(Collectors.toList());
+    }
+
+    private static Class<?> loadClass(String name) {
+      try {
+        return Class.forName(name);
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static boolean isBean(Class<?> type) {
+      int modifiers = type.getModifiers();
+      if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || type.isEnum()
+          || type.isAnonymousClass()
+          || (type.isMemberClass() && !Modifier.isStatic(modifiers))) {
+        return false;
+      }
+      try {
+        return Modifier.isPublic(type.getConstructor().getModifiers());
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+
+    /**
+     * Create an instance that has sample values for simple typed properties.
+     */
+    private static Object createSample(Class<?> type) throws ReflectiveOperationException {
+      Object sample = type.getConstructor().newInstance();
+      int seq = 1;
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+        if (!c.getName().startsWith("net.bis5.mattermost.")) {
+          break;
+        }
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            continue;
+          }
+          Object value = sampleValue(field.getType(), field.getName(), seq++);
+          if (value != null) {
+            field.setAccessible(true);
+            field.set(sample, value);
+          }
+        }
+      }
+      return sample;
+    }
+
+    private static Object sampleValue(Class<?> type, String name, int seq) {
+      if (type == String.class) {
+        return name + "-" + seq;
+      } else if (type == long.class || type == Long.class) {
+        return (long) seq;
+      } else if (type == int.class || type == Integer.class) {
+        return seq;
+      } else if (type == boolean.class || type == Boolean.class) {
+        return Boolean.TRUE;
+      } else if (type == double.class || type == Double.class) {
+        return seq + 0.5d;
+      } else if (type == float.class || type == Float.class) {
+        return seq + 0.5f;
+      } else if (type.isEnum() && type.getEnumConstants().length > 0) {
+        return type.getEnumConstants()[0];
+      }
+      return null;
+    }
+  }
 }
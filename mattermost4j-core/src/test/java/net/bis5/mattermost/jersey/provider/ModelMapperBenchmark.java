@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.jersey.provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+import net.bis5.mattermost.model.PostType;
+import net.bis5.mattermost.model.User;
+import net.bis5.mattermost.model.UserList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of the model mappers with and without the accelerated mode, for a page of 200 posts
+ * and 200 users.
+ *
+ * <p>
+ * Run {@link #main(String[])} from your IDE, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main ModelMapperBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelMapperBenchmark {
+
+  private static final int PAGE_SIZE = 200;
+
+  @Param({"false", "true"})
+  public boolean accelerated;
+
+  private ObjectReader postListReader;
+  private ObjectReader userListReader;
+  private ObjectWriter postListWriter;
+  private byte[] postListJson;
+  private byte[] userListJson;
+  private PostList postList;
+
+  @Setup
+  public void setup() throws IOException {
+    MattermostModelMapperProvider provider = new MattermostModelMapperProvider(false, accelerated);
+    ObjectMapper mapper = provider.getContext(PostList.class);
+    postListReader = mapper.readerFor(PostList.class);
+    userListReader = mapper.readerFor(UserList.class);
+    postListWriter = mapper.writerFor(PostList.class);
+
+    postList = createPostList();
+    postListJson = mapper.writeValueAsBytes(postList);
+    userListJson = mapper.writeValueAsBytes(createUserList());
+  }
+
+  private static PostList createPostList() {
+    List<String> order = new ArrayList<>();
+    Map<String, Post> posts = new HashMap<>();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      Post post = new Post(String.format("channel%019d", i % 3), "message body number " + i);
+      post.setId(String.format("post%022d", i));
+      post.setUserId(String.format("user%022d", i % 10));
+      post.setCreateAt(1600000000000L + i);
+      post.setUpdateAt(1600000000000L + i);
+      post.setType(PostType.DEFAULT);
+      post.setHashtags("#tag" + i);
+      order.add(post.getId());
+      posts.put(post.getId(), post);
+    }
+    PostList postList = new PostList();
+    postList.setOrder(order);
+    postList.setPosts(posts);
+    return postList;
+  }
+
+  private static UserList createUserList() {
+    UserList users = new UserList();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      User user = new User();
+      user.setId(String.format("user%022d", i));
+      user.setUsername("user" + i);
+      user.setEmail("user" + i + "@example.com");
+      user.setFirstName("First" + i);
+      user.setLastName("Last" + i);
+      user.setRoles("system_user");
+      user.setLocale("en");
+      user.setCreateAt(1600000000000L + i);
+      user.setUpdateAt(1600000000000L + i);
+      users.add(user);
+    }
+    return users;
+  }
+
+  @Benchmark
+  public PostList readPostList() throws IOException {
+    return postListReader.readValue(postListJson);
+  }
+
+  @Benchmark
+  public UserList readUserList() throws IOException {
+    return userListReader.readValue(userListJson);
+  }
+
+  @Benchmark
+  public byte[] writePostList() throws IOException {
+    return postListWriter.writeValueAsBytes(postList);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ModelMapperBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link CompactPostList}.
+ */
+class CompactPostListTest {
+
+  private static final String JSON = "{\"order\":[\"post2\",\"post1\",\"missing\"],"
+      + "\"posts\":{"
+      + "\"post1\":{\"id\":\"post1\",\"channel_id\":\"channel1\",\"user_id\":\"user1\"},"
+      + "\"post2\":{\"id\":\"post2\",\"channel_id\":\"channel1\",\"user_id\":\"user1\","
+      + "\"root_id\":\"post0\"},"
+      + "\"post0\":{\"id\":\"post0\",\"channel_id\":\"channel1\",\"user_id\":\"user2\"}},"
+      + "\"next_post_id\":\"post3\",\"prev_post_id\":\"\"}";
+
+  private final ObjectMapper mapper =
+      new MattermostModelMapperProvider().getContext(CompactPostList.class);
+
+  @Test
+  void decodeWithIndexOrder() throws IOException {
+    CompactPostList posts = mapper.readValue(JSON, CompactPostList.class);
+
+    assertThat(posts.size()).isEqualTo(3);
+    assertThat(posts.getOrder()).containsExactly("post2", "post1");
+    assertThat(posts.getOrderedPosts()).extracting(Post::getId).containsExactly("post2", "post1");
+    assertThat(posts.get(0).getRootId()).isEqualTo("post0");
+    assertThat(posts.getPost("post0").getUserId()).isEqualTo("user2");
+    assertThat(posts.getPost("missing")).isNull();
+    assertThat(posts.getNextPostId()).isEqualTo("post3");
+    assertThat(posts.getPrevPostId()).isEmpty();
+  }
+
+  @Test
+  void shareIdStrings() throws IOException {
+    CompactPostList posts = mapper.readValue(JSON, CompactPostList.class);
+
+    Post post1 = posts.getPost("post1");
+    Post post2 = posts.getPost("post2");
+    assertThat(post1.getChannelId()).isSameAs(post2.getChannelId());
+    assertThat(post1.getUserId()).isSameAs(post2.getUserId());
+  }
+
+  @Test
+  void sameJsonAsPostList() throws IOException {
+    CompactPostList compact = mapper.readValue(JSON, CompactPostList.class);
+    PostList postList = compact.toPostList();
+
+    assertThat(mapper.readTree(mapper.writeValueAsString(compact)))
+        .isEqualTo(mapper.readTree(mapper.writeValueAsString(postList)));
+    assertThat(postList.getOrder()).containsExactly("post2", "post1");
+    assertThat(CompactPostList.of(postList).getOrder()).containsExactly("post2", "post1");
+  }
+}
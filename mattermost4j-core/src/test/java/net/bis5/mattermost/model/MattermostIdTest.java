@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import java.io.IOException;
+import java.util.Map;
+import net.bis5.mattermost.jersey.provider.MattermostModelMapperProvider;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link MattermostId}.
+ */
+class MattermostIdTest {
+
+  private static final String ID = "yrtwk3hjixg699shzkc8cib1ny";
+  private static final MattermostId PACKED =
+      new MattermostId(0x0123456789abcdefL, 0xfedcba9876543210L);
+
+  private final ObjectMapper mapper =
+      new MattermostModelMapperProvider().getContext(MattermostId.class);
+
+  @Test
+  void encodeAndDecode() {
+    assertThat(PACKED.toString()).isEqualTo(ID);
+    assertThat(MattermostId.fromString(ID)).isEqualTo(PACKED);
+    assertThat(new MattermostId(0, 0).toString()).isEqualTo("yyyyyyyyyyyyyyyyyyyyyyyyyy");
+    assertThat(new MattermostId(-1, -1).toString()).isEqualTo("9999999999999999999999999h");
+    assertThat(MattermostId.fromString("9999999999999999999999999h"))
+        .isEqualTo(new MattermostId(-1, -1));
+  }
+
+  @Test
+  void rejectInvalid() {
+    assertThat(MattermostId.isValid(ID)).isTrue();
+    assertThat(MattermostId.isValid("user1")).isFalse();
+    assertThat(MattermostId.isValid("yrtwk3hjixg699shzkc8cib1nY")).isFalse();
+    // the padding bits of the last character are not zero
+    assertThat(MattermostId.isValid("yrtwk3hjixg699shzkc8cib1nb")).isFalse();
+    assertThat(MattermostId.tryParse(null)).isNull();
+    assertThatThrownBy(() -> MattermostId.fromString("user1"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void compareAsUnsigned() {
+    assertThat(new MattermostId(-1, 0)).isGreaterThan(new MattermostId(1, 0));
+    assertThat(new MattermostId(1, 1)).isLessThan(new MattermostId(1, -1));
+    assertThat(PACKED).isEqualByComparingTo(MattermostId.fromString(ID));
+  }
+
+  @Test
+  void serializeAsString() throws IOException {
+    assertThat(mapper.writeValueAsString(PACKED)).isEqualTo("\"" + ID + "\"");
+    assertThat(mapper.readValue("\"" + ID + "\"", MattermostId.class)).isEqualTo(PACKED);
+    assertThat(mapper.readValue("\"\"", MattermostId.class)).isNull();
+    assertThatThrownBy(() -> mapper.readValue("\"user1\"", MattermostId.class))
+        .isInstanceOf(InvalidFormatException.class);
+  }
+
+  @Test
+  void mapKey() throws IOException {
+    Map<MattermostId, String> map = mapper.readValue("{\"" + ID + "\":\"value\"}",
+        new TypeReference<Map<MattermostId, String>>() {});
+
+    assertThat(map).containsEntry(PACKED, "value");
+    assertThat(mapper.writeValueAsString(map)).isEqualTo("{\"" + ID + "\":\"value\"}");
+  }
+}
@@ -0,0 +1,606 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.ChannelMember;
+import net.bis5.mattermost.model.FileInfo;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+import net.bis5.mattermost.model.PostSearchResults;
+import net.bis5.mattermost.model.Reaction;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.TeamMember;
+import net.bis5.mattermost.model.User;
+
+/**
+ * The routes of the fake API, backed by {@link FakeStore}.
+ *
+ * <p>
+ * The routes follow the Mattermost API v4 for the users, teams, channels, posts, reactions and
+ * files. Only the session and the channel membership for posting are checked, the other
+ * permissions are not.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+final class FakeApi {
+
+  static final int DEFAULT_PER_PAGE = 60;
+  static final int MAX_PER_PAGE = 200;
+  private static final int MAX_SEARCH_RESULTS = 100;
+  /** A transparent 1x1 PNG. */
+  private static final byte[] PROFILE_IMAGE = Base64.getDecoder()
+      .decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8"
+          + "AAAAASUVORK5CYII=");
+
+  private final FakeStore store;
+  private final List<Route> routes = new ArrayList<>();
+
+  FakeApi(FakeStore store) {
+    this.store = store;
+    // literal segments before variables, the first matching route handles the request
+    anonymous("POST", "/users/login", this::login);
+    anonymous("POST", "/users", this::createUser);
+    anonymous("GET", "/system/ping", request -> null);
+    route("POST", "/users/logout", this::logout);
+    route("GET", "/users", this::getUsers);
+    route("POST", "/users/ids", request -> lookupUsers(request, store::getUser));
+    route("POST", "/users/usernames", request -> lookupUsers(request, store::getUserByUsername));
+    route("GET", "/users/username/{username}",
+        request -> found(store.getUserByUsername(request.variable("username")), "User"));
+    route("GET", "/users/email/{email}",
+        request -> found(store.getUserByEmail(request.variable("email")), "User"));
+    route("GET", "/users/{user_id}", request -> user(request.variable("user_id")));
+    route("PUT", "/users/{user_id}", this::updateUser);
+    route("PUT", "/users/{user_id}/patch", this::patchUser);
+    route("GET", "/users/{user_id}/image", this::getProfileImage);
+    route("GET", "/users/{user_id}/teams",
+        request -> store.getTeamsForUser(user(request.variable("user_id")).getId()));
+    route("GET", "/users/{user_id}/teams/{team_id}/channels",
+        request -> store.getChannelsForTeamForUser(team(request.variable("team_id")).getId(),
+            user(request.variable("user_id")).getId()));
+    route("DELETE", "/users/{user_id}/posts/{post_id}/reactions/{emoji_name}",
+        this::deleteReaction);
+
+    route("POST", "/teams", this::createTeam);
+    route("GET", "/teams", request -> page(request, store.getTeams()));
+    route("GET", "/teams/name/{team_name}",
+        request -> found(store.getTeamByName(request.variable("team_name")), "Team"));
+    route("GET", "/teams/name/{team_name}/exists", request -> Collections.singletonMap("exists",
+        store.getTeamByName(request.variable("team_name")) != null));
+    route("GET", "/teams/name/{team_name}/channels/name/{channel_name}",
+        request -> channelByName(
+            found(store.getTeamByName(request.variable("team_name")), "Team").getId(),
+            request.variable("channel_name")));
+    route("GET", "/teams/{team_id}", request -> team(request.variable("team_id")));
+    route("POST", "/teams/{team_id}/members", this::addTeamMember);
+    route("GET", "/teams/{team_id}/members/{user_id}",
+        request -> found(store.getTeamMember(request.variable("team_id"),
+            request.variable("user_id")), "Team member"));
+    route("GET", "/teams/{team_id}/channels", request -> page(request,
+        store.getChannelsForTeam(team(request.variable("team_id")).getId())));
+    route("GET", "/teams/{team_id}/channels/name/{channel_name}", request -> channelByName(
+        team(request.variable("team_id")).getId(), request.variable("channel_name")));
+    route("POST", "/teams/{team_id}/posts/search", this::searchPosts);
+
+    route("POST", "/channels", this::createChannel);
+    route("POST", "/channels/direct", this::createDirectChannel);
+    route("GET", "/channels/{channel_id}", request -> channel(request.variable("channel_id")));
+    route("POST", "/channels/{channel_id}/members", this::addChannelMember);
+    route("GET", "/channels/{channel_id}/members/{user_id}",
+        request -> found(store.getChannelMember(request.variable("channel_id"),
+            request.variable("user_id")), "Channel member"));
+    route("GET", "/channels/{channel_id}/posts", this::getPostsForChannel);
+
+    route("POST", "/posts", this::createPost);
+    route("GET", "/posts/{post_id}", request -> post(request.variable("post_id")));
+    route("PUT", "/posts/{post_id}", this::updatePost);
+    route("PUT", "/posts/{post_id}/patch", this::patchPost);
+    route("DELETE", "/posts/{post_id}", request -> {
+      store.deletePost(post(request.variable("post_id")).getId());
+      return null;
+    });
+    route("GET", "/posts/{post_id}/thread", this::getPostThread);
+    route("GET", "/posts/{post_id}/files/info",
+        request -> store.getFileInfosForPost(post(request.variable("post_id")).getId()));
+    route("GET", "/posts/{post_id}/reactions",
+        request -> store.getReactions(post(request.variable("post_id")).getId()));
+    route("POST", "/reactions", this::saveReaction);
+
+    route("POST", "/files", this::uploadFiles);
+    route("GET", "/files/{file_id}", this::getFile);
+    route("GET", "/files/{file_id}/info", request -> file(request.variable("file_id")));
+  }
+
+  List<Route> getRoutes() {
+    return routes;
+  }
+
+  private void route(String method, String template, Route.Handler handler) {
+    routes.add(new Route(method, template, false, handler));
+  }
+
+  private void anonymous(String method, String template, Route.Handler handler) {
+    routes.add(new Route(method, template, true, handler));
+  }
+
+  private static <T> T found(T entity, String what) {
+    if (entity == null) {
+      throw FakeApiException.notFound(what);
+    }
+    return entity;
+  }
+
+  private User user(String userId) {
+    return found(userId == null ? null : store.getUser(userId), "User");
+  }
+
+  private Team team(String teamId) {
+    return found(store.getTeam(teamId), "Team");
+  }
+
+  private Channel channel(String channelId) {
+    return found(store.getChannel(channelId), "Channel");
+  }
+
+  private Channel channelByName(String teamId, String channelName) {
+    return found(store.getChannelByName(teamId, channelName), "Channel");
+  }
+
+  private Post post(String postId) {
+    Post post = store.getPost(postId);
+    return found(post == null || post.getDeleteAt() > 0 ? null : post, "Post");
+  }
+
+  private FileInfo file(String fileId) {
+    return found(store.getFileInfo(fileId), "File");
+  }
+
+  /**
+   * The page of {@code page} and {@code per_page} query parameters.
+   */
+  static <T> List<T> page(FakeRequest request, List<T> all) {
+    int page = Math.max(request.queryInt("page", 0), 0);
+    int perPage = Math.min(Math.max(request.queryInt("per_page", DEFAULT_PER_PAGE), 0),
+        MAX_PER_PAGE);
+    long from = (long) page * perPage;
+    if (from >= all.size()) {
+      return Collections.emptyList();
+    }
+    return all.subList((int) from, (int) Math.min(from + perPage, all.size()));
+  }
+
+  // Users
+
+  private Object login(FakeRequest request) {
+    JsonNode body = request.readBody(JsonNode.class);
+    User user = store.authenticate(body.path("login_id").asText(null),
+        body.path("password").asText(null));
+    if (user == null) {
+      throw new FakeApiException(401, "api.user.login.invalid_credentials_email_username",
+          "Enter a valid email or username and/or password.");
+    }
+    request.setResponseHeader("Token", store.createSession(user.getId()));
+    return user;
+  }
+
+  private Object logout(FakeRequest request) {
+    store.revokeSession(request.getToken());
+    return null;
+  }
+
+  private Object createUser(FakeRequest request) {
+    User user = request.readBody(User.class);
+    if (user.getUsername() == null || user.getUsername().isEmpty()) {
+      throw FakeApiException.badRequest("Invalid username");
+    }
+    try {
+      User created = store.addUser(user, user.getPassword());
+      request.setStatus(201);
+      return created;
+    } catch (IllegalArgumentException e) {
+      throw FakeApiException.badRequest(e.getMessage());
+    }
+  }
+
+  private Object getUsers(FakeRequest request) {
+    String inTeam = request.query("in_team");
+    String notInTeam = request.query("not_in_team");
+    String inChannel = request.query("in_channel");
+    String notInChannel = request.query("not_in_channel");
+    boolean withoutTeam = "1".equals(request.query("without_team"))
+        || "true".equals(request.query("without_team"));
+    Predicate<User> filter = user -> true;
+    if (inTeam != null) {
+      filter = filter.and(user -> store.isTeamMember(inTeam, user.getId()));
+    }
+    if (notInTeam != null) {
+      filter = filter.and(user -> !store.isTeamMember(notInTeam, user.getId()));
+    }
+    if (inChannel != null) {
+      filter = filter.and(user -> store.isChannelMember(inChannel, user.getId()));
+    }
+    if (notInChannel != null) {
+      filter = filter.and(user -> !store.isChannelMember(notInChannel, user.getId()));
+    }
+    if (withoutTeam) {
+      filter = filter.and(user -> store.getTeamsForUser(user.getId()).isEmpty());
+    }
+    return page(request, store.getUsers().stream().filter(filter).collect(Collectors.toList()));
+  }
+
+  private Object lookupUsers(FakeRequest request, Function<String, User> lookup) {
+    String[] keys = request.readBody(String[].class);
+    List<User> users = new ArrayList<>(keys.length);
+    for (String key : keys) {
+      User user = lookup.apply(key);
+      if (user != null) {
+        users.add(user);
+      }
+    }
+    return users;
+  }
+
+  private Object updateUser(FakeRequest request) {
+    User current = user(request.variable("user_id"));
+    User user = request.readBody(User.class);
+    user.setId(current.getId());
+    user.setCreateAt(current.getCreateAt());
+    return store.updateUser(user);
+  }
+
+  private Object patchUser(FakeRequest request) {
+    User current = user(request.variable("user_id"));
+    User patched = request.updateFromBody(store.copyOf(current));
+    patched.setId(current.getId());
+    patched.setUsername(current.getUsername());
+    return store.updateUser(patched);
+  }
+
+  private Object getProfileImage(FakeRequest request) {
+    user(request.variable("user_id"));
+    return new Route.Blob("image/png", PROFILE_IMAGE);
+  }
+
+  // Teams
+
+  private Object createTeam(FakeRequest request) {
+    Team team = request.readBody(Team.class);
+    if (team.getName() == null || team.getName().isEmpty()) {
+      throw FakeApiException.badRequest("Invalid team name");
+    }
+    try {
+      Team created = store.addTeam(team);
+      store.addTeamMember(created.getId(), request.getUserId());
+      request.setStatus(201);
+      return created;
+    } catch (IllegalArgumentException e) {
+      throw FakeApiException.badRequest(e.getMessage());
+    }
+  }
+
+  private Object addTeamMember(FakeRequest request) {
+    Team team = team(request.variable("team_id"));
+    TeamMember member = request.readBody(TeamMember.class);
+    User user = user(member.getUserId());
+    request.setStatus(201);
+    return store.addTeamMember(team.getId(), user.getId());
+  }
+
+  // Channels
+
+  private Object createChannel(FakeRequest request) {
+    Channel channel = request.readBody(Channel.class);
+    team(channel.getTeamId());
+    if (channel.getName() == null || channel.getName().isEmpty()) {
+      throw FakeApiException.badRequest("Invalid channel name");
+    }
+    channel.setCreatorId(request.getUserId());
+    try {
+      Channel created = store.addChannel(channel);
+      request.setStatus(201);
+      return created;
+    } catch (IllegalArgumentException e) {
+      throw FakeApiException.badRequest(e.getMessage());
+    }
+  }
+
+  private Object createDirectChannel(FakeRequest request) {
+    String[] userIds = request.readBody(String[].class);
+    if (userIds.length != 2) {
+      throw FakeApiException.badRequest("Two user ids required");
+    }
+    user(userIds[0]);
+    user(userIds[1]);
+    request.setStatus(201);
+    return store.getOrAddDirectChannel(userIds[0], userIds[1]);
+  }
+
+  private Object addChannelMember(FakeRequest request) {
+    Channel channel = channel(request.variable("channel_id"));
+    JsonNode body = request.readBody(JsonNode.class);
+    User user = user(body.path("user_id").asText(null));
+    ChannelMember member = store.addChannelMember(channel.getId(), user.getId());
+    request.setStatus(201);
+    return member;
+  }
+
+  // Posts
+
+  private Object createPost(FakeRequest request) {
+    Post post = request.readBody(Post.class);
+    Channel channel = channel(post.getChannelId());
+    if (!store.isChannelMember(channel.getId(), request.getUserId())) {
+      throw new FakeApiException(403, "api.context.permissions.app_error",
+          "You do not have the appropriate permissions.");
+    }
+    post.setUserId(request.getUserId());
+    post.setDeleteAt(0);
+    request.setStatus(201);
+    return store.addPost(post);
+  }
+
+  private Object updatePost(FakeRequest request) {
+    Post current = post(request.variable("post_id"));
+    Post post = request.readBody(Post.class);
+    Post updated = store.copyOf(current);
+    updated.setMessage(post.getMessage());
+    updated.setPinned(post.isPinned());
+    updated.setProps(post.getProps());
+    updated.setFileIds(post.getFileIds());
+    return store.updatePost(updated);
+  }
+
+  private Object patchPost(FakeRequest request) {
+    Post current = post(request.variable("post_id"));
+    Post patched = request.updateFromBody(store.copyOf(current));
+    patched.setId(current.getId());
+    patched.setChannelId(current.getChannelId());
+    patched.setUserId(current.getUserId());
+    return store.updatePost(patched);
+  }
+
+  private Object getPostThread(FakeRequest request) {
+    Post post = post(request.variable("post_id"));
+    String rootId = post.getRootId() == null || post.getRootId().isEmpty() ? post.getId()
+        : post.getRootId();
+    List<Post> thread = store.getPostsForChannel(post.getChannelId()).stream()
+        .filter(p -> p.getDeleteAt() == 0)
+        .filter(p -> p.getId().equals(rootId) || rootId.equals(p.getRootId()))
+        .collect(Collectors.toList());
+    return postList(thread, 0, thread.size(), null);
+  }
+
+  /**
+   * The posts of the channel, following the {@code since}, {@code before}, {@code after},
+   * {@code page} and {@code per_page} query parameters.
+   */
+  private Object getPostsForChannel(FakeRequest request) {
+    Channel channel = channel(request.variable("channel_id"));
+    List<Post> all = store.getPostsForChannel(channel.getId());
+    long since = request.queryLong("since", -1);
+    if (since >= 0) {
+      // including the edited and deleted posts
+      List<Post> changed = all.stream().filter(post -> post.getUpdateAt() >= since)
+          .collect(Collectors.toList());
+      return postList(changed, 0, changed.size(), null);
+    }
+    List<Post> posts = all.stream().filter(post -> post.getDeleteAt() == 0)
+        .collect(Collectors.toList());
+    int page = Math.max(request.queryInt("page", 0), 0);
+    int perPage = Math.min(Math.max(request.queryInt("per_page", DEFAULT_PER_PAGE), 0),
+        MAX_PER_PAGE);
+    String after = request.query("after");
+    String before = request.query("before");
+    long from;
+    long to;
+    if (after != null && !after.isEmpty()) {
+      int index = indexOf(posts, after);
+      if (index < 0) {
+        return postList(posts, 0, 0, null);
+      }
+      from = index + 1 + (long) page * perPage;
+      to = from + perPage;
+    } else if (before != null && !before.isEmpty()) {
+      int index = indexOf(posts, before);
+      if (index < 0) {
+        return postList(posts, 0, 0, null);
+      }
+      to = index - (long) page * perPage;
+      from = to - perPage;
+    } else {
+      to = posts.size() - (long) page * perPage;
+      from = to - perPage;
+    }
+    from = Math.max(from, 0);
+    to = Math.min(to, posts.size());
+    if (from >= to) {
+      return postList(posts, 0, 0, null);
+    }
+    return postList(posts, (int) from, (int) to, posts);
+  }
+
+  private static int indexOf(List<Post> posts, String postId) {
+    for (int i = posts.size() - 1; i >= 0; i--) {
+      if (posts.get(i).getId().equals(postId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The posts of {@code [from, to)} of the oldest first list, ordered newest first.
+   *
+   * @param paged the list to take the next and previous post ids from, or {@code null} for none
+   */
+  private static PostList postList(List<Post> posts, int from, int to, List<Post> paged) {
+    PostList list = new PostList();
+    fill(list, posts, from, to);
+    list.setNextPostId(paged != null && to < paged.size() ? paged.get(to).getId() : "");
+    list.setPrevPostId(paged != null && from > 0 ? paged.get(from - 1).getId() : "");
+    return list;
+  }
+
+  private static void fill(PostList list, List<Post> posts, int from, int to) {
+    List<String> order = new ArrayList<>(to - from);
+    Map<String, Post> entries = new LinkedHashMap<>();
+    for (int i = to - 1; i >= from; i--) {
+      Post post = posts.get(i);
+      order.add(post.getId());
+      entries.put(post.getId(), post);
+    }
+    list.setOrder(order);
+    list.setPosts(entries);
+  }
+
+  /**
+   * Match the posts having all the terms, or any with {@code is_or_search}. A term ending with
+   * {@code *} matches the words starting with it.
+   */
+  private Object searchPosts(FakeRequest request) {
+    Team team = team(request.variable("team_id"));
+    JsonNode body = request.readBody(JsonNode.class);
+    boolean isOrSearch = body.path("is_or_search").asBoolean(false);
+    List<String> terms = new ArrayList<>();
+    for (String term : body.path("terms").asText("").toLowerCase(Locale.ROOT).split("\\s+")) {
+      String trimmed = term.replace("\"", "");
+      if (!trimmed.isEmpty()) {
+        terms.add(trimmed);
+      }
+    }
+    List<Post> matched = new ArrayList<>();
+    if (!terms.isEmpty()) {
+      for (Channel channel : store.getChannelsForTeam(team.getId())) {
+        for (Post post : store.getPostsForChannel(channel.getId())) {
+          if (post.getDeleteAt() == 0 && matches(post.getMessage(), terms, isOrSearch)) {
+            matched.add(post);
+          }
+        }
+      }
+    }
+    matched.sort((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()));
+    int from = Math.max(matched.size() - MAX_SEARCH_RESULTS, 0);
+    PostSearchResults results = new PostSearchResults();
+    fill(results, matched, from, matched.size());
+    return results;
+  }
+
+  static boolean matches(String message, List<String> terms, boolean isOrSearch) {
+    if (message == null || message.isEmpty()) {
+      return false;
+    }
+    Set<String> words = new LinkedHashSet<>(
+        Arrays.asList(message.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}_#@-]+")));
+    for (String term : terms) {
+      boolean found;
+      if (term.endsWith("*")) {
+        String prefix = term.substring(0, term.length() - 1);
+        found = words.stream().anyMatch(word -> word.startsWith(prefix));
+      } else {
+        found = words.contains(term);
+      }
+      if (found && isOrSearch) {
+        return true;
+      }
+      if (!found && !isOrSearch) {
+        return false;
+      }
+    }
+    return !isOrSearch;
+  }
+
+  // Reactions
+
+  private Object saveReaction(FakeRequest request) {
+    Reaction reaction = request.readBody(Reaction.class);
+    post(reaction.getPostId());
+    if (reaction.getEmojiName() == null || reaction.getEmojiName().isEmpty()) {
+      throw FakeApiException.badRequest("Invalid emoji name");
+    }
+    reaction.setUserId(request.getUserId());
+    return store.addReaction(reaction);
+  }
+
+  private Object deleteReaction(FakeRequest request) {
+    if (!store.removeReaction(request.variable("user_id"), request.variable("post_id"),
+        request.variable("emoji_name"))) {
+      throw FakeApiException.notFound("Reaction");
+    }
+    return null;
+  }
+
+  // Files
+
+  /**
+   * Upload the files of a {@code multipart/form-data} body, or the body itself with the
+   * {@code channel_id} and {@code filename} query parameters.
+   */
+  private Object uploadFiles(FakeRequest request) {
+    List<FileInfo> infos = new ArrayList<>();
+    String channelId = request.query("channel_id");
+    String filename = request.query("filename");
+    if (filename != null) {
+      channel(channelId);
+      infos.add(store.addFile(request.getUserId(), filename,
+          request.getContentType() == null ? "application/octet-stream"
+              : request.getContentType(),
+          request.getBody()));
+    } else {
+      List<MultipartForm.Part> parts =
+          MultipartForm.parse(request.getContentType(), request.getBody());
+      for (MultipartForm.Part part : parts) {
+        if ("channel_id".equals(part.name)) {
+          channelId = part.text();
+        }
+      }
+      channel(channelId);
+      for (MultipartForm.Part part : parts) {
+        if (part.filename != null) {
+          infos.add(store.addFile(request.getUserId(), part.filename, part.contentType,
+              part.content));
+        }
+      }
+    }
+    if (infos.isEmpty()) {
+      throw FakeApiException.badRequest("No file uploaded");
+    }
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("file_infos", infos);
+    result.put("client_ids", Collections.emptyList());
+    request.setStatus(201);
+    return result;
+  }
+
+  private Object getFile(FakeRequest request) {
+    FileInfo info = file(request.variable("file_id"));
+    return new Route.Blob(info.getMimeType(), store.getFileContent(info.getId()));
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Stops handling a request and responds with the Mattermost error of the status.
+ *
+ * @author Takayuki Maruyama
+ */
+class FakeApiException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int status;
+  private final String id;
+  private transient Map<String, String> headers = Collections.emptyMap();
+
+  FakeApiException(int status, String id, String message) {
+    super(message);
+    this.status = status;
+    this.id = id;
+  }
+
+  static FakeApiException notFound(String what) {
+    return new FakeApiException(404, "app.fake.not_found.app_error", what + " not found");
+  }
+
+  static FakeApiException badRequest(String message) {
+    return new FakeApiException(400, "api.context.invalid_param.app_error", message);
+  }
+
+  static FakeApiException unauthorized() {
+    return new FakeApiException(401, "api.context.session_expired.app_error",
+        "Invalid or expired session, please login again.");
+  }
+
+  /**
+   * Send the headers with the error response.
+   */
+  FakeApiException withHeaders(Map<String, String> headers) {
+    this.headers = headers;
+    return this;
+  }
+
+  Map<String, String> getHeaders() {
+    return headers;
+  }
+
+  int getStatus() {
+    return status;
+  }
+
+  String getId() {
+    return id;
+  }
+}
@@ -0,0 +1,687 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.model.serialize.MattermostPropertyNamingStrategy;
+
+/**
+ * Embeddable, in-memory fake of the Mattermost API v4 server, to test and benchmark the client
+ * without the Mattermost, database and mail server stack.
+ *
+ * <p>
+ * Serves the core users, teams, channels, posts, reactions and files routes from a
+ * {@link FakeStore}, and the {@code /api/v4/websocket} events on its own port (see
+ * {@link #getWebSocketUrl()}). To mimic a real deployment, the server can add latency, fail a
+ * fraction of the requests, limit the request rate per session with the {@code X-Ratelimit-*}
+ * headers, and answers {@code If-None-Match} with {@code 304 Not Modified}. Unknown routes
+ * respond {@code 404}.
+ * </p>
+ *
+ * <pre>
+ * try (FakeMattermostServer server = FakeMattermostServer.builder().latency(Duration.ofMillis(5))
+ *     .build()) {
+ *   server.start();
+ *   server.getStore().addUser("bot", "password");
+ *   MattermostClient client = MattermostClient.builder().url(server.getUrl()).build();
+ *   client.login("bot", "password");
+ * }
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class FakeMattermostServer implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(FakeMattermostServer.class.getName());
+  static final String SERVER_VERSION = "5.37.0";
+  static final String API_PREFIX = "/api/v4";
+  private static final byte[] STATUS_OK = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+  private static final String JSON = "application/json";
+
+  private final HttpServer server;
+  private final ThreadPoolExecutor ownExecutor;
+  private final FakeWebSocketServer webSocket;
+  private final FakeStore store;
+  private final ObjectMapper mapper;
+  private final List<Route> routes;
+  private final int maxBodyBytes;
+  private final long latencyNanos;
+  private final long latencyJitterNanos;
+  private final double errorRate;
+  private final int errorStatus;
+  private final Random random;
+  private final int rateLimitPerSecond;
+  private final int rateLimitBurst;
+  private final boolean etags;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> routeCounts = new ConcurrentHashMap<>();
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong injectedErrorCount = new AtomicLong();
+  private final AtomicLong rateLimitedCount = new AtomicLong();
+  private final AtomicLong notModifiedCount = new AtomicLong();
+
+  /**
+   * The errors armed by {@link FakeMattermostServer#failNext(String, String, int, int)}.
+   */
+  private static final class Fault {
+
+    final int status;
+    final AtomicInteger remaining;
+
+    Fault(int status, int times) {
+      this.status = status;
+      this.remaining = new AtomicInteger(times);
+    }
+  }
+
+  private FakeMattermostServer(FakeMattermostServerBuilder builder) throws IOException {
+    this.mapper = new ObjectMapper()
+        .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        // unlike NON_EMPTY, keeps the empty lists such as "order":[] the client relies on
+        .setSerializationInclusion(Include.NON_NULL)
+        .setPropertyNamingStrategy(new MattermostPropertyNamingStrategy());
+    this.store = new FakeStore(mapper);
+    this.routes = new FakeApi(store).getRoutes();
+    this.maxBodyBytes = builder.maxBodyBytes;
+    this.latencyNanos = builder.latency.toNanos();
+    this.latencyJitterNanos = builder.latencyJitter.toNanos();
+    this.errorRate = builder.errorRate;
+    this.errorStatus = builder.errorStatus;
+    this.random = builder.seed == null ? null : new Random(builder.seed);
+    this.rateLimitPerSecond = builder.rateLimitPerSecond;
+    this.rateLimitBurst = builder.rateLimitBurst;
+    this.etags = builder.etags;
+    this.server = HttpServer.create(builder.address, builder.backlog);
+    server.createContext("/", this::handle);
+    if (builder.executor != null) {
+      ownExecutor = null;
+      server.setExecutor(builder.executor);
+    } else {
+      ownExecutor = new ThreadPoolExecutor(builder.threads, builder.threads, 0,
+          TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new FakeServerThreadFactory());
+      server.setExecutor(ownExecutor);
+    }
+    this.webSocket = new FakeWebSocketServer(
+        new InetSocketAddress(builder.address.getAddress(), 0), store, mapper);
+    store.addListener(webSocket);
+  }
+
+  public static FakeMattermostServerBuilder builder() {
+    return new FakeMattermostServerBuilder();
+  }
+
+  public void start() {
+    server.start();
+    webSocket.start();
+  }
+
+  /**
+   * The data of the server, to seed before the test and to verify after.
+   */
+  public FakeStore getStore() {
+    return store;
+  }
+
+  /**
+   * The URL to pass to the client, e.g. {@code http://127.0.0.1:54321}.
+   */
+  public String getUrl() {
+    return "http://" + host() + ":" + server.getAddress().getPort();
+  }
+
+  /**
+   * The URL of the {@code /api/v4/websocket} endpoint, on a port other than {@link #getUrl()}.
+   */
+  public String getWebSocketUrl() {
+    return "ws://" + host() + ":" + webSocket.getPort() + FakeWebSocketServer.PATH;
+  }
+
+  private String host() {
+    InetAddress address = server.getAddress().getAddress();
+    if (address.isAnyLocalAddress()) {
+      return "localhost";
+    }
+    String host = address.getHostAddress();
+    return host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+  }
+
+  /**
+   * Respond the next {@code times} requests of the route with the error status, e.g.
+   * {@code failNext("POST", "/posts", 503, 2)}. The route is the template without
+   * {@code /api/v4}, as in the Mattermost API reference.
+   */
+  public void failNext(String method, String routeTemplate, int status, int times) {
+    faults.put(method + " " + routeTemplate, new Fault(status, times));
+  }
+
+  /** The number of the requests received, including the failed ones. */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  /**
+   * The number of the requests of the route, e.g.
+   * {@code getRequestCount("GET", "/users/{user_id}")}.
+   */
+  public long getRequestCount(String method, String routeTemplate) {
+    LongAdder count = routeCounts.get(method + " " + routeTemplate);
+    return count == null ? 0 : count.sum();
+  }
+
+  /** The number of the requests failed by {@code errorRate} or {@link #failNext}. */
+  public long getInjectedErrorCount() {
+    return injectedErrorCount.get();
+  }
+
+  /** The number of the requests responded with {@code 429 Too Many Requests}. */
+  public long getRateLimitedCount() {
+    return rateLimitedCount.get();
+  }
+
+  /** The number of the requests responded with {@code 304 Not Modified}. */
+  public long getNotModifiedCount() {
+    return notModifiedCount.get();
+  }
+
+  /** The number of the open WebSocket connections. */
+  public int getWebSocketConnectionCount() {
+    return webSocket.getConnectionCount();
+  }
+
+  /** The number of the WebSocket events sent to all connections. */
+  public long getWebSocketEventCount() {
+    return webSocket.getSentEventCount();
+  }
+
+  private void handle(HttpExchange exchange) {
+    requestCount.incrementAndGet();
+    Map<String, String> headers = Collections.emptyMap();
+    try {
+      delay();
+      String method = exchange.getRequestMethod();
+      String path = exchange.getRequestURI().getRawPath();
+      if (!path.startsWith(API_PREFIX + "/")) {
+        throw FakeApiException.notFound("Route");
+      }
+      String[] segments = Route.split(path.substring(API_PREFIX.length()));
+      for (int i = 0; i < segments.length; i++) {
+        segments[i] = decode(segments[i]);
+      }
+      Route route = null;
+      Map<String, String> variables = null;
+      boolean pathMatched = false;
+      for (Route candidate : routes) {
+        Map<String, String> matched = candidate.match(segments);
+        if (matched != null) {
+          pathMatched = true;
+          if (candidate.getMethod().equals(method)) {
+            route = candidate;
+            variables = matched;
+            break;
+          }
+        }
+      }
+      if (route == null) {
+        throw pathMatched ? new FakeApiException(405, "api.context.method_not_allowed.app_error",
+            "Method not allowed") : FakeApiException.notFound("Route");
+      }
+      String routeKey = method + " " + route.getTemplate();
+      routeCounts.computeIfAbsent(routeKey, key -> new LongAdder()).increment();
+
+      String token = token(exchange.getRequestHeaders());
+      headers = rateLimit(token != null ? token : remoteAddress(exchange));
+      injectFault(routeKey);
+      String userId = token == null ? null : store.getSessionUserId(token);
+      if (userId == null && !route.isAnonymous()) {
+        throw FakeApiException.unauthorized();
+      }
+
+      FakeRequest request = new FakeRequest(method, variables,
+          exchange.getRequestURI().getRawQuery(),
+          exchange.getRequestHeaders().getFirst("Content-Type"), readBody(exchange), token,
+          userId, mapper);
+      Object entity = route.getHandler().handle(request);
+      headers = merge(headers, request.getResponseHeaders());
+      if (entity instanceof Route.Blob) {
+        Route.Blob blob = (Route.Blob) entity;
+        respond(exchange, request.getStatus(), blob.contentType, blob.content, headers);
+        return;
+      }
+      byte[] response = entity == null ? STATUS_OK : mapper.writeValueAsBytes(entity);
+      if (etags && "GET".equals(method) && request.getStatus() == 200) {
+        String etag = etag(response);
+        headers = merge(headers, Collections.singletonMap("ETag", etag));
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+          notModifiedCount.incrementAndGet();
+          respond(exchange, 304, null, null, headers);
+          return;
+        }
+      }
+      respond(exchange, request.getStatus(), JSON, response, headers);
+    } catch (FakeApiException e) {
+      respondError(exchange, e, headers);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      respond(exchange, 503, null, null, headers);
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Failed to handle " + exchange.getRequestURI(), e);
+      respondError(exchange, new FakeApiException(500, "app.fake.internal_error.app_error",
+          String.valueOf(e)), headers);
+    }
+  }
+
+  private static String decode(String segment) throws UnsupportedEncodingException {
+    // a plus sign is not a space in the path
+    return URLDecoder.decode(segment.replace("+", "%2B"), "UTF-8");
+  }
+
+  private static Map<String, String> merge(Map<String, String> headers,
+      Map<String, String> more) {
+    if (more.isEmpty()) {
+      return headers;
+    }
+    Map<String, String> merged = new LinkedHashMap<>(headers);
+    merged.putAll(more);
+    return merged;
+  }
+
+  private void delay() throws InterruptedException {
+    long nanos = latencyNanos;
+    if (latencyJitterNanos > 0) {
+      nanos += (long) (nextDouble() * latencyJitterNanos);
+    }
+    if (nanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+  }
+
+  private double nextDouble() {
+    return random != null ? random.nextDouble() : ThreadLocalRandom.current().nextDouble();
+  }
+
+  private void injectFault(String routeKey) {
+    Fault fault = faults.get(routeKey);
+    if (fault != null && fault.remaining.getAndDecrement() > 0) {
+      injectedErrorCount.incrementAndGet();
+      throw new FakeApiException(fault.status, "app.fake.injected_error.app_error",
+          "Injected error");
+    }
+    if (errorRate > 0 && nextDouble() < errorRate) {
+      injectedErrorCount.incrementAndGet();
+      throw new FakeApiException(errorStatus, "app.fake.injected_error.app_error",
+          "Injected error");
+    }
+  }
+
+  private static String token(Headers requestHeaders) {
+    String authorization = requestHeaders.getFirst("Authorization");
+    if (authorization == null) {
+      return null;
+    }
+    int separator = authorization.indexOf(' ');
+    if (separator < 0) {
+      return null;
+    }
+    String type = authorization.substring(0, separator);
+    if (!"Bearer".equalsIgnoreCase(type) && !"token".equalsIgnoreCase(type)) {
+      return null;
+    }
+    return authorization.substring(separator + 1).trim();
+  }
+
+  private static String remoteAddress(HttpExchange exchange) {
+    InetSocketAddress remote = exchange.getRemoteAddress();
+    return remote == null ? "" : remote.getAddress().getHostAddress();
+  }
+
+  /**
+   * Take a token from the bucket of the session or the address, as Mattermost limits the rate.
+   *
+   * @return the {@code X-Ratelimit-*} headers
+   * @throws FakeApiException {@code 429} if the bucket is empty
+   */
+  private Map<String, String> rateLimit(String key) {
+    if (rateLimitPerSecond <= 0) {
+      return Collections.emptyMap();
+    }
+    TokenBucket bucket = buckets.computeIfAbsent(key,
+        k -> new TokenBucket(rateLimitPerSecond, rateLimitBurst));
+    long remaining = bucket.take(System.nanoTime());
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put("X-Ratelimit-Limit", String.valueOf(rateLimitPerSecond));
+    headers.put("X-Ratelimit-Remaining", String.valueOf(Math.max(remaining, 0)));
+    headers.put("X-Ratelimit-Reset", String.valueOf(bucket.secondsToFull(System.nanoTime())));
+    if (remaining < 0) {
+      rateLimitedCount.incrementAndGet();
+      throw new FakeApiException(429, "app.fake.rate_limited.app_error", "limit exceeded")
+          .withHeaders(headers);
+    }
+    return headers;
+  }
+
+  /**
+   * A token bucket refilled at the rate per second, holding the burst at most.
+   */
+  static final class TokenBucket {
+
+    private final double perNano;
+    private final double capacity;
+    private double tokens;
+    private long updatedAt;
+
+    TokenBucket(int perSecond, int burst) {
+      this.perNano = perSecond / 1e9;
+      this.capacity = Math.max(burst, 1);
+      this.tokens = capacity;
+      this.updatedAt = System.nanoTime();
+    }
+
+    /**
+     * @return the tokens remaining after taking one, or {@code -1} if empty
+     */
+    synchronized long take(long now) {
+      refill(now);
+      if (tokens < 1) {
+        return -1;
+      }
+      tokens -= 1;
+      return (long) tokens;
+    }
+
+    synchronized long secondsToFull(long now) {
+      refill(now);
+      return (long) Math.ceil((capacity - tokens) / perNano / 1e9);
+    }
+
+    private void refill(long now) {
+      tokens = Math.min(capacity, tokens + (now - updatedAt) * perNano);
+      updatedAt = now;
+    }
+  }
+
+  static String etag(byte[] body) {
+    // FNV-1a, enough to tell the representations of a resource apart
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : body) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return "\"" + Long.toHexString(hash) + "\"";
+  }
+
+  private byte[] readBody(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    try (InputStream in = exchange.getRequestBody()) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        if (body.size() + read > maxBodyBytes) {
+          throw new FakeApiException(413, "api.context.request_body_too_large.app_error",
+              "Request body too large");
+        }
+        body.write(buffer, 0, read);
+      }
+    }
+    return body.toByteArray();
+  }
+
+  private void respondError(HttpExchange exchange, FakeApiException error,
+      Map<String, String> headers) {
+    Map<String, Object> entity = new LinkedHashMap<>();
+    entity.put("id", error.getId());
+    entity.put("message", error.getMessage());
+    entity.put("detailed_error", "");
+    entity.put("request_id", "");
+    entity.put("status_code", error.getStatus());
+    byte[] response;
+    try {
+      response = mapper.writeValueAsBytes(entity);
+    } catch (IOException e) {
+      response = null;
+    }
+    respond(exchange, error.getStatus(), JSON, response, merge(headers, error.getHeaders()));
+  }
+
+  private static void respond(HttpExchange exchange, int status, String contentType,
+      byte[] response, Map<String, String> headers) {
+    try {
+      Headers responseHeaders = exchange.getResponseHeaders();
+      responseHeaders.set("X-Version-Id", SERVER_VERSION);
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        responseHeaders.set(header.getKey(), header.getValue());
+      }
+      if (response == null || status == 304) {
+        exchange.sendResponseHeaders(status, -1);
+        return;
+      }
+      responseHeaders.set("Content-Type", contentType);
+      exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.FINE, "Failed to respond", e);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Stop the server, and wait for the running requests for a while.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    webSocket.close();
+    if (ownExecutor != null) {
+      ownExecutor.shutdown();
+      try {
+        ownExecutor.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static class FakeServerThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "fake-mattermost-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  public static class FakeMattermostServerBuilder {
+
+    private InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    private int backlog;
+    private int threads = Math.max(Runtime.getRuntime().availableProcessors() * 4, 16);
+    private Executor executor;
+    private int maxBodyBytes = 50 * 1024 * 1024;
+    private Duration latency = Duration.ZERO;
+    private Duration latencyJitter = Duration.ZERO;
+    private double errorRate;
+    private int errorStatus = 500;
+    private Long seed;
+    private int rateLimitPerSecond;
+    private int rateLimitBurst;
+    private boolean etags = true;
+
+    /**
+     * The address to bind. Defaults to an ephemeral port of the loopback address.
+     */
+    public FakeMattermostServerBuilder address(InetSocketAddress address) {
+      this.address = address;
+      return this;
+    }
+
+    public FakeMattermostServerBuilder port(int port) {
+      return address(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * The maximum number of pending connections, {@code 0} for the system default.
+     */
+    public FakeMattermostServerBuilder backlog(int backlog) {
+      this.backlog = backlog;
+      return this;
+    }
+
+    /**
+     * The number of the handler threads. Defaults to four times the number of processors, at
+     * least 16, because the threads sleep for the latency.
+     */
+    public FakeMattermostServerBuilder threads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("threads must be positive");
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Handle the requests on the executor instead of the own pool. The executor is not shut down
+     * by {@link FakeMattermostServer#close()}.
+     */
+    public FakeMattermostServerBuilder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * The maximum size of a request body. Defaults to 50 MiB, the default file size limit of
+     * Mattermost.
+     */
+    public FakeMattermostServerBuilder maxBodyBytes(int maxBodyBytes) {
+      this.maxBodyBytes = maxBodyBytes;
+      return this;
+    }
+
+    /**
+     * Delay each response by the latency.
+     */
+    public FakeMattermostServerBuilder latency(Duration latency) {
+      return latency(latency, Duration.ZERO);
+    }
+
+    /**
+     * Delay each response by the latency plus a uniformly distributed jitter.
+     */
+    public FakeMattermostServerBuilder latency(Duration latency, Duration jitter) {
+      if (latency.isNegative() || jitter.isNegative()) {
+        throw new IllegalArgumentException("latency must not be negative");
+      }
+      this.latency = latency;
+      this.latencyJitter = jitter;
+      return this;
+    }
+
+    /**
+     * Fail the fraction of the requests, chosen at random, with the status.
+     *
+     * @param errorRate from {@code 0} for none to {@code 1} for all
+     */
+    public FakeMattermostServerBuilder errorRate(double errorRate, int status) {
+      if (errorRate < 0 || errorRate > 1) {
+        throw new IllegalArgumentException("errorRate must be between 0 and 1");
+      }
+      this.errorRate = errorRate;
+      this.errorStatus = status;
+      return this;
+    }
+
+    /**
+     * Seed the random latency and errors, to repeat the run. The seeded generator is shared by
+     * the handler threads.
+     */
+    public FakeMattermostServerBuilder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    /**
+     * Limit the rate of each session, or of each address for the anonymous requests, and send
+     * the {@code X-Ratelimit-Limit}, {@code X-Ratelimit-Remaining} and {@code X-Ratelimit-Reset}
+     * headers. Exceeding requests respond {@code 429}. Not limited by default.
+     *
+     * @param perSecond the sustained requests per second
+     * @param burst the requests allowed at once
+     */
+    public FakeMattermostServerBuilder rateLimit(int perSecond, int burst) {
+      if (perSecond < 1 || burst < 1) {
+        throw new IllegalArgumentException("perSecond and burst must be positive");
+      }
+      this.rateLimitPerSecond = perSecond;
+      this.rateLimitBurst = burst;
+      return this;
+    }
+
+    /**
+     * Send the {@code ETag} header of the {@code GET} responses, and respond
+     * {@code 304 Not Modified} to the matching {@code If-None-Match}. Enabled by default.
+     */
+    public FakeMattermostServerBuilder etags(boolean etags) {
+      this.etags = etags;
+      return this;
+    }
+
+    /**
+     * Bind the addresses. Call {@link FakeMattermostServer#start()} to start serving.
+     */
+    public FakeMattermostServer build() throws IOException {
+      return new FakeMattermostServer(this);
+    }
+  }
+}
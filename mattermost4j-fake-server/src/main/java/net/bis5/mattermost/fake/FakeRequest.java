@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A request to the fake API, after the session has been resolved.
+ *
+ * @author Takayuki Maruyama
+ */
+final class FakeRequest {
+
+  private final String method;
+  private final Map<String, String> variables;
+  private final Map<String, String> query;
+  private final String contentType;
+  private final byte[] body;
+  private final String token;
+  private final String userId;
+  private final ObjectMapper mapper;
+  private final Map<String, String> responseHeaders = new LinkedHashMap<>();
+  private int status = 200;
+
+  FakeRequest(String method, Map<String, String> variables, String rawQuery, String contentType,
+      byte[] body, String token, String userId, ObjectMapper mapper)
+      throws UnsupportedEncodingException {
+    this.method = method;
+    this.variables = variables;
+    this.query = decodeQuery(rawQuery);
+    this.contentType = contentType;
+    this.body = body;
+    this.token = token;
+    this.userId = userId;
+    this.mapper = mapper;
+  }
+
+  String getMethod() {
+    return method;
+  }
+
+  /**
+   * The path variable. {@code me} in {@code user_id} is the user of the session.
+   */
+  String variable(String name) {
+    String value = variables.get(name);
+    if ("user_id".equals(name) && "me".equals(value)) {
+      return userId;
+    }
+    return value;
+  }
+
+  String query(String name) {
+    return query.get(name);
+  }
+
+  int queryInt(String name, int defaultValue) {
+    String value = query.get(name);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw FakeApiException.badRequest("Invalid " + name);
+    }
+  }
+
+  long queryLong(String name, long defaultValue) {
+    String value = query.get(name);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw FakeApiException.badRequest("Invalid " + name);
+    }
+  }
+
+  String getContentType() {
+    return contentType;
+  }
+
+  byte[] getBody() {
+    return body;
+  }
+
+  <T> T readBody(Class<T> type) {
+    if (body.length == 0) {
+      throw FakeApiException.badRequest("Request body required");
+    }
+    try {
+      return mapper.readValue(body, type);
+    } catch (IOException e) {
+      throw FakeApiException.badRequest("Invalid request body: " + e.getMessage());
+    }
+  }
+
+  <T> T updateFromBody(T toUpdate) {
+    try {
+      return mapper.readerForUpdating(toUpdate).readValue(body);
+    } catch (IOException e) {
+      throw FakeApiException.badRequest("Invalid request body: " + e.getMessage());
+    }
+  }
+
+  /**
+   * The token of the session, or {@code null} if not sent.
+   */
+  String getToken() {
+    return token;
+  }
+
+  /**
+   * The user of the session, or {@code null} for the anonymous routes.
+   */
+  String getUserId() {
+    return userId;
+  }
+
+  int getStatus() {
+    return status;
+  }
+
+  void setStatus(int status) {
+    this.status = status;
+  }
+
+  Map<String, String> getResponseHeaders() {
+    return responseHeaders;
+  }
+
+  void setResponseHeader(String name, String value) {
+    responseHeaders.put(name, value);
+  }
+
+  static Map<String, String> decodeQuery(String query) throws UnsupportedEncodingException {
+    Map<String, String> result = new HashMap<>();
+    if (query == null || query.isEmpty()) {
+      return result;
+    }
+    for (String pair : query.split("&")) {
+      if (pair.isEmpty()) {
+        continue;
+      }
+      int separator = pair.indexOf('=');
+      if (separator < 0) {
+        result.putIfAbsent(URLDecoder.decode(pair, "UTF-8"), "");
+      } else {
+        result.putIfAbsent(URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+            URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.ChannelMember;
+import net.bis5.mattermost.model.ChannelType;
+import net.bis5.mattermost.model.FileInfo;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.Reaction;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.TeamMember;
+import net.bis5.mattermost.model.TeamType;
+import net.bis5.mattermost.model.User;
+
+/**
+ * In-memory data of {@link FakeMattermostServer}.
+ *
+ * <p>
+ * Seed the users, teams and channels the scenario needs before running the client. The entities
+ * are replaced, not modified, on update, so the returned entities are snapshots. All methods are
+ * thread safe.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class FakeStore {
+
+  private static final char[] ID_ALPHABET = "ybndrfg8ejkmcpqxot1uwisza345h769".toCharArray();
+
+  /**
+   * Receives the changes to broadcast as WebSocket events.
+   */
+  interface EventListener {
+
+    void onEvent(String event, Map<String, Object> data, String teamId, String channelId,
+        String userId);
+  }
+
+  private final ObjectMapper mapper;
+  private final AtomicLong clock = new AtomicLong();
+  private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+
+  private final Map<String, User> users = new ConcurrentHashMap<>();
+  private final Map<String, String> userIdsByUsername = new ConcurrentHashMap<>();
+  private final Map<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+  private final Map<String, String> passwords = new ConcurrentHashMap<>();
+  private final Map<String, String> sessions = new ConcurrentHashMap<>();
+
+  private final Map<String, Team> teams = new ConcurrentHashMap<>();
+  private final Map<String, String> teamIdsByName = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, TeamMember>> teamMembers = new ConcurrentHashMap<>();
+
+  private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+  private final Map<String, String> channelIdsByName = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, ChannelMember>> channelMembers =
+      new ConcurrentHashMap<>();
+
+  private final Map<String, Post> posts = new ConcurrentHashMap<>();
+  /** Post ids of each channel, in creation order. */
+  private final Map<String, List<String>> channelPosts = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, Reaction>> reactions = new ConcurrentHashMap<>();
+
+  private final Map<String, FileInfo> files = new ConcurrentHashMap<>();
+  private final Map<String, byte[]> fileContents = new ConcurrentHashMap<>();
+
+  FakeStore(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  void addListener(EventListener listener) {
+    listeners.add(listener);
+  }
+
+  private void publish(String event, Map<String, Object> data, String teamId, String channelId,
+      String userId) {
+    for (EventListener listener : listeners) {
+      listener.onEvent(event, data, teamId, channelId, userId);
+    }
+  }
+
+  private static Map<String, Object> data(Object... keyValues) {
+    Map<String, Object> data = new LinkedHashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      data.put((String) keyValues[i], keyValues[i + 1]);
+    }
+    return data;
+  }
+
+  /**
+   * Generate the 26 characters id in the Mattermost format.
+   */
+  static String newId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    char[] id = new char[26];
+    for (int i = 0; i < id.length; i++) {
+      id[i] = ID_ALPHABET[random.nextInt(ID_ALPHABET.length)];
+    }
+    return new String(id);
+  }
+
+  /**
+   * The current time in milliseconds, strictly increasing so that the posts keep their order.
+   */
+  long now() {
+    long time = System.currentTimeMillis();
+    return clock.updateAndGet(last -> Math.max(last + 1, time));
+  }
+
+  private <T> T copy(T entity, Class<T> type) {
+    return mapper.convertValue(entity, type);
+  }
+
+  /**
+   * Copy the entity to modify it for an update.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T copyOf(T entity) {
+    return copy(entity, (Class<T>) entity.getClass());
+  }
+
+  // Users
+
+  public User addUser(String username, String password) {
+    User user = new User();
+    user.setUsername(username);
+    user.setEmail(username + "@example.com");
+    return addUser(user, password);
+  }
+
+  /**
+   * Add the user, generating the id.
+   *
+   * @throws IllegalArgumentException if the username or the email is taken
+   */
+  public User addUser(User user, String password) {
+    User created = copy(user, User.class);
+    String id = newId();
+    long now = now();
+    created.setId(id);
+    created.setCreateAt(now);
+    created.setUpdateAt(now);
+    created.setPassword(null);
+    if (created.getRoles() == null) {
+      created.setRoles("system_user");
+    }
+    String username = created.getUsername().toLowerCase(Locale.ROOT);
+    created.setUsername(username);
+    if (userIdsByUsername.putIfAbsent(username, id) != null) {
+      throw new IllegalArgumentException("Username taken: " + username);
+    }
+    if (created.getEmail() != null
+        && userIdsByEmail.putIfAbsent(created.getEmail().toLowerCase(Locale.ROOT), id) != null) {
+      userIdsByUsername.remove(username);
+      throw new IllegalArgumentException("Email taken: " + created.getEmail());
+    }
+    if (password != null) {
+      passwords.put(id, password);
+    }
+    users.put(id, created);
+    publish("new_user", data("user_id", id), null, null, null);
+    return created;
+  }
+
+  public User getUser(String userId) {
+    return users.get(userId);
+  }
+
+  public User getUserByUsername(String username) {
+    String id = userIdsByUsername.get(username.toLowerCase(Locale.ROOT));
+    return id == null ? null : users.get(id);
+  }
+
+  User getUserByEmail(String email) {
+    String id = userIdsByEmail.get(email.toLowerCase(Locale.ROOT));
+    return id == null ? null : users.get(id);
+  }
+
+  /**
+   * All users, ordered by creation time.
+   */
+  List<User> getUsers() {
+    List<User> result = new ArrayList<>(users.values());
+    result.sort((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()));
+    return result;
+  }
+
+  public int getUserCount() {
+    return users.size();
+  }
+
+  User updateUser(User user) {
+    User updated = copy(user, User.class);
+    updated.setPassword(null);
+    updated.setUpdateAt(now());
+    users.put(updated.getId(), updated);
+    publish("user_updated", data("user", updated), null, null, null);
+    return updated;
+  }
+
+  /**
+   * Create a session or a Personal Access Token of the user.
+   *
+   * @return the token to send as {@code Authorization: Bearer <token>}
+   */
+  public String createSession(String userId) {
+    if (!users.containsKey(userId)) {
+      throw new IllegalArgumentException("Unknown user: " + userId);
+    }
+    String token = newId();
+    sessions.put(token, userId);
+    return token;
+  }
+
+  /**
+   * @return the user, or {@code null} if the password does not match
+   */
+  User authenticate(String loginId, String password) {
+    User user = getUserByUsername(loginId);
+    if (user == null) {
+      user = getUserByEmail(loginId);
+    }
+    if (user == null || password == null || !password.equals(passwords.get(user.getId()))) {
+      return null;
+    }
+    return user;
+  }
+
+  String getSessionUserId(String token) {
+    return sessions.get(token);
+  }
+
+  void revokeSession(String token) {
+    sessions.remove(token);
+  }
+
+  // Teams
+
+  public Team addTeam(String name) {
+    Team team = new Team();
+    team.setName(name);
+    team.setDisplayName(name);
+    team.setType(TeamType.OPEN);
+    return addTeam(team);
+  }
+
+  /**
+   * Add the team, generating the id.
+   *
+   * @throws IllegalArgumentException if the name is taken
+   */
+  public Team addTeam(Team team) {
+    Team created = copy(team, Team.class);
+    String id = newId();
+    long now = now();
+    created.setId(id);
+    created.setCreateAt(now);
+    created.setUpdateAt(now);
+    if (teamIdsByName.putIfAbsent(created.getName(), id) != null) {
+      throw new IllegalArgumentException("Team name taken: " + created.getName());
+    }
+    teams.put(id, created);
+    teamMembers.put(id, new ConcurrentHashMap<>());
+    return created;
+  }
+
+  public Team getTeam(String teamId) {
+    return teams.get(teamId);
+  }
+
+  Team getTeamByName(String name) {
+    String id = teamIdsByName.get(name);
+    return id == null ? null : teams.get(id);
+  }
+
+  List<Team> getTeams() {
+    List<Team> result = new ArrayList<>(teams.values());
+    result.sort((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()));
+    return result;
+  }
+
+  public TeamMember addTeamMember(String teamId, String userId) {
+    Map<String, TeamMember> members = teamMembers.get(teamId);
+    if (members == null || !users.containsKey(userId)) {
+      throw new IllegalArgumentException("Unknown team or user: " + teamId + ", " + userId);
+    }
+    TeamMember member = new TeamMember(teamId, userId);
+    member.setRoles("team_user");
+    TeamMember existing = members.putIfAbsent(userId, member);
+    if (existing != null) {
+      return existing;
+    }
+    publish("added_to_team", data("team_id", teamId, "user_id", userId), null, null, userId);
+    return member;
+  }
+
+  TeamMember getTeamMember(String teamId, String userId) {
+    Map<String, TeamMember> members = teamMembers.get(teamId);
+    return members == null ? null : members.get(userId);
+  }
+
+  boolean isTeamMember(String teamId, String userId) {
+    return getTeamMember(teamId, userId) != null;
+  }
+
+  List<Team> getTeamsForUser(String userId) {
+    return getTeams().stream().filter(team -> isTeamMember(team.getId(), userId))
+        .collect(Collectors.toList());
+  }
+
+  // Channels
+
+  public Channel addChannel(String teamId, String name) {
+    Channel channel = new Channel();
+    channel.setTeamId(teamId);
+    channel.setName(name);
+    channel.setDisplayName(name);
+    channel.setType(ChannelType.Open);
+    return addChannel(channel);
+  }
+
+  /**
+   * Add the channel, generating the id.
+   *
+   * @throws IllegalArgumentException if the team is unknown, or the name is taken in the team
+   */
+  public Channel addChannel(Channel channel) {
+    Channel created = copy(channel, Channel.class);
+    String teamId = created.getTeamId() == null ? "" : created.getTeamId();
+    if (!teamId.isEmpty() && !teams.containsKey(teamId)) {
+      throw new IllegalArgumentException("Unknown team: " + teamId);
+    }
+    String id = newId();
+    long now = now();
+    created.setId(id);
+    created.setCreateAt(now);
+    created.setUpdateAt(now);
+    created.setTeamId(teamId);
+    if (created.getType() == null) {
+      created.setType(ChannelType.Open);
+    }
+    if (channelIdsByName.putIfAbsent(teamId + "/" + created.getName(), id) != null) {
+      throw new IllegalArgumentException("Channel name taken: " + created.getName());
+    }
+    channels.put(id, created);
+    channelMembers.put(id, new ConcurrentHashMap<>());
+    channelPosts.put(id, new ArrayList<>());
+    if (created.getCreatorId() != null) {
+      addChannelMember(id, created.getCreatorId());
+    }
+    publish("channel_created", data("channel_id", id, "team_id", teamId), teamId, null, null);
+    return created;
+  }
+
+  /**
+   * Get or create the direct channel of the two users.
+   */
+  Channel getOrAddDirectChannel(String userId1, String userId2) {
+    String name = userId1.compareTo(userId2) < 0 ? userId1 + "__" + userId2
+        : userId2 + "__" + userId1;
+    Channel existing = getChannelByName("", name);
+    if (existing != null) {
+      return existing;
+    }
+    Channel channel = new Channel();
+    channel.setName(name);
+    channel.setDisplayName("");
+    channel.setType(ChannelType.Direct);
+    try {
+      Channel created = addChannel(channel);
+      addChannelMember(created.getId(), userId1);
+      addChannelMember(created.getId(), userId2);
+      return created;
+    } catch (IllegalArgumentException e) {
+      // created by the other user at the same time
+      return getChannelByName("", name);
+    }
+  }
+
+  public Channel getChannel(String channelId) {
+    return channels.get(channelId);
+  }
+
+  Channel getChannelByName(String teamId, String name) {
+    String id = channelIdsByName.get(teamId + "/" + name);
+    return id == null ? null : channels.get(id);
+  }
+
+  List<Channel> getChannelsForTeam(String teamId) {
+    List<Channel> result = channels.values().stream()
+        .filter(channel -> teamId.equals(channel.getTeamId())).collect(Collectors.toList());
+    result.sort((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()));
+    return result;
+  }
+
+  List<Channel> getChannelsForTeamForUser(String teamId, String userId) {
+    return channels.values().stream()
+        .filter(channel -> teamId.equals(channel.getTeamId()) || channel.getTeamId().isEmpty())
+        .filter(channel -> isChannelMember(channel.getId(), userId))
+        .sorted((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()))
+        .collect(Collectors.toList());
+  }
+
+  public ChannelMember addChannelMember(String channelId, String userId) {
+    Map<String, ChannelMember> members = channelMembers.get(channelId);
+    if (members == null || !users.containsKey(userId)) {
+      throw new IllegalArgumentException("Unknown channel or user: " + channelId + ", " + userId);
+    }
+    ChannelMember member = new ChannelMember();
+    member.setChannelId(channelId);
+    member.setUserId(userId);
+    member.setRoles("channel_user");
+    member.setNotifyProps(Collections.emptyMap());
+    member.setLastUpdateAt(now());
+    ChannelMember existing = members.putIfAbsent(userId, member);
+    if (existing != null) {
+      return existing;
+    }
+    Channel channel = channels.get(channelId);
+    publish("user_added", data("user_id", userId, "team_id", channel.getTeamId()), null,
+        channelId, null);
+    return member;
+  }
+
+  ChannelMember getChannelMember(String channelId, String userId) {
+    Map<String, ChannelMember> members = channelMembers.get(channelId);
+    return members == null ? null : members.get(userId);
+  }
+
+  boolean isChannelMember(String channelId, String userId) {
+    return getChannelMember(channelId, userId) != null;
+  }
+
+  Collection<String> getChannelMemberIds(String channelId) {
+    Map<String, ChannelMember> members = channelMembers.get(channelId);
+    return members == null ? Collections.emptyList() : members.keySet();
+  }
+
+  // Posts
+
+  public Post addPost(String channelId, String userId, String message) {
+    Post post = new Post(channelId, message);
+    post.setUserId(userId);
+    return addPost(post);
+  }
+
+  /**
+   * Add the post, generating the id. The files of {@code file_ids} are attached to the post.
+   *
+   * @throws IllegalArgumentException if the channel is unknown
+   */
+  public Post addPost(Post post) {
+    Post created = copy(post, Post.class);
+    List<String> ids = channelPosts.get(created.getChannelId());
+    if (ids == null) {
+      throw new IllegalArgumentException("Unknown channel: " + created.getChannelId());
+    }
+    String id = newId();
+    created.setId(id);
+    if (created.getRootId() == null) {
+      created.setRootId("");
+    }
+    if (created.getFileIds() != null) {
+      for (String fileId : created.getFileIds()) {
+        files.computeIfPresent(fileId, (key, info) -> {
+          FileInfo attached = copy(info, FileInfo.class);
+          attached.setPostId(id);
+          return attached;
+        });
+      }
+    }
+    // the time is taken under the lock to keep the ids ordered by the creation time
+    synchronized (ids) {
+      long now = now();
+      created.setCreateAt(now);
+      created.setUpdateAt(now);
+      posts.put(id, created);
+      ids.add(id);
+    }
+    channels.computeIfPresent(created.getChannelId(), (key, channel) -> {
+      Channel updated = copy(channel, Channel.class);
+      updated.setLastPostat(created.getCreateAt());
+      updated.setTotalMsgCount(channel.getTotalMsgCount() + 1);
+      return updated;
+    });
+    Channel channel = channels.get(created.getChannelId());
+    User sender = users.get(created.getUserId());
+    publish("posted", data("channel_display_name", channel.getDisplayName(),
+        "channel_name", channel.getName(), "channel_type", channel.getType().getCode(),
+        "post", created, "sender_name", sender == null ? "" : sender.getUsername(),
+        "team_id", channel.getTeamId()), null, created.getChannelId(), null);
+    return created;
+  }
+
+  public Post getPost(String postId) {
+    return posts.get(postId);
+  }
+
+  public int getPostCount() {
+    return posts.size();
+  }
+
+  Post updatePost(Post post) {
+    Post updated = copy(post, Post.class);
+    long now = now();
+    updated.setUpdateAt(now);
+    updated.setEditAt(now);
+    posts.put(updated.getId(), updated);
+    publish("post_edited", data("post", updated), null, updated.getChannelId(), null);
+    return updated;
+  }
+
+  Post deletePost(String postId) {
+    Post deleted = copy(posts.get(postId), Post.class);
+    long now = now();
+    deleted.setUpdateAt(now);
+    deleted.setDeleteAt(now);
+    posts.put(postId, deleted);
+    publish("post_deleted", data("post", deleted), null, deleted.getChannelId(), null);
+    return deleted;
+  }
+
+  /**
+   * Posts of the channel, oldest first, including the deleted posts.
+   */
+  List<Post> getPostsForChannel(String channelId) {
+    List<String> ids = channelPosts.get(channelId);
+    if (ids == null) {
+      return Collections.emptyList();
+    }
+    List<String> snapshot;
+    synchronized (ids) {
+      snapshot = new ArrayList<>(ids);
+    }
+    List<Post> result = new ArrayList<>(snapshot.size());
+    for (String id : snapshot) {
+      result.add(posts.get(id));
+    }
+    return result;
+  }
+
+  // Reactions
+
+  Reaction addReaction(Reaction reaction) {
+    Reaction created = copy(reaction, Reaction.class);
+    created.setCreateAt(now());
+    reactions.computeIfAbsent(created.getPostId(), key -> new ConcurrentHashMap<>())
+        .put(created.getUserId() + "/" + created.getEmojiName(), created);
+    posts.computeIfPresent(created.getPostId(), (key, post) -> {
+      Post updated = copy(post, Post.class);
+      updated.setHasReactions(true);
+      return updated;
+    });
+    Post post = posts.get(created.getPostId());
+    publish("reaction_added", data("reaction", created), null, post.getChannelId(), null);
+    return created;
+  }
+
+  boolean removeReaction(String userId, String postId, String emojiName) {
+    Map<String, Reaction> postReactions = reactions.get(postId);
+    Reaction removed = postReactions == null ? null
+        : postReactions.remove(userId + "/" + emojiName);
+    if (removed == null) {
+      return false;
+    }
+    publish("reaction_removed", data("reaction", removed), null,
+        posts.get(postId).getChannelId(), null);
+    return true;
+  }
+
+  List<Reaction> getReactions(String postId) {
+    Map<String, Reaction> postReactions = reactions.get(postId);
+    if (postReactions == null) {
+      return Collections.emptyList();
+    }
+    List<Reaction> result = new ArrayList<>(postReactions.values());
+    result.sort((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()));
+    return result;
+  }
+
+  // Files
+
+  FileInfo addFile(String userId, String name, String mimeType, byte[] content) {
+    FileInfo info = new FileInfo();
+    String id = newId();
+    long now = now();
+    info.setId(id);
+    info.setCreatorId(userId);
+    info.setCreateAt(now);
+    info.setUpdateAt(now);
+    info.setName(name);
+    int dot = name.lastIndexOf('.');
+    info.setExtension(dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    info.setMimeType(mimeType);
+    info.setSize(content.length);
+    fileContents.put(id, content);
+    files.put(id, info);
+    return info;
+  }
+
+  FileInfo getFileInfo(String fileId) {
+    return files.get(fileId);
+  }
+
+  byte[] getFileContent(String fileId) {
+    return fileContents.get(fileId);
+  }
+
+  List<FileInfo> getFileInfosForPost(String postId) {
+    return files.values().stream().filter(info -> postId.equals(info.getPostId()))
+        .sorted((a, b) -> Long.compare(a.getCreateAt(), b.getCreateAt()))
+        .collect(Collectors.toList());
+  }
+}
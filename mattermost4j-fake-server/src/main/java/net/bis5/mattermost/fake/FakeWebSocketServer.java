@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.Reaction;
+
+/**
+ * The {@code /api/v4/websocket} endpoint of {@link FakeMattermostServer}.
+ *
+ * <p>
+ * The JDK {@code HttpServer} cannot upgrade a connection, so the endpoint listens on its own port
+ * with a minimal RFC 6455 server: text frames, fragmentation, ping and close, without extensions.
+ * The connection is authenticated by the {@code Authorization} header of the handshake or by the
+ * {@code authentication_challenge} action, then receives the {@code hello} event and the events
+ * of the channels and teams the user is a member of. Each connection has a reader thread, and the
+ * events are written by the thread that changed the data.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+final class FakeWebSocketServer implements Closeable, FakeStore.EventListener {
+
+  private static final Logger LOGGER = Logger.getLogger(FakeWebSocketServer.class.getName());
+  static final String PATH = "/api/v4/websocket";
+  private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+  private static final int MAX_HEADER_BYTES = 8192;
+  private static final int MAX_MESSAGE_BYTES = 1024 * 1024;
+
+  private final FakeStore store;
+  private final ObjectMapper mapper;
+  private final ServerSocket serverSocket;
+  private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger threadSequence = new AtomicInteger();
+  private final AtomicLong sentEventCount = new AtomicLong();
+  private volatile boolean closed;
+
+  FakeWebSocketServer(InetSocketAddress address, FakeStore store, ObjectMapper mapper)
+      throws IOException {
+    this.store = store;
+    this.mapper = mapper;
+    this.serverSocket = new ServerSocket();
+    serverSocket.bind(address);
+  }
+
+  void start() {
+    Thread acceptor = new Thread(this::accept, "fake-mattermost-websocket-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  int getConnectionCount() {
+    return connections.size();
+  }
+
+  long getSentEventCount() {
+    return sentEventCount.get();
+  }
+
+  private void accept() {
+    while (!closed) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (IOException e) {
+        if (!closed) {
+          LOGGER.log(Level.WARNING, "Failed to accept a WebSocket connection", e);
+        }
+        return;
+      }
+      Connection connection = new Connection(socket);
+      Thread reader = new Thread(connection::run,
+          "fake-mattermost-websocket-" + threadSequence.incrementAndGet());
+      reader.setDaemon(true);
+      reader.start();
+    }
+  }
+
+  @Override
+  public void onEvent(String event, Map<String, Object> data, String teamId, String channelId,
+      String userId) {
+    for (Connection connection : connections) {
+      String connectionUserId = connection.userId;
+      if (connectionUserId == null) {
+        continue;
+      }
+      if (userId != null && !userId.equals(connectionUserId)
+          || channelId != null && !store.isChannelMember(channelId, connectionUserId)
+          || teamId != null && !teamId.isEmpty()
+              && !store.isTeamMember(teamId, connectionUserId)) {
+        continue;
+      }
+      connection.sendEvent(event, data, teamId, channelId, userId);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      LOGGER.log(Level.FINE, "Failed to close the server socket", e);
+    }
+    for (Connection connection : connections) {
+      connection.close();
+    }
+  }
+
+  static String acceptKey(String key) {
+    try {
+      MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+      byte[] digest = sha1.digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private final class Connection {
+
+    private final Socket socket;
+    private final String connectionId = FakeStore.newId();
+    private final AtomicLong sequence = new AtomicLong();
+    private OutputStream out;
+    private volatile String userId;
+
+    Connection(Socket socket) {
+      this.socket = socket;
+    }
+
+    void run() {
+      try {
+        InputStream in = socket.getInputStream();
+        out = socket.getOutputStream();
+        Map<String, String> headers = new HashMap<>();
+        String requestLine = readHeaders(in, headers);
+        if (!handshake(requestLine, headers)) {
+          return;
+        }
+        connections.add(this);
+        String authorization = headers.get("authorization");
+        if (authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+          authenticate(authorization.substring(7).trim());
+        }
+        readMessages(new DataInputStream(in));
+      } catch (EOFException | SocketException e) {
+        // disconnected
+      } catch (IOException e) {
+        LOGGER.log(Level.FINE, "WebSocket connection failed", e);
+      } finally {
+        close();
+      }
+    }
+
+    private String readHeaders(InputStream in, Map<String, String> headers) throws IOException {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      int matched = 0;
+      while (matched < 4) {
+        int b = in.read();
+        if (b < 0) {
+          throw new EOFException();
+        }
+        buffer.write(b);
+        if (buffer.size() > MAX_HEADER_BYTES) {
+          throw new IOException("Handshake too large");
+        }
+        matched = b == (matched % 2 == 0 ? '\r' : '\n') ? matched + 1 : (b == '\r' ? 1 : 0);
+      }
+      String[] lines = new String(buffer.toByteArray(), StandardCharsets.ISO_8859_1)
+          .split("\r\n");
+      for (int i = 1; i < lines.length; i++) {
+        int separator = lines[i].indexOf(':');
+        if (separator > 0) {
+          headers.put(lines[i].substring(0, separator).trim().toLowerCase(Locale.ROOT),
+              lines[i].substring(separator + 1).trim());
+        }
+      }
+      return lines[0];
+    }
+
+    private boolean handshake(String requestLine, Map<String, String> headers)
+        throws IOException {
+      String[] request = requestLine.split(" ");
+      String path = request.length > 1 ? request[1] : "";
+      int query = path.indexOf('?');
+      if (query >= 0) {
+        path = path.substring(0, query);
+      }
+      String key = headers.get("sec-websocket-key");
+      String upgrade = headers.get("upgrade");
+      if (!"GET".equals(request[0]) || !PATH.equals(path)) {
+        writeRaw("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+        return false;
+      }
+      if (key == null || upgrade == null || !"websocket".equalsIgnoreCase(upgrade)) {
+        writeRaw("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+        return false;
+      }
+      writeRaw("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\n"
+          + "Connection: Upgrade\r\nSec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n");
+      return true;
+    }
+
+    private boolean authenticate(String token) {
+      String sessionUserId = token == null ? null : store.getSessionUserId(token);
+      if (sessionUserId == null) {
+        return false;
+      }
+      boolean first = userId == null;
+      userId = sessionUserId;
+      if (first) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("connection_id", connectionId);
+        data.put("server_version", FakeMattermostServer.SERVER_VERSION);
+        sendEvent("hello", data, null, null, sessionUserId);
+      }
+      return true;
+    }
+
+    private void readMessages(DataInputStream in) throws IOException {
+      ByteArrayOutputStream message = new ByteArrayOutputStream();
+      while (true) {
+        int first = in.readUnsignedByte();
+        int second = in.readUnsignedByte();
+        boolean fin = (first & 0x80) != 0;
+        int opcode = first & 0x0f;
+        long length = second & 0x7f;
+        if (length == 126) {
+          length = in.readUnsignedShort();
+        } else if (length == 127) {
+          length = in.readLong();
+        }
+        if (length > MAX_MESSAGE_BYTES || message.size() + length > MAX_MESSAGE_BYTES) {
+          sendFrame(0x8, new byte[] {0x03, (byte) 0xf1}); // 1009 message too big
+          return;
+        }
+        byte[] mask = new byte[4];
+        if ((second & 0x80) != 0) {
+          in.readFully(mask);
+        }
+        byte[] payload = new byte[(int) length];
+        in.readFully(payload);
+        for (int i = 0; i < payload.length; i++) {
+          payload[i] ^= mask[i % 4];
+        }
+        switch (opcode) {
+          case 0x0: // continuation
+          case 0x1: // text
+          case 0x2: // binary
+            message.write(payload);
+            if (fin) {
+              onMessage(message.toByteArray());
+              message.reset();
+            }
+            break;
+          case 0x8: // close
+            sendFrame(0x8, payload.length >= 2 ? new byte[] {payload[0], payload[1]}
+                : new byte[0]);
+            return;
+          case 0x9: // ping
+            sendFrame(0xA, payload);
+            break;
+          default:
+            // pong and reserved opcodes
+            break;
+        }
+      }
+    }
+
+    private void onMessage(byte[] message) throws IOException {
+      JsonNode request;
+      try {
+        request = mapper.readTree(message);
+      } catch (JsonProcessingException e) {
+        return;
+      }
+      long seq = request.path("seq").asLong();
+      String action = request.path("action").asText();
+      Map<String, Object> reply = new LinkedHashMap<>();
+      reply.put("status", "OK");
+      reply.put("seq_reply", seq);
+      if ("authentication_challenge".equals(action)
+          && !authenticate(request.path("data").path("token").asText(null))) {
+        reply.put("status", "FAIL");
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("id", "api.web_socket_router.not_authenticated.app_error");
+        error.put("message", "Invalid or expired session");
+        reply.put("error", error);
+      }
+      sendFrame(0x1, mapper.writeValueAsBytes(reply));
+    }
+
+    void sendEvent(String event, Map<String, Object> data, String teamId, String channelId,
+        String broadcastUserId) {
+      Map<String, Object> encodedData = new LinkedHashMap<>();
+      Map<String, Object> broadcast = new LinkedHashMap<>();
+      Map<String, Object> message = new LinkedHashMap<>();
+      try {
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+          Object value = entry.getValue();
+          // the server sends these entities as JSON text in a string
+          if (value instanceof Post || value instanceof Reaction) {
+            value = mapper.writeValueAsString(value);
+          }
+          encodedData.put(entry.getKey(), value);
+        }
+        broadcast.put("omit_users", null);
+        broadcast.put("user_id", broadcastUserId == null ? "" : broadcastUserId);
+        broadcast.put("channel_id", channelId == null ? "" : channelId);
+        broadcast.put("team_id", teamId == null ? "" : teamId);
+        message.put("event", event);
+        message.put("data", encodedData);
+        message.put("broadcast", broadcast);
+        message.put("seq", sequence.getAndIncrement());
+        sendFrame(0x1, mapper.writeValueAsBytes(message));
+        sentEventCount.incrementAndGet();
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    private void writeRaw(String response) throws IOException {
+      synchronized (this) {
+        out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+      }
+    }
+
+    private void sendFrame(int opcode, byte[] payload) throws IOException {
+      byte[] header;
+      if (payload.length < 126) {
+        header = new byte[] {(byte) (0x80 | opcode), (byte) payload.length};
+      } else if (payload.length <= 0xffff) {
+        header = new byte[] {(byte) (0x80 | opcode), 126, (byte) (payload.length >>> 8),
+            (byte) payload.length};
+      } else {
+        header = new byte[10];
+        header[0] = (byte) (0x80 | opcode);
+        header[1] = 127;
+        for (int i = 0; i < 8; i++) {
+          header[9 - i] = (byte) ((long) payload.length >>> (8 * i));
+        }
+      }
+      synchronized (this) {
+        out.write(header);
+        out.write(payload);
+        out.flush();
+      }
+    }
+
+    void close() {
+      connections.remove(this);
+      try {
+        socket.close();
+      } catch (IOException e) {
+        LOGGER.log(Level.FINE, "Failed to close the WebSocket connection", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parser of a {@code multipart/form-data} body held in memory.
+ *
+ * @author Takayuki Maruyama
+ */
+final class MultipartForm {
+
+  /**
+   * A field or a file of the form.
+   */
+  static final class Part {
+
+    final String name;
+    final String filename;
+    final String contentType;
+    final byte[] content;
+
+    Part(String name, String filename, String contentType, byte[] content) {
+      this.name = name;
+      this.filename = filename;
+      this.contentType = contentType;
+      this.content = content;
+    }
+
+    String text() {
+      return new String(content, StandardCharsets.UTF_8);
+    }
+  }
+
+  private MultipartForm() {
+  }
+
+  static List<Part> parse(String contentType, byte[] body) {
+    String boundary = boundary(contentType);
+    byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+    List<Part> parts = new ArrayList<>();
+    int position = indexOf(body, delimiter, 0);
+    while (position >= 0) {
+      int start = position + delimiter.length;
+      if (start + 1 < body.length && body[start] == '-' && body[start + 1] == '-') {
+        // closing delimiter
+        break;
+      }
+      start = skipLineBreak(body, start);
+      int next = indexOf(body, delimiter, start);
+      if (next < 0) {
+        throw FakeApiException.badRequest("Unterminated multipart body");
+      }
+      // the line break before the delimiter belongs to the delimiter
+      int end = next >= 2 && body[next - 2] == '\r' && body[next - 1] == '\n' ? next - 2 : next;
+      parts.add(parsePart(Arrays.copyOfRange(body, start, end)));
+      position = next;
+    }
+    return parts;
+  }
+
+  private static Part parsePart(byte[] part) {
+    byte[] separator = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    int headersEnd = indexOf(part, separator, 0);
+    if (headersEnd < 0) {
+      throw FakeApiException.badRequest("Malformed multipart headers");
+    }
+    String headers = new String(part, 0, headersEnd, StandardCharsets.UTF_8);
+    String name = null;
+    String filename = null;
+    String contentType = "application/octet-stream";
+    for (String header : headers.split("\r\n")) {
+      String lower = header.toLowerCase(Locale.ROOT);
+      if (lower.startsWith("content-disposition:")) {
+        name = dispositionParameter(header, "name");
+        filename = dispositionParameter(header, "filename");
+      } else if (lower.startsWith("content-type:")) {
+        contentType = header.substring("content-type:".length()).trim();
+      }
+    }
+    return new Part(name, filename, contentType,
+        Arrays.copyOfRange(part, headersEnd + separator.length, part.length));
+  }
+
+  private static String dispositionParameter(String header, String parameter) {
+    String lower = header.toLowerCase(Locale.ROOT);
+    int index = 0;
+    while ((index = lower.indexOf(parameter + "=", index)) >= 0) {
+      char before = index == 0 ? ';' : lower.charAt(index - 1);
+      int start = index + parameter.length() + 1;
+      index = start;
+      if (before != ';' && before != ' ') {
+        // e.g. "name=" in "filename="
+        continue;
+      }
+      if (start < header.length() && header.charAt(start) == '"') {
+        int end = header.indexOf('"', start + 1);
+        return header.substring(start + 1, end < 0 ? header.length() : end);
+      }
+      int end = header.indexOf(';', start);
+      return header.substring(start, end < 0 ? header.length() : end).trim();
+    }
+    return null;
+  }
+
+  private static String boundary(String contentType) {
+    if (contentType == null
+        || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+      throw FakeApiException.badRequest("multipart/form-data expected");
+    }
+    for (String parameter : contentType.split(";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+        String boundary = trimmed.substring("boundary=".length());
+        return boundary.startsWith("\"") ? boundary.substring(1, boundary.length() - 1)
+            : boundary;
+      }
+    }
+    throw FakeApiException.badRequest("Multipart boundary missing");
+  }
+
+  private static int skipLineBreak(byte[] body, int position) {
+    if (position + 1 < body.length && body[position] == '\r' && body[position + 1] == '\n') {
+      return position + 2;
+    }
+    return position;
+  }
+
+  static int indexOf(byte[] data, byte[] pattern, int from) {
+    outer: for (int i = from; i <= data.length - pattern.length; i++) {
+      for (int j = 0; j < pattern.length; j++) {
+        if (data[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
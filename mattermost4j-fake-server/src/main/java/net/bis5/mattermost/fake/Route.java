@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A route of the fake API, matching the method and the path template such as
+ * {@code /users/{user_id}/teams}.
+ *
+ * @author Takayuki Maruyama
+ */
+final class Route {
+
+  /**
+   * Handles the requests of a route.
+   */
+  interface Handler {
+
+    /**
+     * @return the response entity serialized as JSON, a {@link Blob} to respond as is, or
+     *     {@code null} for the {@code {"status":"OK"}} response
+     * @throws FakeApiException to respond with the Mattermost error
+     */
+    Object handle(FakeRequest request) throws Exception;
+  }
+
+  /**
+   * A response body that is not JSON, e.g. the content of a file.
+   */
+  static final class Blob {
+
+    final String contentType;
+    final byte[] content;
+
+    Blob(String contentType, byte[] content) {
+      this.contentType = contentType;
+      this.content = content;
+    }
+  }
+
+  private final String method;
+  private final String template;
+  private final String[] segments;
+  private final boolean anonymous;
+  private final Handler handler;
+
+  Route(String method, String template, boolean anonymous, Handler handler) {
+    this.method = method;
+    this.template = template;
+    this.segments = split(template);
+    this.anonymous = anonymous;
+    this.handler = handler;
+  }
+
+  static String[] split(String path) {
+    String trimmed = path.startsWith("/") ? path.substring(1) : path;
+    return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+  }
+
+  String getMethod() {
+    return method;
+  }
+
+  /**
+   * The template, used as the low cardinality name of the route.
+   */
+  String getTemplate() {
+    return template;
+  }
+
+  /**
+   * {@code true} if the route can be called without a session.
+   */
+  boolean isAnonymous() {
+    return anonymous;
+  }
+
+  Handler getHandler() {
+    return handler;
+  }
+
+  /**
+   * @return the path variables, or {@code null} if the path does not match
+   */
+  Map<String, String> match(String[] path) {
+    if (path.length != segments.length) {
+      return null;
+    }
+    Map<String, String> variables = null;
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      if (segment.startsWith("{")) {
+        if (path[i].isEmpty()) {
+          return null;
+        }
+        if (variables == null) {
+          variables = new HashMap<>();
+        }
+        variables.put(segment.substring(1, segment.length() - 1), path[i]);
+      } else if (!segment.equals(path[i])) {
+        return null;
+      }
+    }
+    return variables == null ? new HashMap<>() : variables;
+  }
+}
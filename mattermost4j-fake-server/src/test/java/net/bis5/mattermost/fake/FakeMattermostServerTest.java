@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.model.FileUploadResult;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+import net.bis5.mattermost.model.PostSearchResults;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link FakeMattermostServer}, driven by {@link MattermostClient}.
+ */
+class FakeMattermostServerTest {
+
+  private FakeMattermostServer server;
+  private MattermostClient client;
+  private User user;
+  private Team team;
+  private Channel channel;
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setup() throws IOException {
+    start(FakeMattermostServer.builder());
+  }
+
+  private void start(FakeMattermostServer.FakeMattermostServerBuilder builder)
+      throws IOException {
+    tearDown();
+    server = builder.build();
+    server.start();
+    FakeStore store = server.getStore();
+    user = store.addUser("alice", "password");
+    team = store.addTeam("team");
+    channel = store.addChannel(team.getId(), "town-square");
+    store.addTeamMember(team.getId(), user.getId());
+    store.addChannelMember(channel.getId(), user.getId());
+    client = MattermostClient.builder().url(server.getUrl()).ignoreUnknownProperties().build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (client != null) {
+      client.close();
+    }
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  void loginPostAndRead() {
+    User me = client.login("alice", "password").readEntity();
+    assertThat(me.getId()).isEqualTo(user.getId());
+
+    for (int i = 0; i < 5; i++) {
+      Post post = client.createPost(new Post(channel.getId(), "hello " + i)).readEntity();
+      assertThat(post.getUserId()).isEqualTo(user.getId());
+    }
+
+    PostList newest = client.getPostsForChannel(channel.getId(), Pager.of(0, 2), null)
+        .readEntity();
+    assertThat(newest.getOrder()).hasSize(2);
+    assertThat(newest.getPosts().get(newest.getOrder().get(0)).getMessage())
+        .isEqualTo("hello 4");
+    PostList after = client.getPostsAfter(channel.getId(), newest.getOrder().get(1),
+        Pager.of(0, 10), null).readEntity();
+    assertThat(after.getOrder()).hasSize(1).containsExactly(newest.getOrder().get(0));
+
+    PostSearchResults found = client.searchPosts(team.getId(), "hello 3", false).readEntity();
+    assertThat(found.getOrder()).hasSize(1);
+    assertThat(server.getStore().getPostCount()).isEqualTo(5);
+    assertThat(server.getRequestCount("POST", "/posts")).isEqualTo(5);
+  }
+
+  @Test
+  void requireSession() {
+    ApiResponse<User> response = client.getMe();
+
+    assertThat(response.getRawResponse().getStatus()).isEqualTo(401);
+    assertThat(response.readError().getStatusCode()).isEqualTo(401);
+  }
+
+  @Test
+  void notModifiedForSameEtag() {
+    client.setAccessToken(server.getStore().createSession(user.getId()));
+    String etag = client.getMe().getEtag();
+
+    assertThat(etag).isNotEmpty();
+    assertThat(client.getMe(etag).getRawResponse().getStatus()).isEqualTo(304);
+    assertThat(server.getNotModifiedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void failNextRequestsOfRoute() {
+    client.setAccessToken(server.getStore().createSession(user.getId()));
+    server.failNext("GET", "/users/{user_id}", 503, 2);
+
+    assertThat(client.getMe().getRawResponse().getStatus()).isEqualTo(503);
+    assertThat(client.getUser(user.getId()).getRawResponse().getStatus()).isEqualTo(503);
+    assertThat(client.getMe().readEntity().getUsername()).isEqualTo("alice");
+    assertThat(server.getInjectedErrorCount()).isEqualTo(2);
+  }
+
+  @Test
+  void limitRate() throws IOException {
+    start(FakeMattermostServer.builder().rateLimit(1, 2));
+
+    assertThat(client.getPing().readEntity()).isTrue();
+    assertThat(client.getPing().getRawResponse().getHeaderString("X-Ratelimit-Remaining"))
+        .isEqualTo("0");
+    assertThat(client.getPing().getRawResponse().getStatus()).isEqualTo(429);
+    assertThat(server.getRateLimitedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void addLatency() throws IOException {
+    start(FakeMattermostServer.builder().latency(Duration.ofMillis(100)));
+
+    long start = System.nanoTime();
+    client.getPing();
+
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+  }
+
+  @Test
+  void uploadAndDownloadFile() throws IOException {
+    client.setAccessToken(server.getStore().createSession(user.getId()));
+    Path file = tempDir.resolve("report.txt");
+    Files.write(file, "quarterly report".getBytes(StandardCharsets.UTF_8));
+
+    FileUploadResult uploaded = client.uploadFile(channel.getId(), file).readEntity();
+    String fileId = uploaded.getFileInfos()[0].getId();
+    Path downloaded = client.getFile(fileId).readEntity();
+
+    assertThat(uploaded.getFileInfos()[0].getName()).isEqualTo("report.txt");
+    assertThat(downloaded).hasContent("quarterly report");
+  }
+
+  @Test
+  void sendEventsToWebSocket() throws Exception {
+    String token = server.getStore().createSession(user.getId());
+    client.setAccessToken(token);
+    URI uri = URI.create(server.getWebSocketUrl());
+    try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+      OutputStream out = socket.getOutputStream();
+      out.write(("GET " + uri.getPath() + " HTTP/1.1\r\nHost: " + uri.getHost() + "\r\n"
+          + "Upgrade: websocket\r\nConnection: Upgrade\r\n"
+          + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n"
+          + "Authorization: Bearer " + token + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      assertThat(readHandshake(in)).startsWith("HTTP/1.1 101")
+          .contains("Sec-WebSocket-Accept: s3pPLMBiTxaQ9kYGzzhZRbK+xOo=");
+      assertThat(readFrame(in)).contains("\"event\":\"hello\"");
+
+      client.createPost(new Post(channel.getId(), "over the wire"));
+
+      assertThat(readFrame(in)).contains("\"event\":\"posted\"").contains("over the wire");
+      assertThat(server.getWebSocketConnectionCount()).isEqualTo(1);
+    }
+  }
+
+  private static String readHandshake(InputStream in) throws IOException {
+    StringBuilder handshake = new StringBuilder();
+    while (handshake.indexOf("\r\n\r\n") < 0) {
+      handshake.append((char) in.read());
+    }
+    return handshake.toString();
+  }
+
+  private static String readFrame(DataInputStream in) throws IOException {
+    in.readUnsignedByte();
+    int length = in.readUnsignedByte() & 0x7f;
+    if (length == 126) {
+      length = in.readUnsignedShort();
+    }
+    byte[] payload = new byte[length];
+    in.readFully(payload);
+    return new String(payload, StandardCharsets.UTF_8);
+  }
+}
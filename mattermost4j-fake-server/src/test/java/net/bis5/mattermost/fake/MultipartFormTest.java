@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.fake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link MultipartForm}.
+ */
+class MultipartFormTest {
+
+  @Test
+  void parseFieldsAndFiles() {
+    String body = "--Boundary_1\r\n"
+        + "Content-Type: text/plain\r\n"
+        + "Content-Disposition: form-data; filename=\"a.txt\"; size=5; name=\"files\"\r\n"
+        + "\r\n"
+        + "hello\r\n"
+        + "--Boundary_1\r\n"
+        + "Content-Disposition: form-data; name=\"channel_id\"\r\n"
+        + "\r\n"
+        + "channel\r\n"
+        + "--Boundary_1--\r\n";
+
+    List<MultipartForm.Part> parts = MultipartForm.parse(
+        "multipart/form-data; boundary=Boundary_1", body.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(parts).hasSize(2);
+    assertThat(parts.get(0).name).isEqualTo("files");
+    assertThat(parts.get(0).filename).isEqualTo("a.txt");
+    assertThat(parts.get(0).contentType).isEqualTo("text/plain");
+    assertThat(parts.get(0).text()).isEqualTo("hello");
+    assertThat(parts.get(1).name).isEqualTo("channel_id");
+    assertThat(parts.get(1).filename).isNull();
+    assertThat(parts.get(1).text()).isEqualTo("channel");
+  }
+
+  @Test
+  void rejectOtherContentType() {
+    assertThatThrownBy(() -> MultipartForm.parse("application/json", new byte[0]))
+        .isInstanceOf(FakeApiException.class);
+  }
+}
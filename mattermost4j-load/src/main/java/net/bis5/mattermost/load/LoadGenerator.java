@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.MattermostClient;
+import net.bis5.mattermost.load.Scenario.Action;
+import net.bis5.mattermost.load.VirtualUser.Credentials;
+
+/**
+ * Load generator driving {@link MattermostClient} with the virtual users of a {@link Scenario}.
+ *
+ * <p>
+ * The virtual users arrive at the rate of the {@link LoadProfile}, independent of the response
+ * times (the open model), and each runs the scenario once. The steps run on a pool of threads,
+ * the think times wait on a timer without a thread, so thousands of users can be active with a
+ * few hundred threads. The arrivals beyond {@link LoadGeneratorBuilder#maxActiveUsers(int)} are
+ * dropped and counted, instead of slowing down the arrivals.
+ * </p>
+ *
+ * <pre>
+ * LoadReport report = LoadGenerator.builder().url("http://localhost:8065")
+ *     .scenario(Scenarios.chat())
+ *     .profile(LoadProfile.builder().ramp(0, 100, Duration.ofMinutes(1))
+ *         .constant(100, Duration.ofMinutes(5)).build())
+ *     .credentials(id -&gt; new Credentials("user" + (id % 10000), "password"))
+ *     .build().run();
+ * System.out.println(report);
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class LoadGenerator {
+
+  private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+
+  private final MattermostClient client;
+  private final boolean ownClient;
+  private final Scenario scenario;
+  private final LoadProfile profile;
+  private final LongFunction<Credentials> credentials;
+  private final int threads;
+  private final int maxActiveUsers;
+  private final Duration gracefulStop;
+  private final Duration progressInterval;
+  private final Consumer<LoadReport> progressListener;
+  private final long seed;
+
+  private final Map<String, OperationStatistics> operations = new ConcurrentHashMap<>();
+  private final List<OperationStatistics> operationOrder = new CopyOnWriteArrayList<>();
+  private final AtomicInteger activeUsers = new AtomicInteger();
+  private final LongAccumulator peakActiveUsers = new LongAccumulator(Math::max, 0);
+  private final LongAccumulator maxQueueDelayNanos = new LongAccumulator(Math::max, 0);
+  private final AtomicLong startedSessions = new AtomicLong();
+  private final AtomicLong completedSessions = new AtomicLong();
+  private final AtomicLong failedSessions = new AtomicLong();
+  private final AtomicLong droppedSessions = new AtomicLong();
+  private final CountDownLatch stopLatch = new CountDownLatch(1);
+  private final Object idle = new Object();
+  private volatile boolean stopping;
+  private volatile long startNanos;
+  private ThreadPoolExecutor workers;
+  private ScheduledThreadPoolExecutor timer;
+
+  private LoadGenerator(LoadGeneratorBuilder builder) {
+    this.ownClient = builder.client == null;
+    this.client = ownClient
+        ? MattermostClient.builder().url(builder.url).ignoreUnknownProperties().build()
+        : builder.client;
+    this.scenario = builder.scenario;
+    this.profile = builder.profile;
+    this.credentials = builder.credentials;
+    this.threads = builder.threads;
+    this.maxActiveUsers = builder.maxActiveUsers;
+    this.gracefulStop = builder.gracefulStop;
+    this.progressInterval = builder.progressInterval;
+    this.progressListener = builder.progressListener;
+    this.seed = builder.seed;
+  }
+
+  public static LoadGeneratorBuilder builder() {
+    return new LoadGeneratorBuilder();
+  }
+
+  /**
+   * Run the load test to the end of the profile, wait for the active users up to the graceful
+   * stop and cut off the rest. A generator runs only once.
+   *
+   * @return the final report
+   * @throws InterruptedException if interrupted, the test is stopped
+   */
+  public LoadReport run() throws InterruptedException {
+    synchronized (this) {
+      if (workers != null) {
+        throw new IllegalStateException("already run");
+      }
+      workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(), threadFactory("mattermost4j-load-worker-"));
+      timer = new ScheduledThreadPoolExecutor(1, threadFactory("mattermost4j-load-timer-"));
+      timer.setRemoveOnCancelPolicy(true);
+    }
+    startNanos = System.nanoTime();
+    ScheduledFuture<?> progress = null;
+    if (progressListener != null) {
+      long interval = progressInterval.toNanos();
+      progress = timer.scheduleAtFixedRate(() -> progressListener.accept(report()), interval,
+          interval, TimeUnit.NANOSECONDS);
+    }
+    try {
+      arrive();
+      awaitIdle(System.nanoTime() + gracefulStop.toNanos());
+    } finally {
+      stop();
+      // the users waiting for a worker or in a think time are cut off, the running users end
+      // themselves on the stop
+      int cutOff = workers.shutdownNow().size();
+      for (Runnable task : timer.shutdownNow()) {
+        if (task != progress) {
+          cutOff++;
+        }
+      }
+      for (int i = 0; i < cutOff; i++) {
+        end(false);
+      }
+      workers.awaitTermination(gracefulStop.toMillis() + 1000, TimeUnit.MILLISECONDS);
+      if (ownClient) {
+        client.close();
+      }
+    }
+    return report();
+  }
+
+  /**
+   * Stop the arrivals and the sessions, e.g. from the progress listener when the error rate is
+   * too high. {@link #run()} returns the report of the stopped test.
+   */
+  public void stop() {
+    stopping = true;
+    stopLatch.countDown();
+    synchronized (idle) {
+      idle.notifyAll();
+    }
+  }
+
+  /**
+   * @return the live snapshot of the statistics, while or after the run
+   */
+  public LoadReport report() {
+    long start = startNanos;
+    Duration elapsed = Duration.ofNanos(start == 0 ? 0 : System.nanoTime() - start);
+    return new LoadReport(elapsed, startedSessions.get(), completedSessions.get(),
+        failedSessions.get(), droppedSessions.get(), activeUsers.get(),
+        (int) peakActiveUsers.get(), Duration.ofNanos(maxQueueDelayNanos.get()),
+        LoadReport.reports(operationOrder, elapsed.toNanos() / 1e9));
+  }
+
+  private void arrive() throws InterruptedException {
+    LoadProfile.Schedule schedule = profile.schedule();
+    long id = 0;
+    for (long at = schedule.next(); at >= 0; at = schedule.next()) {
+      long due = startNanos + at;
+      long wait = due - System.nanoTime();
+      // behind the schedule, the users arrive at once to catch up
+      if (wait > 0 && stopLatch.await(wait, TimeUnit.NANOSECONDS) || stopping) {
+        return;
+      }
+      start(id++, due);
+    }
+  }
+
+  private void start(long id, long due) {
+    if (activeUsers.get() >= maxActiveUsers) {
+      droppedSessions.incrementAndGet();
+      return;
+    }
+    peakActiveUsers.accumulate(activeUsers.incrementAndGet());
+    startedSessions.incrementAndGet();
+    VirtualUser user = new VirtualUser(id, credentials.apply(id), client.as((String) null),
+        new Random(seed ^ id * 0x9E3779B97F4A7C15L));
+    new Session(user).resume(due);
+  }
+
+  private void awaitIdle(long deadline) throws InterruptedException {
+    synchronized (idle) {
+      long remaining;
+      while (activeUsers.get() > 0 && !stopping
+          && (remaining = deadline - System.nanoTime()) > 0) {
+        TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+      }
+    }
+  }
+
+  private void end(boolean completed) {
+    (completed ? completedSessions : failedSessions).incrementAndGet();
+    if (activeUsers.decrementAndGet() == 0) {
+      synchronized (idle) {
+        idle.notifyAll();
+      }
+    }
+  }
+
+  private OperationStatistics operation(String name) {
+    return operations.computeIfAbsent(name, key -> {
+      OperationStatistics statistics = new OperationStatistics(key);
+      operationOrder.add(statistics);
+      return statistics;
+    });
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger number = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * A virtual user running through the actions, on a worker until a think time.
+   */
+  private final class Session implements Runnable {
+
+    private final VirtualUser user;
+    private final List<Action> actions;
+    private int index;
+    private long due;
+
+    Session(VirtualUser user) {
+      this.user = user;
+      this.actions = scenario.getActions();
+    }
+
+    void resume(long due) {
+      this.due = due;
+      try {
+        workers.execute(this);
+      } catch (RuntimeException ex) { // rejected after the stop
+        end(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      maxQueueDelayNanos.accumulate(System.nanoTime() - due);
+      while (index < actions.size()) {
+        if (stopping) {
+          end(false);
+          return;
+        }
+        Action action = actions.get(index++);
+        if (action.isPause()) {
+          pause(action);
+          return;
+        }
+        if (!execute(action)) {
+          end(false);
+          return;
+        }
+      }
+      end(true);
+    }
+
+    private void pause(Action action) {
+      long range = action.maxPauseNanos - action.minPauseNanos;
+      long delay = action.minPauseNanos
+          + (range > 0 ? (long) (user.getRandom().nextDouble() * range) : 0);
+      try {
+        timer.schedule(() -> resume(System.nanoTime()), delay, TimeUnit.NANOSECONDS);
+      } catch (RuntimeException ex) { // rejected after the stop
+        end(false);
+      }
+    }
+
+    /**
+     * @return {@code false} if the step failed
+     */
+    private boolean execute(Action action) {
+      long start = System.nanoTime();
+      Object result;
+      try {
+        result = action.step.execute(user);
+      } catch (Exception ex) {
+        if (!stopping) {
+          operation(action.name).failed(System.nanoTime() - start,
+              ex.getClass().getSimpleName());
+          LOGGER.log(Level.FINE, ex, () -> user + " failed at " + action.name);
+        }
+        return false;
+      }
+      long duration = System.nanoTime() - start;
+      if (result == Step.SKIPPED) {
+        return true;
+      }
+      if (result instanceof ApiResponse) {
+        ApiResponse<?> response = (ApiResponse<?>) result;
+        int status = response.getRawResponse().getStatus();
+        response.getRawResponse().close();
+        if (status >= 400) {
+          operation(action.name).failed(duration, "HTTP " + status);
+          return false;
+        }
+      }
+      operation(action.name).succeeded(duration);
+      return true;
+    }
+  }
+
+  public static class LoadGeneratorBuilder {
+
+    private MattermostClient client;
+    private String url;
+    private Scenario scenario;
+    private LoadProfile profile;
+    private LongFunction<Credentials> credentials;
+    private int threads = 200;
+    private int maxActiveUsers = 10000;
+    private Duration gracefulStop = Duration.ofSeconds(30);
+    private Duration progressInterval;
+    private Consumer<LoadReport> progressListener;
+    private long seed = System.nanoTime();
+
+    /**
+     * The Mattermost server to test, with the client of the default configuration closed at the
+     * end of the run.
+     */
+    public LoadGeneratorBuilder url(String url) {
+      this.url = url;
+      return this;
+    }
+
+    /**
+     * The client shared by the virtual users through {@link MattermostClient#as(String)}, e.g.
+     * with the instrumentation or the HTTP settings. The client is not closed by the generator.
+     */
+    public LoadGeneratorBuilder client(MattermostClient client) {
+      this.client = client;
+      return this;
+    }
+
+    public LoadGeneratorBuilder scenario(Scenario scenario) {
+      this.scenario = scenario;
+      return this;
+    }
+
+    public LoadGeneratorBuilder profile(LoadProfile profile) {
+      this.profile = profile;
+      return this;
+    }
+
+    /**
+     * The login of the virtual user by the sequence number of the arrival.
+     */
+    public LoadGeneratorBuilder credentials(LongFunction<Credentials> credentials) {
+      this.credentials = credentials;
+      return this;
+    }
+
+    /**
+     * The logins used in turn by the arriving virtual users.
+     */
+    public LoadGeneratorBuilder credentials(List<Credentials> credentials) {
+      if (credentials.isEmpty()) {
+        throw new IllegalArgumentException("credentials must not be empty");
+      }
+      return credentials(id -> credentials.get((int) (id % credentials.size())));
+    }
+
+    /**
+     * The number of the threads executing the steps, the limit of the concurrent requests.
+     * Defaults to 200.
+     */
+    public LoadGeneratorBuilder threads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("threads must be positive");
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * The limit of the active virtual users, the arrivals beyond are dropped. Defaults to 10000.
+     */
+    public LoadGeneratorBuilder maxActiveUsers(int maxActiveUsers) {
+      if (maxActiveUsers < 1) {
+        throw new IllegalArgumentException("maxActiveUsers must be positive");
+      }
+      this.maxActiveUsers = maxActiveUsers;
+      return this;
+    }
+
+    /**
+     * How long to wait for the active users at the end of the profile. Defaults to 30 seconds.
+     */
+    public LoadGeneratorBuilder gracefulStop(Duration gracefulStop) {
+      this.gracefulStop = gracefulStop;
+      return this;
+    }
+
+    /**
+     * Receive the live report at the interval, on the timer thread.
+     */
+    public LoadGeneratorBuilder progress(Duration interval, Consumer<LoadReport> listener) {
+      if (interval.isNegative() || interval.isZero()) {
+        throw new IllegalArgumentException("interval must be positive");
+      }
+      this.progressInterval = interval;
+      this.progressListener = listener;
+      return this;
+    }
+
+    /**
+     * The seed of the random think times and choices of the virtual users, to repeat a test.
+     */
+    public LoadGeneratorBuilder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public LoadGenerator build() {
+      if ((client == null) == (url == null)) {
+        throw new IllegalStateException("either url or client is required");
+      }
+      if (scenario == null || profile == null || credentials == null) {
+        throw new IllegalStateException("scenario, profile and credentials are required");
+      }
+      return new LoadGenerator(this);
+    }
+  }
+}
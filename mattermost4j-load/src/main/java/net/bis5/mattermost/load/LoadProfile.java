@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The arrival rate of the virtual users over time, for the open workload model.
+ *
+ * <p>
+ * In the open model the users arrive at the planned rate whether or not the server keeps up,
+ * as the real users do. A closed model of a fixed number of looping users waits for the slow
+ * responses, which lowers the load just when the server struggles and hides the latency. The
+ * profile is a sequence of phases with a constant or linearly ramping rate. The arrivals are
+ * evenly spaced, or random like the real users with {@link LoadProfileBuilder#poisson(long)}.
+ * </p>
+ *
+ * <pre>
+ * LoadProfile profile = LoadProfile.builder().ramp(0, 200, Duration.ofMinutes(1))
+ *     .constant(200, Duration.ofMinutes(10)).poisson(42).build();
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class LoadProfile {
+
+  private final List<Phase> phases;
+  private final Long seed;
+
+  private LoadProfile(LoadProfileBuilder builder) {
+    this.phases = Collections.unmodifiableList(new ArrayList<>(builder.phases));
+    this.seed = builder.seed;
+  }
+
+  public static LoadProfileBuilder builder() {
+    return new LoadProfileBuilder();
+  }
+
+  /**
+   * @return the profile of a constant rate
+   */
+  public static LoadProfile constant(double usersPerSecond, Duration duration) {
+    return builder().constant(usersPerSecond, duration).build();
+  }
+
+  public Duration getDuration() {
+    long nanos = 0;
+    for (Phase phase : phases) {
+      nanos += phase.durationNanos;
+    }
+    return Duration.ofNanos(nanos);
+  }
+
+  /**
+   * @return the expected number of the arrivals in the whole profile
+   */
+  public double getExpectedArrivals() {
+    double arrivals = 0;
+    for (Phase phase : phases) {
+      arrivals += phase.arrivals();
+    }
+    return arrivals;
+  }
+
+  /**
+   * @return the new schedule of the arrival times, starting at {@code 0}
+   */
+  Schedule schedule() {
+    return new Schedule(phases, seed == null ? null : new Random(seed));
+  }
+
+  /**
+   * The phase of the profile, the rate ramps linearly from the start to the end rate.
+   */
+  static final class Phase {
+
+    final double startRate;
+    final double endRate;
+    final long durationNanos;
+
+    Phase(double startRate, double endRate, long durationNanos) {
+      this.startRate = startRate;
+      this.endRate = endRate;
+      this.durationNanos = durationNanos;
+    }
+
+    double seconds() {
+      return durationNanos / 1e9;
+    }
+
+    double arrivals() {
+      return (startRate + endRate) / 2 * seconds();
+    }
+
+    /**
+     * Solve {@code startRate * t + (endRate - startRate) / (2 * duration) * t^2 = arrivals}.
+     *
+     * @return the seconds from the start of the phase until the cumulative arrivals
+     */
+    double secondsUntil(double arrivals) {
+      double slope = (endRate - startRate) / seconds();
+      if (Math.abs(slope) < 1e-12) {
+        return arrivals / startRate;
+      }
+      double discriminant = startRate * startRate + 2 * slope * arrivals;
+      return (Math.sqrt(Math.max(discriminant, 0)) - startRate) / slope;
+    }
+  }
+
+  /**
+   * The arrival times of a profile, as the inverse of the cumulative arrivals. The random
+   * arrivals are the homogeneous Poisson process of rate one mapped through the inverse, which
+   * keeps the arrivals Poisson also on the ramps.
+   */
+  static final class Schedule {
+
+    private final List<Phase> phases;
+    private final Random random;
+    private int phase;
+    private long phaseStartNanos;
+    private double phaseStartArrivals;
+    private double target;
+
+    Schedule(List<Phase> phases, Random random) {
+      this.phases = phases;
+      this.random = random;
+    }
+
+    /**
+     * @return the nanoseconds from the start until the next arrival, {@code -1} at the end
+     */
+    long next() {
+      target += random == null ? 1 : -Math.log(1 - random.nextDouble());
+      while (phase < phases.size()) {
+        Phase current = phases.get(phase);
+        double arrivals = current.arrivals();
+        if (target <= phaseStartArrivals + arrivals) {
+          double seconds = current.secondsUntil(target - phaseStartArrivals);
+          long offset = Math.min((long) (seconds * 1e9), current.durationNanos);
+          return phaseStartNanos + Math.max(offset, 0);
+        }
+        phaseStartArrivals += arrivals;
+        phaseStartNanos += current.durationNanos;
+        phase++;
+      }
+      return -1;
+    }
+  }
+
+  public static class LoadProfileBuilder {
+
+    private final List<Phase> phases = new ArrayList<>();
+    private Long seed;
+
+    /**
+     * Add the phase of the constant arrival rate.
+     */
+    public LoadProfileBuilder constant(double usersPerSecond, Duration duration) {
+      return ramp(usersPerSecond, usersPerSecond, duration);
+    }
+
+    /**
+     * Add the phase of the arrival rate changing linearly, e.g. to warm up the server.
+     */
+    public LoadProfileBuilder ramp(double fromUsersPerSecond, double toUsersPerSecond,
+        Duration duration) {
+      if (fromUsersPerSecond < 0 || toUsersPerSecond < 0) {
+        throw new IllegalArgumentException("rate must not be negative");
+      }
+      if (duration.isNegative() || duration.isZero()) {
+        throw new IllegalArgumentException("duration must be positive");
+      }
+      phases.add(new Phase(fromUsersPerSecond, toUsersPerSecond, duration.toNanos()));
+      return this;
+    }
+
+    /**
+     * Add the phase without arrivals.
+     */
+    public LoadProfileBuilder pause(Duration duration) {
+      return constant(0, duration);
+    }
+
+    /**
+     * Let the users arrive randomly with the exponential interval, instead of evenly spaced.
+     */
+    public LoadProfileBuilder poisson(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public LoadProfile build() {
+      if (phases.isEmpty()) {
+        throw new IllegalStateException("no phases");
+      }
+      return new LoadProfile(this);
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.bis5.mattermost.client4.instrument.LatencyHistogram;
+
+/**
+ * The snapshot of a load test: the sessions of the virtual users, and the latency percentiles
+ * and the error rate of each operation.
+ *
+ * <p>
+ * The latencies are the service times of the operations. The time an operation waited for a
+ * free thread of the generator is reported separately as {@link #getMaxQueueDelay()}: when it
+ * grows, the generator is the bottleneck rather than the server, add the threads.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class LoadReport {
+
+  private final Duration elapsed;
+  private final long startedSessions;
+  private final long completedSessions;
+  private final long failedSessions;
+  private final long droppedSessions;
+  private final int activeUsers;
+  private final int peakActiveUsers;
+  private final Duration maxQueueDelay;
+  private final List<OperationReport> operations;
+
+  LoadReport(Duration elapsed, long startedSessions, long completedSessions, long failedSessions,
+      long droppedSessions, int activeUsers, int peakActiveUsers, Duration maxQueueDelay,
+      List<OperationReport> operations) {
+    this.elapsed = elapsed;
+    this.startedSessions = startedSessions;
+    this.completedSessions = completedSessions;
+    this.failedSessions = failedSessions;
+    this.droppedSessions = droppedSessions;
+    this.activeUsers = activeUsers;
+    this.peakActiveUsers = peakActiveUsers;
+    this.maxQueueDelay = maxQueueDelay;
+    this.operations = Collections.unmodifiableList(operations);
+  }
+
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  public long getStartedSessions() {
+    return startedSessions;
+  }
+
+  /**
+   * @return the number of the sessions run to the end of the scenario
+   */
+  public long getCompletedSessions() {
+    return completedSessions;
+  }
+
+  /**
+   * @return the number of the sessions ended by a failed step, or cut off at the stop
+   */
+  public long getFailedSessions() {
+    return failedSessions;
+  }
+
+  /**
+   * @return the number of the arrivals not started because of the limit of the active users
+   */
+  public long getDroppedSessions() {
+    return droppedSessions;
+  }
+
+  public int getActiveUsers() {
+    return activeUsers;
+  }
+
+  public int getPeakActiveUsers() {
+    return peakActiveUsers;
+  }
+
+  public Duration getMaxQueueDelay() {
+    return maxQueueDelay;
+  }
+
+  /**
+   * @return the operations in the order of their first execution
+   */
+  public List<OperationReport> getOperations() {
+    return operations;
+  }
+
+  /**
+   * @return the operation, {@code null} if never executed
+   */
+  public OperationReport getOperation(String name) {
+    for (OperationReport operation : operations) {
+      if (operation.getName().equals(name)) {
+        return operation;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the report as a text table, the latencies in milliseconds
+   */
+  public String format() {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format(Locale.ROOT,
+        "elapsed %.1fs, sessions started %d, completed %d, failed %d, dropped %d, "
+            + "active users %d (peak %d), max queue delay %.1fms%n",
+        elapsed.toNanos() / 1e9, startedSessions, completedSessions, failedSessions,
+        droppedSessions, activeUsers, peakActiveUsers, maxQueueDelay.toNanos() / 1e6));
+    text.append(String.format(Locale.ROOT, "%-16s %9s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+        "operation", "count", "ops/s", "errors", "mean", "p50", "p90", "p99", "p99.9", "max"));
+    for (OperationReport op : operations) {
+      text.append(String.format(Locale.ROOT,
+          "%-16s %9d %8.1f %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", op.getName(),
+          op.getCount(), op.getThroughput(), op.getErrorRate() * 100, op.getMeanMillis(),
+          op.getPercentileMillis(50), op.getPercentileMillis(90), op.getPercentileMillis(99),
+          op.getPercentileMillis(99.9), op.getMaxMillis()));
+      for (Map.Entry<String, Long> error : op.getErrors().entrySet()) {
+        text.append(String.format(Locale.ROOT, "  %-30s %9d%n", error.getKey(),
+            error.getValue()));
+      }
+    }
+    return text.toString();
+  }
+
+  @Override
+  public String toString() {
+    return format();
+  }
+
+  /**
+   * The statistics of an operation.
+   */
+  public static class OperationReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final String name;
+    private final long count;
+    private final long errorCount;
+    private final Map<String, Long> errors;
+    private final double meanMicros;
+    private final long maxMicros;
+    private final long[] percentileMicros = new long[PERCENTILES.length];
+    private final double throughput;
+
+    OperationReport(String name, LatencyHistogram latency, long errorCount,
+        Map<String, LongAdder> errors, double elapsedSeconds) {
+      this.name = name;
+      this.count = latency.getCount();
+      this.errorCount = errorCount;
+      Map<String, Long> errorSnapshot = new TreeMap<>();
+      for (Map.Entry<String, LongAdder> error : errors.entrySet()) {
+        errorSnapshot.put(error.getKey(), error.getValue().sum());
+      }
+      this.errors = Collections.unmodifiableMap(errorSnapshot);
+      this.meanMicros = latency.getMean();
+      this.maxMicros = latency.getMax();
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        percentileMicros[i] = latency.getValueAtPercentile(PERCENTILES[i]);
+      }
+      this.throughput = elapsedSeconds > 0 ? count / elapsedSeconds : 0;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getErrorCount() {
+      return errorCount;
+    }
+
+    /**
+     * @return the ratio of the failed executions, from {@code 0} to {@code 1}
+     */
+    public double getErrorRate() {
+      return count == 0 ? 0 : (double) errorCount / count;
+    }
+
+    /**
+     * @return the number of the failures by the reason, e.g. {@code HTTP 503}
+     */
+    public Map<String, Long> getErrors() {
+      return errors;
+    }
+
+    /**
+     * @return the executions per second over the elapsed time of the report
+     */
+    public double getThroughput() {
+      return throughput;
+    }
+
+    public double getMeanMillis() {
+      return meanMicros / 1000;
+    }
+
+    public double getMaxMillis() {
+      return maxMicros / 1000.0;
+    }
+
+    /**
+     * @param percentile one of {@code 50}, {@code 90}, {@code 95}, {@code 99} and {@code 99.9}
+     */
+    public double getPercentileMillis(double percentile) {
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        if (PERCENTILES[i] == percentile) {
+          return percentileMicros[i] / 1000.0;
+        }
+      }
+      throw new IllegalArgumentException("unsupported percentile: " + percentile);
+    }
+  }
+
+  static List<OperationReport> reports(Iterable<OperationStatistics> statistics,
+      double elapsedSeconds) {
+    List<OperationReport> reports = new ArrayList<>();
+    for (OperationStatistics operation : statistics) {
+      reports.add(operation.report(elapsedSeconds));
+    }
+    return reports;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.bis5.mattermost.client4.instrument.LatencyHistogram;
+
+/**
+ * The live statistics of an operation, the latencies in microseconds.
+ *
+ * @author Takayuki Maruyama
+ */
+class OperationStatistics {
+
+  private final String name;
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LongAdder errorCount = new LongAdder();
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  OperationStatistics(String name) {
+    this.name = name;
+  }
+
+  void succeeded(long durationNanos) {
+    latency.record(durationNanos / 1000);
+  }
+
+  /**
+   * @param reason e.g. {@code HTTP 500} or the exception class
+   */
+  void failed(long durationNanos, String reason) {
+    latency.record(durationNanos / 1000);
+    errorCount.increment();
+    errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+  }
+
+  LoadReport.OperationReport report(double elapsedSeconds) {
+    return new LoadReport.OperationReport(name, latency, errorCount.sum(), errors,
+        elapsedSeconds);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The script of a virtual user session: the named {@link Step}s and the think time between them.
+ *
+ * <pre>
+ * Scenario scenario = Scenario.builder("chat").step("login", Steps.login())
+ *     .step("loadChannels", Steps.loadChannels()).step("loadPosts", Steps.loadPosts())
+ *     .pause(Duration.ofSeconds(1), Duration.ofSeconds(5)).step("post", Steps.post("hello"))
+ *     .build();
+ * </pre>
+ *
+ * @see Steps
+ * @author Takayuki Maruyama
+ */
+public class Scenario {
+
+  private final String name;
+  private final List<Action> actions;
+
+  private Scenario(ScenarioBuilder builder) {
+    this.name = builder.name;
+    this.actions = Collections.unmodifiableList(new ArrayList<>(builder.actions));
+  }
+
+  public static ScenarioBuilder builder(String name) {
+    return new ScenarioBuilder(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  List<Action> getActions() {
+    return actions;
+  }
+
+  /**
+   * A step, or a think time when {@code step} is {@code null}.
+   */
+  static final class Action {
+
+    final String name;
+    final Step step;
+    final long minPauseNanos;
+    final long maxPauseNanos;
+
+    Action(String name, Step step, long minPauseNanos, long maxPauseNanos) {
+      this.name = name;
+      this.step = step;
+      this.minPauseNanos = minPauseNanos;
+      this.maxPauseNanos = maxPauseNanos;
+    }
+
+    boolean isPause() {
+      return step == null;
+    }
+  }
+
+  public static class ScenarioBuilder {
+
+    private final String name;
+    private final List<Action> actions = new ArrayList<>();
+
+    ScenarioBuilder(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Add the step, the statistics are per {@code operation} across the scenarios.
+     */
+    public ScenarioBuilder step(String operation, Step step) {
+      if (operation == null || step == null) {
+        throw new IllegalArgumentException("operation and step must not be null");
+      }
+      actions.add(new Action(operation, step, 0, 0));
+      return this;
+    }
+
+    public ScenarioBuilder pause(Duration thinkTime) {
+      return pause(thinkTime, thinkTime);
+    }
+
+    /**
+     * Add the think time, uniformly random between the {@code min} and {@code max}. The paused
+     * virtual users do not occupy a thread.
+     */
+    public ScenarioBuilder pause(Duration min, Duration max) {
+      if (min.isNegative() || max.compareTo(min) < 0) {
+        throw new IllegalArgumentException("invalid pause: " + min + " - " + max);
+      }
+      actions.add(new Action(null, null, min.toNanos(), max.toNanos()));
+      return this;
+    }
+
+    /**
+     * Repeat the actions of the {@code body} scenario.
+     */
+    public ScenarioBuilder repeat(int times, Scenario body) {
+      for (int i = 0; i < times; i++) {
+        actions.addAll(body.getActions());
+      }
+      return this;
+    }
+
+    public Scenario build() {
+      return new Scenario(this);
+    }
+  }
+}
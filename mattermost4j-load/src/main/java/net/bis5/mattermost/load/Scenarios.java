@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.time.Duration;
+
+/**
+ * The prepared {@link Scenario}s.
+ *
+ * @author Takayuki Maruyama
+ */
+public final class Scenarios {
+
+  private static final String[] WORDS = {"release", "meeting", "deploy", "review", "lunch",
+      "incident", "roadmap", "build", "customer", "holiday"};
+
+  private Scenarios() {
+  }
+
+  /**
+   * The session of a chat user with the think time of 1 to 5 seconds.
+   *
+   * @see #chat(Duration, Duration)
+   */
+  public static Scenario chat() {
+    return chat(Duration.ofSeconds(1), Duration.ofSeconds(5));
+  }
+
+  /**
+   * The session of a chat user: log in, open the team, read a channel, post, react, search,
+   * upload a small file, post it and log out.
+   */
+  public static Scenario chat(Duration minThinkTime, Duration maxThinkTime) {
+    return Scenario.builder("chat")
+        .step("login", Steps.login())
+        .step("loadTeams", Steps.loadTeams())
+        .step("loadChannels", Steps.loadChannels())
+        .step("loadPosts", Steps.loadPosts())
+        .pause(minThinkTime, maxThinkTime)
+        .step("post", Steps.post(Scenarios::message))
+        .pause(minThinkTime, maxThinkTime)
+        .step("react", Steps.react("+1"))
+        .step("search", Steps.search(user -> word(user)))
+        .pause(minThinkTime, maxThinkTime)
+        .step("upload", Steps.upload(16 * 1024))
+        .step("post", Steps.post(Scenarios::message))
+        .step("logout", Steps.logout())
+        .build();
+  }
+
+  private static String word(VirtualUser user) {
+    return WORDS[user.getRandom().nextInt(WORDS.length)];
+  }
+
+  private static String message(VirtualUser user) {
+    return "load test " + word(user) + " " + word(user) + " from " + user.getLoginId();
+  }
+}
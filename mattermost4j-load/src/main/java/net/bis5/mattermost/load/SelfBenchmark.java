@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.bis5.mattermost.fake.FakeMattermostServer;
+import net.bis5.mattermost.fake.FakeStore;
+import net.bis5.mattermost.load.VirtualUser.Credentials;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.User;
+
+/**
+ * Benchmark of the client and the load generator against the in-memory
+ * {@link FakeMattermostServer}, to know the capacity of the load test machine before testing a
+ * real server.
+ *
+ * <pre>
+ * java -cp ... net.bis5.mattermost.load.SelfBenchmark --rate=200 --duration=60 --users=1000
+ * </pre>
+ *
+ * <p>
+ * The options are {@code --rate} (arrivals per second), {@code --duration} (seconds),
+ * {@code --users} (seeded users), {@code --channels}, {@code --threads}, {@code --think}
+ * (maximum think time in milliseconds) and {@code --latency} (server latency in milliseconds).
+ * Requires {@code mattermost4j-fake-server} on the class path.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class SelfBenchmark {
+
+  private SelfBenchmark() {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("expected --name=value: " + arg);
+      }
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+    Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+    int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+    int channels = Integer.parseInt(options.getOrDefault("channels", "10"));
+    int threads = Integer.parseInt(options.getOrDefault("threads", "200"));
+    Duration think = Duration.ofMillis(Long.parseLong(options.getOrDefault("think", "1000")));
+    Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "0")));
+    if (users < 1 || channels < 1) {
+      throw new IllegalArgumentException("users and channels must be positive");
+    }
+
+    try (FakeMattermostServer server = FakeMattermostServer.builder().latency(latency).build()) {
+      server.start();
+      List<Credentials> credentials = seed(server.getStore(), users, channels);
+      LoadReport report = LoadGenerator.builder().url(server.getUrl())
+          .scenario(Scenarios.chat(Duration.ZERO, think))
+          .profile(LoadProfile.builder().ramp(0, rate, duration.dividedBy(10))
+              .constant(rate, duration).poisson(1).build())
+          .credentials(credentials).threads(threads).seed(1)
+          .progress(Duration.ofSeconds(10), progress -> System.out.print(progress.format()))
+          .build().run();
+      System.out.println();
+      System.out.print(report.format());
+      System.out.printf("server requests %d%n", server.getRequestCount());
+    }
+  }
+
+  /**
+   * Seed the users {@code user0}, {@code user1}, ... with the password {@code password}, all
+   * members of a team and its channels.
+   *
+   * @return the credentials of the users
+   */
+  static List<Credentials> seed(FakeStore store, int users, int channels) {
+    Team team = store.addTeam("load");
+    List<Channel> teamChannels = new ArrayList<>();
+    for (int i = 0; i < channels; i++) {
+      teamChannels.add(store.addChannel(team.getId(), "channel-" + i));
+    }
+    List<Credentials> credentials = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      User user = store.addUser("user" + i, "password");
+      store.addTeamMember(team.getId(), user.getId());
+      for (Channel channel : teamChannels) {
+        store.addChannelMember(channel.getId(), user.getId());
+      }
+      credentials.add(new Credentials(user.getUsername(), "password"));
+    }
+    for (Channel channel : teamChannels) {
+      store.addPost(channel.getId(), store.getUserByUsername("user0").getId(), "welcome");
+    }
+    return credentials;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+/**
+ * An operation of a virtual user, timed and counted under the name of the step.
+ *
+ * <p>
+ * The step fails when it throws, or returns an {@link net.bis5.mattermost.client4.ApiResponse}
+ * of an error status. A failed step ends the session of the virtual user, as the later steps
+ * usually depend on it. A step returning {@link #SKIPPED}, e.g. to react without any post loaded,
+ * is not counted.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface Step {
+
+  Object SKIPPED = new Object();
+
+  /**
+   * @return the {@link net.bis5.mattermost.client4.ApiResponse} to check the status of, or any
+   *         other value for a succeeded step
+   */
+  Object execute(VirtualUser user) throws Exception;
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import net.bis5.mattermost.client4.ApiResponse;
+import net.bis5.mattermost.client4.Pager;
+import net.bis5.mattermost.client4.api.AuthenticationApi;
+import net.bis5.mattermost.client4.api.ChannelApi;
+import net.bis5.mattermost.client4.api.FilesApi;
+import net.bis5.mattermost.client4.api.PostApi;
+import net.bis5.mattermost.client4.api.ReactionApi;
+import net.bis5.mattermost.client4.api.TeamApi;
+import net.bis5.mattermost.client4.model.FileUploadResult;
+import net.bis5.mattermost.model.Channel;
+import net.bis5.mattermost.model.ChannelList;
+import net.bis5.mattermost.model.FileInfo;
+import net.bis5.mattermost.model.Post;
+import net.bis5.mattermost.model.PostList;
+import net.bis5.mattermost.model.Reaction;
+import net.bis5.mattermost.model.Team;
+import net.bis5.mattermost.model.TeamList;
+import net.bis5.mattermost.model.User;
+
+/**
+ * The {@link Step}s of the typical Mattermost client, on the {@code *Api} interfaces.
+ *
+ * <p>
+ * The steps keep what they load in the {@link VirtualUser} attributes for the later steps, as a
+ * client app does: {@link #login()} the user id, {@link #loadTeams()} a team,
+ * {@link #loadChannels()} the channels of the team, {@link #loadPosts()} a channel and its posts.
+ * The steps depending on a missing attribute are {@link Step#SKIPPED}.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public final class Steps {
+
+  public static final String USER_ID = "userId";
+  public static final String TEAM_ID = "teamId";
+  public static final String CHANNEL_IDS = "channelIds";
+  public static final String CHANNEL_ID = "channelId";
+  public static final String POST_IDS = "postIds";
+  public static final String FILE_IDS = "fileIds";
+
+  private static final int POSTS_PER_PAGE = 60;
+  private static final Map<Integer, Path> UPLOAD_FILES = new ConcurrentHashMap<>();
+
+  private Steps() {
+  }
+
+  static boolean isSuccess(ApiResponse<?> response) {
+    return response.getRawResponse().getStatus() < 400;
+  }
+
+  /**
+   * Log in with the credentials of the virtual user.
+   */
+  public static Step login() {
+    return user -> {
+      AuthenticationApi api = user.getClient();
+      ApiResponse<User> response = api.login(user.getLoginId(), user.getPassword());
+      if (isSuccess(response)) {
+        user.put(USER_ID, response.readEntity().getId());
+      }
+      return response;
+    };
+  }
+
+  public static Step logout() {
+    return user -> {
+      AuthenticationApi api = user.getClient();
+      return api.logout();
+    };
+  }
+
+  /**
+   * Load the teams of the user and choose one of them.
+   */
+  public static Step loadTeams() {
+    return user -> {
+      TeamApi api = user.getClient();
+      ApiResponse<TeamList> response = api.getTeamsForUser(user.<String>get(USER_ID));
+      if (isSuccess(response)) {
+        Team team = user.pick(response.readEntity());
+        user.put(TEAM_ID, team == null ? null : team.getId());
+      }
+      return response;
+    };
+  }
+
+  /**
+   * Load the channels of the user in the team.
+   */
+  public static Step loadChannels() {
+    return user -> {
+      String teamId = user.get(TEAM_ID);
+      if (teamId == null) {
+        return Step.SKIPPED;
+      }
+      ChannelApi api = user.getClient();
+      ApiResponse<ChannelList> response =
+          api.getChannelsForTeamForUser(teamId, user.<String>get(USER_ID));
+      if (isSuccess(response)) {
+        List<String> channelIds = new ArrayList<>();
+        for (Channel channel : response.readEntity()) {
+          channelIds.add(channel.getId());
+        }
+        user.put(CHANNEL_IDS, channelIds);
+      }
+      return response;
+    };
+  }
+
+  /**
+   * Switch to a random channel of the loaded ones and load its latest posts.
+   */
+  public static Step loadPosts() {
+    return user -> {
+      String channelId = user.pick(user.<List<String>>get(CHANNEL_IDS));
+      if (channelId == null) {
+        return Step.SKIPPED;
+      }
+      user.put(CHANNEL_ID, channelId);
+      PostApi api = user.getClient();
+      ApiResponse<PostList> response =
+          api.getPostsForChannel(channelId, Pager.of(0, POSTS_PER_PAGE));
+      if (isSuccess(response)) {
+        List<String> order = response.readEntity().getOrder();
+        user.put(POST_IDS, order == null ? new ArrayList<>() : new ArrayList<>(order));
+      }
+      return response;
+    };
+  }
+
+  public static Step post(String message) {
+    return post(user -> message);
+  }
+
+  /**
+   * Post to the current channel, attaching the files uploaded since the last post.
+   */
+  public static Step post(Function<VirtualUser, String> message) {
+    return user -> {
+      String channelId = user.get(CHANNEL_ID);
+      if (channelId == null) {
+        return Step.SKIPPED;
+      }
+      Post post = new Post(channelId, message.apply(user));
+      List<String> fileIds = user.get(FILE_IDS);
+      if (fileIds != null && !fileIds.isEmpty()) {
+        post.setFileIds(fileIds);
+        user.put(FILE_IDS, null);
+      }
+      PostApi api = user.getClient();
+      ApiResponse<Post> response = api.createPost(post);
+      if (isSuccess(response)) {
+        List<String> postIds = user.get(POST_IDS);
+        if (postIds == null) {
+          postIds = new ArrayList<>();
+          user.put(POST_IDS, postIds);
+        }
+        postIds.add(0, response.readEntity().getId());
+      }
+      return response;
+    };
+  }
+
+  /**
+   * React to a random post of the loaded ones.
+   */
+  public static Step react(String emojiName) {
+    return user -> {
+      String postId = user.pick(user.<List<String>>get(POST_IDS));
+      if (postId == null) {
+        return Step.SKIPPED;
+      }
+      Reaction reaction = new Reaction();
+      reaction.setUserId(user.get(USER_ID));
+      reaction.setPostId(postId);
+      reaction.setEmojiName(emojiName);
+      ReactionApi api = user.getClient();
+      return api.saveReaction(reaction);
+    };
+  }
+
+  public static Step search(String terms) {
+    return search(user -> terms);
+  }
+
+  /**
+   * Search the posts of the team.
+   */
+  public static Step search(Function<VirtualUser, String> terms) {
+    return user -> {
+      String teamId = user.get(TEAM_ID);
+      if (teamId == null) {
+        return Step.SKIPPED;
+      }
+      PostApi api = user.getClient();
+      ApiResponse<?> response = api.searchPosts(teamId, terms.apply(user));
+      if (isSuccess(response)) {
+        response.readEntity();
+      }
+      return response;
+    };
+  }
+
+  /**
+   * Upload the random content of the {@code bytes} to the current channel, for the next post.
+   */
+  public static Step upload(int bytes) {
+    return upload(uploadFile(bytes));
+  }
+
+  /**
+   * Upload the file to the current channel, for the next post.
+   */
+  public static Step upload(Path file) {
+    return user -> {
+      String channelId = user.get(CHANNEL_ID);
+      if (channelId == null) {
+        return Step.SKIPPED;
+      }
+      FilesApi api = user.getClient();
+      ApiResponse<FileUploadResult> response = api.uploadFile(channelId, file);
+      if (isSuccess(response)) {
+        List<String> fileIds = user.get(FILE_IDS);
+        if (fileIds == null) {
+          fileIds = new ArrayList<>();
+          user.put(FILE_IDS, fileIds);
+        }
+        FileInfo[] infos = response.readEntity().getFileInfos();
+        for (FileInfo info : infos == null ? new FileInfo[0] : infos) {
+          fileIds.add(info.getId());
+        }
+      }
+      return response;
+    };
+  }
+
+  /**
+   * @return the temporary file of the random content, shared by the uploads of the same size
+   */
+  private static Path uploadFile(int bytes) {
+    return UPLOAD_FILES.computeIfAbsent(bytes, size -> {
+      try {
+        Path file = Files.createTempFile("mattermost4j-load-", ".bin");
+        file.toFile().deleteOnExit();
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        Files.write(file, content);
+        return file;
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.bis5.mattermost.client4.MattermostClient;
+
+/**
+ * A simulated user, living for one run of the {@link Scenario}.
+ *
+ * <p>
+ * The client is an identity view of the client shared by all the virtual users (see
+ * {@link MattermostClient#as(String)}), so thousands of users log in with their own tokens
+ * over one connection pool. The steps run one at a time, the attributes pass the state such as
+ * the loaded channels to the later steps without synchronization.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class VirtualUser {
+
+  private final long id;
+  private final String loginId;
+  private final String password;
+  private final MattermostClient client;
+  private final Random random;
+  private final Map<String, Object> attributes = new HashMap<>();
+
+  VirtualUser(long id, Credentials credentials, MattermostClient client, Random random) {
+    this.id = id;
+    this.loginId = credentials.getLoginId();
+    this.password = credentials.getPassword();
+    this.client = client;
+    this.random = random;
+  }
+
+  /**
+   * @return the sequence number of the arrival, starting at {@code 0}
+   */
+  public long getId() {
+    return id;
+  }
+
+  public String getLoginId() {
+    return loginId;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public MattermostClient getClient() {
+    return client;
+  }
+
+  public Random getRandom() {
+    return random;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T get(String name) {
+    return (T) attributes.get(name);
+  }
+
+  public void put(String name, Object value) {
+    attributes.put(name, value);
+  }
+
+  /**
+   * @return the random element, {@code null} if the list is {@code null} or empty
+   */
+  public <T> T pick(List<T> list) {
+    return list == null || list.isEmpty() ? null : list.get(random.nextInt(list.size()));
+  }
+
+  @Override
+  public String toString() {
+    return "VirtualUser[" + id + ", " + loginId + "]";
+  }
+
+  /**
+   * The login of a virtual user.
+   */
+  public static final class Credentials {
+
+    private final String loginId;
+    private final String password;
+
+    public Credentials(String loginId, String password) {
+      this.loginId = loginId;
+      this.password = password;
+    }
+
+    public String getLoginId() {
+      return loginId;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+  }
+}
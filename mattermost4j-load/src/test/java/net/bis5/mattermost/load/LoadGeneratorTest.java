@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.bis5.mattermost.fake.FakeMattermostServer;
+import net.bis5.mattermost.load.VirtualUser.Credentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link LoadGenerator}, against {@link FakeMattermostServer}.
+ */
+class LoadGeneratorTest {
+
+  private FakeMattermostServer server;
+  private List<Credentials> credentials;
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = FakeMattermostServer.builder().build();
+    server.start();
+    credentials = SelfBenchmark.seed(server.getStore(), 20, 3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  private LoadGenerator.LoadGeneratorBuilder generator(Scenario scenario, LoadProfile profile) {
+    return LoadGenerator.builder().url(server.getUrl()).scenario(scenario).profile(profile)
+        .credentials(credentials).threads(8).seed(1).gracefulStop(Duration.ofSeconds(10));
+  }
+
+  @Test
+  void runChatScenario() throws InterruptedException {
+    LoadReport report = generator(Scenarios.chat(Duration.ZERO, Duration.ofMillis(10)),
+        LoadProfile.constant(40, Duration.ofSeconds(1))).build().run();
+
+    assertThat(report.getStartedSessions()).isEqualTo(40);
+    assertThat(report.getCompletedSessions()).isEqualTo(40);
+    assertThat(report.getFailedSessions()).isZero();
+    assertThat(report.getOperations()).extracting(LoadReport.OperationReport::getName)
+        .containsExactly("login", "loadTeams", "loadChannels", "loadPosts", "post", "react",
+            "search", "upload", "logout");
+    assertThat(report.getOperation("post").getCount()).isEqualTo(80);
+    assertThat(report.getOperation("login").getErrorRate()).isZero();
+    assertThat(report.getOperation("search").getPercentileMillis(99))
+        .isLessThanOrEqualTo(report.getOperation("search").getMaxMillis());
+    assertThat(server.getStore().getPostCount()).isEqualTo(3 + 80);
+    assertThat(report.format()).contains("loadPosts", "p99");
+  }
+
+  @Test
+  void failedStepEndsTheSession() throws InterruptedException {
+    server.failNext("POST", "/users/login", 503, 5);
+
+    LoadReport report = generator(Scenarios.chat(Duration.ZERO, Duration.ZERO),
+        LoadProfile.constant(20, Duration.ofMillis(500))).threads(1).build().run();
+
+    assertThat(report.getFailedSessions()).isEqualTo(5);
+    assertThat(report.getCompletedSessions()).isEqualTo(5);
+    assertThat(report.getOperation("login").getErrorRate()).isEqualTo(0.5);
+    assertThat(report.getOperation("login").getErrors()).containsEntry("HTTP 503", 5L);
+    assertThat(report.getOperation("loadTeams").getCount()).isEqualTo(5);
+  }
+
+  @Test
+  void arrivalsBeyondTheActiveUsersAreDropped() throws InterruptedException {
+    Scenario scenario = Scenario.builder("idle").step("login", Steps.login())
+        .pause(Duration.ofSeconds(1)).build();
+
+    LoadReport report = generator(scenario, LoadProfile.constant(50, Duration.ofMillis(200)))
+        .maxActiveUsers(4).build().run();
+
+    assertThat(report.getStartedSessions()).isEqualTo(4);
+    assertThat(report.getDroppedSessions()).isEqualTo(6);
+    assertThat(report.getPeakActiveUsers()).isEqualTo(4);
+    assertThat(report.getCompletedSessions()).isEqualTo(4);
+  }
+
+  @Test
+  void stopCutsOffTheActiveUsers() throws InterruptedException {
+    Scenario scenario = Scenario.builder("long").step("login", Steps.login())
+        .pause(Duration.ofMinutes(1)).build();
+    List<LoadReport> progress = new CopyOnWriteArrayList<>();
+    LoadGenerator[] generator = new LoadGenerator[1];
+    generator[0] = generator(scenario, LoadProfile.constant(10, Duration.ofMinutes(1)))
+        .progress(Duration.ofMillis(300), report -> {
+          progress.add(report);
+          generator[0].stop();
+        }).build();
+
+    LoadReport report = generator[0].run();
+
+    assertThat(progress).isNotEmpty();
+    assertThat(report.getElapsed()).isLessThan(Duration.ofSeconds(10));
+    assertThat(report.getStartedSessions()).isBetween(1L, 10L);
+    assertThat(report.getFailedSessions()).isEqualTo(report.getStartedSessions());
+    assertThat(report.getActiveUsers()).isZero();
+  }
+
+  @Test
+  void gracefulStopCutsOffThinkingUsersOnce() throws InterruptedException {
+    Scenario scenario = Scenario.builder("long").step("login", Steps.login())
+        .pause(Duration.ofMinutes(1)).build();
+    LoadGenerator generator = generator(scenario, LoadProfile.constant(20, Duration.ofMillis(200)))
+        .gracefulStop(Duration.ofMillis(200)).progress(Duration.ofMillis(50), report -> { })
+        .build();
+
+    LoadReport report = generator.run();
+
+    assertThat(report.getStartedSessions()).isEqualTo(4);
+    assertThat(report.getFailedSessions()).isEqualTo(4);
+    assertThat(report.getActiveUsers()).isZero();
+    assertThat(generator.report().getFailedSessions()).isEqualTo(4);
+  }
+}
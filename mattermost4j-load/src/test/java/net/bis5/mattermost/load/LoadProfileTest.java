@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package net.bis5.mattermost.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link LoadProfile}.
+ */
+class LoadProfileTest {
+
+  private static List<Long> arrivals(LoadProfile profile) {
+    LoadProfile.Schedule schedule = profile.schedule();
+    List<Long> arrivals = new ArrayList<>();
+    for (long at = schedule.next(); at >= 0; at = schedule.next()) {
+      arrivals.add(at);
+    }
+    return arrivals;
+  }
+
+  @Test
+  void constantRateIsEvenlySpaced() {
+    List<Long> arrivals = arrivals(LoadProfile.constant(10, Duration.ofSeconds(1)));
+
+    assertThat(arrivals).hasSize(10);
+    assertThat(arrivals.get(0)).isCloseTo(100_000_000L, within(1000L));
+    assertThat(arrivals.get(9)).isCloseTo(1_000_000_000L, within(1000L));
+  }
+
+  @Test
+  void rampIncreasesTheRate() {
+    LoadProfile profile = LoadProfile.builder().ramp(0, 100, Duration.ofSeconds(10)).build();
+
+    List<Long> arrivals = arrivals(profile);
+
+    assertThat(profile.getExpectedArrivals()).isEqualTo(500.0);
+    assertThat(arrivals).hasSize(500).isSorted();
+    // the cumulative arrivals are 5 * t^2, the half of them by sqrt(50) seconds
+    assertThat(arrivals.get(249)).isCloseTo((long) (Math.sqrt(50) * 1e9), within(1_000_000L));
+  }
+
+  @Test
+  void phasesFollowEachOther() {
+    LoadProfile profile = LoadProfile.builder().constant(10, Duration.ofSeconds(1))
+        .pause(Duration.ofSeconds(1)).constant(20, Duration.ofSeconds(1)).build();
+
+    List<Long> arrivals = arrivals(profile);
+
+    assertThat(profile.getDuration()).isEqualTo(Duration.ofSeconds(3));
+    assertThat(arrivals).hasSize(30);
+    assertThat(arrivals.get(10)).isCloseTo(2_050_000_000L, within(1000L));
+  }
+
+  @Test
+  void poissonArrivalsAreRandomAroundTheRate() {
+    LoadProfile profile = LoadProfile.builder().constant(1000, Duration.ofSeconds(10))
+        .poisson(42).build();
+
+    List<Long> arrivals = arrivals(profile);
+
+    assertThat(arrivals).hasSizeBetween(9700, 10300).isSorted();
+    assertThat(arrivals(profile)).isEqualTo(arrivals);
+  }
+}
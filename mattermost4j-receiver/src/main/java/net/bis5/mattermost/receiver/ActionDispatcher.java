@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationRequest;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationResponse;
+
+/**
+ * Routes the interactive message actions and dialog submissions to the handlers.
+ *
+ * <p>
+ * Mattermost does not send the id of the clicked action, so put it in the integration URL as the
+ * {@code action} query parameter or in the context under the {@code action} key (configurable by
+ * {@link ActionDispatcherBuilder#idKey(String)}). An action may have handlers for specific context
+ * values, tried in the registration order before the handlers for any context. Dialog submissions
+ * are routed by the {@code callback_id}. The routing table is fixed when built.
+ * </p>
+ *
+ * <p>
+ * The handlers are invoked on the receiver thread and complete asynchronously, or run on the
+ * executor if given. Register to the receiver with
+ * {@link IntegrationReceiver.IntegrationReceiverBuilder#actions(String, ActionDispatcher)}.
+ * </p>
+ *
+ * @author Takayuki Maruyama
+ */
+public class ActionDispatcher {
+
+  static final String DEFAULT_ID_KEY = "action";
+  private static final String DIALOG_SUBMISSION = "dialog_submission";
+
+  private final String idKey;
+  private final Map<String, Route[]> actions;
+  private final Map<String, DialogHandler> dialogs;
+  private final Executor executor;
+
+  private ActionDispatcher(ActionDispatcherBuilder builder) {
+    this.idKey = builder.idKey;
+    this.executor = builder.executor;
+    Map<String, Route[]> table = new HashMap<>();
+    builder.actions.forEach((id, routes) -> {
+      List<Route> sorted = new ArrayList<>(routes.size());
+      routes.stream().filter(r -> r.contextKey != null).forEach(sorted::add);
+      routes.stream().filter(r -> r.contextKey == null).forEach(sorted::add);
+      table.put(id, sorted.toArray(new Route[0]));
+    });
+    this.actions = table;
+    this.dialogs = new HashMap<>(builder.dialogs);
+  }
+
+  public static ActionDispatcherBuilder builder() {
+    return new ActionDispatcherBuilder();
+  }
+
+  CompletionStage<?> dispatch(ReceivedRequest request) throws IOException {
+    if (!request.isJson()) {
+      throw new ReceiverException(415, "JSON expected");
+    }
+    Map<String, String> nested = new HashMap<>();
+    Map<String, String> fields = ReceivedRequest.decodeJson(request.getBody(), "context", nested);
+    try {
+      if (DIALOG_SUBMISSION.equals(fields.get("type")) || fields.containsKey("callback_id")) {
+        nested.clear();
+        fields = ReceivedRequest.decodeJson(request.getBody(), "submission", nested);
+        return dispatchDialog(toDialogSubmission(fields, nested))
+            .thenApply(errors -> errors == null || errors.isEmpty() ? null
+                : Collections.singletonMap("errors", errors));
+      }
+      String actionId = ReceivedRequest.decodeForm(request.getQuery()).get(idKey);
+      return dispatchAction(actionId != null ? actionId : nested.get(idKey),
+          toActionRequest(fields, nested));
+    } catch (IllegalArgumentException e) {
+      throw new ReceiverException(404, e.getMessage());
+    }
+  }
+
+  /**
+   * Dispatch the action request to the handler, e.g. when received by your own HTTP server.
+   *
+   * @throws IllegalArgumentException if no handler matches
+   */
+  public CompletionStage<PostActionIntegrationResponse> dispatchAction(String actionId,
+      PostActionIntegrationRequest request) {
+    Route[] routes = actionId == null ? null : actions.get(actionId);
+    if (routes != null) {
+      Map<String, String> context =
+          request.getContext() == null ? Collections.emptyMap() : request.getContext();
+      for (Route route : routes) {
+        if (route.contextKey == null
+            || route.contextValue.equals(context.get(route.contextKey))) {
+          return invoke(() -> route.handler.handle(request));
+        }
+      }
+    }
+    throw new IllegalArgumentException("No handler for action " + actionId);
+  }
+
+  /**
+   * Dispatch the dialog submission to the handler, e.g. when received by your own HTTP server.
+   *
+   * @throws IllegalArgumentException if no handler matches
+   */
+  public CompletionStage<Map<String, String>> dispatchDialog(DialogSubmission submission) {
+    DialogHandler handler = dialogs.get(submission.getCallbackId());
+    if (handler == null) {
+      throw new IllegalArgumentException("No handler for dialog " + submission.getCallbackId());
+    }
+    return invoke(() -> handler.handle(submission));
+  }
+
+  private interface Invocation<T> {
+    CompletionStage<T> invoke() throws Exception;
+  }
+
+  private <T> CompletionStage<T> invoke(Invocation<T> invocation) {
+    if (executor == null) {
+      return call(invocation);
+    }
+    return CompletableFuture.supplyAsync(() -> call(invocation), executor)
+        .thenCompose(stage -> stage);
+  }
+
+  private static <T> CompletionStage<T> call(Invocation<T> invocation) {
+    try {
+      CompletionStage<T> stage = invocation.invoke();
+      return stage != null ? stage : CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+
+  static PostActionIntegrationRequest toActionRequest(Map<String, String> fields,
+      Map<String, String> context) {
+    PostActionIntegrationRequest request = new PostActionIntegrationRequest();
+    request.setUserId(fields.get("user_id"));
+    request.setPostId(fields.get("post_id"));
+    request.setType(fields.get("type"));
+    request.setDataSource(fields.get("data_source"));
+    request.setChannelId(fields.get("channel_id"));
+    request.setTeamId(fields.get("team_id"));
+    request.setTriggerId(fields.get("trigger_id"));
+    request.setContext(context);
+    return request;
+  }
+
+  static DialogSubmission toDialogSubmission(Map<String, String> fields,
+      Map<String, String> values) {
+    DialogSubmission submission = new DialogSubmission();
+    submission.setCallbackId(fields.get("callback_id"));
+    submission.setState(fields.get("state"));
+    submission.setUserId(fields.get("user_id"));
+    submission.setChannelId(fields.get("channel_id"));
+    submission.setTeamId(fields.get("team_id"));
+    submission.setCancelled(Boolean.parseBoolean(fields.get("cancelled")));
+    submission.setSubmission(values);
+    return submission;
+  }
+
+  private static class Route {
+    final String contextKey;
+    final String contextValue;
+    final ActionHandler handler;
+
+    Route(String contextKey, String contextValue, ActionHandler handler) {
+      this.contextKey = contextKey;
+      this.contextValue = contextValue;
+      this.handler = handler;
+    }
+  }
+
+  public static class ActionDispatcherBuilder {
+
+    private String idKey = DEFAULT_ID_KEY;
+    private Executor executor;
+    private final Map<String, List<Route>> actions = new LinkedHashMap<>();
+    private final Map<String, DialogHandler> dialogs = new HashMap<>();
+
+    /**
+     * The name of the query parameter and the context key holding the action id.
+     */
+    public ActionDispatcherBuilder idKey(String idKey) {
+      this.idKey = idKey;
+      return this;
+    }
+
+    /**
+     * Run the handlers on the executor, for the handlers blocking the thread.
+     */
+    public ActionDispatcherBuilder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Handle the action with any context.
+     */
+    public ActionDispatcherBuilder action(String actionId, ActionHandler handler) {
+      actions.computeIfAbsent(actionId, k -> new ArrayList<>())
+          .add(new Route(null, null, handler));
+      return this;
+    }
+
+    /**
+     * Handle the action whose context has the value for the key.
+     */
+    public ActionDispatcherBuilder action(String actionId, String contextKey, String contextValue,
+        ActionHandler handler) {
+      actions.computeIfAbsent(actionId, k -> new ArrayList<>())
+          .add(new Route(contextKey, contextValue, handler));
+      return this;
+    }
+
+    public ActionDispatcherBuilder dialog(String callbackId, DialogHandler handler) {
+      if (dialogs.putIfAbsent(callbackId, handler) != null) {
+        throw new IllegalArgumentException("Duplicate callback id: " + callbackId);
+      }
+      return this;
+    }
+
+    public ActionDispatcher build() {
+      return new ActionDispatcher(this);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationRequest;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationResponse;
+
+/**
+ * Handles the interactive message action requests.
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface ActionHandler {
+
+  /**
+   * Handle the action. Must not block unless the dispatcher has an executor.
+   *
+   * @return the response with the {@code update} post or the {@code ephemeralText}, completed
+   *     with {@code null} to respond nothing
+   */
+  CompletionStage<PostActionIntegrationResponse> handle(PostActionIntegrationRequest request)
+      throws Exception;
+
+  /**
+   * Create a handler completing immediately with the result of the function.
+   */
+  static ActionHandler of(
+      Function<PostActionIntegrationRequest, PostActionIntegrationResponse> function) {
+    return request -> CompletableFuture.completedFuture(function.apply(request));
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Handles the interactive dialog submissions.
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface DialogHandler {
+
+  /**
+   * Handle the submission. Must not block unless the dispatcher has an executor.
+   *
+   * @return the errors by element name to show in the dialog, completed with {@code null} or an
+   *     empty map to close the dialog
+   */
+  CompletionStage<Map<String, String>> handle(DialogSubmission submission) throws Exception;
+
+}
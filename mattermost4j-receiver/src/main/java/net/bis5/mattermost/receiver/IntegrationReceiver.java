@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.bis5.mattermost.model.OutgoingWebhookPayload;
+import net.bis5.mattermost.model.serialize.MattermostPropertyNamingStrategy;
+
+/**
+ * Embedded HTTP server receiving the outgoing webhooks and slash commands of Mattermost.
+ *
+ * <p>
+ * Built on the JDK {@link HttpServer}. The payloads are decoded from the form or JSON body with
+ * the streaming parser, the tokens are compared in constant time, and the handlers run on a
+ * bounded thread pool. When the queue of the pool is full, the request is handled on the
+ * dispatcher thread, which stops accepting new connections until it completes. Pass your own
+ * executor, e.g. a virtual thread per task executor, with
+ * {@link IntegrationReceiverBuilder#executor(Executor)}.
+ * </p>
+ *
+ * <pre>
+ * IntegrationReceiver receiver = IntegrationReceiver.builder().port(8065)
+ *     .slashCommand("/weather", token, request -&gt; reply(request.getText()))
+ *     .build();
+ * receiver.start();
+ * </pre>
+ *
+ * @author Takayuki Maruyama
+ */
+public class IntegrationReceiver implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(IntegrationReceiver.class.getName());
+
+  private final HttpServer server;
+  private final ThreadPoolExecutor ownExecutor;
+  private final int maxBodyBytes;
+  private final ObjectWriter writer;
+  private final AtomicLong handledCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+
+  /**
+   * Handles the requests of a path.
+   */
+  interface Endpoint {
+
+    /**
+     * @return the response entity serialized as JSON, {@code null} for an empty response, or a
+     *     {@link CompletionStage} of them to respond on its completion
+     * @throws ReceiverException to respond with the status
+     */
+    Object handle(ReceivedRequest request) throws Exception;
+  }
+
+  private IntegrationReceiver(IntegrationReceiverBuilder builder) throws IOException {
+    this.maxBodyBytes = builder.maxBodyBytes;
+    this.writer = new ObjectMapper().setSerializationInclusion(Include.NON_EMPTY)
+        .setPropertyNamingStrategy(new MattermostPropertyNamingStrategy()).writer();
+    this.server = HttpServer.create(builder.address, builder.backlog);
+    builder.endpoints.forEach((path, endpoint) -> server.createContext(path,
+        exchange -> handle(exchange, path, endpoint)));
+    if (builder.executor != null) {
+      ownExecutor = null;
+      server.setExecutor(builder.executor);
+    } else {
+      ownExecutor = new ThreadPoolExecutor(builder.threads, builder.threads, 0,
+          TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(builder.queueCapacity),
+          new ReceiverThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+      server.setExecutor(ownExecutor);
+    }
+  }
+
+  public static IntegrationReceiverBuilder builder() {
+    return new IntegrationReceiverBuilder();
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Returns the bound address, e.g. to get the port chosen for port {@code 0}.
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /** The number of requests handled successfully. */
+  public long getHandledCount() {
+    return handledCount.get();
+  }
+
+  /** The number of requests rejected or failed. */
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  private void handle(HttpExchange exchange, String path, Endpoint endpoint) {
+    Object entity;
+    try {
+      if (!path.equals(exchange.getRequestURI().getPath())) {
+        // contexts match by prefix
+        throw new ReceiverException(404, "Not found");
+      }
+      String method = exchange.getRequestMethod();
+      if (!"POST".equals(method) && !"GET".equals(method)) {
+        throw new ReceiverException(405, "Method not allowed");
+      }
+      ReceivedRequest request = new ReceivedRequest(method,
+          exchange.getRequestHeaders().getFirst("Content-Type"),
+          exchange.getRequestURI().getRawQuery(), readBody(exchange));
+      entity = endpoint.handle(request);
+    } catch (Exception e) {
+      fail(exchange, e);
+      return;
+    }
+    if (entity instanceof CompletionStage) {
+      // respond on completion, releasing this thread
+      ((CompletionStage<?>) entity).whenComplete((result, error) -> {
+        if (error != null) {
+          fail(exchange, error instanceof CompletionException && error.getCause() != null
+              ? error.getCause() : error);
+        } else {
+          succeed(exchange, result);
+        }
+      });
+    } else {
+      succeed(exchange, entity);
+    }
+  }
+
+  private void succeed(HttpExchange exchange, Object entity) {
+    byte[] response = null;
+    if (entity != null) {
+      try {
+        response = writer.writeValueAsBytes(entity);
+      } catch (IOException e) {
+        fail(exchange, e);
+        return;
+      }
+    }
+    handledCount.incrementAndGet();
+    respond(exchange, 200, "application/json", response);
+  }
+
+  private void fail(HttpExchange exchange, Throwable error) {
+    failedCount.incrementAndGet();
+    if (error instanceof ReceiverException) {
+      respond(exchange, ((ReceiverException) error).getStatus(), "text/plain; charset=UTF-8",
+          error.getMessage().getBytes(StandardCharsets.UTF_8));
+    } else {
+      LOGGER.log(Level.WARNING, "Failed to handle " + exchange.getRequestURI().getPath(), error);
+      respond(exchange, 500, null, null);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String contentType,
+      byte[] response) {
+    try {
+      if (response == null) {
+        exchange.sendResponseHeaders(status, -1);
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(status, response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.FINE, "Failed to respond", e);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private byte[] readBody(HttpExchange exchange) throws IOException {
+    String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+    int expected = contentLength == null ? 256 : (int) Math.min(Long.parseLong(contentLength),
+        maxBodyBytes + 1L);
+    ByteArrayOutputStream body = new ByteArrayOutputStream(expected);
+    byte[] buffer = new byte[Math.max(Math.min(expected, 8192), 1)];
+    try (InputStream in = exchange.getRequestBody()) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        if (body.size() + read > maxBodyBytes) {
+          throw new ReceiverException(413, "Request body too large");
+        }
+        body.write(buffer, 0, read);
+      }
+    }
+    return body.toByteArray();
+  }
+
+  /**
+   * Compare the tokens in constant time.
+   *
+   * @throws ReceiverException if not match
+   */
+  static void verifyToken(byte[] expected, String actual) {
+    byte[] actualBytes = actual == null ? new byte[0] : actual.getBytes(StandardCharsets.UTF_8);
+    if (!MessageDigest.isEqual(expected, actualBytes)) {
+      throw new ReceiverException(401, "Invalid token");
+    }
+  }
+
+  static OutgoingWebhookPayload toOutgoingWebhookPayload(Map<String, String> parameters) {
+    OutgoingWebhookPayload payload = new OutgoingWebhookPayload();
+    payload.setToken(parameters.get("token"));
+    payload.setTeamId(parameters.get("team_id"));
+    payload.setTeamDomain(parameters.get("team_domain"));
+    payload.setChannelId(parameters.get("channel_id"));
+    payload.setChannelName(parameters.get("channel_name"));
+    String timestamp = parameters.get("timestamp");
+    try {
+      payload.setTimestamp(timestamp == null ? 0 : Long.parseLong(timestamp));
+    } catch (NumberFormatException e) {
+      throw new ReceiverException(400, "Invalid timestamp");
+    }
+    payload.setUserId(parameters.get("user_id"));
+    payload.setUserName(parameters.get("user_name"));
+    payload.setPostId(parameters.get("post_id"));
+    payload.setText(parameters.get("text"));
+    payload.setTriggerWord(parameters.get("trigger_word"));
+    return payload;
+  }
+
+  /**
+   * Stop receiving, and wait for the running handlers for a while.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    if (ownExecutor != null) {
+      ownExecutor.shutdown();
+      try {
+        ownExecutor.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static class ReceiverThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "mattermost-receiver-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  public static class IntegrationReceiverBuilder {
+
+    private InetSocketAddress address = new InetSocketAddress(8080);
+    private int backlog;
+    private int threads = Runtime.getRuntime().availableProcessors() * 2;
+    private int queueCapacity = 1024;
+    private Executor executor;
+    private int maxBodyBytes = 64 * 1024;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public IntegrationReceiverBuilder address(InetSocketAddress address) {
+      this.address = address;
+      return this;
+    }
+
+    public IntegrationReceiverBuilder port(int port) {
+      return address(new InetSocketAddress(port));
+    }
+
+    /**
+     * The maximum number of pending connections, {@code 0} for the system default.
+     */
+    public IntegrationReceiverBuilder backlog(int backlog) {
+      this.backlog = backlog;
+      return this;
+    }
+
+    /**
+     * The number of the handler threads. Defaults to twice the number of processors.
+     */
+    public IntegrationReceiverBuilder threads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("threads must be positive");
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * The number of requests waiting for a handler thread. Defaults to 1024.
+     */
+    public IntegrationReceiverBuilder queueCapacity(int queueCapacity) {
+      if (queueCapacity < 1) {
+        throw new IllegalArgumentException("queueCapacity must be positive");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Run the handlers on the executor instead of the bounded pool. The executor is not shut down
+     * by {@link IntegrationReceiver#close()}.
+     */
+    public IntegrationReceiverBuilder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * The maximum size of a request body. Defaults to 64 KiB.
+     */
+    public IntegrationReceiverBuilder maxBodyBytes(int maxBodyBytes) {
+      this.maxBodyBytes = maxBodyBytes;
+      return this;
+    }
+
+    /**
+     * Receive the outgoing webhook at the path. Both {@code application/x-www-form-urlencoded}
+     * and {@code application/json} payloads are accepted.
+     */
+    public IntegrationReceiverBuilder outgoingWebhook(String path, String token,
+        OutgoingWebhookHandler handler) {
+      byte[] expected = token.getBytes(StandardCharsets.UTF_8);
+      return endpoint(path, request -> {
+        OutgoingWebhookPayload payload = toOutgoingWebhookPayload(request.getParameters());
+        verifyToken(expected, payload.getToken());
+        return handler.handle(payload);
+      });
+    }
+
+    /**
+     * Receive the interactive message actions and dialog submissions at the path.
+     */
+    public IntegrationReceiverBuilder actions(String path, ActionDispatcher dispatcher) {
+      return endpoint(path, dispatcher::dispatch);
+    }
+
+    /**
+     * Receive the slash command at the path, sent by either {@code POST} or {@code GET}.
+     */
+    public IntegrationReceiverBuilder slashCommand(String path, String token,
+        SlashCommandHandler handler) {
+      byte[] expected = token.getBytes(StandardCharsets.UTF_8);
+      return endpoint(path, request -> {
+        Map<String, String> parameters = request.getParameters();
+        verifyToken(expected, parameters.get("token"));
+        return handler.handle(new SlashCommandRequest(parameters));
+      });
+    }
+
+    IntegrationReceiverBuilder endpoint(String path, Endpoint endpoint) {
+      if (endpoints.putIfAbsent(path, endpoint) != null) {
+        throw new IllegalArgumentException("Duplicate path: " + path);
+      }
+      return this;
+    }
+
+    /**
+     * Bind the address. Call {@link IntegrationReceiver#start()} to start receiving.
+     */
+    public IntegrationReceiver build() throws IOException {
+      return new IntegrationReceiver(this);
+    }
+  }
+}
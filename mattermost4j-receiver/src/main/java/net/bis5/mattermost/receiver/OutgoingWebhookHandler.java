@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import net.bis5.mattermost.model.CommandResponse;
+import net.bis5.mattermost.model.OutgoingWebhookPayload;
+
+/**
+ * Handles the outgoing webhook requests.
+ *
+ * @author Takayuki Maruyama
+ */
+@FunctionalInterface
+public interface OutgoingWebhookHandler {
+
+  /**
+   * Handle the payload, called after the token is verified.
+   *
+   * @return the response to post, or {@code null} to post nothing
+   */
+  CommandResponse handle(OutgoingWebhookPayload payload) throws Exception;
+
+}
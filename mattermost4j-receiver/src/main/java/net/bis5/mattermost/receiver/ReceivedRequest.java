@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A request received by {@link IntegrationReceiver}.
+ *
+ * @author Takayuki Maruyama
+ */
+final class ReceivedRequest {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final String method;
+  private final String contentType;
+  private final String query;
+  private final byte[] body;
+  private Map<String, String> parameters;
+
+  ReceivedRequest(String method, String contentType, String query, byte[] body) {
+    this.method = method;
+    this.contentType = contentType;
+    this.query = query;
+    this.body = body;
+  }
+
+  String getMethod() {
+    return method;
+  }
+
+  String getQuery() {
+    return query;
+  }
+
+  byte[] getBody() {
+    return body;
+  }
+
+  boolean isJson() {
+    return contentType != null
+        && contentType.regionMatches(true, 0, "application/json", 0, 16);
+  }
+
+  /**
+   * The query parameters of a GET request, the top level fields of a JSON body, or the form
+   * fields. Nested JSON values are skipped.
+   */
+  Map<String, String> getParameters() throws IOException {
+    if (parameters == null) {
+      if ("GET".equals(method)) {
+        parameters = decodeForm(query);
+      } else if (isJson()) {
+        parameters = decodeJson(body);
+      } else {
+        parameters = decodeForm(new String(body, StandardCharsets.UTF_8));
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Decode a URL encoded form, the first value of each field.
+   *
+   * @throws ReceiverException 400 if the form has a malformed escape
+   */
+  static Map<String, String> decodeForm(String form) throws UnsupportedEncodingException {
+    try {
+      return decodeFields(form);
+    } catch (IllegalArgumentException e) {
+      throw new ReceiverException(400, "Malformed form encoding");
+    }
+  }
+
+  private static Map<String, String> decodeFields(String form)
+      throws UnsupportedEncodingException {
+    Map<String, String> result = new HashMap<>();
+    if (form == null || form.isEmpty()) {
+      return result;
+    }
+    int start = 0;
+    while (start <= form.length()) {
+      int end = form.indexOf('&', start);
+      if (end < 0) {
+        end = form.length();
+      }
+      if (end > start) {
+        int separator = form.indexOf('=', start);
+        if (separator < 0 || separator > end) {
+          result.putIfAbsent(URLDecoder.decode(form.substring(start, end), "UTF-8"), "");
+        } else {
+          result.putIfAbsent(URLDecoder.decode(form.substring(start, separator), "UTF-8"),
+              URLDecoder.decode(form.substring(separator + 1, end), "UTF-8"));
+        }
+      }
+      start = end + 1;
+    }
+    return result;
+  }
+
+  static Map<String, String> decodeJson(byte[] json) throws IOException {
+    return decodeJson(json, null, null);
+  }
+
+  /**
+   * Decode the top level scalar fields of a JSON object, and the scalar fields of one nested
+   * object.
+   *
+   * @param objectField the name of the nested object, e.g. {@code context}
+   * @param object receives the fields of the nested object
+   */
+  static Map<String, String> decodeJson(byte[] json, String objectField,
+      Map<String, String> object) throws IOException {
+    Map<String, String> result = new HashMap<>();
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new ReceiverException(400, "JSON object expected");
+      }
+      readObject(parser, result, objectField, object);
+    }
+    return result;
+  }
+
+  private static void readObject(JsonParser parser, Map<String, String> result,
+      String objectField, Map<String, String> object) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+        result.put(name, parser.getText());
+      } else if (value == JsonToken.START_OBJECT && name.equals(objectField)) {
+        readObject(parser, object, null, null);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+}
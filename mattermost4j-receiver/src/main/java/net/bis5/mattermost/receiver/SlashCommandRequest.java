@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import java.util.Collections;
+import java.util.Map;
+import net.bis5.mattermost.model.CommandArgs;
+
+/**
+ * A slash command request.
+ *
+ * @author Takayuki Maruyama
+ */
+public class SlashCommandRequest {
+
+  private final Map<String, String> parameters;
+
+  SlashCommandRequest(Map<String, String> parameters) {
+    this.parameters = parameters;
+  }
+
+  /**
+   * Returns the request as {@link CommandArgs}, the {@code command} is the trigger followed by the
+   * text.
+   */
+  public CommandArgs toCommandArgs() {
+    CommandArgs args = new CommandArgs();
+    args.setUserId(getUserId());
+    args.setChannelId(getChannelId());
+    args.setTeamId(getTeamId());
+    args.setRootId(parameters.get("root_id"));
+    args.setParentId(parameters.get("parent_id"));
+    String text = getText();
+    args.setCommand(text == null || text.isEmpty() ? getCommand() : getCommand() + " " + text);
+    return args;
+  }
+
+  /** The trigger of the command, e.g. {@code /weather}. */
+  public String getCommand() {
+    return parameters.get("command");
+  }
+
+  /** The text after the trigger. */
+  public String getText() {
+    return parameters.get("text");
+  }
+
+  public String getUserId() {
+    return parameters.get("user_id");
+  }
+
+  public String getUserName() {
+    return parameters.get("user_name");
+  }
+
+  public String getChannelId() {
+    return parameters.get("channel_id");
+  }
+
+  public String getChannelName() {
+    return parameters.get("channel_name");
+  }
+
+  public String getTeamId() {
+    return parameters.get("team_id");
+  }
+
+  public String getTeamDomain() {
+    return parameters.get("team_domain");
+  }
+
+  /** The trigger id to open an interactive dialog. */
+  public String getTriggerId() {
+    return parameters.get("trigger_id");
+  }
+
+  /** The URL to post delayed responses to. */
+  public String getResponseUrl() {
+    return parameters.get("response_url");
+  }
+
+  /**
+   * Returns a request parameter, including the ones without a getter.
+   */
+  public String getParameter(String name) {
+    return parameters.get(name);
+  }
+
+  public Map<String, String> getParameters() {
+    return Collections.unmodifiableMap(parameters);
+  }
+
+  @Override
+  public String toString() {
+    return "SlashCommandRequest(command=" + getCommand() + ", text=" + getText() + ", userId="
+        + getUserId() + ", channelId=" + getChannelId() + ")";
+  }
+}
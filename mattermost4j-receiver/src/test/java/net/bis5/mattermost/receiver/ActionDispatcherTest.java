@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationRequest;
+import net.bis5.mattermost.model.PostAction.PostActionIntegrationResponse;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link ActionDispatcher}.
+ */
+class ActionDispatcherTest {
+
+  private static final String ACTION_JSON = "{\"user_id\":\"user1\",\"post_id\":\"post1\","
+      + "\"channel_id\":\"ch1\",\"team_id\":\"team1\",\"type\":\"button\","
+      + "\"context\":{\"action\":\"approve\",\"level\":\"high\"}}";
+
+  private static ReceivedRequest json(String query, String body) {
+    return new ReceivedRequest("POST", "application/json", query,
+        body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Object result(CompletionStage<?> stage) throws Exception {
+    return stage.toCompletableFuture().get(5, TimeUnit.SECONDS);
+  }
+
+  private static ActionHandler reply(String text) {
+    return ActionHandler.of(request -> {
+      PostActionIntegrationResponse response = new PostActionIntegrationResponse();
+      response.setEphemeralText(text + " by " + request.getUserId());
+      return response;
+    });
+  }
+
+  @Test
+  void routeByContext() throws Exception {
+    ActionDispatcher dispatcher = ActionDispatcher.builder()
+        .action("approve", reply("approved"))
+        .action("approve", "level", "high", reply("escalated"))
+        .build();
+
+    Object response = result(dispatcher.dispatch(json(null, ACTION_JSON)));
+    Object other = result(dispatcher.dispatch(json(null, ACTION_JSON.replace("high", "low"))));
+
+    assertThat(((PostActionIntegrationResponse) response).getEphemeralText())
+        .isEqualTo("escalated by user1");
+    assertThat(((PostActionIntegrationResponse) other).getEphemeralText())
+        .isEqualTo("approved by user1");
+  }
+
+  @Test
+  void routeByQueryParameter() throws Exception {
+    AtomicReference<PostActionIntegrationRequest> received = new AtomicReference<>();
+    ActionDispatcher dispatcher = ActionDispatcher.builder()
+        .action("reject", ActionHandler.of(request -> {
+          received.set(request);
+          return null;
+        }))
+        .build();
+
+    assertThat(result(dispatcher.dispatch(json("action=reject", ACTION_JSON)))).isNull();
+    assertThat(received.get().getPostId()).isEqualTo("post1");
+    assertThat(received.get().getTeamId()).isEqualTo("team1");
+    assertThat(received.get().getContext()).containsEntry("level", "high");
+  }
+
+  @Test
+  void unknownAction() {
+    ActionDispatcher dispatcher = ActionDispatcher.builder()
+        .action("approve", "level", "low", reply("approved"))
+        .build();
+
+    assertThatThrownBy(() -> dispatcher.dispatch(json(null, ACTION_JSON)))
+        .isInstanceOf(ReceiverException.class)
+        .extracting(e -> ((ReceiverException) e).getStatus()).isEqualTo(404);
+  }
+
+  @Test
+  void runOnExecutor() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      AtomicReference<String> thread = new AtomicReference<>();
+      ActionDispatcher dispatcher = ActionDispatcher.builder()
+          .executor(executor)
+          .action("approve", request -> {
+            thread.set(Thread.currentThread().getName());
+            CompletableFuture<PostActionIntegrationResponse> future = new CompletableFuture<>();
+            executor.execute(() -> future.completeExceptionally(new IllegalStateException()));
+            return future;
+          })
+          .build();
+
+      CompletionStage<?> stage = dispatcher.dispatch(json(null, ACTION_JSON));
+
+      assertThatThrownBy(() -> result(stage)).hasCauseInstanceOf(IllegalStateException.class);
+      assertThat(thread.get()).isNotEqualTo(Thread.currentThread().getName());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void dialogSubmission() throws Exception {
+    AtomicReference<DialogSubmission> received = new AtomicReference<>();
+    ActionDispatcher dispatcher = ActionDispatcher.builder()
+        .dialog("survey", submission -> {
+          received.set(submission);
+          return CompletableFuture.completedFuture(
+              submission.getSubmission().get("rating").isEmpty()
+                  ? Collections.singletonMap("rating", "Required")
+                  : null);
+        })
+        .build();
+    String body = "{\"type\":\"dialog_submission\",\"callback_id\":\"survey\",\"state\":\"s1\","
+        + "\"user_id\":\"user1\",\"cancelled\":false,\"submission\":{\"rating\":%s}}";
+
+    Object errors = result(dispatcher.dispatch(json(null, String.format(body, "\"\""))));
+    Object closed = result(dispatcher.dispatch(json(null, String.format(body, "\"5\""))));
+
+    assertThat(errors).isEqualTo(
+        Collections.singletonMap("errors", Collections.singletonMap("rating", "Required")));
+    assertThat(closed).isNull();
+    assertThat(received.get().getState()).isEqualTo("s1");
+    assertThat(received.get().isCancelled()).isFalse();
+    assertThat(received.get().getSubmission()).containsEntry("rating", "5");
+  }
+
+  @Test
+  void receiveActions() throws Exception {
+    ActionDispatcher dispatcher = ActionDispatcher.builder()
+        .action("approve", reply("approved"))
+        .build();
+    try (IntegrationReceiver receiver = IntegrationReceiver.builder()
+        .address(new InetSocketAddress("localhost", 0))
+        .actions("/actions", dispatcher)
+        .build()) {
+      receiver.start();
+      URL url = new URL("http://localhost:" + receiver.getAddress().getPort() + "/actions");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(ACTION_JSON.getBytes(StandardCharsets.UTF_8));
+      }
+
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(read(connection.getInputStream()))
+          .contains("\"ephemeral_text\":\"approved by user1\"");
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream stream = in) {
+      byte[] buffer = new byte[1024];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
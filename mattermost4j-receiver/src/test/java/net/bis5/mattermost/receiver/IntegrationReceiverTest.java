@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import net.bis5.mattermost.model.CommandResponse;
+import net.bis5.mattermost.model.CommandResponseType;
+import net.bis5.mattermost.model.OutgoingWebhookPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link IntegrationReceiver}.
+ */
+class IntegrationReceiverTest {
+
+  private final AtomicReference<SlashCommandRequest> command = new AtomicReference<>();
+  private final AtomicReference<OutgoingWebhookPayload> webhook = new AtomicReference<>();
+  private IntegrationReceiver receiver;
+
+  @BeforeEach
+  void setup() throws IOException {
+    receiver = IntegrationReceiver.builder()
+        .address(new InetSocketAddress("localhost", 0))
+        .threads(2)
+        .maxBodyBytes(1024)
+        .slashCommand("/weather", "command-token", request -> {
+          command.set(request);
+          CommandResponse response = new CommandResponse();
+          response.setResponseType(CommandResponseType.Ephemeral);
+          response.setText("Sunny in " + request.getText());
+          return response;
+        })
+        .slashCommand("/broken", "command-token", request -> {
+          throw new IllegalStateException("broken");
+        })
+        .outgoingWebhook("/hook", "hook-token", payload -> {
+          webhook.set(payload);
+          return null;
+        })
+        .build();
+    receiver.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    receiver.close();
+  }
+
+  private static class Reply {
+    int status;
+    String body;
+  }
+
+  private Reply send(String method, String path, String contentType, String body)
+      throws IOException {
+    URL url = new URL("http://localhost:" + receiver.getAddress().getPort() + path);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod(method);
+    if (body != null) {
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", contentType);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    Reply reply = new Reply();
+    reply.status = connection.getResponseCode();
+    InputStream in = reply.status < 400 ? connection.getInputStream()
+        : connection.getErrorStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (in != null) {
+      try (InputStream stream = in) {
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+      }
+    }
+    reply.body = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    return reply;
+  }
+
+  private static final String FORM = "application/x-www-form-urlencoded";
+
+  @Test
+  void slashCommandForm() throws IOException {
+    Reply reply = send("POST", "/weather", FORM, "token=command-token&team_id=team1"
+        + "&channel_id=ch1&user_id=user1&user_name=alice&command=%2Fweather&text=Tokyo+Japan"
+        + "&trigger_id=trigger1&response_url=http%3A%2F%2Fexample.com%2Fhooks%2F1");
+
+    assertThat(reply.status).isEqualTo(200);
+    assertThat(reply.body).contains("\"response_type\":\"ephemeral\"",
+        "\"text\":\"Sunny in Tokyo Japan\"");
+    SlashCommandRequest request = command.get();
+    assertThat(request.getUserName()).isEqualTo("alice");
+    assertThat(request.getTriggerId()).isEqualTo("trigger1");
+    assertThat(request.getResponseUrl()).isEqualTo("http://example.com/hooks/1");
+    assertThat(request.toCommandArgs().getCommand()).isEqualTo("/weather Tokyo Japan");
+    assertThat(request.toCommandArgs().getChannelId()).isEqualTo("ch1");
+    assertThat(receiver.getHandledCount()).isEqualTo(1);
+  }
+
+  @Test
+  void slashCommandGet() throws IOException {
+    Reply reply = send("GET", "/weather?token=command-token&command=%2Fweather&text=Osaka",
+        null, null);
+
+    assertThat(reply.status).isEqualTo(200);
+    assertThat(reply.body).contains("Sunny in Osaka");
+  }
+
+  @Test
+  void outgoingWebhookJson() throws IOException {
+    Reply reply = send("POST", "/hook", "application/json; charset=utf-8",
+        "{\"token\":\"hook-token\",\"team_id\":\"team1\",\"channel_id\":\"ch1\","
+            + "\"timestamp\":1600000000000,\"user_name\":\"bob\",\"post_id\":\"post1\","
+            + "\"text\":\"deploy now\",\"trigger_word\":\"deploy\",\"file_ids\":[\"f1\"]}");
+
+    assertThat(reply.status).isEqualTo(200);
+    assertThat(reply.body).isEmpty();
+    OutgoingWebhookPayload payload = webhook.get();
+    assertThat(payload.getTimestamp()).isEqualTo(1600000000000L);
+    assertThat(payload.getUserName()).isEqualTo("bob");
+    assertThat(payload.getText()).isEqualTo("deploy now");
+    assertThat(payload.getTriggerWord()).isEqualTo("deploy");
+  }
+
+  @Test
+  void rejectInvalidRequests() throws IOException {
+    assertThat(send("POST", "/hook", FORM, "token=command-token&text=x").status)
+        .isEqualTo(401);
+    assertThat(send("POST", "/weather", FORM, "text=x").status).isEqualTo(401);
+    assertThat(send("POST", "/weatherx", FORM, "token=command-token").status).isEqualTo(404);
+    assertThat(send("PUT", "/weather", FORM, "token=command-token").status).isEqualTo(405);
+    assertThat(send("POST", "/hook", "application/json", "[1]").status).isEqualTo(400);
+    assertThat(send("POST", "/weather", FORM, "token=command-token&text=%zz").status)
+        .isEqualTo(400);
+    StringBuilder large = new StringBuilder("token=command-token&text=");
+    for (int i = 0; i < 1024; i++) {
+      large.append('a');
+    }
+    assertThat(send("POST", "/weather", FORM, large.toString()).status).isEqualTo(413);
+    assertThat(send("POST", "/broken", FORM, "token=command-token").status).isEqualTo(500);
+    assertThat(command.get()).isNull();
+    assertThat(webhook.get()).isNull();
+    assertThat(receiver.getFailedCount()).isEqualTo(8);
+  }
+}
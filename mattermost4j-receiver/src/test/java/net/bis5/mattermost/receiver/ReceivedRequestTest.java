@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026-present, Takayuki Maruyama
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.bis5.mattermost.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link ReceivedRequest}.
+ */
+class ReceivedRequestTest {
+
+  @Test
+  void decodeForm() throws IOException {
+    assertThat(ReceivedRequest.decodeForm("a=1&b=x+y%26z&c&&d=&a=2&e=%E3%81%82"))
+        .containsOnly(entry("a", "1"), entry("b", "x y&z"), entry("c", ""), entry("d", ""),
+            entry("e", "あ"));
+    assertThat(ReceivedRequest.decodeForm(null)).isEmpty();
+  }
+
+  @Test
+  void rejectMalformedForm() {
+    assertThatThrownBy(() -> ReceivedRequest.decodeForm("a=%zz"))
+        .isInstanceOf(ReceiverException.class)
+        .extracting(e -> ((ReceiverException) e).getStatus()).isEqualTo(400);
+  }
+
+  @Test
+  void decodeJson() throws IOException {
+    byte[] json = "{\"a\":\"1\",\"b\":2,\"c\":true,\"d\":null,\"e\":{\"f\":\"g\"},\"h\":[1]}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    assertThat(ReceivedRequest.decodeJson(json))
+        .containsOnly(entry("a", "1"), entry("b", "2"), entry("c", "true"));
+  }
+
+  @Test
+  void parametersByMethodAndContentType() throws IOException {
+    byte[] form = "a=1".getBytes(StandardCharsets.UTF_8);
+    byte[] json = "{\"a\":\"2\"}".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(new ReceivedRequest("GET", null, "a=3", new byte[0]).getParameters())
+        .containsEntry("a", "3");
+    assertThat(new ReceivedRequest("POST", "application/x-www-form-urlencoded", "a=3", form)
+        .getParameters()).containsEntry("a", "1");
+    assertThat(new ReceivedRequest("POST", "Application/JSON", null, json).getParameters())
+        .containsEntry("a", "2");
+  }
+}